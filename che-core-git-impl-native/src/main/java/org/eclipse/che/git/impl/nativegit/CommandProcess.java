@@ -71,12 +71,13 @@ public class CommandProcess {
         try (LineConsumer consumer = new CompositeLineConsumer(lineConsumer, command)) {
             Process process;
             try {
-                process = ProcessUtil.execute(pb, consumer);
+                pb.redirectErrorStream(true);
+                process = pb.start();
             } catch (IOException e) {
                 LOG.error("Process creating failed", e);
                 throw new GitException("It is not possible to execute command");
             }
-            // process will be stopped after timeout
+            // process will be stopped after timeout, start watching before reading output since command may hang while it writes output
             Watchdog watcher = null;
             if (command.getTimeout() > 0) {
                 watcher = new Watchdog(command.getTimeout(), TimeUnit.SECONDS);
@@ -84,6 +85,13 @@ public class CommandProcess {
             }
 
             try {
+                try {
+                    ProcessUtil.process(process, consumer);
+                } catch (IOException e) {
+                    LOG.error("Unable read output of command", e);
+                    ProcessUtil.kill(process);
+                    throw new GitException("It is not possible to execute command");
+                }
                 process.waitFor();
                 /*
                  * Check process exit value and search for correct error message without hint and warning messages ant throw it to user.
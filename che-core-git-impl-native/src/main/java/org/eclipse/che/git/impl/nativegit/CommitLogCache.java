@@ -0,0 +1,217 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.git.impl.nativegit;
+
+import org.eclipse.che.api.git.shared.GitUser;
+import org.eclipse.che.api.git.shared.Revision;
+import org.eclipse.che.dto.server.DtoFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps metadata of commits reachable from HEAD for recently used repositories, so repeated requests of log and list of committers
+ * don't walk the whole history with git. Entry of repository is valid while HEAD points to the same commit, HEAD is resolved by reading
+ * of files in {@code .git} directory without running of git.
+ * <p/>
+ * Metadata is kept in compact immutable form, DTOs are created on each request only for requested commits. Cache is bounded by number of
+ * repositories and by total number of commits of all repositories, history that is longer than the limit is not cached at all.
+ */
+class CommitLogCache {
+    private static final Logger LOG = LoggerFactory.getLogger(CommitLogCache.class);
+
+    private final Map<String, Entry> entries;
+    private final int                maxRepositories;
+    private final int                maxRevisions;
+
+    /** Total number of commits in all entries. */
+    private int revisions;
+
+    CommitLogCache(int maxRepositories, int maxRevisions) {
+        this.maxRepositories = maxRepositories;
+        this.maxRevisions = maxRevisions;
+        entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /** Gets cached history of repository or {@code null} if there is no history for the current HEAD of repository. */
+    synchronized Entry get(File repository, String head) {
+        final Entry entry = entries.get(repository.getAbsolutePath());
+        return entry != null && entry.head.equals(head) ? entry : null;
+    }
+
+    /**
+     * Caches history of repository.
+     *
+     * @param repository
+     *         working directory of repository
+     * @param head
+     *         id of commit that is HEAD of repository
+     * @param revisions
+     *         all commits reachable from {@code head} in order of git log
+     */
+    Entry put(File repository, String head, List<Revision> revisions) {
+        final Entry entry = new Entry(head, revisions);
+        synchronized (this) {
+            final Entry previous = entries.remove(repository.getAbsolutePath());
+            if (previous != null) {
+                this.revisions -= previous.size();
+            }
+            if (entry.size() <= maxRevisions) {
+                entries.put(repository.getAbsolutePath(), entry);
+                this.revisions += entry.size();
+                // Evict the least recently used histories, the new one is the last in iteration order.
+                final Iterator<Entry> eldest = entries.values().iterator();
+                while (entries.size() > maxRepositories || this.revisions > maxRevisions) {
+                    this.revisions -= eldest.next().size();
+                    eldest.remove();
+                }
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Resolves id of commit that is HEAD of repository.
+     *
+     * @return id of commit or {@code null} if it can't be resolved, e.g. repository has no commits yet
+     */
+    static String resolveHead(File repository) {
+        final File gitDir = new File(repository, ".git");
+        try {
+            final File headFile = new File(gitDir, "HEAD");
+            if (!headFile.isFile()) {
+                return null;
+            }
+            final String head = new String(Files.readAllBytes(headFile.toPath()), StandardCharsets.UTF_8).trim();
+            if (!head.startsWith("ref: ")) {
+                return head.isEmpty() ? null : head; // detached HEAD
+            }
+            final String ref = head.substring(5);
+            final File refFile = new File(gitDir, ref);
+            if (refFile.isFile()) {
+                final String id = new String(Files.readAllBytes(refFile.toPath()), StandardCharsets.UTF_8).trim();
+                return id.isEmpty() ? null : id;
+            }
+            final File packedRefs = new File(gitDir, "packed-refs");
+            if (packedRefs.isFile()) {
+                try (BufferedReader reader = Files.newBufferedReader(packedRefs.toPath(), StandardCharsets.UTF_8)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (line.endsWith(' ' + ref)) {
+                            return line.substring(0, line.indexOf(' '));
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            LOG.warn("Unable resolve HEAD of repository {}: {}", repository, e.getMessage());
+        }
+        return null;
+    }
+
+    static class Entry {
+        final String head;
+
+        private final String[] ids;
+        private final long[]   commitTimes;
+        private final String[] messages;
+        /** Index of committer of each commit in {@link #committers}. */
+        private final int[]    committerIndexes;
+        /** Distinct committers, each committer is pair of name and email, in order of the first commit. */
+        private final String[] committers;
+
+        Entry(String head, List<Revision> revisions) {
+            this.head = head;
+            final int size = revisions.size();
+            ids = new String[size];
+            commitTimes = new long[size];
+            messages = new String[size];
+            committerIndexes = new int[size];
+            final Map<String, Integer> committerIndex = new LinkedHashMap<>();
+            int i = 0;
+            for (Revision revision : revisions) {
+                ids[i] = revision.getId();
+                commitTimes[i] = revision.getCommitTime();
+                messages[i] = revision.getMessage();
+                final GitUser committer = revision.getCommitter();
+                final String key = committer == null ? "" : committer.getName() + '\u0000' + committer.getEmail();
+                Integer index = committerIndex.get(key);
+                if (index == null) {
+                    committerIndex.put(key, index = committerIndex.size());
+                }
+                committerIndexes[i] = index;
+                i++;
+            }
+            committers = committerIndex.keySet().toArray(new String[committerIndex.size()]);
+        }
+
+        /** Number of commits. */
+        int size() {
+            return ids.length;
+        }
+
+        /**
+         * Gets page of history.
+         *
+         * @param skip
+         *         number of skipped commits
+         * @param maxCount
+         *         max number of commits, {@code 0} means no limit
+         */
+        List<Revision> getRevisions(int skip, int maxCount) {
+            final int from = Math.min(Math.max(skip, 0), ids.length);
+            final int to = maxCount > 0 ? (int)Math.min((long)from + maxCount, ids.length) : ids.length;
+            final List<Revision> result = new ArrayList<>(to - from);
+            final DtoFactory dtoFactory = DtoFactory.getInstance();
+            for (int i = from; i < to; i++) {
+                result.add(dtoFactory.createDto(Revision.class)
+                                     .withId(ids[i])
+                                     .withMessage(messages[i])
+                                     .withCommitTime(commitTimes[i])
+                                     .withCommitter(newUser(committers[committerIndexes[i]])));
+            }
+            return result;
+        }
+
+        /** Gets distinct committers of all commits. */
+        List<GitUser> getCommitters() {
+            final List<GitUser> result = new ArrayList<>(committers.length);
+            for (String committer : committers) {
+                final GitUser user = newUser(committer);
+                if (user != null) {
+                    result.add(user);
+                }
+            }
+            return result;
+        }
+
+        private static GitUser newUser(String committer) {
+            final int separator = committer.indexOf('\u0000');
+            if (separator < 0) {
+                return null; // commit without committer
+            }
+            return DtoFactory.getInstance().createDto(GitUser.class)
+                             .withName(committer.substring(0, separator))
+                             .withEmail(committer.substring(separator + 1));
+        }
+    }
+}
@@ -84,7 +84,6 @@ import java.net.URISyntaxException;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.regex.Pattern;
 
@@ -105,6 +104,8 @@ public class NativeGitConnection implements GitConnection {
     private final NativeGit         nativeGit;
 
     private static final Pattern notInGitRepoErrorPattern = Pattern.compile("^fatal: Not a git repository.*(\\n.*)*$", Pattern.MULTILINE);
+    /** History of HEAD of recently used repositories, not more than 16 repositories and 100000 commits in total. */
+    private static final CommitLogCache LOG_CACHE = new CommitLogCache(16, 100000);
     private final CredentialsLoader credentialsLoader;
     private final File mountRoot;
 
@@ -307,7 +308,7 @@ public class NativeGitConnection implements GitConnection {
 
         try {
             command.execute();
-            LogCommand log = nativeGit.createLogCommand();
+            LogCommand log = nativeGit.createLogCommand().setCount(1);
             Revision rev = log.execute().get(0);
             rev.setBranch(getCurrentBranch());
             return rev;
@@ -362,7 +363,32 @@ public class NativeGitConnection implements GitConnection {
     @Override
     public LogPage log(LogRequest request) throws GitException {
         ensureExistenceRepoRootInWorkingDirectory();
-        return new LogPage(nativeGit.createLogCommand().execute());
+        final LogCommand log = nativeGit.createLogCommand()
+                                        .setSkip(request.getSkip())
+                                        .setCount(request.getMaxCount())
+                                        .setRevisionRange(request.getRevisionRangeSince(), request.getRevisionRangeUntil())
+                                        .setFileFilter(request.getFileFilter());
+        final boolean headHistory = request.getRevisionRangeSince() == null && request.getRevisionRangeUntil() == null
+                                    && (request.getFileFilter() == null || request.getFileFilter().isEmpty());
+        if (!headHistory) {
+            return new LogPage(log.execute());
+        }
+        final File repository = nativeGit.getRepository();
+        final String head = CommitLogCache.resolveHead(repository);
+        if (head != null) {
+            final CommitLogCache.Entry cached = LOG_CACHE.get(repository, head);
+            if (cached != null) {
+                return new LogPage(cached.getRevisions(request.getSkip(), request.getMaxCount()));
+            }
+            if (request.getSkip() <= 0 && request.getMaxCount() <= 0) {
+                // Whole history is requested, remember it for the next requests.
+                final List<Revision> revisions = log.execute();
+                LOG_CACHE.put(repository, head, revisions);
+                return new LogPage(revisions);
+            }
+        }
+        // Let git read only requested page.
+        return new LogPage(log.execute());
     }
 
     @Override
@@ -521,12 +547,14 @@ public class NativeGitConnection implements GitConnection {
     @Override
     public List<GitUser> getCommiters() throws GitException {
         ensureExistenceRepoRootInWorkingDirectory();
-        List<GitUser> users = new LinkedList<>();
-        List<Revision> revList = nativeGit.createLogCommand().execute();
-        for (Revision rev : revList) {
-            users.add(rev.getCommitter());
+        final File repository = nativeGit.getRepository();
+        final String head = CommitLogCache.resolveHead(repository);
+        CommitLogCache.Entry history = head == null ? null : LOG_CACHE.get(repository, head);
+        if (history == null) {
+            final List<Revision> revisions = nativeGit.createLogCommand().execute();
+            history = head == null ? new CommitLogCache.Entry(null, revisions) : LOG_CACHE.put(repository, head, revisions);
         }
-        return users;
+        return history.getCommitters();
     }
 
     @Override
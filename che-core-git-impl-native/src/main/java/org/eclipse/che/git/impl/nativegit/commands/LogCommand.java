@@ -16,18 +16,26 @@ import org.eclipse.che.api.git.shared.GitUser;
 import org.eclipse.che.api.git.shared.Revision;
 
 import java.io.File;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Show commit logs
+ * Show commit logs. Commits are parsed while git writes them, so raw output of command is not kept in memory.
  *
  * @author Eugene Voevodin
  */
 public class LogCommand extends GitCommand<List<Revision>> {
+    /** Committer name, committer email, commit time, commit id and subject separated with NUL character. */
+    private static final String FORMAT = "--format=%cn%x00%ce%x00%ct%x00%H%x00%s";
 
-    private int    count;
-    private String branch;
+    private int          count;
+    private int          skip;
+    private String       branch;
+    private String       revisionRangeSince;
+    private String       revisionRangeUntil;
+    private List<String> fileFilter;
+
+    private List<Revision> revisions;
 
     public LogCommand(File place) {
         super(place);
@@ -36,36 +44,43 @@ public class LogCommand extends GitCommand<List<Revision>> {
     /** @see GitCommand#execute() */
     @Override
     public List<Revision> execute() throws GitException {
+        checkRevision(revisionRangeSince);
+        checkRevision(revisionRangeUntil);
+        checkRevision(branch);
         reset();
-        commandLine.add("log")
-                   .add("--format=%an#%ae#%cn#%ce#%cd#%H#%s")
-                   .add("--date=raw");
-        if (branch != null) {
-            commandLine.add(branch);
+        revisions = new ArrayList<>();
+        commandLine.add("log").add(FORMAT);
+        if (skip > 0) {
+            commandLine.add("--skip=" + skip);
         }
         if (count > 0) {
             commandLine.add("-" + count);
         }
+        if (revisionRangeSince != null) {
+            commandLine.add(revisionRangeSince + ".." + (revisionRangeUntil == null ? "" : revisionRangeUntil));
+        } else if (revisionRangeUntil != null) {
+            commandLine.add(revisionRangeUntil);
+        } else if (branch != null) {
+            commandLine.add(branch);
+        }
+        if (fileFilter != null && !fileFilter.isEmpty()) {
+            commandLine.add("--").add(fileFilter);
+        }
         start();
-        List<Revision> list = new LinkedList<>();
-        final DtoFactory dtoFactory = DtoFactory.getInstance();
-        for (String oneRev : lines) {
-            String[] elements = oneRev.split("#");
-            GitUser committer = dtoFactory.createDto(GitUser.class).withName(elements[2]).withEmail(elements[3]);
-            long commitTime = Long.parseLong(elements[4].substring(0, elements[4].indexOf(" "))) * 1000L;
-            String commitId = elements[5];
-            StringBuilder commitMessage = new StringBuilder();
-            for (int i = 6; i < elements.length; i++) {
-                commitMessage.append(elements[i]);
-            }
-            Revision revision = dtoFactory.createDto(Revision.class)
-                                          .withId(commitId)
-                                          .withMessage(commitMessage.toString())
-                                          .withCommitTime(commitTime)
-                                          .withCommitter(committer);
-            list.add(revision);
+        final List<Revision> result = revisions;
+        revisions = null;
+        return result;
+    }
+
+    @Override
+    public void writeLine(String line) {
+        final Revision revision = revisions == null ? null : parseRevision(line);
+        if (revision != null) {
+            revisions.add(revision);
+        } else {
+            // Not a commit, e.g. error message, keep it as is.
+            super.writeLine(line);
         }
-        return list;
     }
 
     /**
@@ -78,6 +93,16 @@ public class LogCommand extends GitCommand<List<Revision>> {
         return this;
     }
 
+    /**
+     * @param skip
+     *         number of commits to skip
+     * @return LogCommand with established number of skipped commits
+     */
+    public LogCommand setSkip(int skip) {
+        this.skip = skip;
+        return this;
+    }
+
     /**
      * @param branch
      *         branch
@@ -87,4 +112,54 @@ public class LogCommand extends GitCommand<List<Revision>> {
         this.branch = branch;
         return this;
     }
+
+    /**
+     * @param since
+     *         commits reachable from this revision are excluded, may be {@code null}
+     * @param until
+     *         show commits reachable from this revision, if {@code null} HEAD is used
+     * @return LogCommand with established revision range, it overrides branch
+     */
+    public LogCommand setRevisionRange(String since, String until) {
+        this.revisionRangeSince = since;
+        this.revisionRangeUntil = until;
+        return this;
+    }
+
+    /**
+     * @param fileFilter
+     *         show only commits that change any of these paths
+     * @return LogCommand with established file filter
+     */
+    public LogCommand setFileFilter(List<String> fileFilter) {
+        this.fileFilter = fileFilter;
+        return this;
+    }
+
+    /** Revisions come from client, value that starts with '-' would be taken by git as option, e.g. --output=file. */
+    private static void checkRevision(String revision) throws GitException {
+        if (revision != null && revision.startsWith("-")) {
+            throw new GitException(String.format("Invalid revision: %s", revision));
+        }
+    }
+
+    private static Revision parseRevision(String line) {
+        final String[] elements = line.split("\u0000", 5);
+        if (elements.length != 5) {
+            return null;
+        }
+        final long commitTime;
+        try {
+            commitTime = Long.parseLong(elements[2]) * 1000L;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        final DtoFactory dtoFactory = DtoFactory.getInstance();
+        final GitUser committer = dtoFactory.createDto(GitUser.class).withName(elements[0]).withEmail(elements[1]);
+        return dtoFactory.createDto(Revision.class)
+                         .withId(elements[3])
+                         .withMessage(elements[4])
+                         .withCommitTime(commitTime)
+                         .withCommitter(committer);
+    }
 }
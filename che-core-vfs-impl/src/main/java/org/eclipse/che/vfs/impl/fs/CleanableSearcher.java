@@ -18,7 +18,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static org.eclipse.che.commons.lang.IoUtil.deleteRecursive;
@@ -32,28 +31,27 @@ public class CleanableSearcher extends FSIndexSearcher {
     private static final Logger LOG = LoggerFactory.getLogger(CleanableSearcher.class);
     private final CleanableSearcherProvider searcherService;
 
-    private final AtomicBoolean              initFlag;
     private final AtomicReference<Exception> initError;
 
     CleanableSearcher(CleanableSearcherProvider searcherService, java.io.File indexDir, VirtualFileFilter filter) {
         super(indexDir, filter);
         this.searcherService = searcherService;
-        initFlag = new AtomicBoolean();
         initError = new AtomicReference<>();
     }
 
     @Override
     public void init(final MountPoint mountPoint) throws ServerException {
-        doInit();
+        doInit(mountPoint);
         final ExecutorService executor = searcherService.getExecutor();
         if (!executor.isShutdown()) {
             executor.execute(new Runnable() {
                 @Override
                 public void run() {
                     try {
-                        CleanableSearcher.this.addTree(mountPoint.getRoot());
-                        initFlag.set(true);
-                    } catch (ServerException e) {
+                        // Walk tree in this thread and index files in other threads of the same executor.
+                        CleanableSearcher.this.addTree(mountPoint.getRoot(), executor, searcherService.getIndexThreads());
+                        setIndexComplete();
+                    } catch (ServerException | RuntimeException e) {
                         initError.set(e);
                         LOG.error(e.getMessage());
                     }
@@ -69,7 +67,7 @@ public class CleanableSearcher extends FSIndexSearcher {
 
     // for test
     boolean initialized() {
-        return initFlag.get();
+        return isIndexComplete();
     }
 
     @Override
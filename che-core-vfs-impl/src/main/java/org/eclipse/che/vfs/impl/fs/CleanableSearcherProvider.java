@@ -15,8 +15,6 @@ import org.eclipse.che.api.vfs.server.MountPoint;
 import org.eclipse.che.api.vfs.server.VirtualFileFilter;
 import org.eclipse.che.api.vfs.server.search.LuceneSearcherProvider;
 import org.eclipse.che.api.vfs.server.search.Searcher;
-import org.eclipse.che.api.vfs.server.util.MediaTypeFilter;
-import org.eclipse.che.api.vfs.server.util.VirtualFileFilters;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import javax.annotation.PreDestroy;
@@ -25,7 +23,6 @@ import javax.inject.Named;
 import javax.inject.Singleton;
 import java.io.IOException;
 import java.nio.file.Files;
-import java.util.Iterator;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -44,13 +41,15 @@ public class CleanableSearcherProvider extends LuceneSearcherProvider {
     private final ExecutorService                                executor;
     private final java.io.File                                   indexRootDir;
     private final Set<VirtualFileFilter>                         filters;
+    private final int                                            indexThreads;
 
     @Inject
     CleanableSearcherProvider(@Named("vfs.local.fs_index_root_dir") java.io.File indexRootDir,
                               @Named("vfs.index_filter") Set<VirtualFileFilter> filters) {
         this.indexRootDir = indexRootDir;
         this.filters = filters;
-        executor = Executors.newFixedThreadPool(1 + Runtime.getRuntime().availableProcessors(),
+        indexThreads = Runtime.getRuntime().availableProcessors();
+        executor = Executors.newFixedThreadPool(1 + indexThreads,
                                                 new ThreadFactoryBuilder().setNameFormat("LocalVirtualFileSystem-CleanableSearcher-%d")
                                                                           .setDaemon(true).build());
         instances = new ConcurrentHashMap<>();
@@ -66,19 +65,7 @@ public class CleanableSearcherProvider extends LuceneSearcherProvider {
             try {
                 Files.createDirectories(indexRootDir.toPath());
                 myIndexDir = Files.createTempDirectory(indexRootDir.toPath(), null).toFile();
-                final VirtualFileFilter filter;
-                if (!filters.isEmpty()) {
-                    final VirtualFileFilter[] myFilters = new VirtualFileFilter[filters.size() + 1];
-                    final Iterator<VirtualFileFilter> iterator = filters.iterator();
-                    for (int i = 1; i < myFilters.length; i++) {
-                        myFilters[i] = iterator.next();
-                    }
-                    myFilters[0] = new MediaTypeFilter(getIndexedMediaTypes());
-                    filter = VirtualFileFilters.createAndFilter(myFilters);
-                } else {
-                    filter = new MediaTypeFilter(getIndexedMediaTypes());
-                }
-                newSearcher = new CleanableSearcher(this, myIndexDir, filter);
+                newSearcher = new CleanableSearcher(this, myIndexDir, createIndexFilter(filters));
             } catch (IOException e) {
                 throw new ServerException("Unable create searcher. " + e.getMessage(), e);
             }
@@ -110,5 +97,10 @@ public class CleanableSearcherProvider extends LuceneSearcherProvider {
     ExecutorService getExecutor() {
         return executor;
     }
+
+    /** Number of threads that read and index files while initial index of mount point is built. */
+    int getIndexThreads() {
+        return indexThreads;
+    }
 }
 
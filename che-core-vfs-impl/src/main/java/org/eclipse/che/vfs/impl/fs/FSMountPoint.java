@@ -46,9 +46,8 @@ import org.eclipse.che.api.vfs.shared.dto.VirtualFileSystemInfo;
 import org.eclipse.che.api.vfs.shared.dto.VirtualFileSystemInfo.BasicPermissions;
 import org.eclipse.che.commons.lang.NameGenerator;
 import org.eclipse.che.commons.lang.Pair;
-import org.eclipse.che.commons.lang.cache.Cache;
-import org.eclipse.che.commons.lang.cache.LoadingValueSLRUCache;
-import org.eclipse.che.commons.lang.cache.SynchronizedCache;
+import org.eclipse.che.commons.lang.cache.CacheStats;
+import org.eclipse.che.commons.lang.cache.ConcurrentLoadingValueSLRUCache;
 import org.eclipse.che.commons.lang.ws.rs.ExtMediaType;
 import org.eclipse.che.dto.server.DtoFactory;
 
@@ -56,8 +55,7 @@ import com.google.common.annotations.Beta;
 import com.google.common.collect.Sets;
 import com.google.common.hash.HashFunction;
 import com.google.common.hash.Hashing;
-import com.google.common.io.ByteSource;
-import com.google.common.io.ByteStreams;
+import com.google.common.io.Files;
 
 import org.apache.commons.codec.binary.Base64;
 import org.slf4j.Logger;
@@ -74,6 +72,7 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -81,10 +80,12 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
@@ -120,6 +121,11 @@ public class FSMountPoint implements MountPoint {
     private static final int MAX_BUFFER_SIZE  = 200 * 1024; // 200k
     private static final int COPY_BUFFER_SIZE = 8 * 1024; // 8k
 
+    /** Extensions of files that are stored in zip archive without compression. */
+    private static final Set<String> COMPRESSED_FILE_EXTENSIONS =
+            Sets.newHashSet("zip", "jar", "war", "ear", "gz", "tgz", "bz2", "xz", "7z", "rar",
+                            "png", "jpg", "jpeg", "gif", "ico", "mp3", "mp4", "avi", "woff", "woff2");
+
     private static final long LOCK_FILE_TIMEOUT     = 60000; // 60 seconds
     private static final int  FILE_LOCK_MAX_THREADS = 1024;
 
@@ -134,6 +140,14 @@ public class FSMountPoint implements MountPoint {
     static final String PROPS_DIR              = SERVICE_DIR + java.io.File.separatorChar + "props";
     static final String PROPERTIES_FILE_SUFFIX = "_props";
 
+    /** Index of MD5 digests of files of folder, see {@link #countMd5Sums(VirtualFileImpl)}. */
+    static final String MD5_INDEX_FILE = SERVICE_DIR + java.io.File.separatorChar + "md5";
+    /**
+     * Digest of file modified within this time (in milliseconds) before counting is not saved in index. Resolution of
+     * last modification time is low on some file systems and file may be changed again without updating its timestamp.
+     */
+    private static final long MD5_INDEX_MODIFICATION_GRANULARITY = 2000;
+
 
     /** Hide .vfs directory. */
     private static final java.io.FilenameFilter SERVICE_DIR_FILTER = new java.io.FilenameFilter() {
@@ -167,11 +181,20 @@ public class FSMountPoint implements MountPoint {
 
     private static final FileLock NO_LOCK = new FileLock("no_lock", 0);
 
-    private class FileLockCache extends LoadingValueSLRUCache<Path, FileLock> {
-        FileLockCache() {
+    /** Partition of cache of data related to path. */
+    private abstract static class PathCache<V> extends ConcurrentLoadingValueSLRUCache<Path, V> {
+        PathCache() {
             super(PARTITION_PROTECTED_SIZE, PARTITION_PROBATIONARY_SIZE);
         }
 
+        /** Removes from cache entries for specified path and all its children. */
+        void invalidate(Path path) {
+            // values which are being loaded are removed as well, otherwise they may be cached stale
+            removeIf(key -> key.equals(path) || key.isChild(path));
+        }
+    }
+
+    private class FileLockCache extends PathCache<FileLock> {
         @Override
         protected FileLock loadValue(Path key) {
             DataInputStream dis = null;
@@ -201,11 +224,7 @@ public class FSMountPoint implements MountPoint {
     }
 
 
-    private class FileMetadataCache extends LoadingValueSLRUCache<Path, Map<String, String[]>> {
-        FileMetadataCache() {
-            super(PARTITION_PROTECTED_SIZE, PARTITION_PROBATIONARY_SIZE);
-        }
-
+    private class FileMetadataCache extends PathCache<Map<String, String[]>> {
         @Override
         protected Map<String, String[]> loadValue(Path key) {
             DataInputStream dis = null;
@@ -234,11 +253,7 @@ public class FSMountPoint implements MountPoint {
     }
 
 
-    private class AccessControlListCache extends LoadingValueSLRUCache<Path, AccessControlList> {
-        private AccessControlListCache() {
-            super(PARTITION_PROTECTED_SIZE, PARTITION_PROBATIONARY_SIZE);
-        }
-
+    private class AccessControlListCache extends PathCache<AccessControlList> {
         @Override
         protected AccessControlList loadValue(Path key) {
             DataInputStream dis = null;
@@ -289,16 +304,19 @@ public class FSMountPoint implements MountPoint {
     private final VirtualFileImpl root;
 
     /* ----- Access control list feature. ----- */
-    private final AccessControlListSerializer      aclSerializer;
-    private final Cache<Path, AccessControlList>[] aclCache;
+    private final AccessControlListSerializer    aclSerializer;
+    private final PathCache<AccessControlList>[] aclCache;
 
     /* ----- Virtual file system lock feature. ----- */
-    private final FileLockSerializer      locksSerializer;
-    private final Cache<Path, FileLock>[] lockTokensCache;
+    private final FileLockSerializer    locksSerializer;
+    private final PathCache<FileLock>[] lockTokensCache;
 
     /* ----- File metadata. ----- */
-    private final FileMetadataSerializer               metadataSerializer;
-    private final Cache<Path, Map<String, String[]>>[] metadataCache;
+    private final FileMetadataSerializer             metadataSerializer;
+    private final PathCache<Map<String, String[]>>[] metadataCache;
+
+    /* ----- Index of MD5 digests. ----- */
+    private final FileDigestSerializer md5IndexSerializer;
 
     private final VirtualFileSystemUserContext userContext;
 
@@ -321,18 +339,20 @@ public class FSMountPoint implements MountPoint {
         pathLockFactory = new PathLockFactory(FILE_LOCK_MAX_THREADS);
 
         aclSerializer = new AccessControlListSerializer();
-        aclCache = new Cache[CACHE_PARTITIONS_NUM];
+        aclCache = new PathCache[CACHE_PARTITIONS_NUM];
 
         locksSerializer = new FileLockSerializer();
-        lockTokensCache = new Cache[CACHE_PARTITIONS_NUM];
+        lockTokensCache = new PathCache[CACHE_PARTITIONS_NUM];
 
         metadataSerializer = new FileMetadataSerializer();
-        metadataCache = new Cache[CACHE_PARTITIONS_NUM];
+        metadataCache = new PathCache[CACHE_PARTITIONS_NUM];
+
+        md5IndexSerializer = new FileDigestSerializer();
 
         for (int i = 0; i < CACHE_PARTITIONS_NUM; i++) {
-            aclCache[i] = new SynchronizedCache(new AccessControlListCache());
-            lockTokensCache[i] = new SynchronizedCache(new FileLockCache());
-            metadataCache[i] = new SynchronizedCache(new FileMetadataCache());
+            aclCache[i] = new AccessControlListCache();
+            lockTokensCache[i] = new FileLockCache();
+            metadataCache[i] = new FileMetadataCache();
         }
         userContext = VirtualFileSystemUserContext.newInstance();
     }
@@ -392,6 +412,28 @@ public class FSMountPoint implements MountPoint {
         clearLockTokensCache();
     }
 
+    /**
+     * Gets statistics of caches of this MountPoint. Caches are split to the few partitions, statistic is provided for each
+     * partition separately.
+     *
+     * @return map where key is name of cache ("acl", "locks" or "metadata") and value is array of statistics of partitions
+     */
+    public Map<String, CacheStats[]> getCacheStats() {
+        final Map<String, CacheStats[]> stats = new LinkedHashMap<>(4);
+        stats.put("acl", getStats(aclCache));
+        stats.put("locks", getStats(lockTokensCache));
+        stats.put("metadata", getStats(metadataCache));
+        return stats;
+    }
+
+    private static CacheStats[] getStats(PathCache<?>[] cache) {
+        final CacheStats[] stats = new CacheStats[cache.length];
+        for (int i = 0; i < cache.length; i++) {
+            stats[i] = cache[i].getStats();
+        }
+        return stats;
+    }
+
     // Used in tests. Need this to check state of PathLockFactory.
     // All locks MUST be released at the end of request lifecycle.
     PathLockFactory getPathLockFactory() {
@@ -696,6 +738,11 @@ public class FSMountPoint implements MountPoint {
                 nioCopy(sourceMetadataFile, destinationMetadataFile, filter);
             }
             nioCopy(source.getIoFile(), destination.getIoFile(), filter);
+            // Metadata of destination might be cached before copying.
+            invalidateCaches(destination.getVirtualFilePath());
+            if (destination.isFile()) {
+                removeFromMd5Index(destination.getVirtualFilePath());
+            }
 
             if (searcherProvider != null) {
                 try {
@@ -976,6 +1023,8 @@ public class FSMountPoint implements MountPoint {
             throw new ServerException(msg);
         } finally {
             closeQuietly(fOut);
+            // Don't rely on timestamp of file, it may be not changed if file is updated few times per second.
+            removeFromMd5Index(virtualFile.getVirtualFilePath());
         }
     }
 
@@ -1028,33 +1077,36 @@ public class FSMountPoint implements MountPoint {
             }
         }
 
-        // clear caches
-        clearAclCache();
-        clearLockTokensCache();
-        clearMetadataCache();
-
         final String path = virtualFile.getPath();
         boolean isFile = virtualFile.isFile();
-        if (!deleteRecursive(virtualFile.getIoFile())) {
-            LOG.error("Unable delete file {}", virtualFile.getIoFile());
-            throw new ServerException(String.format("Unable delete item '%s'. ", path));
-        }
-
-        // delete ACL file
-        final java.io.File aclFile = new java.io.File(ioRoot, toIoPath(getAclFilePath(virtualFile.getVirtualFilePath())));
-        if (aclFile.delete()) {
-            if (aclFile.exists()) {
-                LOG.error("Unable delete ACL file {}", aclFile);
+        try {
+            if (!deleteRecursive(virtualFile.getIoFile())) {
+                LOG.error("Unable delete file {}", virtualFile.getIoFile());
                 throw new ServerException(String.format("Unable delete item '%s'. ", path));
             }
-        }
 
-        // delete metadata file
-        final java.io.File metadataFile = new java.io.File(ioRoot, toIoPath(getMetadataFilePath(virtualFile.getVirtualFilePath())));
-        if (metadataFile.delete()) {
-            if (metadataFile.exists()) {
-                LOG.error("Unable delete file metadata {}", metadataFile);
-                throw new ServerException(String.format("Unable delete item '%s'. ", path));
+            // delete ACL file
+            final java.io.File aclFile = new java.io.File(ioRoot, toIoPath(getAclFilePath(virtualFile.getVirtualFilePath())));
+            if (aclFile.delete()) {
+                if (aclFile.exists()) {
+                    LOG.error("Unable delete ACL file {}", aclFile);
+                    throw new ServerException(String.format("Unable delete item '%s'. ", path));
+                }
+            }
+
+            // delete metadata file
+            final java.io.File metadataFile = new java.io.File(ioRoot, toIoPath(getMetadataFilePath(virtualFile.getVirtualFilePath())));
+            if (metadataFile.delete()) {
+                if (metadataFile.exists()) {
+                    LOG.error("Unable delete file metadata {}", metadataFile);
+                    throw new ServerException(String.format("Unable delete item '%s'. ", path));
+                }
+            }
+        } finally {
+            // clear caches, even if item removed partially
+            invalidateCaches(virtualFile.getVirtualFilePath());
+            if (isFile) {
+                removeFromMd5Index(virtualFile.getVirtualFilePath());
             }
         }
 
@@ -1068,22 +1120,33 @@ public class FSMountPoint implements MountPoint {
     }
 
 
+    /** Removes cached ACL, lock tokens and metadata of specified path and all its children. */
+    private void invalidateCaches(Path path) {
+        // Cache partition is selected by hash of path, so children of path may be in any partition.
+        for (int i = 0; i < CACHE_PARTITIONS_NUM; i++) {
+            aclCache[i].invalidate(path);
+            lockTokensCache[i].invalidate(path);
+            metadataCache[i].invalidate(path);
+        }
+    }
+
+
     private void clearLockTokensCache() {
-        for (Cache<Path, FileLock> cache : lockTokensCache) {
+        for (PathCache<FileLock> cache : lockTokensCache) {
             cache.clear();
         }
     }
 
 
     private void clearAclCache() {
-        for (Cache<Path, AccessControlList> cache : aclCache) {
+        for (PathCache<AccessControlList> cache : aclCache) {
             cache.clear();
         }
     }
 
 
     private void clearMetadataCache() {
-        for (Cache<Path, Map<String, String[]>> cache : metadataCache) {
+        for (PathCache<Map<String, String[]>> cache : metadataCache) {
             cache.clear();
         }
     }
@@ -1094,10 +1157,33 @@ public class FSMountPoint implements MountPoint {
             throw new ForbiddenException(String.format("Unable export to zip. Item '%s' is not a folder. ", virtualFile.getPath()));
         }
         java.io.File zipFile = null;
-        FileOutputStream out = null;
+        boolean done = false;
         try {
             zipFile = java.io.File.createTempFile("export", ".zip");
-            out = new FileOutputStream(zipFile);
+            try (FileOutputStream out = new FileOutputStream(zipFile)) {
+                zip(virtualFile, out, filter);
+            }
+            final String name = virtualFile.getName() + ".zip";
+            final ContentStream zip =
+                    new ContentStream(name, new DeleteOnCloseFileInputStream(zipFile), ExtMediaType.APPLICATION_ZIP, zipFile.length(),
+                                      new Date());
+            done = true;
+            return zip;
+        } catch (IOException e) {
+            throw new ServerException(e.getMessage(), e);
+        } finally {
+            if (zipFile != null && !done) {
+                zipFile.delete();
+            }
+        }
+    }
+
+
+    void zip(VirtualFileImpl virtualFile, OutputStream out, VirtualFileFilter filter) throws ForbiddenException, ServerException {
+        if (!virtualFile.isFolder()) {
+            throw new ForbiddenException(String.format("Unable export to zip. Item '%s' is not a folder. ", virtualFile.getPath()));
+        }
+        try {
             final ZipOutputStream zipOut = new ZipOutputStream(out);
             final LinkedList<VirtualFile> q = new LinkedList<>();
             q.add(virtualFile);
@@ -1112,23 +1198,7 @@ public class FSMountPoint implements MountPoint {
                     if (filter.accept(current) && hasPermission((VirtualFileImpl)current, BasicPermissions.READ.value(), false)) {
                         final String zipEntryName = current.getVirtualFilePath().subPath(zipEntryNameTrim).toString().substring(1);
                         if (current.isFile()) {
-                            final ZipEntry zipEntry = new ZipEntry(zipEntryName);
-                            zipOut.putNextEntry(zipEntry);
-                            InputStream in = null;
-                            final PathLockFactory.PathLock lock =
-                                    pathLockFactory.getLock(current.getVirtualFilePath(), false).acquire(LOCK_FILE_TIMEOUT);
-                            try {
-                                zipEntry.setTime(virtualFile.getLastModificationDate());
-                                in = new FileInputStream(((VirtualFileImpl)current).getIoFile());
-                                int r;
-                                while ((r = in.read(buff)) != -1) {
-                                    zipOut.write(buff, 0, r);
-                                }
-                            } finally {
-                                closeQuietly(in);
-                                lock.release();
-                            }
-                            zipOut.closeEntry();
+                            zipFile(zipOut, (VirtualFileImpl)current, zipEntryName, buff);
                         } else if (current.isFolder()) {
                             final ZipEntry zipEntry = new ZipEntry(zipEntryName + '/');
                             zipEntry.setTime(0);
@@ -1139,20 +1209,55 @@ public class FSMountPoint implements MountPoint {
                     }
                 }
             }
-            closeQuietly(zipOut);
-            final String name = virtualFile.getName() + ".zip";
-            return new ContentStream(name, new DeleteOnCloseFileInputStream(zipFile), ExtMediaType.APPLICATION_ZIP, zipFile.length(), new Date());
-        } catch (IOException | RuntimeException ioe) {
-            if (zipFile != null) {
-                zipFile.delete();
+            // Don't close stream, it is owned by caller.
+            zipOut.finish();
+        } catch (IOException | RuntimeException e) {
+            throw new ServerException(e.getMessage(), e);
+        }
+    }
+
+
+    private void zipFile(ZipOutputStream zipOut, VirtualFileImpl file, String zipEntryName, byte[] buff) throws IOException {
+        final java.io.File ioFile = file.getIoFile();
+        final ZipEntry zipEntry = new ZipEntry(zipEntryName);
+        // Don't waste time trying to deflate content that is already compressed.
+        zipOut.setLevel(isCompressed(zipEntryName) ? Deflater.NO_COMPRESSION : Deflater.DEFAULT_COMPRESSION);
+        byte[] content = null;
+        InputStream in = null;
+        final PathLockFactory.PathLock lock = pathLockFactory.getLock(file.getVirtualFilePath(), false).acquire(LOCK_FILE_TIMEOUT);
+        try {
+            zipEntry.setTime(ioFile.lastModified());
+            if (ioFile.length() <= MAX_BUFFER_SIZE) {
+                // Read small file under lock but write it to the archive after lock is released. Output stream may be slow,
+                // e.g. HTTP response, and we should not prevent other users from updating file while it is written.
+                content = java.nio.file.Files.readAllBytes(ioFile.toPath());
+            } else {
+                zipOut.putNextEntry(zipEntry);
+                in = new FileInputStream(ioFile);
+                int r;
+                while ((r = in.read(buff)) != -1) {
+                    zipOut.write(buff, 0, r);
+                }
+                zipOut.closeEntry();
             }
-            throw new ServerException(ioe.getMessage(), ioe);
         } finally {
-            closeQuietly(out);
+            closeQuietly(in);
+            lock.release();
+        }
+        if (content != null) {
+            zipOut.putNextEntry(zipEntry);
+            zipOut.write(content);
+            zipOut.closeEntry();
         }
     }
 
 
+    private static boolean isCompressed(String name) {
+        final int dot = name.lastIndexOf('.');
+        return dot > 0 && COMPRESSED_FILE_EXTENSIONS.contains(name.substring(dot + 1).toLowerCase());
+    }
+
+
     void unzip(VirtualFileImpl parent, InputStream zipped, boolean overwrite, int stripNumber)
             throws ForbiddenException, ConflictException, ServerException {
         if (!parent.isFolder()) {
@@ -1668,6 +1773,12 @@ public class FSMountPoint implements MountPoint {
 
    /* ==================================== */
 
+    /**
+     * Counts MD5 digests of all files in the specified folder and its sub-folders. Digests are saved in index file
+     * {@link #MD5_INDEX_FILE} of each folder together with length and last modification time of files. Next time digest
+     * is taken from index if length and last modification time of file are not changed, so only new or modified files
+     * are read. Index is updated when content of file is updated, file is copied or deleted.
+     */
     LazyIterator<Pair<String, String>> countMd5Sums(VirtualFileImpl virtualFile) throws ServerException {
         if (!virtualFile.isFolder()) {
             return LazyIterator.emptyIterator();
@@ -1681,11 +1792,33 @@ public class FSMountPoint implements MountPoint {
             public void visit(final VirtualFile virtualFile) {
                 try {
                     if (virtualFile.isFile()) {
-                        hashes.add(Pair.of(countHashSum(virtualFile, hashFunction), virtualFile.getPath().substring(trimPathLength)));
+                        final FileDigest digest = countDigest((VirtualFileImpl)virtualFile, null, hashFunction);
+                        hashes.add(Pair.of(digest.getMd5(), virtualFile.getPath().substring(trimPathLength)));
                     } else {
+                        final Path folderPath = virtualFile.getVirtualFilePath();
+                        final Map<String, FileDigest> index = readMd5Index(folderPath);
+                        final Map<String, FileDigest> newIndex = new HashMap<>(index.size());
+                        boolean modified = false;
                         final LazyIterator<VirtualFile> children = virtualFile.getChildren(VirtualFileFilter.ALL);
                         while (children.hasNext()) {
-                            children.next().accept(this);
+                            final VirtualFile child = children.next();
+                            if (child.isFile()) {
+                                final FileDigest indexed = index.get(child.getName());
+                                final FileDigest digest = countDigest((VirtualFileImpl)child, indexed, hashFunction);
+                                hashes.add(Pair.of(digest.getMd5(), child.getPath().substring(trimPathLength)));
+                                if (digest == indexed) {
+                                    newIndex.put(child.getName(), digest);
+                                } else if (System.currentTimeMillis() - digest.getLastModified() > MD5_INDEX_MODIFICATION_GRANULARITY) {
+                                    newIndex.put(child.getName(), digest);
+                                    modified = true;
+                                }
+                            } else {
+                                child.accept(this);
+                            }
+                        }
+                        // Index also is modified if some files are removed or replaced with recently modified files.
+                        if (modified || newIndex.size() != index.size()) {
+                            saveMd5Index(folderPath, newIndex);
                         }
                     }
                 } catch (ServerException e) {
@@ -1697,12 +1830,17 @@ public class FSMountPoint implements MountPoint {
     }
 
 
-    private String countHashSum(VirtualFile virtualFile, HashFunction hashFunction) throws ServerException {
+    /** Gets digest of file from index if it is still valid for the file or counts new digest. */
+    private FileDigest countDigest(VirtualFileImpl virtualFile, FileDigest indexed, HashFunction hashFunction) throws ServerException {
         final PathLockFactory.PathLock lock = pathLockFactory.getLock(virtualFile.getVirtualFilePath(), false).acquire(LOCK_FILE_TIMEOUT);
-        try (InputStream contentStream = virtualFile.getContent().getStream()) {
-            return ByteSource.wrap(ByteStreams.toByteArray(contentStream)).hash(hashFunction).toString();
-        } catch (ForbiddenException e) {
-            throw new ServerException(e.getServiceError());
+        try {
+            final java.io.File ioFile = virtualFile.getIoFile();
+            final long length = ioFile.length();
+            final long lastModified = ioFile.lastModified();
+            if (indexed != null && indexed.matches(length, lastModified)) {
+                return indexed;
+            }
+            return new FileDigest(length, lastModified, Files.hash(ioFile, hashFunction).toString());
         } catch (IOException e) {
             throw new ServerException(e);
         } finally {
@@ -1710,6 +1848,82 @@ public class FSMountPoint implements MountPoint {
         }
     }
 
+
+    private Map<String, FileDigest> readMd5Index(Path folderPath) {
+        final Path indexFilePath = getMd5IndexFilePath(folderPath);
+        final java.io.File indexIoFile = new java.io.File(ioRoot, toIoPath(indexFilePath));
+        if (!indexIoFile.exists()) {
+            return Collections.emptyMap();
+        }
+        DataInputStream dis = null;
+        final PathLockFactory.PathLock lock = pathLockFactory.getLock(indexFilePath, false).acquire(LOCK_FILE_TIMEOUT);
+        try {
+            dis = new DataInputStream(new BufferedInputStream(new FileInputStream(indexIoFile)));
+            return md5IndexSerializer.read(dis);
+        } catch (IOException e) {
+            // Index is rebuilt if it is broken.
+            LOG.warn(String.format("Unable read index of MD5 digests for '%s'. ", folderPath) + e.getMessage(), e);
+            return Collections.emptyMap();
+        } finally {
+            closeQuietly(dis);
+            lock.release();
+        }
+    }
+
+
+    private void saveMd5Index(Path folderPath, Map<String, FileDigest> index) {
+        final Path indexFilePath = getMd5IndexFilePath(folderPath);
+        final java.io.File indexIoFile = new java.io.File(ioRoot, toIoPath(indexFilePath));
+        DataOutputStream dos = null;
+        final PathLockFactory.PathLock lock = pathLockFactory.getLock(indexFilePath, true).acquire(LOCK_FILE_TIMEOUT);
+        try {
+            if (index.isEmpty()) {
+                if (!indexIoFile.delete()) {
+                    if (indexIoFile.exists()) {
+                        throw new IOException(String.format("Unable delete file '%s'. ", indexIoFile));
+                    }
+                }
+            } else {
+                indexIoFile.getParentFile().mkdirs(); // Ignore result of 'mkdirs' here. If we are failed to create
+                // directory we will get FileNotFoundException at the next line when try to create FileOutputStream.
+                dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexIoFile)));
+                md5IndexSerializer.write(dos, index);
+            }
+        } catch (IOException e) {
+            // Not critical, digests are counted again next time.
+            LOG.error(String.format("Unable save index of MD5 digests for '%s'. ", folderPath) + e.getMessage(), e);
+        } finally {
+            closeQuietly(dos);
+            lock.release();
+        }
+    }
+
+
+    /** Removes digest of specified file from index of its parent folder. */
+    private void removeFromMd5Index(Path virtualFilePath) {
+        final Path folderPath = virtualFilePath.getParent();
+        final Path indexFilePath = getMd5IndexFilePath(folderPath);
+        final java.io.File indexIoFile = new java.io.File(ioRoot, toIoPath(indexFilePath));
+        if (!indexIoFile.exists()) {
+            return;
+        }
+        // Hold exclusive lock while updating index to avoid loosing concurrent changes.
+        final PathLockFactory.PathLock lock = pathLockFactory.getLock(indexFilePath, true).acquire(LOCK_FILE_TIMEOUT);
+        try {
+            final Map<String, FileDigest> index = new HashMap<>(readMd5Index(folderPath));
+            if (index.remove(virtualFilePath.getName()) != null) {
+                saveMd5Index(folderPath, index);
+            }
+        } finally {
+            lock.release();
+        }
+    }
+
+
+    private Path getMd5IndexFilePath(Path folderPath) {
+        return folderPath.newPath(MD5_INDEX_FILE);
+    }
+
    /* ============ HELPERS  ============ */
 
     /* Relative system path */
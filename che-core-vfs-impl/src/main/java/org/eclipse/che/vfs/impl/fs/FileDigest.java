@@ -0,0 +1,55 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.vfs.impl.fs;
+
+/**
+ * MD5 digest of content of file. Digest is valid while length and last modification time of file are the same as they
+ * were when digest was counted.
+ *
+ * @see FileDigestSerializer
+ */
+public class FileDigest {
+    private final long   length;
+    private final long   lastModified;
+    private final String md5;
+
+    public FileDigest(long length, long lastModified, String md5) {
+        this.length = length;
+        this.lastModified = lastModified;
+        this.md5 = md5;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    public String getMd5() {
+        return md5;
+    }
+
+    /** Checks whether this digest is still valid for file with specified length and last modification time. */
+    public boolean matches(long length, long lastModified) {
+        return this.length == length && this.lastModified == lastModified;
+    }
+
+    @Override
+    public String toString() {
+        return "FileDigest{" +
+               "length=" + length +
+               ", lastModified=" + lastModified +
+               ", md5='" + md5 + '\'' +
+               '}';
+    }
+}
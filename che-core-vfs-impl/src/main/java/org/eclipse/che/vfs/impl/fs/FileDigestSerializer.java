@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.vfs.impl.fs;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Serializer for index of MD5 digests of files of one folder. Key of map is name of file.
+ *
+ * @see FileDigest
+ */
+public class FileDigestSerializer implements DataSerializer<Map<String, FileDigest>> {
+    @Override
+    public void write(DataOutput output, Map<String, FileDigest> digests) throws IOException {
+        output.writeInt(digests.size());
+        for (Map.Entry<String, FileDigest> entry : digests.entrySet()) {
+            final FileDigest digest = entry.getValue();
+            output.writeUTF(entry.getKey());
+            output.writeLong(digest.getLength());
+            output.writeLong(digest.getLastModified());
+            output.writeUTF(digest.getMd5());
+        }
+    }
+
+    @Override
+    public Map<String, FileDigest> read(DataInput input) throws IOException {
+        final int recordsNum = input.readInt();
+        final Map<String, FileDigest> digests = new HashMap<>(recordsNum);
+        for (int i = 0; i < recordsNum; i++) {
+            final String name = input.readUTF();
+            final long length = input.readLong();
+            final long lastModified = input.readLong();
+            digests.put(name, new FileDigest(length, lastModified, input.readUTF()));
+        }
+        return digests;
+    }
+}
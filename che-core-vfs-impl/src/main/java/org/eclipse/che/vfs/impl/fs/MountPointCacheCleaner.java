@@ -10,6 +10,8 @@
  *******************************************************************************/
 package org.eclipse.che.vfs.impl.fs;
 
+import org.eclipse.che.commons.lang.cache.CacheStats;
+
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import org.slf4j.Logger;
@@ -18,6 +20,7 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.PreDestroy;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
@@ -47,6 +50,12 @@ public class MountPointCacheCleaner {
                     public void run() {
                         for (Entry entry : watched.values()) {
                             if (Files.exists(entry.resetFilePath)) {
+                                if (LOG.isDebugEnabled()) {
+                                    for (Map.Entry<String, CacheStats[]> stats : entry.mountPoint.getCacheStats().entrySet()) {
+                                        LOG.debug("Cache '{}' of VFS mounted at {}: {}", stats.getKey(),
+                                                  entry.mountPoint.getRoot().getIoFile(), Arrays.toString(stats.getValue()));
+                                    }
+                                }
                                 entry.mountPoint.reset();
                                 LOG.info("Reset cache for VFS mounted at {}", entry.mountPoint.getRoot().getIoFile());
                                 try {
@@ -0,0 +1,212 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.vfs.impl.fs;
+
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.vfs.server.MountPoint;
+import org.eclipse.che.api.vfs.server.VirtualFile;
+import org.eclipse.che.api.vfs.server.VirtualFileFilter;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.MultiFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.util.Bits;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.eclipse.che.commons.lang.IoUtil.deleteRecursive;
+
+/**
+ * Filesystem based LuceneSearcher which keeps index after call method {@link #close()}. Each indexed document contains
+ * modification time and length of file. When searcher is initialized these values are compared with the current state of
+ * the filesystem and only files that are added or updated since index was closed are indexed. Documents of files that
+ * don't exist anymore are removed from index.
+ *
+ * @see PersistentSearcherProvider
+ */
+public class PersistentSearcher extends FSIndexSearcher {
+    private static final Logger LOG = LoggerFactory.getLogger(PersistentSearcher.class);
+
+    private static final String PATH_FIELD     = "path";
+    private static final String MODIFIED_FIELD = "modified";
+    private static final String LENGTH_FIELD   = "length";
+    /** Version of format of documents. Index that is created with other version is rebuilt. */
+    private static final String INDEX_VERSION     = "2";
+    private static final String INDEX_VERSION_KEY = "che.index.version";
+
+    private final PersistentSearcherProvider searcherService;
+    private final AtomicReference<Exception> initError;
+
+    /** Number of files that were (re)indexed when index was reconciled with the filesystem. */
+    private volatile int reconciledFiles;
+    /** Time of the last request of this searcher from {@link PersistentSearcherProvider}, the least recently used searcher is evicted. */
+    volatile long lastAccess;
+
+    PersistentSearcher(PersistentSearcherProvider searcherService, java.io.File indexDir, VirtualFileFilter filter) {
+        super(indexDir, filter);
+        this.searcherService = searcherService;
+        initError = new AtomicReference<>();
+    }
+
+    @Override
+    public void init(final MountPoint mountPoint) throws ServerException {
+        try {
+            doInit(mountPoint);
+        } catch (ServerException e) {
+            // Index may be broken if server was not stopped properly. Don't try to fix it, just create new one.
+            LOG.warn("Unable open index in {}, index is re-created. {}", indexDir, e.getMessage());
+            if (!deleteRecursive(indexDir)) {
+                throw e;
+            }
+            doInit(mountPoint);
+        }
+        if (!INDEX_VERSION.equals(getIndexWriter().getCommitData().get(INDEX_VERSION_KEY))) {
+            try {
+                getIndexWriter().deleteAll();
+            } catch (IOException e) {
+                throw new ServerException(e.getMessage(), e);
+            }
+        }
+        final ExecutorService executor = searcherService.getExecutor();
+        if (!executor.isShutdown()) {
+            // Searcher which is evicted while index is reconciled is closed when reconciliation is complete.
+            acquire();
+            try {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            reconcile(mountPoint.getRoot());
+                            setIndexComplete();
+                        } catch (ServerException | RuntimeException e) {
+                            initError.set(e);
+                            LOG.error(e.getMessage());
+                        } finally {
+                            release();
+                        }
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                release();
+                throw e;
+            }
+        }
+    }
+
+    private void reconcile(VirtualFile root) throws ServerException {
+        final long start = System.currentTimeMillis();
+        final Map<String, long[]> checkpoints = readCheckpoints();
+        final int indexedFiles = checkpoints.size();
+        // Filter is called by single thread that walks tree, so don't need to synchronize access to the checkpoints.
+        addTree(root, new VirtualFileFilter() {
+            @Override
+            public boolean accept(VirtualFile file) {
+                final long[] checkpoint = checkpoints.remove(file.getPath());
+                if (checkpoint == null || checkpoint[0] != file.getLastModificationDate() || checkpoint[1] != getLength(file)) {
+                    reconciledFiles++;
+                    return true;
+                }
+                return false;
+            }
+        }, searcherService.getExecutor(), searcherService.getIndexThreads());
+        try {
+            // Files that were removed since index was closed.
+            for (String path : checkpoints.keySet()) {
+                getIndexWriter().deleteDocuments(new Term(PATH_FIELD, path));
+            }
+            getIndexWriter().setCommitData(Collections.singletonMap(INDEX_VERSION_KEY, INDEX_VERSION));
+            getIndexWriter().commit();
+        } catch (IOException e) {
+            throw new ServerException(e.getMessage(), e);
+        }
+        LOG.debug("Index of {} is reconciled, {} files were indexed before, {} files are (re)indexed, {} files are removed, time: {} ms",
+                  indexDir, indexedFiles, reconciledFiles, checkpoints.size(), System.currentTimeMillis() - start);
+    }
+
+    /** Reads path, modification time and length of all files that are indexed. */
+    private Map<String, long[]> readCheckpoints() throws ServerException {
+        final Set<String> fields = new HashSet<>(Arrays.asList(PATH_FIELD, MODIFIED_FIELD, LENGTH_FIELD));
+        try (DirectoryReader reader = DirectoryReader.open(getIndexWriter(), true)) {
+            final Map<String, long[]> checkpoints = new HashMap<>(reader.numDocs());
+            final Bits liveDocs = MultiFields.getLiveDocs(reader);
+            for (int i = 0, maxDoc = reader.maxDoc(); i < maxDoc; i++) {
+                if (liveDocs == null || liveDocs.get(i)) {
+                    final Document doc = reader.document(i, fields);
+                    final IndexableField modified = doc.getField(MODIFIED_FIELD);
+                    final IndexableField length = doc.getField(LENGTH_FIELD);
+                    // Document without checkpoint is always re-indexed.
+                    checkpoints.put(doc.get(PATH_FIELD), modified == null || length == null
+                                                         ? new long[]{-1, -1}
+                                                         : new long[]{modified.numericValue().longValue(), length.numericValue().longValue()});
+                }
+            }
+            return checkpoints;
+        } catch (IOException e) {
+            throw new ServerException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    protected Document createDocument(VirtualFile virtualFile, Reader inReader) throws ServerException {
+        final Document doc = super.createDocument(virtualFile, inReader);
+        // Get attributes before content is read. If file is updated while it is indexed document is re-indexed next time.
+        doc.add(new StoredField(MODIFIED_FIELD, virtualFile.getLastModificationDate()));
+        doc.add(new StoredField(LENGTH_FIELD, virtualFile.getLength()));
+        return doc;
+    }
+
+    private static long getLength(VirtualFile file) {
+        try {
+            return file.getLength();
+        } catch (ServerException e) {
+            return -1;
+        }
+    }
+
+    // for test
+    Exception initializationError() {
+        return initError.get();
+    }
+
+    // for test
+    boolean initialized() {
+        return isIndexComplete();
+    }
+
+    // for test
+    int reconciledFiles() {
+        return reconciledFiles;
+    }
+
+    @Override
+    public void close() {
+        searcherService.close(this);
+    }
+
+    void doClose() {
+        super.close();
+    }
+}
@@ -0,0 +1,174 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.vfs.impl.fs;
+
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.vfs.server.MountPoint;
+import org.eclipse.che.api.vfs.server.VirtualFileFilter;
+import org.eclipse.che.api.vfs.server.search.LuceneSearcher;
+import org.eclipse.che.api.vfs.server.search.LuceneSearcherProvider;
+import org.eclipse.che.api.vfs.server.search.Searcher;
+
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Provides searchers which keep index between restarts of server. Index of mount point is stored in directory that is
+ * defined by location of mount point on the filesystem, so the same index is found after restart. Index is reconciled with
+ * the filesystem when searcher is created, see {@link PersistentSearcher}.
+ * <p/>
+ * Number of open indexes is limited. When limit is reached index of the least recently used mount point is closed. Closed
+ * index stays on the disk and is reconciled with the filesystem when it is opened next time. Evicted searcher is closed when
+ * all operations that use it are complete, see {@link LuceneSearcher#closeWhenReleased()}.
+ */
+@Singleton
+public class PersistentSearcherProvider extends LuceneSearcherProvider {
+    private static final int DEFAULT_MAX_OPEN_INDEXES = 32;
+
+    private final ConcurrentMap<java.io.File, PersistentSearcher> instances;
+    /** Searchers that are evicted but still in use. Guarded by itself, the same lock is used for creating of searchers. */
+    private final Map<java.io.File, PersistentSearcher>           evicted;
+    private final ExecutorService                                 executor;
+    private final java.io.File                                    indexRootDir;
+    private final Set<VirtualFileFilter>                          filters;
+    private final int                                             indexThreads;
+
+    // Switched to default for test.
+    // private
+    @com.google.inject.Inject(optional = true)
+    @Named("vfs.local.fs_index_max_open")
+    int maxOpenIndexes = DEFAULT_MAX_OPEN_INDEXES;
+
+    @Inject
+    PersistentSearcherProvider(@Named("vfs.local.fs_index_root_dir") java.io.File indexRootDir,
+                               @Named("vfs.index_filter") Set<VirtualFileFilter> filters) {
+        this.indexRootDir = indexRootDir;
+        this.filters = filters;
+        indexThreads = Runtime.getRuntime().availableProcessors();
+        executor = Executors.newFixedThreadPool(1 + indexThreads,
+                                                new ThreadFactoryBuilder().setNameFormat("LocalVirtualFileSystem-PersistentSearcher-%d")
+                                                                          .setDaemon(true).build());
+        instances = new ConcurrentHashMap<>();
+        evicted = new HashMap<>();
+    }
+
+    @Override
+    public Searcher getSearcher(MountPoint mountPoint, boolean create) throws ServerException {
+        final java.io.File vfsIoRoot = ((VirtualFileImpl)mountPoint.getRoot()).getIoFile();
+        PersistentSearcher searcher = instances.get(vfsIoRoot);
+        if (searcher == null && create) {
+            searcher = createSearcher(mountPoint, vfsIoRoot);
+        }
+        if (searcher != null) {
+            // Searcher that is just returned is the most recently used one, so it isn't evicted before caller uses it.
+            searcher.lastAccess = System.nanoTime();
+        }
+        return searcher;
+    }
+
+    private PersistentSearcher createSearcher(MountPoint mountPoint, java.io.File vfsIoRoot) throws ServerException {
+        // Searchers are created and closed under the same lock. This guarantees that there is no more than one IndexWriter
+        // for each index directory.
+        synchronized (evicted) {
+            PersistentSearcher searcher = instances.get(vfsIoRoot);
+            if (searcher != null) {
+                return searcher;
+            }
+            searcher = evicted.remove(vfsIoRoot);
+            if (searcher == null || !searcher.cancelClose()) {
+                if (searcher != null) {
+                    // Searcher is being closed by the last operation that used it, don't wait for it.
+                    searcher.doClose();
+                }
+                final java.io.File myIndexDir = getIndexDir(vfsIoRoot);
+                try {
+                    Files.createDirectories(myIndexDir.toPath());
+                } catch (IOException e) {
+                    throw new ServerException("Unable create searcher. " + e.getMessage(), e);
+                }
+                searcher = new PersistentSearcher(this, myIndexDir, createIndexFilter(filters));
+                searcher.init(mountPoint);
+            }
+            searcher.lastAccess = System.nanoTime();
+            instances.put(vfsIoRoot, searcher);
+            if (instances.size() > maxOpenIndexes) {
+                evictLeastRecentlyUsed();
+            }
+            return searcher;
+        }
+    }
+
+    private void evictLeastRecentlyUsed() {
+        Map.Entry<java.io.File, PersistentSearcher> eldest = null;
+        for (Map.Entry<java.io.File, PersistentSearcher> entry : instances.entrySet()) {
+            if (eldest == null || entry.getValue().lastAccess - eldest.getValue().lastAccess < 0) {
+                eldest = entry;
+            }
+        }
+        final java.io.File vfsIoRoot = eldest.getKey();
+        final PersistentSearcher cold = eldest.getValue();
+        instances.remove(vfsIoRoot, cold);
+        evicted.put(vfsIoRoot, cold);
+        cold.closeWhenReleased();
+    }
+
+    /** Gets directory of index of mount point. Name of directory is hash of path of mount point on the filesystem. */
+    private java.io.File getIndexDir(java.io.File vfsIoRoot) {
+        return new java.io.File(indexRootDir, Hashing.sha1().hashString(vfsIoRoot.getAbsolutePath(), StandardCharsets.UTF_8).toString());
+    }
+
+    void close(PersistentSearcher searcher) {
+        synchronized (evicted) {
+            instances.values().remove(searcher);
+            evicted.values().remove(searcher);
+            searcher.doClose();
+        }
+    }
+
+    @PreDestroy
+    private void stop() {
+        executor.shutdownNow();
+        synchronized (evicted) {
+            for (PersistentSearcher searcher : instances.values()) {
+                searcher.doClose();
+            }
+            for (PersistentSearcher searcher : evicted.values()) {
+                searcher.doClose();
+            }
+            instances.clear();
+            evicted.clear();
+        }
+    }
+
+    ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /** Number of threads that read and index files while index of mount point is reconciled with the filesystem. */
+    int getIndexThreads() {
+        return indexThreads;
+    }
+}
@@ -29,6 +29,7 @@ import org.eclipse.che.api.vfs.shared.dto.Property;
 import org.eclipse.che.commons.lang.Pair;
 
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -237,6 +238,11 @@ public class VirtualFileImpl implements VirtualFile {
         return mountPoint.zip(this, filter);
     }
 
+    @Override
+    public void zip(OutputStream out, VirtualFileFilter filter) throws ForbiddenException, ServerException {
+        mountPoint.zip(this, out, filter);
+    }
+
     @Override
     public void unzip(InputStream zipped, boolean overwrite, int stripNumber) throws ForbiddenException, ConflictException, ServerException {
         mountPoint.unzip(this, zipped, overwrite, stripNumber);
@@ -10,8 +10,10 @@
  *******************************************************************************/
 package org.eclipse.che.vfs.impl.fs;
 
+import org.eclipse.che.api.vfs.shared.PropertyFilter;
 import org.eclipse.che.api.vfs.shared.dto.Principal;
 import org.eclipse.che.commons.env.EnvironmentContext;
+import org.eclipse.che.commons.lang.cache.CacheStats;
 import org.eclipse.che.commons.user.UserImpl;
 import org.eclipse.che.dto.server.DtoFactory;
 
@@ -122,6 +124,25 @@ public class DeleteTest extends LocalFileSystemTest {
         assertNull("Properties must be removed. ", readProperties(filePath));
     }
 
+    public void testDeleteFileKeepsCachedDataOfOtherItems() throws Exception {
+        VirtualFileImpl folder = mountPoint.getVirtualFile(folderPath);
+        folder.getProperties(PropertyFilter.ALL_FILTER); // load properties in cache
+        final long misses = getMetadataCacheMisses();
+        String requestPath = SERVICE_URI + "delete/" + fileId;
+        ContainerResponse response = launcher.service(HttpMethod.POST, requestPath, BASE_URI, null, null, null);
+        assertEquals(204, response.getStatus());
+        folder.getProperties(PropertyFilter.ALL_FILTER);
+        assertEquals("Cached properties of other items must not be reset. ", misses, getMetadataCacheMisses());
+    }
+
+    private long getMetadataCacheMisses() {
+        long misses = 0;
+        for (CacheStats stats : mountPoint.getCacheStats().get("metadata")) {
+            misses += stats.getMissCount();
+        }
+        return misses;
+    }
+
     public void testDeleteFileLocked() throws Exception {
         String requestPath = SERVICE_URI + "delete/" + lockedFileId + '?' + "lockToken=" + lockToken;
         ContainerResponse response = launcher.service(HttpMethod.POST, requestPath, BASE_URI, null, null, null);
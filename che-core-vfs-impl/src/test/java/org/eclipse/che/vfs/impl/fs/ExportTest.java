@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.vfs.impl.fs;
+
+import org.eclipse.che.api.vfs.server.VirtualFileFilter;
+import org.eclipse.che.commons.lang.ws.rs.ExtMediaType;
+import org.everrest.core.impl.ContainerResponse;
+import org.everrest.core.tools.ByteArrayContainerResponseWriter;
+
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.core.HttpHeaders;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+public class ExportTest extends LocalFileSystemTest {
+    private static final int LARGE_FILE_SIZE = 512 * 1024;
+
+    private String folderPath;
+    private String folderId;
+    private long   lastModified;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        folderPath = createDirectory(testRootPath, "ExportTest_Folder");
+        createFile(folderPath, "file.txt", DEFAULT_CONTENT_BYTES);
+        createFile(createDirectory(folderPath, "folder"), "file.txt", DEFAULT_CONTENT_BYTES);
+        createFile(folderPath, "large.txt", largeContent());
+        createFile(folderPath, "image.png", new byte[LARGE_FILE_SIZE]);
+        // Zip entries keep time with two seconds granularity.
+        lastModified = (System.currentTimeMillis() - 60000) / 2000 * 2000;
+        getIoFile(folderPath + "/file.txt").setLastModified(lastModified);
+        folderId = pathToId(folderPath);
+    }
+
+    public void testExportFolder() throws Exception {
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+        String requestPath = SERVICE_URI + "export/" + folderId;
+        ContainerResponse response = launcher.service(HttpMethod.GET, requestPath, BASE_URI, null, null, writer, null);
+        assertEquals("Error: " + response.getEntity(), 200, response.getStatus());
+        assertEquals(ExtMediaType.APPLICATION_ZIP, writer.getHeaders().getFirst(HttpHeaders.CONTENT_TYPE));
+        // Archive is streamed, its length is unknown until it is written.
+        assertNull(writer.getHeaders().getFirst(HttpHeaders.CONTENT_LENGTH));
+        Map<String, byte[]> entries = readZip(writer.getBody());
+        assertEquals(5, entries.size());
+        assertTrue(entries.containsKey("folder/"));
+        compareBytes(DEFAULT_CONTENT_BYTES, entries.get("file.txt"));
+        compareBytes(DEFAULT_CONTENT_BYTES, entries.get("folder/file.txt"));
+        compareBytes(largeContent(), entries.get("large.txt"));
+        compareBytes(new byte[LARGE_FILE_SIZE], entries.get("image.png"));
+    }
+
+    public void testExportFile() throws Exception {
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+        String requestPath = SERVICE_URI + "export/" + pathToId(folderPath + "/file.txt");
+        ContainerResponse response = launcher.service(HttpMethod.GET, requestPath, BASE_URI, null, null, writer, null);
+        assertEquals(403, response.getStatus());
+    }
+
+    public void testZipToStream() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        mountPoint.getVirtualFile(folderPath).zip(out, VirtualFileFilter.ALL);
+        ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()));
+        ZipEntry zipEntry;
+        while ((zipEntry = zip.getNextEntry()) != null) {
+            readAll(zip);
+            if ("file.txt".equals(zipEntry.getName())) {
+                assertEquals(lastModified, zipEntry.getTime());
+            } else if ("image.png".equals(zipEntry.getName())) {
+                // Content of compressed media types is not deflated.
+                assertTrue(zipEntry.getCompressedSize() >= LARGE_FILE_SIZE);
+            } else if ("large.txt".equals(zipEntry.getName())) {
+                assertTrue(zipEntry.getCompressedSize() < LARGE_FILE_SIZE);
+            }
+        }
+        zip.close();
+    }
+
+    private byte[] largeContent() {
+        byte[] content = new byte[LARGE_FILE_SIZE];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = DEFAULT_CONTENT_BYTES[i % DEFAULT_CONTENT_BYTES.length];
+        }
+        return content;
+    }
+
+    private Map<String, byte[]> readZip(byte[] zipped) throws Exception {
+        Map<String, byte[]> entries = new HashMap<>();
+        ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(zipped));
+        ZipEntry zipEntry;
+        while ((zipEntry = zip.getNextEntry()) != null) {
+            entries.put(zipEntry.getName(), readAll(zip));
+        }
+        zip.close();
+        return entries;
+    }
+
+    private byte[] readAll(ZipInputStream zip) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buff = new byte[8192];
+        int r;
+        while ((r = zip.read(buff)) != -1) {
+            out.write(buff, 0, r);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.vfs.impl.fs;
+
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.vfs.server.SystemPathsFilter;
+import org.eclipse.che.api.vfs.server.VirtualFile;
+import org.eclipse.che.api.vfs.server.VirtualFileFilter;
+import org.eclipse.che.commons.lang.IoUtil;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures number of files per second that are indexed by {@link org.eclipse.che.api.vfs.server.search.LuceneSearcher} when
+ * it builds index of whole mount point. Zero threads means that tree is indexed by single thread as it was done before
+ * parallel indexing was added.
+ * <p/>
+ * Run with: {@code mvn test-compile exec:java -Dexec.mainClass=org.eclipse.che.vfs.impl.fs.LuceneIndexingBenchmark
+ * -Dexec.classpathScope=test}
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LuceneIndexingBenchmark {
+    private static final int    FOLDERS = 50;
+    private static final int    FILES   = 40;
+    private static final int    WORDS   = 2000;
+    private static final String LETTERS = "abcdefghijklmnopqrstuvwxyz";
+
+    @Param({"0", "2", "4"})
+    public int threads;
+
+    private File            ioRoot;
+    private FSMountPoint    mountPoint;
+    private ExecutorService executor;
+    private Searcher        searcher;
+
+    @Setup
+    public void setUp() throws Exception {
+        ioRoot = Files.createTempDirectory("indexing-benchmark").toFile();
+        final Random random = new Random();
+        for (int d = 0; d < FOLDERS; d++) {
+            final File folder = new File(ioRoot, "project/src/folder" + d);
+            if (!folder.mkdirs()) {
+                throw new IllegalStateException("Unable create " + folder);
+            }
+            for (int f = 0; f < FILES; f++) {
+                final StringBuilder content = new StringBuilder();
+                for (int w = 0; w < WORDS; w++) {
+                    for (int l = 3 + random.nextInt(6); l > 0; l--) {
+                        content.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+                    }
+                    content.append(w % 12 == 11 ? '\n' : ' ');
+                }
+                Files.write(new File(folder, "File" + f + ".java").toPath(), content.toString().getBytes());
+            }
+        }
+        mountPoint = new FSMountPoint("benchmark", ioRoot, new EventService(), null, SystemPathsFilter.ANY);
+        executor = Executors.newFixedThreadPool(Math.max(threads, 1));
+    }
+
+    @Setup(Level.Invocation)
+    public void createSearcher() throws Exception {
+        searcher = new Searcher(Files.createTempDirectory("indexing-benchmark-index").toFile());
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeSearcher() {
+        searcher.close();
+        IoUtil.deleteRecursive(searcher.getIndexDir());
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+        IoUtil.deleteRecursive(ioRoot);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FOLDERS * FILES)
+    public void indexTree() throws Exception {
+        final VirtualFile tree = mountPoint.getVirtualFile("/project");
+        if (threads == 0) {
+            searcher.addTree(tree);
+        } else {
+            searcher.addTree(tree, executor, threads);
+        }
+        searcher.getIndexWriter().commit();
+    }
+
+    private static class Searcher extends FSIndexSearcher {
+        Searcher(File indexDir) throws ServerException {
+            super(indexDir, VirtualFileFilter.ALL);
+            doInit();
+        }
+
+        @Override
+        protected void addTree(VirtualFile tree) throws ServerException {
+            super.addTree(tree);
+        }
+
+        @Override
+        protected void addTree(VirtualFile tree, Executor executor, int threads) throws ServerException {
+            super.addTree(tree, executor, threads);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(LuceneIndexingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
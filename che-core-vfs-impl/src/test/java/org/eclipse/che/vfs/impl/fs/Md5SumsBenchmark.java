@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.vfs.impl.fs;
+
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.vfs.server.LazyIterator;
+import org.eclipse.che.api.vfs.server.SystemPathsFilter;
+import org.eclipse.che.commons.lang.IoUtil;
+import org.eclipse.che.commons.lang.Pair;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link FSMountPoint#countMd5Sums(VirtualFileImpl)} for project without index of MD5 digests ("cold") and
+ * with index that was built by previous call ("warm"). Warm call reads only index files and attributes of files.
+ * <p/>
+ * Run with: {@code mvn test-compile exec:java -Dexec.mainClass=org.eclipse.che.vfs.impl.fs.Md5SumsBenchmark
+ * -Dexec.classpathScope=test}
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class Md5SumsBenchmark {
+    private static final int FOLDERS   = 100;
+    private static final int FILES     = 50;
+    private static final int FILE_SIZE = 16 * 1024;
+
+    @Param({"cold", "warm"})
+    public String index;
+
+    private File         ioRoot;
+    private FSMountPoint mountPoint;
+
+    @Setup
+    public void setUp() throws Exception {
+        ioRoot = Files.createTempDirectory("md5-benchmark").toFile();
+        final Random random = new Random();
+        final byte[] content = new byte[FILE_SIZE];
+        // Digests of recently modified files are not saved in index.
+        final long lastModified = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(1);
+        for (int d = 0; d < FOLDERS; d++) {
+            final File folder = new File(ioRoot, "project/src/folder" + d);
+            if (!folder.mkdirs()) {
+                throw new IllegalStateException("Unable create " + folder);
+            }
+            for (int f = 0; f < FILES; f++) {
+                random.nextBytes(content);
+                final File file = new File(folder, "File" + f + ".java");
+                Files.write(file.toPath(), content);
+                file.setLastModified(lastModified);
+            }
+        }
+        mountPoint = new FSMountPoint("benchmark", ioRoot, new EventService(), null, SystemPathsFilter.ANY);
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareIndex() throws Exception {
+        if ("cold".equals(index)) {
+            deleteIndex(ioRoot);
+        } else {
+            countMd5Sums();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        IoUtil.deleteRecursive(ioRoot);
+    }
+
+    @Benchmark
+    public int countMd5Sums() throws Exception {
+        final LazyIterator<Pair<String, String>> md5Sums = mountPoint.getVirtualFile("/project").countMd5Sums();
+        int hash = 0;
+        while (md5Sums.hasNext()) {
+            hash += md5Sums.next().first.hashCode();
+        }
+        return hash;
+    }
+
+    private static void deleteIndex(File folder) {
+        final File[] children = folder.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                if (child.isDirectory()) {
+                    deleteIndex(child);
+                }
+            }
+        }
+        final File index = new File(folder, FSMountPoint.MD5_INDEX_FILE);
+        if (index.exists() && !index.delete()) {
+            throw new IllegalStateException("Unable delete " + index);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(Md5SumsBenchmark.class.getSimpleName()).build()).run();
+    }
+}
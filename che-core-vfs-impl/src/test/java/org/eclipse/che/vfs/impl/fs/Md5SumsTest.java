@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.vfs.impl.fs;
+
+import org.eclipse.che.api.vfs.server.LazyIterator;
+import org.eclipse.che.commons.lang.Pair;
+
+import com.google.common.hash.Hashing;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+public class Md5SumsTest extends LocalFileSystemTest {
+    private static final String UPDATED_CONTENT = "__UPDT__"; // same length as default content
+
+    private String folderPath;
+    private String filePath;
+    private long   lastModified;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        folderPath = createDirectory(testRootPath, "Md5SumsTest_Folder");
+        filePath = createFile(folderPath, "Md5SumsTest_File", DEFAULT_CONTENT_BYTES);
+        createFile(folderPath, "Md5SumsTest_File2", DEFAULT_CONTENT_BYTES);
+        createTree(folderPath, 4, 2, null);
+        // Digests of recently modified files are not saved in index.
+        lastModified = (System.currentTimeMillis() - 60000) / 1000 * 1000;
+        for (String child : flattenDirectory(folderPath)) {
+            getIoFile(folderPath + '/' + child).setLastModified(lastModified);
+        }
+    }
+
+    public void testCountMd5Sums() throws Exception {
+        Map<String, String> md5Sums = countMd5Sums();
+        assertEquals(countFiles(), md5Sums.size());
+        for (Map.Entry<String, String> e : md5Sums.entrySet()) {
+            assertEquals(md5(readFile(folderPath + '/' + e.getKey())), e.getValue());
+        }
+        assertTrue("Index of digests must be created. ", getIndexIoFile(folderPath).exists());
+    }
+
+    public void testUseDigestsFromIndex() throws Exception {
+        countMd5Sums();
+        Map<String, FileDigest> index = readIndex(folderPath);
+        index.put("Md5SumsTest_File", new FileDigest(DEFAULT_CONTENT_BYTES.length, lastModified, "__INDEXED__"));
+        writeIndex(folderPath, index);
+        assertEquals("__INDEXED__", countMd5Sums().get("Md5SumsTest_File"));
+    }
+
+    public void testIgnoreDigestOfModifiedFile() throws Exception {
+        countMd5Sums();
+        writeFile(filePath, UPDATED_CONTENT.getBytes());
+        getIoFile(filePath).setLastModified(lastModified + 1000);
+        assertEquals(md5(UPDATED_CONTENT.getBytes()), countMd5Sums().get("Md5SumsTest_File"));
+    }
+
+    public void testUpdateContentRemovesDigestFromIndex() throws Exception {
+        countMd5Sums();
+        mountPoint.getVirtualFile(filePath).updateContent(new ByteArrayInputStream(UPDATED_CONTENT.getBytes()), null);
+        // Length and timestamp of file are the same as before update.
+        getIoFile(filePath).setLastModified(lastModified);
+        assertNull(readIndex(folderPath).get("Md5SumsTest_File"));
+        assertEquals(md5(UPDATED_CONTENT.getBytes()), countMd5Sums().get("Md5SumsTest_File"));
+    }
+
+    public void testDeleteRemovesDigestFromIndex() throws Exception {
+        countMd5Sums();
+        mountPoint.getVirtualFile(filePath).delete(null);
+        Map<String, FileDigest> index = readIndex(folderPath);
+        assertNull(index.get("Md5SumsTest_File"));
+        assertNotNull(index.get("Md5SumsTest_File2"));
+    }
+
+    private Map<String, String> countMd5Sums() throws Exception {
+        Map<String, String> md5Sums = new HashMap<>();
+        LazyIterator<Pair<String, String>> iterator = mountPoint.getVirtualFile(folderPath).countMd5Sums();
+        while (iterator.hasNext()) {
+            Pair<String, String> md5Sum = iterator.next();
+            md5Sums.put(md5Sum.second, md5Sum.first);
+        }
+        return md5Sums;
+    }
+
+    private int countFiles() {
+        int count = 0;
+        for (String child : flattenDirectory(folderPath)) {
+            if (getIoFile(folderPath + '/' + child).isFile()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private String md5(byte[] content) {
+        return Hashing.md5().hashBytes(content).toString();
+    }
+
+    private java.io.File getIndexIoFile(String folderPath) {
+        return new java.io.File(getIoFile(folderPath), FSMountPoint.MD5_INDEX_FILE);
+    }
+
+    private Map<String, FileDigest> readIndex(String folderPath) throws Exception {
+        try (DataInputStream dis = new DataInputStream(new FileInputStream(getIndexIoFile(folderPath)))) {
+            return new FileDigestSerializer().read(dis);
+        }
+    }
+
+    private void writeIndex(String folderPath, Map<String, FileDigest> index) throws Exception {
+        try (DataOutputStream dos = new DataOutputStream(new FileOutputStream(getIndexIoFile(folderPath)))) {
+            new FileDigestSerializer().write(dos, index);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.vfs.impl.fs;
+
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.vfs.server.SystemPathsFilter;
+import org.eclipse.che.api.vfs.server.VirtualFileFilter;
+import org.eclipse.che.api.vfs.server.search.QueryExpression;
+
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+public class PersistentSearcherTest extends LocalFileSystemTest {
+    private java.io.File indexRootDir;
+    private String       project1;
+    private String       project2;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        indexRootDir = new java.io.File(root, "PersistentSearcherTest_Index");
+        project1 = createDirectory(testRootPath, "project1");
+        createFile(project1, "file1.txt", "to be or not to be".getBytes());
+        createFile(project1, "file2.txt", "to be or not to be".getBytes());
+        createFile(project1, "file3.txt", "to be or not to be".getBytes());
+        project2 = createDirectory(testRootPath, "project2");
+        createFile(project2, "file1.txt", "maybe you should think twice".getBytes());
+    }
+
+    public void testReconcileIndexWhenSearcherIsCreatedAgain() throws Exception {
+        FSMountPoint mount = createMountPoint(project1, newSearcherProvider());
+        PersistentSearcher searcher = getSearcher(mount);
+        assertEquals(3, searcher.reconciledFiles());
+        searcher.close();
+
+        writeFile(project1 + "/file2.txt", "updated".getBytes());
+        assertTrue(getIoFile(project1 + "/file3.txt").delete());
+        createFile(project1, "file4.txt", "to be or not to be".getBytes());
+
+        // Emulate restart of server.
+        mount = createMountPoint(project1, newSearcherProvider());
+        searcher = getSearcher(mount);
+        assertEquals(2, searcher.reconciledFiles());
+        assertEquals(new HashSet<>(Arrays.asList("/file1.txt", "/file4.txt")),
+                     search(searcher, new QueryExpression().setText("be")));
+        assertEquals(Collections.singleton("/file2.txt"), search(searcher, new QueryExpression().setText("updated")));
+        searcher.close();
+    }
+
+    public void testNotReindexUnchangedFiles() throws Exception {
+        FSMountPoint mount = createMountPoint(project1, newSearcherProvider());
+        getSearcher(mount).close();
+
+        mount = createMountPoint(project1, newSearcherProvider());
+        PersistentSearcher searcher = getSearcher(mount);
+        assertEquals(0, searcher.reconciledFiles());
+        assertEquals(3, search(searcher, new QueryExpression().setText("be")).size());
+        searcher.close();
+    }
+
+    public void testCloseLeastRecentlyUsedSearcher() throws Exception {
+        PersistentSearcherProvider searcherProvider = newSearcherProvider();
+        searcherProvider.maxOpenIndexes = 1;
+        FSMountPoint mount1 = createMountPoint(project1, searcherProvider);
+        FSMountPoint mount2 = createMountPoint(project2, searcherProvider);
+        getSearcher(mount1);
+        PersistentSearcher searcher2 = getSearcher(mount2);
+
+        assertNull(searcherProvider.getSearcher(mount1, false));
+        assertSame(searcher2, searcherProvider.getSearcher(mount2, false));
+        // Index of closed searcher is reused.
+        PersistentSearcher searcher1 = getSearcher(mount1);
+        assertEquals(0, searcher1.reconciledFiles());
+        assertEquals(3, search(searcher1, new QueryExpression().setText("be")).size());
+        assertNull(searcherProvider.getSearcher(mount2, false));
+        searcher1.close();
+    }
+
+    public void testCloseEvictedSearcherWhenItIsReleased() throws Exception {
+        PersistentSearcherProvider searcherProvider = newSearcherProvider();
+        searcherProvider.maxOpenIndexes = 1;
+        FSMountPoint mount1 = createMountPoint(project1, searcherProvider);
+        FSMountPoint mount2 = createMountPoint(project2, searcherProvider);
+        PersistentSearcher searcher1 = getSearcher(mount1);
+        searcher1.acquire();
+        PersistentSearcher searcher2 = getSearcher(mount2);
+
+        assertNull(searcherProvider.getSearcher(mount1, false));
+        // Evicted searcher stays open while it is in use.
+        assertEquals(3, search(searcher1, new QueryExpression().setText("be")).size());
+        searcher1.release();
+        try {
+            searcher1.search(new QueryExpression().setText("be"));
+            fail("Searcher must be closed when it is released");
+        } catch (ServerException expected) {
+        }
+        searcher2.close();
+    }
+
+    public void testReuseEvictedSearcherWhichIsInUse() throws Exception {
+        PersistentSearcherProvider searcherProvider = newSearcherProvider();
+        searcherProvider.maxOpenIndexes = 1;
+        FSMountPoint mount1 = createMountPoint(project1, searcherProvider);
+        FSMountPoint mount2 = createMountPoint(project2, searcherProvider);
+        PersistentSearcher searcher1 = getSearcher(mount1);
+        searcher1.acquire();
+        getSearcher(mount2);
+
+        assertSame(searcher1, getSearcher(mount1));
+        assertNull(searcherProvider.getSearcher(mount2, false));
+        searcher1.release();
+        // Searcher is not evicted any more and is not closed when it is released.
+        assertEquals(3, search(searcher1, new QueryExpression().setText("be")).size());
+        searcher1.close();
+    }
+
+    public void testRecreateBrokenIndex() throws Exception {
+        FSMountPoint mount = createMountPoint(project1, newSearcherProvider());
+        PersistentSearcher searcher = getSearcher(mount);
+        searcher.close();
+        for (java.io.File file : searcher.getIndexDir().listFiles()) {
+            Files.write(file.toPath(), "broken".getBytes());
+        }
+
+        mount = createMountPoint(project1, newSearcherProvider());
+        searcher = getSearcher(mount);
+        assertEquals(3, searcher.reconciledFiles());
+        assertEquals(3, search(searcher, new QueryExpression().setText("be")).size());
+        searcher.close();
+    }
+
+    private PersistentSearcherProvider newSearcherProvider() {
+        return new PersistentSearcherProvider(indexRootDir, Collections.<VirtualFileFilter>emptySet());
+    }
+
+    private FSMountPoint createMountPoint(String path, PersistentSearcherProvider searcherProvider) {
+        return new FSMountPoint(MY_WORKSPACE_ID, getIoFile(path), new EventService(), searcherProvider, SystemPathsFilter.ANY);
+    }
+
+    private PersistentSearcher getSearcher(FSMountPoint mount) throws Exception {
+        PersistentSearcher searcher = (PersistentSearcher)mount.getSearcherProvider().getSearcher(mount, true);
+        Throwable error;
+        while ((error = searcher.initializationError()) == null && !searcher.initialized()) {
+            Thread.sleep(100);
+        }
+        if (error != null) {
+            fail(error.getMessage());
+        }
+        return searcher;
+    }
+
+    private Set<String> search(PersistentSearcher searcher, QueryExpression query) throws Exception {
+        return new HashSet<>(Arrays.asList(searcher.search(query)));
+    }
+}
@@ -10,11 +10,17 @@
  *******************************************************************************/
 package org.eclipse.che.vfs.impl.fs;
 
+import org.eclipse.che.api.core.ConflictException;
+import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.core.notification.EventService;
 import org.eclipse.che.api.vfs.server.SystemPathsFilter;
+import org.eclipse.che.api.vfs.server.VirtualFile;
 import org.eclipse.che.api.vfs.server.VirtualFileFilter;
+import org.eclipse.che.api.vfs.server.search.QueryExpression;
+import org.eclipse.che.api.vfs.server.search.SearchResult;
 import org.eclipse.che.api.vfs.shared.dto.Item;
 import org.eclipse.che.api.vfs.shared.dto.ItemList;
+import org.eclipse.che.commons.lang.IoUtil;
 import org.eclipse.che.commons.lang.Pair;
 import org.apache.lucene.analysis.core.SimpleAnalyzer;
 import org.apache.lucene.index.Term;
@@ -29,12 +35,17 @@ import org.everrest.core.impl.ContainerResponse;
 import org.everrest.core.tools.ByteArrayContainerResponseWriter;
 
 import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 
 import javax.ws.rs.HttpMethod;
 import javax.ws.rs.core.HttpHeaders;
@@ -144,6 +155,87 @@ public class SearcherTest extends LocalFileSystemTest {
         }
     }
 
+    public void testSearchWithMaxItemsAndSkipCount() throws Exception {
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+        String requestPath = SERVICE_URI + "search?maxItems=2&skipCount=1";
+        Map<String, List<String>> h = new HashMap<>(1);
+        h.put(HttpHeaders.CONTENT_TYPE, Arrays.asList(MediaType.APPLICATION_FORM_URLENCODED));
+        ContainerResponse response = launcher.service(HttpMethod.POST, requestPath, BASE_URI, h, "name=SearcherTest*".getBytes(), writer,
+                                                      null);
+        assertEquals("Error: " + response.getEntity(), 200, response.getStatus());
+        ItemList result = (ItemList)response.getEntity();
+        assertEquals(2, result.getItems().size());
+        assertEquals(4, result.getNumItems());
+        assertTrue(result.isHasMoreItems());
+    }
+
+    public void testSearchPagesOrderedByPath() throws Exception {
+        QueryExpression query = new QueryExpression().setPath(searchTestPath).setOrder(QueryExpression.Order.PATH).setMaxItems(1);
+        List<String> paths = new ArrayList<>();
+        SearchResult result;
+        do {
+            result = searcher.searchPage(query);
+            assertEquals(4, result.getTotalHits());
+            assertEquals(1, result.getEntries().size());
+            paths.add(result.getEntries().get(0).getPath());
+            query.setAfter(result.getNextCursor());
+        } while (result.getNextCursor() != null);
+        List<String> expected = Arrays.asList(file1, file2, file4, file3);
+        Collections.sort(expected);
+        assertEquals(expected, paths);
+    }
+
+    public void testSearchPagesOrderedByRelevance() throws Exception {
+        mountPoint.getVirtualFile(file2).updateContent(new ByteArrayInputStream("to be be be".getBytes()), null);
+        QueryExpression query = new QueryExpression().setText("be").setMaxItems(2);
+        SearchResult first = searcher.searchPage(query);
+        assertEquals(3, first.getTotalHits());
+        assertEquals(2, first.getEntries().size());
+        assertEquals(file2, first.getEntries().get(0).getPath());
+        assertNotNull(first.getNextCursor());
+
+        SearchResult second = searcher.searchPage(query.setAfter(first.getNextCursor()));
+        assertEquals(1, second.getEntries().size());
+        assertNull(second.getNextCursor());
+        List<String> paths = Arrays.asList(first.getEntries().get(0).getPath(), first.getEntries().get(1).getPath(),
+                                           second.getEntries().get(0).getPath());
+        assertTrue(paths.containsAll(Arrays.asList(file1, file2, file3)));
+    }
+
+    public void testRejectInvalidCursor() throws Exception {
+        try {
+            searcher.searchPage(new QueryExpression().setText("be").setAfter("x:invalid"));
+            fail("ConflictException expected");
+        } catch (ConflictException expected) {
+        }
+    }
+
+    public void testSearchWithSnippets() throws Exception {
+        StringBuilder longLine = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            longLine.append("word ");
+        }
+        longLine.append("think");
+        mountPoint.getVirtualFile(file2).updateContent(
+                new ByteArrayInputStream(("maybe you should\nthink twice\n" + longLine).getBytes()), null);
+        SearchResult result = searcher.searchPage(new QueryExpression().setText("thin*").setIncludeSnippets(true));
+        assertEquals(1, result.getEntries().size());
+        List<SearchResult.Snippet> snippets = result.getEntries().get(0).getSnippets();
+        assertEquals(2, snippets.size());
+
+        assertEquals(2, snippets.get(0).getLineNumber());
+        assertEquals(0, snippets.get(0).getColumn());
+        assertEquals("think twice", snippets.get(0).getText());
+        assertEquals(0, snippets.get(0).getStartOffset());
+        assertEquals(5, snippets.get(0).getEndOffset());
+
+        SearchResult.Snippet cut = snippets.get(1);
+        assertEquals(3, cut.getLineNumber());
+        assertEquals(500, cut.getColumn());
+        assertTrue(cut.getText().length() < longLine.length());
+        assertEquals("think", cut.getText().substring(cut.getStartOffset(), cut.getEndOffset()));
+    }
+
     public void testDeleteFile() throws Exception {
         searcherManager.maybeRefresh();
         IndexSearcher luceneSearcher = searcherManager.acquire();
@@ -326,4 +418,78 @@ public class SearcherTest extends LocalFileSystemTest {
         assertEquals(4, topDocs.totalHits);
         searcherManager.release(luceneSearcher);
     }
+
+    public void testReportIncompleteIndex() throws Exception {
+        assertTrue(searcher.searchPage(new QueryExpression().setText("to")).isIndexComplete());
+        TreeSearcher treeSearcher = new TreeSearcher();
+        try {
+            // Initial indexing is never done by this searcher.
+            assertFalse(treeSearcher.searchPage(new QueryExpression().setText("to")).isIndexComplete());
+        } finally {
+            treeSearcher.close();
+        }
+    }
+
+    public void testAddTreeInParallel() throws Exception {
+        String treePath = createDirectory(testRootPath, "SearcherTest_Tree");
+        int files = createFiles(treePath);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        TreeSearcher treeSearcher = new TreeSearcher();
+        try {
+            treeSearcher.addTree(mountPoint.getVirtualFile(treePath), executor, 4);
+            assertEquals(files, treeSearcher.search(new QueryExpression().setPath(treePath)).length);
+            assertEquals(files, treeSearcher.search(new QueryExpression().setPath(treePath).setText("twice")).length);
+        } finally {
+            executor.shutdownNow();
+            treeSearcher.close();
+        }
+    }
+
+    public void testAddTreeWithoutFreeThreads() throws Exception {
+        String treePath = createDirectory(testRootPath, "SearcherTest_Tree");
+        int files = createFiles(treePath);
+        TreeSearcher treeSearcher = new TreeSearcher();
+        try {
+            // Walker of tree must index all files itself.
+            treeSearcher.addTree(mountPoint.getVirtualFile(treePath), new Executor() {
+                @Override
+                public void execute(Runnable command) {
+                    throw new RejectedExecutionException();
+                }
+            }, 4);
+            assertEquals(files, treeSearcher.search(new QueryExpression().setPath(treePath)).length);
+        } finally {
+            treeSearcher.close();
+        }
+    }
+
+    private int createFiles(String parent) throws Exception {
+        int files = 0;
+        for (int i = 0; i < 10; i++) {
+            String folder = createDirectory(parent, "folder" + i);
+            for (int j = 0; j < 30; j++) {
+                createFile(folder, "file" + j + ".txt", "maybe you should think twice".getBytes());
+                files++;
+            }
+        }
+        return files;
+    }
+
+    private class TreeSearcher extends FSIndexSearcher {
+        TreeSearcher() throws Exception {
+            super(Files.createTempDirectory(root.getParentFile().toPath(), null).toFile(), VirtualFileFilter.ALL);
+            doInit();
+        }
+
+        @Override
+        protected void addTree(VirtualFile tree, Executor executor, int threads) throws ServerException {
+            super.addTree(tree, executor, threads);
+        }
+
+        @Override
+        public void close() {
+            super.close();
+            IoUtil.deleteRecursive(getIndexDir());
+        }
+    }
 }
@@ -0,0 +1,58 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.commons.lang.cache;
+
+/**
+ * Snapshot of statistics of cache usage.
+ *
+ * @author andrew00x
+ */
+public final class CacheStats {
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+
+    public CacheStats(long hitCount, long missCount, long evictionCount) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+    }
+
+    /** Returns number of lookups that found value in cache. */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /** Returns number of lookups that didn't find value in cache. */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /** Returns number of entries that were removed from cache to free space for new entries. */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /** Returns ratio of hits to all lookups or {@code 1.0} if there were no lookups at all. */
+    public double getHitRate() {
+        final long requestCount = hitCount + missCount;
+        return requestCount == 0 ? 1.0 : (double)hitCount / requestCount;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{" +
+               "hitCount=" + hitCount +
+               ", missCount=" + missCount +
+               ", evictionCount=" + evictionCount +
+               '}';
+    }
+}
@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.commons.lang.cache;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Thread safe segmented LRU cache that loads value if it isn't cached yet. Value is loaded without holding any lock of
+ * cache so slow loading doesn't block readers of other keys. If few threads request the same missed key at the same
+ * time then value is loaded just once, other threads wait until loading is finished.
+ *
+ * @author andrew00x
+ */
+public abstract class ConcurrentLoadingValueSLRUCache<K, V> extends ConcurrentSLRUCache<K, V> {
+    /**
+     * @param protectedSize
+     *         size of protected area.
+     * @param probationarySize
+     *         size of probationary area.
+     */
+    public ConcurrentLoadingValueSLRUCache(int protectedSize, int probationarySize) {
+        super(protectedSize, probationarySize);
+    }
+
+    /**
+     * @param protectedSize
+     *         size of protected area.
+     * @param probationarySize
+     *         size of probationary area.
+     * @param expireAfterWrite
+     *         time in milliseconds after that entry is removed from cache since it was put in cache. Zero or negative
+     *         value means that entries never expire.
+     */
+    public ConcurrentLoadingValueSLRUCache(int protectedSize, int probationarySize, long expireAfterWrite) {
+        super(protectedSize, probationarySize, expireAfterWrite);
+    }
+
+    @Override
+    public V get(K key) {
+        for (; ; ) {
+            final Node<K, V> node = map.get(key);
+            if (node != null) {
+                if (node.isLoaded()) {
+                    if (!isExpired(node)) {
+                        node.markReferenced();
+                        recordHit();
+                        return node.value;
+                    }
+                    remove(key, node);
+                    continue;
+                }
+                final V value = ((LoadingNode<K, V>)node).await();
+                if (value != null) {
+                    recordHit();
+                    return value;
+                }
+                // Loading failed in other thread, try to load value in this one.
+                continue;
+            }
+            final LoadingNode<K, V> loading = new LoadingNode<>(key, now());
+            if (map.putIfAbsent(key, loading) == null) {
+                recordMiss();
+                return load(loading);
+            }
+        }
+    }
+
+    private V load(LoadingNode<K, V> loading) {
+        V value = null;
+        try {
+            value = loadValue(loading.key);
+        } finally {
+            if (value == null) {
+                remove(loading.key, loading);
+            } else {
+                loading.value = value;
+            }
+            loading.done.countDown();
+        }
+        loaded(loading);
+        return value;
+    }
+
+    /**
+     * Load value in implementation specific way.
+     *
+     * @param key
+     *         key
+     * @return value
+     * @throws RuntimeException
+     *         if failed to load value
+     */
+    protected abstract V loadValue(K key) throws RuntimeException;
+
+    private static class LoadingNode<K, V> extends Node<K, V> {
+        final CountDownLatch done   = new CountDownLatch(1);
+        final Thread         loader = Thread.currentThread();
+
+        LoadingNode(K key, long writeTime) {
+            super(key, null, writeTime);
+        }
+
+        /** Waits until value is loaded. Returns {@code null} if loading failed. */
+        V await() {
+            if (loader == Thread.currentThread()) {
+                throw new IllegalStateException(String.format("Recursive loading of value for key '%s'. ", key));
+            }
+            boolean interrupted = false;
+            try {
+                for (; ; ) {
+                    try {
+                        done.await();
+                        return value;
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
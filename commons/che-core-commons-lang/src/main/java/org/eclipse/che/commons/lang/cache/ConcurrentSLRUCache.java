@@ -0,0 +1,395 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.commons.lang.cache;
+
+import java.util.AbstractMap;
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Thread safe segmented LRU cache. See for details <a href="http://en.wikipedia.org/wiki/Cache_algorithms#Segmented_LRU">Segmented
+ * LRU cache</a>
+ * <p/>
+ * Unlike {@link SynchronizedCache} over {@link SLRUCache} this implementation doesn't block readers. Values are kept in
+ * {@link ConcurrentHashMap} and read of value only marks entry as referenced. Order of entries in segments is updated
+ * lazily, under the lock that is used by writers only, with "second chance" algorithm: referenced entry at the head of
+ * probationary segment is moved to protected segment instead of being evicted, referenced entry at the head of protected
+ * segment gets one more round in protected segment instead of being moved to probationary segment.
+ * <p/>
+ * Optionally entries may expire after specified time since they were put in cache.
+ *
+ * @author andrew00x
+ * @see ConcurrentLoadingValueSLRUCache
+ */
+public class ConcurrentSLRUCache<K, V> implements Cache<K, V> {
+    final ConcurrentMap<K, Node<K, V>> map;
+
+    private final int           protectedSize;
+    private final int           probationarySize;
+    private final long          expireAfterWrite;
+    private final ReentrantLock evictionLock;
+    // Segments are double linked lists with sentinel nodes. Guarded by evictionLock.
+    private final Node<K, V>    protectedSegment;
+    private final Node<K, V>    probationarySegment;
+    private       int           protectedCount;
+    private       int           probationaryCount;
+
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+
+    /**
+     * @param protectedSize
+     *         size of protected area.
+     * @param probationarySize
+     *         size of probationary area.
+     */
+    public ConcurrentSLRUCache(int protectedSize, int probationarySize) {
+        this(protectedSize, probationarySize, 0);
+    }
+
+    /**
+     * @param protectedSize
+     *         size of protected area.
+     * @param probationarySize
+     *         size of probationary area.
+     * @param expireAfterWrite
+     *         time in milliseconds after that entry is removed from cache since it was put in cache. Zero or negative
+     *         value means that entries never expire.
+     */
+    public ConcurrentSLRUCache(int protectedSize, int probationarySize, long expireAfterWrite) {
+        if (protectedSize < 0 || probationarySize < 1) {
+            throw new IllegalArgumentException("Size of protected area may not be negative and size of probationary area must be positive. ");
+        }
+        this.protectedSize = protectedSize;
+        this.probationarySize = probationarySize;
+        this.expireAfterWrite = expireAfterWrite > 0 ? expireAfterWrite : 0;
+        map = new ConcurrentHashMap<>(protectedSize + probationarySize);
+        evictionLock = new ReentrantLock();
+        protectedSegment = Node.sentinel();
+        probationarySegment = Node.sentinel();
+        hits = new LongAdder();
+        misses = new LongAdder();
+        evictions = new LongAdder();
+    }
+
+    @Override
+    public V get(K key) {
+        final Node<K, V> node = map.get(key);
+        if (node != null && node.isLoaded()) {
+            if (!isExpired(node)) {
+                node.markReferenced();
+                hits.increment();
+                return node.value;
+            }
+            remove(key, node);
+        }
+        misses.increment();
+        return null;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null value. ");
+        }
+        final Node<K, V> node = new Node<>(key, value, now());
+        final Node<K, V> previous = map.put(key, node);
+        evictionLock.lock();
+        try {
+            if (previous != null) {
+                unlink(previous);
+            }
+            // Node might be already replaced or removed by other thread.
+            if (map.get(key) == node) {
+                link(node);
+                evictIfNeeded();
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+        return valueOf(previous);
+    }
+
+    @Override
+    public V remove(K key) {
+        final Node<K, V> node = map.remove(key);
+        if (node != null) {
+            unlinkLocked(node);
+        }
+        return valueOf(node);
+    }
+
+    /**
+     * Removes entry only if it is still mapped to the specified value, values are compared by identity. Lets caller which put value
+     * into cache take back its own value without removing value that is put by other thread.
+     *
+     * @return {@code true} if entry was removed
+     */
+    public boolean remove(K key, V value) {
+        final Node<K, V> node = map.get(key);
+        return node != null && node.value == value && remove(key, node);
+    }
+
+    /** Removes entry only if it is still mapped to the specified node. */
+    boolean remove(K key, Node<K, V> node) {
+        if (map.remove(key, node)) {
+            unlinkLocked(node);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Removes all entries which keys match the specified filter. Unlike removal with {@link #iterator()} this method also
+     * removes entries which values are being loaded, so such values are not cached when loading is finished.
+     */
+    public void removeIf(Predicate<? super K> filter) {
+        for (Node<K, V> node : map.values()) {
+            if (filter.test(node.key)) {
+                remove(node.key, node);
+            }
+        }
+    }
+
+    @Override
+    public boolean contains(K key) {
+        final Node<K, V> node = map.get(key);
+        return node != null && node.isLoaded() && !isExpired(node);
+    }
+
+    @Override
+    public void clear() {
+        evictionLock.lock();
+        try {
+            for (Node<K, V> node : map.values()) {
+                if (map.remove(node.key, node)) {
+                    unlink(node);
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    /** Returns statistics of usage of this cache. */
+    public CacheStats getStats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    /**
+     * Returns iterator over entries of cache. Iterator is weakly consistent, it never throws {@link
+     * java.util.ConcurrentModificationException}. Method {@link Iterator#remove()} removes current entry from cache.
+     */
+    @Override
+    public Iterator<Entry<K, V>> iterator() {
+        final Iterator<Node<K, V>> nodes = map.values().iterator();
+        return new Iterator<Entry<K, V>>() {
+            Node<K, V> next;
+            Node<K, V> current;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && nodes.hasNext()) {
+                    final Node<K, V> node = nodes.next();
+                    if (node.isLoaded() && !isExpired(node)) {
+                        next = node;
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public Entry<K, V> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                current = next;
+                next = null;
+                return new AbstractMap.SimpleImmutableEntry<>(current.key, current.value);
+            }
+
+            @Override
+            public void remove() {
+                if (current == null) {
+                    throw new IllegalStateException();
+                }
+                ConcurrentSLRUCache.this.remove(current.key, current);
+                current = null;
+            }
+        };
+    }
+
+    /** Adds loaded value to the segments if node is still in cache. */
+    void loaded(Node<K, V> node) {
+        evictionLock.lock();
+        try {
+            if (map.get(node.key) == node) {
+                link(node);
+                evictIfNeeded();
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    void recordHit() {
+        hits.increment();
+    }
+
+    void recordMiss() {
+        misses.increment();
+    }
+
+    boolean isExpired(Node<K, V> node) {
+        return expireAfterWrite > 0 && now() - node.writeTime > expireAfterWrite;
+    }
+
+    long now() {
+        return expireAfterWrite > 0 ? System.currentTimeMillis() : 0;
+    }
+
+    private void unlinkLocked(Node<K, V> node) {
+        evictionLock.lock();
+        try {
+            unlink(node);
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /* Methods below must be called under eviction lock. */
+
+    private void link(Node<K, V> node) {
+        node.linkBefore(probationarySegment);
+        node.inProtectedSegment = false;
+        probationaryCount++;
+    }
+
+    private void unlink(Node<K, V> node) {
+        if (node.isLinked()) {
+            node.unlink();
+            if (node.inProtectedSegment) {
+                protectedCount--;
+            } else {
+                probationaryCount--;
+            }
+        }
+    }
+
+    private void evictIfNeeded() {
+        while (protectedCount + probationaryCount > protectedSize + probationarySize || probationaryCount > probationarySize) {
+            if (probationaryCount == 0) {
+                demote();
+                continue;
+            }
+            final Node<K, V> head = probationarySegment.next;
+            head.unlink();
+            probationaryCount--;
+            if (head.referenced && protectedSize > 0) {
+                // Second chance, move to protected segment.
+                head.referenced = false;
+                head.linkBefore(protectedSegment);
+                head.inProtectedSegment = true;
+                protectedCount++;
+                if (protectedCount > protectedSize) {
+                    demote();
+                }
+            } else if (map.remove(head.key, head)) {
+                evictions.increment();
+            }
+        }
+    }
+
+    /** Moves the least recently used entry of protected segment to probationary segment. */
+    private void demote() {
+        Node<K, V> head = protectedSegment.next;
+        while (head.referenced) {
+            head.referenced = false;
+            head.unlink();
+            head.linkBefore(protectedSegment);
+            head = protectedSegment.next;
+        }
+        head.unlink();
+        protectedCount--;
+        head.linkBefore(probationarySegment);
+        head.inProtectedSegment = false;
+        probationaryCount++;
+    }
+
+    private static <K, V> V valueOf(Node<K, V> node) {
+        return node == null || !node.isLoaded() ? null : node.value;
+    }
+
+    static class Node<K, V> {
+        static <K, V> Node<K, V> sentinel() {
+            final Node<K, V> sentinel = new Node<>(null, null, 0);
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+            return sentinel;
+        }
+
+        final    K       key;
+        final    long    writeTime;
+        volatile V       value;
+        volatile boolean referenced;
+        // Guarded by eviction lock.
+        Node<K, V> prev;
+        Node<K, V> next;
+        boolean    inProtectedSegment;
+
+        Node(K key, V value, long writeTime) {
+            this.key = key;
+            this.value = value;
+            this.writeTime = writeTime;
+        }
+
+        boolean isLoaded() {
+            return value != null;
+        }
+
+        void markReferenced() {
+            // Avoid needless writes to shared memory.
+            if (!referenced) {
+                referenced = true;
+            }
+        }
+
+        boolean isLinked() {
+            return next != null;
+        }
+
+        void linkBefore(Node<K, V> sentinel) {
+            prev = sentinel.prev;
+            next = sentinel;
+            sentinel.prev.next = this;
+            sentinel.prev = this;
+        }
+
+        void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = null;
+            next = null;
+        }
+    }
+}
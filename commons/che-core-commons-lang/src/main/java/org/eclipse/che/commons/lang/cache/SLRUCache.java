@@ -28,9 +28,10 @@ public class SLRUCache<K, V> implements Cache<K, V>, Iterable<Entry<K, V>> {
     private final Map<K, V> probationarySegment;
     private final int       protectedSize;
     private final int       probationarySize;
-    private       int       misses;
-    private       int       protectedHits;
-    private       int       probationaryHits;
+    private       long      misses;
+    private       long      protectedHits;
+    private       long      probationaryHits;
+    private       long      evictions;
 
     /**
      * @param protectedSize
@@ -55,7 +56,11 @@ public class SLRUCache<K, V> implements Cache<K, V>, Iterable<Entry<K, V>> {
                 LinkedHashMap<K, V>(SLRUCache.this.probationarySize + 1, 1.1f, false) {
                     @Override
                     protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
-                        return size() > SLRUCache.this.probationarySize;
+                        if (size() > SLRUCache.this.probationarySize) {
+                            evictions++;
+                            return true;
+                        }
+                        return false;
                     }
                 };
     }
@@ -151,12 +156,9 @@ public class SLRUCache<K, V> implements Cache<K, V>, Iterable<Entry<K, V>> {
         return protectedSegment.size() + probationarySegment.size();
     }
 
-    public void printStats() {
-        System.out.println("-------------------------------------------");
-        System.out.printf("misses:            %d\n", misses);
-        System.out.printf("protected hits:    %d\n", protectedHits);
-        System.out.printf("probationary hits: %d\n", probationaryHits);
-        System.out.println("-------------------------------------------");
+    /** Returns statistics of usage of this cache. */
+    public CacheStats getStats() {
+        return new CacheStats(protectedHits + probationaryHits, misses, evictions);
     }
 
     @SuppressWarnings("unchecked")
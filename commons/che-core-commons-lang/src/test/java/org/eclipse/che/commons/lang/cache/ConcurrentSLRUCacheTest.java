@@ -0,0 +1,270 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.commons.lang.cache;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/** Test of ConcurrentSLRUCache and ConcurrentLoadingValueSLRUCache classes */
+public class ConcurrentSLRUCacheTest {
+    @Test
+    public void shouldBeAbleToGetValueAfterPut() throws Exception {
+        //given
+        ConcurrentSLRUCache<String, String> cache = new ConcurrentSLRUCache<>(2, 2);
+        cache.put("k1", "v1");
+        //when
+        String value = cache.get("k1");
+        //then
+        assertEquals(value, "v1");
+        assertEquals(cache.size(), 1);
+        assertEquals(cache.getStats().getHitCount(), 1);
+    }
+
+    @Test
+    public void shouldEvictValuesWhenSizeExceeded() throws Exception {
+        //given
+        ConcurrentSLRUCache<String, String> cache = new ConcurrentSLRUCache<>(2, 2);
+        //when
+        for (int i = 0; i < 10; i++) {
+            cache.put("k" + i, "v" + i);
+        }
+        //then
+        // Values that were never read don't get in protected segment.
+        assertEquals(cache.size(), 2);
+        assertEquals(cache.getStats().getEvictionCount(), 8);
+        assertNull(cache.get("k0"));
+        assertEquals(cache.get("k9"), "v9");
+    }
+
+    @Test
+    public void shouldKeepReferencedValuesInProtectedSegment() throws Exception {
+        //given
+        ConcurrentSLRUCache<String, String> cache = new ConcurrentSLRUCache<>(2, 2);
+        cache.put("k1", "v1");
+        cache.put("k2", "v2");
+        cache.get("k1");
+        //when
+        for (int i = 3; i < 10; i++) {
+            cache.put("k" + i, "v" + i);
+        }
+        //then
+        assertEquals(cache.get("k1"), "v1");
+        assertNull(cache.get("k2"));
+    }
+
+    @Test
+    public void shouldNotBeAbleToGetValueAfterExpirationTime() throws Exception {
+        //given
+        ConcurrentSLRUCache<String, String> cache = new ConcurrentSLRUCache<>(2, 2, 100);
+        cache.put("k1", "v1");
+        Thread.sleep(200);
+        //when
+        String value = cache.get("k1");
+        //then
+        assertNull(value);
+        assertEquals(cache.size(), 0);
+        assertEquals(cache.getStats().getMissCount(), 1);
+    }
+
+    @Test
+    public void shouldRemoveValuesWithIterator() throws Exception {
+        //given
+        ConcurrentSLRUCache<String, String> cache = new ConcurrentSLRUCache<>(4, 4);
+        cache.put("a1", "v1");
+        cache.put("b1", "v2");
+        cache.put("a2", "v3");
+        //when
+        for (Iterator<Map.Entry<String, String>> iterator = cache.iterator(); iterator.hasNext(); ) {
+            if (iterator.next().getKey().startsWith("a")) {
+                iterator.remove();
+            }
+        }
+        //then
+        assertEquals(cache.size(), 1);
+        assertTrue(cache.contains("b1"));
+        assertFalse(cache.contains("a1"));
+        assertFalse(cache.contains("a2"));
+    }
+
+    @Test
+    public void shouldRemoveOnlyOwnValue() throws Exception {
+        //given
+        ConcurrentSLRUCache<String, String> cache = new ConcurrentSLRUCache<>(2, 2);
+        String own = new String("v1");
+        String other = new String("v1");
+        cache.put("k1", own);
+        cache.put("k1", other);
+        //when
+        boolean removedOwn = cache.remove("k1", own);
+        //then
+        assertFalse(removedOwn);
+        assertEquals(cache.get("k1"), "v1");
+        assertTrue(cache.remove("k1", other));
+        assertFalse(cache.contains("k1"));
+        assertEquals(cache.size(), 0);
+    }
+
+    @Test
+    public void shouldLoadValueOnceForConcurrentRequests() throws Exception {
+        //given
+        final AtomicInteger loads = new AtomicInteger();
+        final CountDownLatch loading = new CountDownLatch(1);
+        final ConcurrentLoadingValueSLRUCache<String, String> cache = new ConcurrentLoadingValueSLRUCache<String, String>(2, 2) {
+            @Override
+            protected String loadValue(String key) {
+                loads.incrementAndGet();
+                try {
+                    loading.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                return key.toUpperCase();
+            }
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<String>> results = new ArrayList<>();
+        //when
+        try {
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(new Callable<String>() {
+                    @Override
+                    public String call() throws Exception {
+                        return cache.get("k1");
+                    }
+                }));
+            }
+            Thread.sleep(200);
+            loading.countDown();
+            //then
+            for (Future<String> result : results) {
+                assertEquals(result.get(), "K1");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(loads.get(), 1);
+        assertEquals(cache.getStats().getMissCount(), 1);
+    }
+
+    @Test
+    public void shouldNotCacheValueRemovedWhileLoading() throws Exception {
+        //given
+        final CountDownLatch loadingStarted = new CountDownLatch(1);
+        final CountDownLatch removed = new CountDownLatch(1);
+        final AtomicInteger loads = new AtomicInteger();
+        final ConcurrentLoadingValueSLRUCache<String, String> cache = new ConcurrentLoadingValueSLRUCache<String, String>(2, 2) {
+            @Override
+            protected String loadValue(String key) {
+                if (loads.getAndIncrement() == 0) {
+                    loadingStarted.countDown();
+                    try {
+                        removed.await();
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                    return "stale";
+                }
+                return "actual";
+            }
+        };
+        Thread loader = new Thread() {
+            @Override
+            public void run() {
+                cache.get("k1");
+            }
+        };
+        loader.start();
+        loadingStarted.await();
+        //when
+        cache.remove("k1");
+        removed.countDown();
+        loader.join();
+        //then
+        assertEquals(cache.get("k1"), "actual");
+    }
+
+    @Test
+    public void shouldNotCacheValueInvalidatedWhileLoading() throws Exception {
+        //given
+        final CountDownLatch loadingStarted = new CountDownLatch(1);
+        final CountDownLatch invalidated = new CountDownLatch(1);
+        final AtomicInteger loads = new AtomicInteger();
+        final ConcurrentLoadingValueSLRUCache<String, String> cache = new ConcurrentLoadingValueSLRUCache<String, String>(2, 2) {
+            @Override
+            protected String loadValue(String key) {
+                if (loads.getAndIncrement() == 0) {
+                    loadingStarted.countDown();
+                    try {
+                        invalidated.await();
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                    return "stale";
+                }
+                return "actual";
+            }
+        };
+        Thread loader = new Thread() {
+            @Override
+            public void run() {
+                cache.get("k1");
+            }
+        };
+        loader.start();
+        loadingStarted.await();
+        //when
+        cache.removeIf(key -> key.startsWith("k"));
+        invalidated.countDown();
+        loader.join();
+        //then
+        assertEquals(cache.get("k1"), "actual");
+        assertEquals(loads.get(), 2);
+    }
+
+    @Test
+    public void shouldNotCacheValueIfLoadingFailed() throws Exception {
+        //given
+        final AtomicInteger loads = new AtomicInteger();
+        ConcurrentLoadingValueSLRUCache<String, String> cache = new ConcurrentLoadingValueSLRUCache<String, String>(2, 2) {
+            @Override
+            protected String loadValue(String key) {
+                if (loads.getAndIncrement() == 0) {
+                    throw new RuntimeException("failed");
+                }
+                return "v1";
+            }
+        };
+        try {
+            cache.get("k1");
+        } catch (RuntimeException ignored) {
+        }
+        //when
+        String value = cache.get("k1");
+        //then
+        assertEquals(value, "v1");
+        assertEquals(loads.get(), 2);
+    }
+}
@@ -24,4 +24,15 @@ public interface CronExecutorService extends ScheduledExecutorService {
      * @param expression a cron expression
      */
     Future<?> schedule(Runnable task, CronExpression expression);
+
+    /**
+     * Schedules the specified task to execute according to the specified cron expression.
+     * Runs of the task never overlap, fire times which are missed while task is running
+     * or while there is no free thread are handled according to the misfire policy.
+     *
+     * @param task          the Runnable task to schedule
+     * @param expression    a cron expression
+     * @param misfirePolicy what to do with missed fire times
+     */
+    Future<?> schedule(Runnable task, CronExpression expression, MisfirePolicy misfirePolicy);
 }
@@ -13,27 +13,45 @@ package org.eclipse.che.commons.schedule.executor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Scheduled thread-pool executor implementation that leverages a CronExpression
  * to calculate future execution times for scheduled tasks.
+ * <p/>
+ * Cron jobs don't occupy threads between runs. Each job has the only pending run in delay queue of this executor,
+ * run is executed by thread of pool and after that the next run is scheduled at the next fire time of job. So runs
+ * of the same job never overlap and number of threads doesn't depend on number of jobs. Fire times missed because of
+ * long run or busy pool are handled according to {@link MisfirePolicy} of job.
  */
 public class CronThreadPoolExecutor extends ScheduledThreadPoolExecutor implements CronExecutorService {
 
     private static final Logger LOG = LoggerFactory.getLogger(CronThreadPoolExecutor.class);
 
-    private final List<CountDownLatch> cronJobWatchDogs;
+    /** Default max delay of run after fire time of cron job which is not considered as misfire. */
+    public static final long DEFAULT_MISFIRE_THRESHOLD_MS = 1000;
+
+    private final Set<CronJob> cronJobs     = ConcurrentHashMap.newKeySet();
+    private final AtomicLong   cronRuns     = new AtomicLong();
+    private final AtomicLong   cronMisfires = new AtomicLong();
+    private final AtomicLong   cronFailures = new AtomicLong();
+
+    private volatile long misfireThreshold = DEFAULT_MISFIRE_THRESHOLD_MS;
 
     /**
      * Constructs a new CronThreadPoolExecutor.
@@ -43,8 +61,8 @@ public class CronThreadPoolExecutor extends ScheduledThreadPoolExecutor implemen
      */
     public CronThreadPoolExecutor(int corePoolSize) {
         super(corePoolSize);
-        this.cronJobWatchDogs = new ArrayList<>();
         this.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.setRemoveOnCancelPolicy(true);
     }
 
     /**
@@ -57,8 +75,8 @@ public class CronThreadPoolExecutor extends ScheduledThreadPoolExecutor implemen
      */
     public CronThreadPoolExecutor(int corePoolSize, ThreadFactory threadFactory) {
         super(corePoolSize, threadFactory);
-        this.cronJobWatchDogs = new ArrayList<>();
         this.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.setRemoveOnCancelPolicy(true);
     }
 
     /**
@@ -71,8 +89,8 @@ public class CronThreadPoolExecutor extends ScheduledThreadPoolExecutor implemen
      */
     public CronThreadPoolExecutor(int corePoolSize, RejectedExecutionHandler handler) {
         super(corePoolSize, handler);
-        this.cronJobWatchDogs = new ArrayList<>();
         this.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.setRemoveOnCancelPolicy(true);
     }
 
     /**
@@ -87,79 +105,238 @@ public class CronThreadPoolExecutor extends ScheduledThreadPoolExecutor implemen
      */
     public CronThreadPoolExecutor(int corePoolSize, ThreadFactory threadFactory, RejectedExecutionHandler handler) {
         super(corePoolSize, threadFactory, handler);
-        this.cronJobWatchDogs = new ArrayList<>();
+        this.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Schedules the specified task with {@link MisfirePolicy#FIRE_ONCE_NOW} misfire policy.
+     *
+     * @see #schedule(Runnable, CronExpression, MisfirePolicy)
+     */
+    @Override
+    public Future<?> schedule(Runnable task, CronExpression expression) {
+        return schedule(task, expression, MisfirePolicy.FIRE_ONCE_NOW);
     }
 
     @Override
-    public Future<?> schedule(final Runnable task, final CronExpression expression) {
-        if (task == null) {
+    public Future<?> schedule(Runnable task, CronExpression expression, MisfirePolicy misfirePolicy) {
+        if (task == null || expression == null || misfirePolicy == null) {
             throw new NullPointerException();
         }
-        setCorePoolSize(getCorePoolSize() + 1);
-        Runnable scheduleTask = new Runnable() {
-            @Override
-            public void run() {
-                CountDownLatch countDownLatch = new CountDownLatch(1);
-                cronJobWatchDogs.add(countDownLatch);
-                Date now = new Date();
-                Date time = expression.getNextValidTimeAfter(now);
-                try {
-                    while (time != null) {
-                        CronThreadPoolExecutor.this
-                                .schedule(task, time.getTime() - now.getTime(), TimeUnit.MILLISECONDS);
-                        while (now.before(time)) {
-                            LOG.debug("Cron watch dog wait {} ", time.getTime() - now.getTime());
-                            if (countDownLatch.await(time.getTime() - now.getTime(), TimeUnit.MILLISECONDS)) {
-                                LOG.debug("Stopping cron watch dog.");
-                                return;
-                            }
-                            now = new Date();
-                        }
-                        time = expression.getNextValidTimeAfter(now);
-                    }
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                } catch (RejectedExecutionException | CancellationException e) {
-                    LOG.error(e.getMessage(), e);
-                }
-            }
-        };
-        return this.submit(scheduleTask);
+        final CronJob job = new CronJob(task, expression, misfirePolicy);
+        cronJobs.add(job);
+        final long now = System.currentTimeMillis();
+        try {
+            job.scheduleAt(expression.getNextValidTimeAfter(new Date(now)), now);
+        } catch (RejectedExecutionException e) {
+            job.finish();
+            throw e;
+        }
+        return job;
+    }
+
+    /**
+     * Sets max delay of run after fire time of cron job which is not considered as misfire.
+     * Default value is {@link #DEFAULT_MISFIRE_THRESHOLD_MS} milliseconds.
+     */
+    public void setMisfireThreshold(long threshold, TimeUnit unit) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("Misfire threshold can't be negative");
+        }
+        misfireThreshold = unit.toMillis(threshold);
+    }
+
+    /** Returns max delay of run after fire time of cron job which is not considered as misfire. */
+    public long getMisfireThreshold(TimeUnit unit) {
+        return unit.convert(misfireThreshold, TimeUnit.MILLISECONDS);
+    }
+
+    /** Returns number of cron jobs which are scheduled and not cancelled or finished yet. */
+    public int getCronJobCount() {
+        return cronJobs.size();
+    }
+
+    /** Returns number of completed runs of cron jobs, including runs failed with exception. */
+    public long getCronRunCount() {
+        return cronRuns.get();
+    }
+
+    /** Returns number of runs of cron jobs which failed with exception. */
+    public long getCronFailureCount() {
+        return cronFailures.get();
+    }
+
+    /** Returns number of misfires of cron jobs, all fire times missed at once are counted as one misfire. */
+    public long getCronMisfireCount() {
+        return cronMisfires.get();
     }
 
     @Override
     public void shutdown() {
-
-        for (CountDownLatch cronJobWatchDog : cronJobWatchDogs) {
-            cronJobWatchDog.countDown();
-        }
-        cronJobWatchDogs.clear();
+        cancelCronJobs();
         super.shutdown();
-        LOG.debug("Active {} Pool {}, CEPTAS {} ,  EEDTAS {} , Task count {} , queue size {}",
+        LOG.debug("Active {} Pool {}, Cron runs {}, Cron misfires {}, Cron failures {}, Task count {}, queue size {}",
                   getActiveCount(),
                   getPoolSize(),
-                  getContinueExistingPeriodicTasksAfterShutdownPolicy(),
-                  getExecuteExistingDelayedTasksAfterShutdownPolicy(),
+                  getCronRunCount(),
+                  getCronMisfireCount(),
+                  getCronFailureCount(),
                   getTaskCount(),
                   getQueue().size()
                  );
-
     }
 
     @Override
     public List<Runnable> shutdownNow() {
-        for (CountDownLatch cronJobWatchDog : cronJobWatchDogs) {
-            cronJobWatchDog.countDown();
-        }
-        cronJobWatchDogs.clear();
-        LOG.debug("Active {} Pool {}, CEPTAS {} ,  EEDTAS {} , Task count {} , queue size {}",
+        cancelCronJobs();
+        LOG.debug("Active {} Pool {}, Cron runs {}, Cron misfires {}, Cron failures {}, Task count {}, queue size {}",
                   getActiveCount(),
                   getPoolSize(),
-                  getContinueExistingPeriodicTasksAfterShutdownPolicy(),
-                  getExecuteExistingDelayedTasksAfterShutdownPolicy(),
+                  getCronRunCount(),
+                  getCronMisfireCount(),
+                  getCronFailureCount(),
                   getTaskCount(),
                   getQueue().size()
                  );
         return super.shutdownNow();
     }
+
+    private void cancelCronJobs() {
+        for (CronJob job : cronJobs) {
+            job.cancel(false);
+        }
+    }
+
+    /**
+     * Cron job, it is future of all runs of job and it is executed by pool at each fire time.
+     * Fields of job are updated only by thread which executes current run or by thread which schedules job,
+     * the next run is scheduled after previous one so there is happens-before relation between them.
+     */
+    private class CronJob implements Runnable, Future<Object> {
+        final Runnable       task;
+        final CronExpression expression;
+        final MisfirePolicy  misfirePolicy;
+        final CountDownLatch done;
+        final AtomicBoolean  cancelled;
+
+        long                        fireTime;
+        volatile ScheduledFuture<?> next;
+
+        CronJob(Runnable task, CronExpression expression, MisfirePolicy misfirePolicy) {
+            this.task = task;
+            this.expression = expression;
+            this.misfirePolicy = misfirePolicy;
+            this.done = new CountDownLatch(1);
+            this.cancelled = new AtomicBoolean();
+        }
+
+        @Override
+        public void run() {
+            if (cancelled.get()) {
+                return;
+            }
+            final long start = System.currentTimeMillis();
+            // fire times which passed before start are missed
+            final boolean misfired = start - fireTime > misfireThreshold;
+            if (misfired) {
+                cronMisfires.incrementAndGet();
+                LOG.debug("Misfire of {}, run is late on {} ms", task, start - fireTime);
+            }
+            long now = start;
+            Date time;
+            if (misfired && misfirePolicy == MisfirePolicy.SKIP) {
+                time = expression.getNextValidTimeAfter(new Date(start));
+            } else {
+                try {
+                    task.run();
+                } catch (Throwable e) {
+                    // Job must be rescheduled even after Error, otherwise it stays registered and nobody completes its future.
+                    cronFailures.incrementAndGet();
+                    LOG.error(e.getMessage(), e);
+                }
+                cronRuns.incrementAndGet();
+                if (cancelled.get()) {
+                    return;
+                }
+                now = System.currentTimeMillis();
+                // all missed fire times are collapsed into this run
+                time = expression.getNextValidTimeAfter(new Date(misfired ? start : fireTime));
+                if (time != null && now - time.getTime() > misfireThreshold) {
+                    // next fire time passed while task was running
+                    cronMisfires.incrementAndGet();
+                    LOG.debug("Misfire of {}, fire time {} passed while it was running", task, time);
+                    time = misfirePolicy == MisfirePolicy.FIRE_ONCE_NOW ? new Date(now)
+                                                                         : expression.getNextValidTimeAfter(new Date(now));
+                }
+            }
+            try {
+                scheduleAt(time, now);
+            } catch (RejectedExecutionException e) {
+                LOG.debug("Stopping cron job {}, executor is shut down", task);
+                finish();
+            }
+        }
+
+        /** Schedules the next run at given time or finishes job if time is {@code null}. */
+        void scheduleAt(Date time, long now) {
+            if (time == null) {
+                finish();
+                return;
+            }
+            fireTime = time.getTime();
+            next = CronThreadPoolExecutor.this.schedule(this, Math.max(0, fireTime - now), TimeUnit.MILLISECONDS);
+            // job might be cancelled before its future was set
+            if (cancelled.get()) {
+                next.cancel(false);
+            }
+        }
+
+        void finish() {
+            cronJobs.remove(this);
+            done.countDown();
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            if (isDone() || !cancelled.compareAndSet(false, true)) {
+                return false;
+            }
+            final ScheduledFuture<?> current = next;
+            if (current != null) {
+                current.cancel(mayInterruptIfRunning);
+            }
+            finish();
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled.get();
+        }
+
+        @Override
+        public boolean isDone() {
+            return done.getCount() == 0;
+        }
+
+        @Override
+        public Object get() throws InterruptedException {
+            done.await();
+            if (cancelled.get()) {
+                throw new CancellationException();
+            }
+            return null;
+        }
+
+        @Override
+        public Object get(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+            if (!done.await(timeout, unit)) {
+                throw new TimeoutException();
+            }
+            if (cancelled.get()) {
+                throw new CancellationException();
+            }
+            return null;
+        }
+    }
 }
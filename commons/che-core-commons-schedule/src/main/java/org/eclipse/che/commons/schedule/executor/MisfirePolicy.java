@@ -0,0 +1,22 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.commons.schedule.executor;
+
+/**
+ * Defines what cron job does when its fire time is missed, e.g. previous run of job took longer than interval between
+ * fire times or all threads of pool were busy at fire time.
+ */
+public enum MisfirePolicy {
+    /** Run job once as soon as possible, all missed fire times are collapsed into this single run. */
+    FIRE_ONCE_NOW,
+    /** Don't run job for missed fire times, wait for the next fire time after current time. */
+    SKIP
+}
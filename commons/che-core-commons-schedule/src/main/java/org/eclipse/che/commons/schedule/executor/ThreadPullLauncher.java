@@ -39,7 +39,9 @@ public class ThreadPullLauncher implements Launcher {
     /**
      * @param corePoolSize
      *         the number of threads to keep in the pool, even
-     *         if they are idle, unless {@code allowCoreThreadTimeOut} is set
+     *         if they are idle, unless {@code allowCoreThreadTimeOut} is set.
+     *         Cron, delay and rate jobs share these threads, cron jobs don't
+     *         occupy thread between runs.
      */
     @Inject
     public ThreadPullLauncher(@Named("schedule.core_pool_size") Integer corePoolSize) {
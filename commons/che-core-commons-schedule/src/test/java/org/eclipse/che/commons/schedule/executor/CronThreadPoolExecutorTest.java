@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.commons.schedule.executor;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests of {@link CronThreadPoolExecutor}.
+ */
+public class CronThreadPoolExecutorTest {
+    private static final String EVERY_SECOND = "* * * * * ?";
+
+    private CronThreadPoolExecutor executor;
+
+    @AfterMethod
+    public void tearDown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldRunThousandsOfJobsOnFixedNumberOfThreads() throws Exception {
+        executor = new CronThreadPoolExecutor(4);
+        final int jobs = 5000;
+        final CountDownLatch started = new CountDownLatch(jobs);
+        final List<Future<?>> futures = new ArrayList<>(jobs);
+        for (int i = 0; i < jobs; i++) {
+            final AtomicBoolean first = new AtomicBoolean(true);
+            futures.add(executor.schedule(() -> {
+                if (first.compareAndSet(true, false)) {
+                    started.countDown();
+                }
+            }, new CronExpression(EVERY_SECOND)));
+        }
+
+        assertTrue(started.await(5, TimeUnit.SECONDS), started.getCount() + " jobs were not started");
+        assertEquals(executor.getCronJobCount(), jobs);
+        assertTrue(executor.getPoolSize() <= 4, "Pool size is " + executor.getPoolSize());
+        assertTrue(executor.getCronRunCount() >= jobs);
+
+        executor.shutdownNow();
+
+        assertEquals(executor.getCronJobCount(), 0);
+        for (Future<?> future : futures) {
+            assertTrue(future.isCancelled());
+            assertTrue(future.isDone());
+        }
+    }
+
+    @Test
+    public void shouldNotOverlapRunsOfSameJob() throws Exception {
+        executor = new CronThreadPoolExecutor(4);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final CountDownLatch runs = new CountDownLatch(3);
+        executor.schedule(() -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep(1500);
+            running.decrementAndGet();
+            runs.countDown();
+        }, new CronExpression(EVERY_SECOND));
+
+        assertTrue(runs.await(8, TimeUnit.SECONDS));
+        assertEquals(maxRunning.get(), 1);
+    }
+
+    @Test
+    public void shouldRunMisfiredJobOnceWithFireOnceNowPolicy() throws Exception {
+        executor = new CronThreadPoolExecutor(1);
+        executor.setMisfireThreshold(100, TimeUnit.MILLISECONDS);
+        final AtomicInteger runs = new AtomicInteger();
+        final CountDownLatch blocked = new CountDownLatch(1);
+        executor.execute(() -> {
+            blocked.countDown();
+            sleep(3500);
+        });
+        blocked.await();
+        executor.schedule(runs::incrementAndGet, new CronExpression(EVERY_SECOND), MisfirePolicy.FIRE_ONCE_NOW);
+
+        waitUntil(() -> runs.get() > 0, 6000);
+        sleep(200);
+
+        // missed fire times are collapsed into a single run, the next run may happen only on the next second
+        assertTrue(runs.get() <= 2, "Expected not more than 2 runs but was " + runs.get());
+        assertEquals(executor.getCronMisfireCount(), 1);
+    }
+
+    @Test
+    public void shouldSkipMisfiredRunWithSkipPolicy() throws Exception {
+        executor = new CronThreadPoolExecutor(1);
+        executor.setMisfireThreshold(100, TimeUnit.MILLISECONDS);
+        final AtomicInteger runs = new AtomicInteger();
+        final CountDownLatch blocked = new CountDownLatch(1);
+        executor.execute(() -> {
+            blocked.countDown();
+            sleep(2500);
+        });
+        blocked.await();
+        executor.schedule(runs::incrementAndGet, new CronExpression(EVERY_SECOND), MisfirePolicy.SKIP);
+
+        waitUntil(() -> executor.getCronMisfireCount() > 0, 5000);
+
+        assertEquals(runs.get(), 0);
+        waitUntil(() -> runs.get() > 0, 3000);
+        assertEquals(executor.getCronMisfireCount(), 1);
+    }
+
+    @Test
+    public void shouldContinueRunningJobAfterFailure() throws Exception {
+        executor = new CronThreadPoolExecutor(1);
+        final AtomicInteger runs = new AtomicInteger();
+        executor.schedule(() -> {
+            runs.incrementAndGet();
+            throw new IllegalStateException("test failure");
+        }, new CronExpression(EVERY_SECOND));
+
+        waitUntil(() -> runs.get() >= 2, 5000);
+
+        assertTrue(executor.getCronFailureCount() >= 2);
+        assertEquals(executor.getCronJobCount(), 1);
+    }
+
+    @Test
+    public void shouldContinueRunningJobAfterError() throws Exception {
+        executor = new CronThreadPoolExecutor(1);
+        final AtomicInteger runs = new AtomicInteger();
+        executor.schedule(() -> {
+            runs.incrementAndGet();
+            throw new AssertionError("test error");
+        }, new CronExpression(EVERY_SECOND));
+
+        waitUntil(() -> runs.get() >= 2, 5000);
+
+        assertTrue(executor.getCronFailureCount() >= 2);
+        assertEquals(executor.getCronJobCount(), 1);
+    }
+
+    @Test
+    public void shouldStopFiringCancelledJob() throws Exception {
+        executor = new CronThreadPoolExecutor(1);
+        final AtomicInteger runs = new AtomicInteger();
+        final Future<?> future = executor.schedule(runs::incrementAndGet, new CronExpression(EVERY_SECOND));
+
+        assertTrue(future.cancel(false));
+
+        assertTrue(future.isCancelled());
+        assertTrue(future.isDone());
+        assertEquals(executor.getCronJobCount(), 0);
+        sleep(1500);
+        assertEquals(runs.get(), 0);
+        assertEquals(executor.getQueue().size(), 0);
+    }
+
+    private static void waitUntil(Condition condition, long timeoutMs) throws Exception {
+        final long deadline = System.currentTimeMillis() + timeoutMs;
+        while (!condition.test()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timeout waiting for condition");
+            Thread.sleep(10);
+        }
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private interface Condition {
+        boolean test() throws Exception;
+    }
+}
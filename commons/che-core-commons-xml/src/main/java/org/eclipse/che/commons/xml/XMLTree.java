@@ -23,6 +23,7 @@ import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
 import javax.xml.xpath.XPathFactoryConfigurationException;
@@ -35,6 +36,7 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -53,8 +55,6 @@ import static org.eclipse.che.commons.xml.XMLTreeUtil.replaceAll;
 import static org.eclipse.che.commons.xml.XMLTreeUtil.rootStart;
 import static org.eclipse.che.commons.xml.XMLTreeUtil.single;
 import static org.eclipse.che.commons.xml.XMLTreeUtil.level;
-import static org.eclipse.che.commons.xml.XMLTreeUtil.insertBetween;
-import static org.eclipse.che.commons.xml.XMLTreeUtil.insertInto;
 import static org.eclipse.che.commons.xml.XMLTreeUtil.lastIndexOf;
 import static org.eclipse.che.commons.xml.XMLTreeUtil.openTagLength;
 import static org.eclipse.che.commons.xml.XMLTreeUtil.tabulate;
@@ -175,6 +175,10 @@ public final class XMLTree {
     private static final XPathFactory           XPATH_FACTORY            = XPathFactory.newInstance();
     private static final String                 ROOT_TEMPLATE            = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<%s>\n</%s>";
     private static final int                    EXPECTED_NAMESPACES_SIZE = 2;
+    private static final int                    XPATH_CACHE_SIZE         = 256;
+
+    /** Compiled xpath expressions, neither {@link XPath} nor {@link XPathExpression} is thread-safe. */
+    private static final ThreadLocal<XPathCache> XPATH_CACHE = ThreadLocal.withInitial(XPathCache::new);
 
     /** Factories configuration. */
     static {
@@ -202,16 +206,20 @@ public final class XMLTree {
 
     private Document            document;
     private Map<String, String> namespaces;
+    /** Elements ordered by position of their end segments, which is the order of end tags in source bytes. */
     private List<Element>       elements;
+    /** Source bytes, only first {@link #length} bytes are content, the rest is reserved for insertions. */
     private byte[]              xml;
+    private int                 length;
 
     private XMLTree(byte[] xml) {
         if (xml.length == 0) {
             throw new XMLTreeException("Source content is empty");
         }
-        elements = new LinkedList<>();
+        elements = new ArrayList<>();
         namespaces = newHashMapWithExpectedSize(EXPECTED_NAMESPACES_SIZE);
         this.xml = normalizeLineEndings(xml);
+        length = this.xml.length;
         //reason: parser is going to replace all '\r\n' sequences with single '\n'
         //which will affect elements position in source xml and produce incorrect XMLTree behaviour
         //it comes from spec http://www.w3.org/TR/2004/REC-xml11-20040204/
@@ -380,11 +388,12 @@ public final class XMLTree {
      * TODO: write replacement explanation
      */
     public byte[] getBytes() {
+        final byte[] content = Arrays.copyOf(xml, length);
         final String separator = System.getProperty("line.separator");
         if (!"\n".equals(separator)) {
-            return replaceAll(xml, "\n".getBytes(), separator.getBytes());
+            return replaceAll(content, "\n".getBytes(), separator.getBytes());
         }
-        return Arrays.copyOf(xml, xml.length);
+        return content;
     }
 
     /**
@@ -411,13 +420,13 @@ public final class XMLTree {
 
     /**
      * Evaluates xpath expression with given return type.
+     * Expression is compiled only once and then taken from cache of current thread.
      * Rethrows all exceptions as {@link XMLTreeException}
      */
     @SuppressWarnings("unchecked")
     private Object evaluateXPath(String expression, QName returnType) {
-        final XPath xpath = XPATH_FACTORY.newXPath();
         try {
-            return xpath.evaluate(expression, document, returnType);
+            return XPATH_CACHE.get().compile(expression).evaluate(document, returnType);
         } catch (XPathExpressionException xpathEx) {
             throw XMLTreeException.wrap(xpathEx);
         }
@@ -680,14 +689,11 @@ public final class XMLTree {
      */
     void appendChild(NewElement newElement, Element relatedToNew, Element parent) {
         final int level = level(parent) + 1;
-        final int lengthBefore = xml.length;
         final int insertHere = lastIndexOf(xml, '>', parent.end.left) + 1;
         //inserting new element bytes to tree bytes
-        xml = insertInto(xml,
-                         insertHere,
-                         '\n' + tabulate(newElement.asString(), level));
+        final int offset = insertInto(insertHere, '\n' + tabulate(newElement.asString(), level));
         //shift existing segments which are after parent start
-        shiftSegments(insertHere, xml.length - lengthBefore);
+        shiftSegments(insertHere, offset);
         //create and set up start, end, text segments to created element
         applySegments(newElement, relatedToNew, insertHere - 1, level);
         //let tree know about added element
@@ -699,13 +705,10 @@ public final class XMLTree {
      */
     void insertAfter(NewElement newElement, Element relatedToNew, Element refElement) {
         final int level = level(refElement);
-        final int lengthBefore = xml.length;
         //inserting new element bytes to tree bytes
-        xml = insertInto(xml,
-                         refElement.end.right + 1,
-                         '\n' + tabulate(newElement.asString(), level));
+        final int offset = insertInto(refElement.end.right + 1, '\n' + tabulate(newElement.asString(), level));
         //shift existing segments which are after parent start
-        shiftSegments(refElement.end.right, xml.length - lengthBefore);
+        shiftSegments(refElement.end.right, offset);
         //create and set up start, end, text segments to created element
         //+1 because of \n
         applySegments(newElement, relatedToNew, refElement.end.right, level);
@@ -723,13 +726,10 @@ public final class XMLTree {
      */
     void insertAfterParent(NewElement newElement, Element relatedToNew, Element parent) {
         final int level = level(parent) + 1;
-        final int lengthBefore = xml.length;
         //inserting after parent
-        xml = insertInto(xml,
-                         parent.start.right + 1,
-                         '\n' + tabulate(newElement.asString(), level));
+        final int offset = insertInto(parent.start.right + 1, '\n' + tabulate(newElement.asString(), level));
         //shift existing segments which are after parent start
-        shiftSegments(parent.start.right, xml.length - lengthBefore);
+        shiftSegments(parent.start.right, offset);
         //create and set up start, end, text segments to created element
         applySegments(newElement, relatedToNew, parent.start.right, level);
         //let tree know about inserted element
@@ -762,34 +762,28 @@ public final class XMLTree {
      */
     void removeElement(Element element) {
         final int leftBound = lastIndexOf(xml, '>', element.start.left) + 1;
-        final int lengthBefore = xml.length;
         //if text segment before removal element
         //exists it should go to hell with removal
         if (leftBound != element.start.left - 1) {
             removeSegmentFromElement(element.getParent(), leftBound);
         }
+        //let tree know that element is not a family member,
+        //it should be done before shifting while elements order is not affected
+        unregisterElement(element);
         //replacing content with nothing
-        xml = insertBetween(xml,
-                            leftBound,
-                            element.end.right,
-                            "");
+        final int offset = insertBetween(leftBound, element.end.right, "");
         //shift all elements which are right from removed element
-        shiftSegments(element.end.right, xml.length - lengthBefore);
-        //let tree know that element is not a family member
-        unregisterElement(element);
+        shiftSegments(element.end.right, offset);
     }
 
     /**
      * Inserts new attribute value content to tree bytes
      */
     void insertAttribute(NewAttribute attribute, Element owner) {
-        final int len = xml.length;
         //inserting new attribute content
-        xml = insertInto(xml,
-                         owner.start.right,
-                         ' ' + attribute.asString());
+        final int offset = insertInto(owner.start.right, ' ' + attribute.asString());
         //shift all elements which are right from removed element
-        shiftSegments(owner.start.left - 1, xml.length - len);
+        shiftSegments(owner.start.left - 1, offset);
     }
 
     /**
@@ -797,15 +791,11 @@ public final class XMLTree {
      */
     void removeAttribute(Attribute attribute) {
         final Element element = attribute.getElement();
-        final int lengthBefore = xml.length;
         final Segment segment = attributeSegment(attribute);
         //replacing attribute segment with nothing
-        xml = insertBetween(xml,
-                            segment.left - 1,
-                            segment.right,
-                            "");
+        final int offset = insertBetween(segment.left - 1, segment.right, "");
         //shift all elements which are left from owner left
-        shiftSegments(element.start.left, xml.length - lengthBefore);
+        shiftSegments(element.start.left, offset);
     }
 
     //TODO should it be public?
@@ -849,30 +839,52 @@ public final class XMLTree {
     }
 
     /**
-     * Iterates all existed elements and shifts their segments if needed
+     * Shifts segments of elements which end after {@code fromIdx} if needed.
+     * Elements are ordered by end position so only tail of elements list is visited
      */
     private void shiftSegments(int fromIdx, int offset) {
-        for (Element element : elements) {
-            if (element.end.left > fromIdx) {
-                shiftSegment(element.start, fromIdx, offset);
+        if (offset == 0) {
+            return;
+        }
+        for (int i = indexOfFirstEndedAfter(fromIdx); i < elements.size(); i++) {
+            final Element element = elements.get(i);
+            shiftSegment(element.start, fromIdx, offset);
+            //void element may have same start and end segment
+            if (element.end != element.start) {
                 shiftSegment(element.end, fromIdx, offset);
-                if (element.text != null) {
-                    for (Segment textSegment : element.text) {
-                        shiftSegment(textSegment, fromIdx, offset);
-                    }
+            }
+            if (element.text != null) {
+                for (Segment textSegment : element.text) {
+                    shiftSegment(textSegment, fromIdx, offset);
                 }
             }
         }
     }
 
+    /**
+     * Returns index of the first element which end segment
+     * is righter then {@code pos} or elements size if there is no such element
+     */
+    private int indexOfFirstEndedAfter(int pos) {
+        int low = 0;
+        int high = elements.size();
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (elements.get(mid).end.left > pos) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
     /**
      * Removes given segment from source bytes and shifts segments left
      * on offset equal to removal segment length
      */
     private void removeSegment(Segment segment) {
-        final int lengthBefore = xml.length;
-        xml = insertBetween(xml, segment.left, segment.right, "");
-        shiftSegments(segment.left, xml.length - lengthBefore);
+        shiftSegments(segment.left, insertBetween(segment.left, segment.right, ""));
     }
 
     /**
@@ -881,30 +893,65 @@ public final class XMLTree {
      * source bytes length
      */
     private void updateSegmentContent(Segment segment, String content) {
-        final int lengthBefore = xml.length;
-        xml = insertBetween(xml, segment.left, segment.right, content);
-        shiftSegments(segment.left, xml.length - lengthBefore);
+        shiftSegments(segment.left, insertBetween(segment.left, segment.right, content));
         segment.right = segment.left + content.length() - 1;
     }
 
+    /**
+     * Replaces source bytes from {@code left} to {@code right} inclusive with content,
+     * same as {@link XMLTreeUtil#insertBetween(byte[], int, int, String)} does
+     * but source bytes are updated in place.
+     *
+     * @return difference between new and old source bytes length
+     */
+    private int insertBetween(int left, int right, String content) {
+        return replace(left, right + 1, content.getBytes(UTF_8));
+    }
+
+    /**
+     * Inserts content to the source bytes from {@code pos},
+     * same as {@link XMLTreeUtil#insertInto(byte[], int, String)} does
+     * but source bytes are updated in place.
+     *
+     * @return difference between new and old source bytes length
+     */
+    private int insertInto(int pos, String content) {
+        return replace(pos, pos, content.getBytes(UTF_8));
+    }
+
+    /**
+     * Replaces source bytes from {@code from} inclusive to {@code to} exclusive with content.
+     * Only bytes after replaced ones are moved, new array is allocated
+     * only if there is no enough reserved space for content.
+     */
+    private int replace(int from, int to, byte[] content) {
+        final int offset = content.length - (to - from);
+        if (length + offset > xml.length) {
+            xml = Arrays.copyOf(xml, Math.max(length + offset, xml.length + (xml.length >> 1)));
+        }
+        System.arraycopy(xml, to, xml, to + offset, length - to);
+        System.arraycopy(content, 0, xml, from, content.length);
+        length += offset;
+        return offset;
+    }
+
     /**
      * Adds element and it children to tree
      */
     private void registerElement(Element element) {
-        elements.add(element);
+        elements.add(indexOfFirstEndedAfter(element.end.left), element);
         for (Element child : element.getChildren()) {
             registerElement(child);
         }
     }
 
     /**
-     * Removes element and children from tree
+     * Removes element and children from tree.
+     * Children end between element start and element end so
+     * they are placed right before element in elements list.
      */
     private void unregisterElement(Element element) {
-        elements.remove(element);
-        for (Element child : element.getChildren()) {
-            unregisterElement(child);
-        }
+        elements.subList(indexOfFirstEndedAfter(element.start.left - 1), indexOfFirstEndedAfter(element.end.left)).clear();
     }
 
     /**
@@ -916,8 +963,8 @@ public final class XMLTree {
         final byte[] name = attribute.getName().getBytes();
         final byte[] value = attribute.getValue().getBytes();
 
-        final int attrLeft = indexOfAttributeName(xml, name, owner.start.left + owner.getName().length());
-        final int valueLeft = indexOf(xml, value, attrLeft + name.length);
+        final int attrLeft = indexOfAttributeName(xml, length, name, owner.start.left + owner.getName().length());
+        final int valueLeft = indexOf(xml, length, value, attrLeft + name.length);
 
         return new Segment(attrLeft, valueLeft + value.length);
     }
@@ -931,8 +978,8 @@ public final class XMLTree {
         final byte[] name = attribute.getName().getBytes();
         final byte[] value = oldValue.getBytes();
 
-        final int attrLeft = indexOfAttributeName(xml, name, owner.start.left + owner.getName().length());
-        final int valueLeft = indexOf(xml, value, attrLeft + name.length);
+        final int attrLeft = indexOfAttributeName(xml, length, name, owner.start.left + owner.getName().length());
+        final int valueLeft = indexOf(xml, length, value, attrLeft + name.length);
 
         return new Segment(valueLeft, valueLeft + value.length - 1);
     }
@@ -1022,6 +1069,35 @@ public final class XMLTree {
         return replaceAll(src, "\r".getBytes(), "\n".getBytes());
     }
 
+    /**
+     * Least recently used compiled xpath expressions,
+     * each thread uses its own cache instance.
+     */
+    private static class XPathCache extends LinkedHashMap<String, XPathExpression> {
+        private static final long serialVersionUID = 1L;
+
+        private final XPath xpath;
+
+        XPathCache() {
+            super(16, 0.75f, true);
+            xpath = XPATH_FACTORY.newXPath();
+        }
+
+        XPathExpression compile(String expression) throws XPathExpressionException {
+            XPathExpression compiled = get(expression);
+            if (compiled == null) {
+                compiled = xpath.compile(expression);
+                put(expression, compiled);
+            }
+            return compiled;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, XPathExpression> eldest) {
+            return size() > XPATH_CACHE_SIZE;
+        }
+    }
+
     /**
      * Describes element, attribute or text position in
      * the source array of bytes.
@@ -227,7 +227,25 @@ public final class XMLTreeUtil {
      * @return index of the first occurrence or -1 if nothing was found
      */
     public static int indexOf(byte[] src, byte[] target, int fromIdx) {
-        final int to = src.length - target.length + 1;
+        return indexOf(src, src.length, target, fromIdx);
+    }
+
+    /**
+     * Same as {@link #indexOf(byte[], byte[], int)} but only first {@code srcLength}
+     * bytes of the source are considered as content.
+     *
+     * @param src
+     *         where to search
+     * @param srcLength
+     *         length of the source content
+     * @param target
+     *         what to search
+     * @param fromIdx
+     *         source index to search from
+     * @return index of the first occurrence or -1 if nothing was found
+     */
+    public static int indexOf(byte[] src, int srcLength, byte[] target, int fromIdx) {
+        final int to = srcLength - target.length + 1;
         for (int i = fromIdx; i < to; i++) {
             if (src[i] == target[0]) {
                 boolean equals = true;
@@ -260,15 +278,23 @@ public final class XMLTreeUtil {
      * @return index of the first attribute name occurrence or -1 if nothing was found
      */
     public static int indexOfAttributeName(byte[] src, byte[] target, int fromIdx) {
-        final int idx = indexOf(src, target, fromIdx);
+        return indexOfAttributeName(src, src.length, target, fromIdx);
+    }
+
+    /**
+     * Same as {@link #indexOfAttributeName(byte[], byte[], int)} but only first
+     * {@code srcLength} bytes of the source are considered as content.
+     */
+    public static int indexOfAttributeName(byte[] src, int srcLength, byte[] target, int fromIdx) {
+        final int idx = indexOf(src, srcLength, target, fromIdx);
         if (idx == -1) {
             return -1;
         }
         final int next = idx + target.length;
-        if (next == src.length || isWhitespace(src[next]) || src[next] == '=') {
+        if (next == srcLength || isWhitespace(src[next]) || src[next] == '=') {
             return idx;
         }
-        return indexOfAttributeName(src, target, idx + 1);
+        return indexOfAttributeName(src, srcLength, target, idx + 1);
     }
 
     public static byte[] replaceAll(byte[] src, byte[] target, byte[] replacement) {
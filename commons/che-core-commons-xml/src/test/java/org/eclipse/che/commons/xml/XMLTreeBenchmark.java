@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.commons.xml;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multi-edit workloads on pom.xml with many dependencies: each invocation parses pom, appends, updates and removes
+ * dependencies and serializes the result.
+ * <p/>
+ * Run with: {@code mvn test-compile exec:java -Dexec.mainClass=org.eclipse.che.commons.xml.XMLTreeBenchmark
+ * -Dexec.classpathScope=test}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class XMLTreeBenchmark {
+    /** Number of dependencies in pom.xml. */
+    @Param({"100", "1000"})
+    public int dependencies;
+
+    /** Number of edits of each kind. */
+    @Param({"100"})
+    public int edits;
+
+    private byte[] pom;
+
+    @Setup
+    public void setUp() {
+        pom = XMLTreeTest.pomWithDependencies(dependencies).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] parse() {
+        return XMLTree.from(pom).getBytes();
+    }
+
+    @Benchmark
+    public byte[] appendDependencies() {
+        final XMLTree tree = XMLTree.from(pom);
+        final Element parent = tree.getSingleElement("/project/dependencies");
+        for (int i = 0; i < edits; i++) {
+            parent.appendChild(XMLTreeTest.dependency(dependencies + i));
+        }
+        return tree.getBytes();
+    }
+
+    @Benchmark
+    public byte[] updateVersions() {
+        final XMLTree tree = XMLTree.from(pom);
+        for (int i = 0; i < edits; i++) {
+            tree.updateText("/project/dependencies/dependency[artifactId='artifact-" + i % dependencies + "']/version", "2." + i);
+        }
+        return tree.getBytes();
+    }
+
+    @Benchmark
+    public byte[] removeDependencies() {
+        final XMLTree tree = XMLTree.from(pom);
+        for (int i = 0; i < edits && i < dependencies; i++) {
+            tree.removeElement("/project/dependencies/dependency[artifactId='artifact-" + i + "']");
+        }
+        return tree.getBytes();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(XMLTreeBenchmark.class.getSimpleName()).build()).run();
+    }
+}
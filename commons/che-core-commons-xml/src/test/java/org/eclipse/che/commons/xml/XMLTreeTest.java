@@ -1702,6 +1702,95 @@ public class XMLTreeTest {
         assertEquals(tree.toString(), "<parent \r\n\r\n\r\n attr1=\"v\"><child>new text</child></parent>");
     }
 
+    @Test
+    public void shouldBeAbleToUpdateVoidElementAfterContentBeforeItWasChanged() {
+        final XMLTree tree = XMLTree.from("<root>\n    <a>text</a>\n</root>");
+        tree.getRoot().appendChild(NewElement.createElement("b").setAttribute("key", "value"));
+
+        tree.updateText("/root/a", "longer text");
+        tree.getSingleElement("/root/b").setAttribute("key", "new value");
+
+        assertEquals(tree.toString(), "<root>\n" +
+                                      "    <a>longer text</a>\n" +
+                                      "    <b key=\"new value\"/>\n" +
+                                      "</root>");
+    }
+
+    @Test
+    public void shouldKeepContentConsistentAfterManyEdits() {
+        final XMLTree tree = XMLTree.from(pomWithDependencies(200));
+
+        for (int i = 200; i < 300; i++) {
+            tree.getSingleElement("/project/dependencies").appendChild(dependency(i));
+        }
+        for (int i = 0; i < 300; i += 2) {
+            tree.removeElement("/project/dependencies/dependency[artifactId='artifact-" + i + "']");
+        }
+        for (int i = 1; i < 300; i += 2) {
+            tree.updateText("/project/dependencies/dependency[artifactId='artifact-" + i + "']/version", "2.0");
+        }
+        tree.updateText("/project/name", "new name");
+
+        final StringBuilder expected = new StringBuilder(pomHeader("new name"));
+        for (int i = 1; i < 300; i += 2) {
+            expected.append(dependencyXML(i, "2.0"));
+        }
+        expected.append("    </dependencies>\n</project>\n");
+        assertEquals(tree.toString(), expected.toString());
+        assertEquals(tree.getElements("/project/dependencies/dependency").size(), 150);
+        assertEquals(XMLTree.from(tree.getBytes()).getText("/project/dependencies/dependency/version"),
+                     tree.getText("/project/dependencies/dependency/version"));
+    }
+
+    @Test(expectedExceptions = XMLTreeException.class)
+    public void shouldThrowExceptionWhenXPathExpressionIsInvalidAndWasRequestedBefore() {
+        final XMLTree tree = XMLTree.from(XML_CONTENT);
+        try {
+            tree.getElements("/project/[name");
+        } catch (XMLTreeException ignored) {
+        }
+
+        tree.getElements("/project/[name");
+    }
+
+    @Test
+    public void shouldEvaluateSameExpressionForDifferentTrees() {
+        assertEquals(XMLTree.from("<project><name>first</name></project>").getSingleText("/project/name"), "first");
+        assertEquals(XMLTree.from("<project><name>second</name></project>").getSingleText("/project/name"), "second");
+    }
+
+    static String pomWithDependencies(int count) {
+        final StringBuilder sb = new StringBuilder(pomHeader("Test"));
+        for (int i = 0; i < count; i++) {
+            sb.append(dependencyXML(i, "1.0"));
+        }
+        return sb.append("    </dependencies>\n</project>\n").toString();
+    }
+
+    static NewElement dependency(int idx) {
+        return NewElement.createElement("dependency",
+                                        NewElement.createElement("groupId", "test-group"),
+                                        NewElement.createElement("artifactId", "artifact-" + idx),
+                                        NewElement.createElement("version", "1.0"));
+    }
+
+    private static String pomHeader(String name) {
+        return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+               "<project>\n" +
+               "    <modelVersion>4.0.0</modelVersion>\n" +
+               "    <artifactId>test-artifact</artifactId>\n" +
+               "    <name>" + name + "</name>\n" +
+               "    <dependencies>\n";
+    }
+
+    private static String dependencyXML(int idx, String version) {
+        return "        <dependency>\n" +
+               "            <groupId>test-group</groupId>\n" +
+               "            <artifactId>artifact-" + idx + "</artifactId>\n" +
+               "            <version>" + version + "</version>\n" +
+               "        </dependency>\n";
+    }
+
     @Test(dataProvider = "custom-xml-files")
     public void shouldBeAbleToCreateTreeFromCustomXML(File xml) throws IOException {
         //should be able to parse file
@@ -0,0 +1,428 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.builder;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands waiting build tasks to slave builders as soon as slave builders have free workers.
+ * <p/>
+ * Number of free workers of each slave builder is cached. It is decreased when task is handed to slave builder and is
+ * re-read from slave builder, see {@link RemoteBuilder#getBuilderState()}, only when there are tasks that wait for this
+ * slave builder and cached value is out of date: either task on slave builder is finished, see {@link #taskFinished(Long)},
+ * or value is older than refresh period. So number of requests for state of slave builder doesn't depend on number of
+ * waiting tasks.
+ * <p/>
+ * Waiting tasks are kept in separate queue for each workspace. Tasks with higher priority go first, tasks with the same
+ * priority are ordered by time of creation. Dispatcher visits workspaces in round-robin order and starts at most one task
+ * of each workspace per round, so workspace with hundreds of waiting tasks doesn't hold up other workspaces.
+ * <p/>
+ * All decisions are made by single dispatcher thread that is woken up when something changes, there are no threads that
+ * wait for slave builders for each task.
+ */
+abstract class BuildDispatcher {
+    private static final Logger LOG = LoggerFactory.getLogger(BuildDispatcher.class);
+
+    static final int NORMAL_PRIORITY = 0;
+    static final int HIGH_PRIORITY   = 1;
+
+    private static final int STATE_READER_THREADS = 4;
+
+    /** Task that waits for slave builder. */
+    interface Job {
+        Long getId();
+
+        String getWorkspace();
+
+        String getProject();
+
+        /** Name of builder that is able to process this task. */
+        String getBuilder();
+
+        int getPriority();
+
+        /** Returns {@code true} if task is cancelled or failed and doesn't need slave builder any more. */
+        boolean isDone();
+
+        /** Starts this task on the specified slave builder. Must not block. */
+        void start(RemoteBuilder builder);
+
+        /** Fails this task if there is no any slave builder that may process it. */
+        void reject(String message);
+    }
+
+    private static final Comparator<Job> JOB_ORDER = new Comparator<Job>() {
+        @Override
+        public int compare(Job a, Job b) {
+            if (a.getPriority() != b.getPriority()) {
+                return a.getPriority() > b.getPriority() ? -1 : 1;
+            }
+            return a.getId().compareTo(b.getId());
+        }
+    };
+
+    private final BuilderSelectionStrategy                 builderSelector;
+    private final long                                     stateRefreshPeriod;
+    private final ConcurrentLinkedQueue<Job>               incoming;
+    private final ConcurrentMap<RemoteBuilder, SlaveState> states;
+    /** Slave builders of tasks that are handed to slave builders. */
+    private final ConcurrentMap<Long, Assignment>          running;
+    private final AtomicLong                               stateRequests;
+    private final ReentrantLock                            lock;
+    private final Condition                                changedCondition;
+    // Guarded by lock.
+    private boolean changed;
+
+    // Accessed by dispatcher thread only.
+    private final Map<String, TreeSet<Job>> waitingByWorkspace;
+    private final ArrayDeque<String>        workspaces;
+
+    private Thread          dispatcherThread;
+    private ExecutorService stateReaders;
+
+    /**
+     * @param builderSelector
+     *         selects one slave builder if few of them have free workers
+     * @param stateRefreshPeriod
+     *         period in milliseconds after that cached number of free workers of slave builder is re-read if there are
+     *         tasks that wait for this slave builder
+     */
+    BuildDispatcher(BuilderSelectionStrategy builderSelector, long stateRefreshPeriod) {
+        this.builderSelector = builderSelector;
+        this.stateRefreshPeriod = stateRefreshPeriod;
+        incoming = new ConcurrentLinkedQueue<>();
+        states = new ConcurrentHashMap<>();
+        running = new ConcurrentHashMap<>();
+        stateRequests = new AtomicLong();
+        lock = new ReentrantLock();
+        changedCondition = lock.newCondition();
+        waitingByWorkspace = new HashMap<>();
+        workspaces = new ArrayDeque<>();
+    }
+
+    /** Returns slave builders that may process specified task. */
+    protected abstract List<RemoteBuilder> getBuilders(Job job);
+
+    /** Reads number of free workers of slave builder. */
+    protected int getFreeWorkers(RemoteBuilder builder) throws BuilderException {
+        return builder.getBuilderState().getFreeWorkers();
+    }
+
+    void start() {
+        stateReaders = Executors.newFixedThreadPool(STATE_READER_THREADS, new ThreadFactoryBuilder()
+                .setNameFormat("BuildDispatcherStateReader-%d").setDaemon(true).build());
+        dispatcherThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                dispatchLoop();
+            }
+        }, "BuildDispatcher");
+        dispatcherThread.setDaemon(true);
+        dispatcherThread.start();
+    }
+
+    void stop() {
+        dispatcherThread.interrupt();
+        stateReaders.shutdownNow();
+        try {
+            dispatcherThread.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        incoming.clear();
+        running.clear();
+        states.clear();
+    }
+
+    /** Adds task in queue. */
+    void submit(Job job) {
+        incoming.add(job);
+        signal();
+    }
+
+    /** Returns slave builder to which task was handed or {@code null}. */
+    RemoteBuilder getAssignedBuilder(Long id) {
+        final Assignment assignment = running.get(id);
+        return assignment == null ? null : assignment.builder;
+    }
+
+    /**
+     * Notifies dispatcher that slave builder accepted or rejected task. If task was rejected then cached state of slave
+     * builder is not trusted any more.
+     */
+    void taskStarted(Long id, boolean accepted) {
+        final Assignment assignment = accepted ? running.get(id) : running.remove(id);
+        if (assignment != null) {
+            final SlaveState state = getState(assignment.builder);
+            synchronized (state) {
+                assignment.started(state);
+                if (!accepted) {
+                    state.outOfDate();
+                }
+            }
+            if (!accepted) {
+                signal();
+            }
+        }
+    }
+
+    /**
+     * Notifies dispatcher that task is finished on slave builder so slave builder has one more free worker. Task may be
+     * finished before dispatcher is notified that it was started.
+     */
+    void taskFinished(Long id) {
+        final Assignment assignment = running.remove(id);
+        if (assignment != null) {
+            final SlaveState state = getState(assignment.builder);
+            synchronized (state) {
+                assignment.started(state);
+                state.outOfDate();
+            }
+            signal();
+        }
+    }
+
+    /** Notifies dispatcher that set of slave builders is changed. */
+    void buildersChanged() {
+        signal();
+    }
+
+    void builderRemoved(RemoteBuilder builder) {
+        states.remove(builder);
+    }
+
+    /** Returns number of requests for state of slave builders. */
+    long getStateRequestCount() {
+        return stateRequests.get();
+    }
+
+    private void signal() {
+        lock.lock();
+        try {
+            changed = true;
+            changedCondition.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void dispatchLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            lock.lock();
+            try {
+                // Wake up periodically even if nothing changed to refresh out of date states of slave builders.
+                if (!changed) {
+                    changedCondition.await(stateRefreshPeriod, TimeUnit.MILLISECONDS);
+                }
+                changed = false;
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                dispatch();
+            } catch (RuntimeException e) {
+                LOG.error(e.getMessage(), e);
+            }
+        }
+    }
+
+    private void dispatch() {
+        for (Job job; (job = incoming.poll()) != null; ) {
+            TreeSet<Job> jobs = waitingByWorkspace.get(job.getWorkspace());
+            if (jobs == null) {
+                waitingByWorkspace.put(job.getWorkspace(), jobs = new TreeSet<>(JOB_ORDER));
+                workspaces.add(job.getWorkspace());
+            }
+            jobs.add(job);
+        }
+        final Set<RemoteBuilder> outOfDate = new HashSet<>();
+        boolean started = true;
+        while (started) {
+            started = false;
+            // Workspace that gets slave builder goes to the end of queue, others keep their places.
+            final List<String> served = new ArrayList<>();
+            for (Iterator<String> wsIterator = workspaces.iterator(); wsIterator.hasNext(); ) {
+                final String workspace = wsIterator.next();
+                final TreeSet<Job> jobs = waitingByWorkspace.get(workspace);
+                boolean workspaceServed = false;
+                for (Iterator<Job> iterator = jobs.iterator(); iterator.hasNext(); ) {
+                    final Job job = iterator.next();
+                    if (job.isDone()) {
+                        iterator.remove();
+                        continue;
+                    }
+                    final List<RemoteBuilder> builders = getBuilders(job);
+                    if (builders.isEmpty()) {
+                        iterator.remove();
+                        job.reject("There is no any builder available. ");
+                        continue;
+                    }
+                    final RemoteBuilder builder = reserve(builders, outOfDate);
+                    if (builder != null) {
+                        iterator.remove();
+                        running.put(job.getId(), new Assignment(builder));
+                        try {
+                            job.start(builder);
+                        } catch (RuntimeException e) {
+                            LOG.error(e.getMessage(), e);
+                            taskStarted(job.getId(), false);
+                        }
+                        workspaceServed = true;
+                        // One task of workspace per round.
+                        break;
+                    }
+                }
+                if (jobs.isEmpty()) {
+                    wsIterator.remove();
+                    waitingByWorkspace.remove(workspace);
+                } else if (workspaceServed) {
+                    wsIterator.remove();
+                    served.add(workspace);
+                }
+                started |= workspaceServed;
+            }
+            workspaces.addAll(served);
+        }
+        for (RemoteBuilder builder : outOfDate) {
+            refresh(builder);
+        }
+    }
+
+    /** Finds slave builder with free worker and takes this worker. */
+    private RemoteBuilder reserve(List<RemoteBuilder> builders, Set<RemoteBuilder> outOfDate) {
+        final long now = System.currentTimeMillis();
+        final List<RemoteBuilder> available = new ArrayList<>(builders.size());
+        for (RemoteBuilder builder : builders) {
+            final SlaveState state = getState(builder);
+            synchronized (state) {
+                if (state.free > 0) {
+                    available.add(builder);
+                } else if (!state.refreshing && now - state.lastRefresh >= stateRefreshPeriod) {
+                    outOfDate.add(builder);
+                }
+            }
+        }
+        if (available.isEmpty()) {
+            return null;
+        }
+        final RemoteBuilder selected = available.size() > 1 ? builderSelector.select(available) : available.get(0);
+        final SlaveState state = getState(selected);
+        synchronized (state) {
+            state.free--;
+            state.pending++;
+        }
+        return selected;
+    }
+
+    private void refresh(final RemoteBuilder builder) {
+        final SlaveState state = getState(builder);
+        final int version;
+        synchronized (state) {
+            if (state.refreshing) {
+                return;
+            }
+            state.refreshing = true;
+            version = state.version;
+        }
+        stateReaders.execute(new Runnable() {
+            @Override
+            public void run() {
+                int free = 0;
+                try {
+                    stateRequests.incrementAndGet();
+                    free = getFreeWorkers(builder);
+                } catch (Exception e) {
+                    LOG.error(e.getMessage(), e);
+                }
+                synchronized (state) {
+                    // Tasks that are handed to slave builder but not accepted by it yet may be not counted by slave builder.
+                    state.free = Math.max(0, free - state.pending);
+                    // If state is changed while we were waiting for response then response may be out of date already.
+                    state.lastRefresh = version == state.version ? System.currentTimeMillis() : 0;
+                    state.refreshing = false;
+                }
+                signal();
+            }
+        });
+    }
+
+    private SlaveState getState(RemoteBuilder builder) {
+        SlaveState state = states.get(builder);
+        if (state == null) {
+            final SlaveState newState = new SlaveState();
+            state = states.putIfAbsent(builder, newState);
+            if (state == null) {
+                state = newState;
+            }
+        }
+        return state;
+    }
+
+    /** Task handed to slave builder. Guarded by monitor of state of slave builder. */
+    private static class Assignment {
+        final RemoteBuilder builder;
+        /** Whether task is not pending on slave builder any more: accepted, rejected or finished. */
+        boolean started;
+
+        Assignment(RemoteBuilder builder) {
+            this.builder = builder;
+        }
+
+        void started(SlaveState state) {
+            if (!started) {
+                started = true;
+                state.pending--;
+            }
+        }
+    }
+
+    /** Cached state of slave builder. Guarded by monitor of itself. */
+    private static class SlaveState {
+        /** Known number of free workers. */
+        int     free;
+        /** Number of tasks that are handed to slave builder but not accepted by it yet. */
+        int     pending;
+        long    lastRefresh;
+        boolean refreshing;
+        /** Incremented each time when known state becomes out of date. */
+        int     version;
+
+        void outOfDate() {
+            lastRefresh = 0;
+            version++;
+        }
+    }
+}
@@ -15,10 +15,10 @@ import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.eclipse.che.api.builder.dto.BaseBuilderRequest;
 import org.eclipse.che.api.builder.dto.BuildOptions;
 import org.eclipse.che.api.builder.dto.BuildRequest;
+import org.eclipse.che.api.builder.dto.BuilderMetric;
 import org.eclipse.che.api.builder.dto.BuilderServerAccessCriteria;
 import org.eclipse.che.api.builder.dto.BuilderServerLocation;
 import org.eclipse.che.api.builder.dto.BuilderServerRegistration;
-import org.eclipse.che.api.builder.dto.BuilderState;
 import org.eclipse.che.api.builder.dto.DependencyRequest;
 import org.eclipse.che.api.builder.internal.BuilderEvent;
 import org.eclipse.che.api.builder.internal.Constants;
@@ -26,12 +26,14 @@ import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.ForbiddenException;
 import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.core.ServiceUnavailableException;
 import org.eclipse.che.api.core.UnauthorizedException;
 import org.eclipse.che.api.core.notification.EventService;
 import org.eclipse.che.api.core.notification.EventSubscriber;
 import org.eclipse.che.api.core.rest.HttpJsonHelper;
 import org.eclipse.che.api.core.rest.ServiceContext;
 import org.eclipse.che.api.core.rest.shared.dto.Link;
+import org.eclipse.che.api.core.util.AdmissionControl;
 import org.eclipse.che.api.project.server.ProjectService;
 import org.eclipse.che.api.project.shared.dto.BuilderConfiguration;
 import org.eclipse.che.api.project.shared.dto.BuildersDescriptor;
@@ -72,8 +74,8 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -85,7 +87,7 @@ import static com.google.common.base.MoreObjects.firstNonNull;
 
 /**
  * Accepts all build request and redirects them to the slave-builders. If there is no any available slave-builder at the moment it stores
- * build request and tries send request again. Requests don't stay in this queue forever. Max time (in minutes) for request to be in the
+ * build request and sends it when one of slave-builders gets free worker, see {@link BuildDispatcher}. Requests don't stay in this queue forever. Max time (in minutes) for request to be in the
  * queue set up by configuration parameter {@link org.eclipse.che.api.builder.internal.Constants#WAITING_TIME}.
  *
  * @author andrew00x
@@ -95,8 +97,15 @@ import static com.google.common.base.MoreObjects.firstNonNull;
 public class BuildQueue {
     private static final Logger LOG = LoggerFactory.getLogger(BuildQueue.class);
 
+    /** Period in milliseconds after that cached number of free workers of slave builder is re-read, see {@link BuildDispatcher}. */
     private static final long CHECK_AVAILABLE_BUILDER_DELAY = 2000;
 
+    private static final int DEFAULT_QUEUE_THREADS  = 16;
+    private static final int DEFAULT_MAX_WAITING    = 1000;
+    private static final int DEFAULT_WS_MAX_WAITING = 10;
+    /** Number of seconds after that client may retry request rejected because of overloaded queue. */
+    private static final int OVERLOAD_RETRY_AFTER   = 30;
+
     private static final AtomicLong sequence = new AtomicLong(1);
 
     private final ConcurrentMap<String, RemoteBuilderServer> builderServices;
@@ -110,15 +119,34 @@ public class BuildQueue {
     private final Cache<BaseBuilderRequest, RemoteTask>      successfulBuilds;
     private final AtomicBoolean                              started;
     private final long                                       keepResultTimeMillis;
+    private final AtomicLong                                 reusedBuilds;
 
     private ExecutorService          executor;
     private ScheduledExecutorService scheduler;
+    private BuildDispatcher          dispatcher;
+    private AdmissionControl         admission;
 
     /** Optional pre-configured slave builders. */
     @com.google.inject.Inject(optional = true)
     @Named(Constants.BUILDER_SLAVE_BUILDER_URLS)
     private String[] slaves = new String[0];
 
+    /**
+     * Number of threads that send requests to slave builders. Tasks wait for free slave builder in {@link BuildDispatcher} and don't
+     * hold threads, so this number doesn't limit number of tasks in queue.
+     */
+    @com.google.inject.Inject(optional = true)
+    @Named(Constants.QUEUE_THREADS)
+    private int queueThreads = DEFAULT_QUEUE_THREADS;
+
+    @com.google.inject.Inject(optional = true)
+    @Named(Constants.QUEUE_MAX_WAITING)
+    private int maxWaiting = DEFAULT_MAX_WAITING;
+
+    @com.google.inject.Inject(optional = true)
+    @Named(Constants.QUEUE_WS_MAX_WAITING)
+    private int maxWaitingPerWorkspace = DEFAULT_WS_MAX_WAITING;
+
     /**
      * @param waitingTime
      *         max time for request to be in queue in seconds. Configuration parameter that sets max time (in seconds) which request may be
@@ -143,6 +171,7 @@ public class BuildQueue {
         successfulBuilds = new SynchronizedCache<>(new SLRUCache<BaseBuilderRequest, RemoteTask>(200, 400));
         builderServices = new ConcurrentHashMap<>();
         started = new AtomicBoolean(false);
+        reusedBuilds = new AtomicLong();
     }
 
     /**
@@ -175,6 +204,45 @@ public class BuildQueue {
         return new ArrayList<>(builderServices.values());
     }
 
+    /**
+     * Gets usage statistic of caches of build results. Result includes number of builds that reused result of previous build of the same
+     * project in this queue and summary of statistic of caches of build artifacts of all registered slave builders, see {@link
+     * org.eclipse.che.api.builder.internal.BuildArtifactCache}. Slave builders that aren't available at the moment are skipped.
+     */
+    public List<BuilderMetric> getBuildCacheStats() {
+        final String[] names = {BuilderMetric.BUILD_CACHE_HITS, BuilderMetric.BUILD_CACHE_MISSES, BuilderMetric.BUILD_CACHE_BYTES_SAVED,
+                                BuilderMetric.BUILD_CACHE_SIZE};
+        final long[] values = new long[names.length];
+        for (RemoteBuilderServer builderServer : getRegisterBuilderServers()) {
+            try {
+                for (RemoteBuilder builder : builderServer.getRemoteBuilders()) {
+                    for (BuilderMetric metric : builder.getBuilderState().getStats()) {
+                        for (int i = 0; i < names.length; i++) {
+                            if (names[i].equals(metric.getName())) {
+                                values[i] += Long.parseLong(metric.getValue());
+                            }
+                        }
+                    }
+                }
+            } catch (BuilderException | NumberFormatException e) {
+                LOG.warn("Unable get state of slave builder server {}: {}", builderServer.getBaseUrl(), e.getMessage());
+            }
+        }
+        final DtoFactory dtoFactory = DtoFactory.getInstance();
+        final List<BuilderMetric> result = new ArrayList<>(names.length + 2);
+        result.add(dtoFactory.createDto(BuilderMetric.class).withName(BuilderMetric.REUSED_BUILDS)
+                             .withValue(Long.toString(reusedBuilds.get()))
+                             .withDescription("Number of builds that reused result of previous build of the same project"));
+        for (int i = 0; i < names.length; i++) {
+            result.add(dtoFactory.createDto(BuilderMetric.class).withName(names[i]).withValue(Long.toString(values[i])));
+        }
+        final long lookups = values[0] + values[1];
+        result.add(dtoFactory.createDto(BuilderMetric.class).withName(BuilderMetric.BUILD_CACHE_HIT_RATE)
+                             .withValue(Double.toString(lookups == 0 ? 0.0 : (double)values[0] / lookups))
+                             .withDescription("Part of builds which results were restored from caches of slave builders"));
+        return result;
+    }
+
     /**
      * Register remote SlaveBuildService which can process builds.
      *
@@ -223,7 +291,11 @@ public class BuildQueue {
                 builderList = newBuilderList;
             }
         }
-        return builderList.addBuilders(builderServer.getRemoteBuilders());
+        final boolean modified = builderList.addBuilders(builderServer.getRemoteBuilders());
+        if (modified && dispatcher != null) {
+            dispatcher.buildersChanged();
+        }
+        return modified;
     }
 
     /**
@@ -254,6 +326,9 @@ public class BuildQueue {
             for (RemoteBuilder builder : builderList.getBuilders()) {
                 if (url.equals(builder.getBaseUrl())) {
                     modified |= builderList.removeBuilder(builder);
+                    if (dispatcher != null) {
+                        dispatcher.builderRemoved(builder);
+                    }
                 }
             }
             if (builderList.size() == 0) {
@@ -273,9 +348,11 @@ public class BuildQueue {
      * @param serviceContext
      *         ServiceContext
      * @return BuildQueueTask
+     * @throws ServiceUnavailableException
+     *         if queue is overloaded and doesn't accept new tasks, client should retry later
      */
     public BuildQueueTask scheduleBuild(String wsId, String project, ServiceContext serviceContext, BuildOptions buildOptions)
-            throws BuilderException {
+            throws BuilderException, ServiceUnavailableException {
         checkStarted();
         final WorkspaceDescriptor workspace = getWorkspaceDescriptor(wsId, serviceContext);
         if (workspace.getAttributes().containsKey(org.eclipse.che.api.account.server.Constants.RESOURCES_LOCKED_PROPERTY)) {
@@ -309,13 +386,10 @@ public class BuildQueue {
             }
             if (reuse) {
                 LOG.debug("Reuse successful build {}", successfulTask.getId());
+                reusedBuilds.incrementAndGet();
                 callable = new Callable<RemoteTask>() {
                     @Override
                     public RemoteTask call() throws Exception {
-                        try {
-                            Thread.sleep(1000);
-                        } catch (InterruptedException ignored) {
-                        }
                         return successfulTask;
                     }
                 };
@@ -327,13 +401,26 @@ public class BuildQueue {
             request.setTimeout(getBuildTimeout(workspace));
             callable = createTaskFor(request);
         }
+        checkAdmission(wsId);
         final Long id = sequence.getAndIncrement();
-        final InternalBuildTask future = new InternalBuildTask(ThreadLocalPropagateContext.wrap(callable), id, wsId, project, reuse);
+        final InternalBuildTask future = new InternalBuildTask(ThreadLocalPropagateContext.wrap(callable), id, wsId, project,
+                                                               request.getBuilder(), BuildDispatcher.NORMAL_PRIORITY, reuse);
         request.setId(id);
         final BuildQueueTask task = new BuildQueueTask(id, request, waitingTimeMillis, future, eventService, serviceContext.getServiceUriBuilder());
         tasks.put(id, task);
         eventService.publish(BuilderEvent.queueStartedEvent(id, wsId, project));
-        executor.execute(future);
+        if (reuse) {
+            // Result of previous build is available immediately but keep the same delay as we had before, client expects to get events
+            // of task after it gets response.
+            scheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    executor.execute(future);
+                }
+            }, 1, TimeUnit.SECONDS);
+        } else {
+            dispatcher.submit(future);
+        }
         return task;
     }
 
@@ -359,10 +446,12 @@ public class BuildQueue {
      *         ServiceContext
      * @param buildOptions
      * @return BuildQueueTask
+     * @throws ServiceUnavailableException
+     *         if queue is overloaded and doesn't accept new tasks, client should retry later
      */
     public BuildQueueTask scheduleDependenciesAnalyze(String wsId, String project, String type, ServiceContext serviceContext,
                                                       BuildOptions buildOptions)
-            throws BuilderException {
+            throws BuilderException, ServiceUnavailableException {
         checkStarted();
         final ProjectDescriptor descriptor = getProjectDescription(wsId, project, serviceContext);
         final User user = EnvironmentContext.getCurrent().getUser();
@@ -384,12 +473,15 @@ public class BuildQueue {
         final WorkspaceDescriptor workspace = getWorkspaceDescriptor(wsId, serviceContext);
         request.setTimeout(getBuildTimeout(workspace));
         final Callable<RemoteTask> callable = createTaskFor(request);
+        checkAdmission(wsId);
         final Long id = sequence.getAndIncrement();
-        final InternalBuildTask future = new InternalBuildTask(ThreadLocalPropagateContext.wrap(callable), id, wsId, project, false);
+        // Analysis of dependencies is short and user usually waits for its result, let it go before builds.
+        final InternalBuildTask future = new InternalBuildTask(ThreadLocalPropagateContext.wrap(callable), id, wsId, project,
+                                                               request.getBuilder(), BuildDispatcher.HIGH_PRIORITY, false);
         request.setId(id);
         final BuildQueueTask task = new BuildQueueTask(id, request, waitingTimeMillis, future, eventService, serviceContext.getServiceUriBuilder());
         tasks.put(id, task);
-        executor.execute(future);
+        dispatcher.submit(future);
         return task;
     }
 
@@ -402,6 +494,20 @@ public class BuildQueue {
         };
     }
 
+    /**
+     * Checks limits of queue before accepting new task. Caller that gets error should retry later, we don't keep rejected tasks and don't
+     * block caller until queue has free space.
+     */
+    private void checkAdmission(String wsId) throws ServiceUnavailableException {
+        if (!admission.tryAcquire(wsId)) {
+            throw new ServiceUnavailableException(String.format(
+                    "Build queue is overloaded: %d tasks are waiting for free builder, %d of them from workspace '%s'. Max allowed " +
+                    "number of waiting tasks is %d, for one workspace %d. Try again later.",
+                    admission.getWaiting(), admission.getWaiting(wsId), wsId,
+                    admission.getMaxWaiting(), admission.getMaxWaitingPerWorkspace()), OVERLOAD_RETRY_AFTER);
+        }
+    }
+
     private void fillRequestFromProjectDescriptor(ProjectDescriptor descriptor, BaseBuilderRequest request) throws BuilderException {
         String builder = request.getBuilder();
         final BuildersDescriptor builders = descriptor.getBuilders();
@@ -503,12 +609,8 @@ public class BuildQueue {
     // Switched to default for test.
     // private
     RemoteBuilder getBuilder(BaseBuilderRequest request) throws BuilderException {
-        final BuilderList builderList = getBuilderList(request.getWorkspace(), request.getProject());
-        if (builderList == null) {
-            // Cannot continue, typically should never happen. At least shared builders should be available for everyone.
-            throw new BuilderException("There is no any builder to process this request. ");
-        }
-        final RemoteBuilder builder = builderList.getBuilder(request);
+        // Task is started only when dispatcher finds slave builder with free worker for it.
+        final RemoteBuilder builder = dispatcher.getAssignedBuilder(request.getId());
         if (builder == null) {
             throw new BuilderException("There is no any builder available. ");
         }
@@ -577,14 +679,20 @@ public class BuildQueue {
     @PostConstruct
     public void start() {
         if (started.compareAndSet(false, true)) {
-            executor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS, new SynchronousQueue<Runnable>(),
-                                              new ThreadFactoryBuilder().setNameFormat("BuildQueue-[%d]").setDaemon(true).build()) {
+            admission = new AdmissionControl(maxWaiting, maxWaitingPerWorkspace);
+            // Tasks get here only when dispatcher finds slave builder with free worker for them, they don't wait here long.
+            final ThreadPoolExecutor pool = new ThreadPoolExecutor(queueThreads, queueThreads, 60L, TimeUnit.SECONDS,
+                                                                   new LinkedBlockingQueue<Runnable>(),
+                                                                   new ThreadFactoryBuilder().setNameFormat("BuildQueue-[%d]")
+                                                                                             .setDaemon(true).build()) {
                 @Override
                 protected void afterExecute(Runnable runnable, Throwable error) {
                     super.afterExecute(runnable, error);
                     if (runnable instanceof InternalBuildTask) {
                         final InternalBuildTask internalBuildTask = (InternalBuildTask)runnable;
-                        if (internalBuildTask.reused) {
+                        if (!internalBuildTask.reused) {
+                            dispatcher.taskStarted(internalBuildTask.id, internalBuildTask.isAccepted());
+                        } else {
                             // Emulate event from remote builder. In fact we didn't send request to remote builder just reuse result from previous
                             // build.
                             eventService.publish(BuilderEvent.doneEvent(internalBuildTask.id,
@@ -595,6 +703,19 @@ public class BuildQueue {
                     }
                 }
             };
+            pool.allowCoreThreadTimeOut(true);
+            executor = pool;
+            dispatcher = new BuildDispatcher(builderSelector, CHECK_AVAILABLE_BUILDER_DELAY) {
+                @Override
+                protected List<RemoteBuilder> getBuilders(Job job) {
+                    final BuilderList builderList = getBuilderList(job.getWorkspace(), job.getProject());
+                    if (builderList == null) {
+                        return Collections.emptyList();
+                    }
+                    return builderList.getBuilders(job.getBuilder());
+                }
+            };
+            dispatcher.start();
             scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("BuildQueueScheduler-%d")
                                                                                              .setDaemon(true).build());
             scheduler.scheduleAtFixedRate(new Runnable() {
@@ -631,6 +752,7 @@ public class BuildQueue {
                             }
                             if (remote == null) {
                                 i.remove();
+                                dispatcher.taskFinished(task.getId());
                                 successfulBuilds.remove(DtoFactory.getInstance().clone(request).withId(0L).withTimeout(0L));
                                 num++;
                             } else if ((remote.getCreationTime() + keepResultTimeMillis) < System.currentTimeMillis()) {
@@ -638,10 +760,12 @@ public class BuildQueue {
                                     remote.getBuildTaskDescriptor();
                                 } catch (NotFoundException e) {
                                     i.remove();
+                                    dispatcher.taskFinished(task.getId());
                                     num++;
                                 } catch (Exception e) {
                                     LOG.warn(e.getMessage(), e);
                                     i.remove();
+                                    dispatcher.taskFinished(task.getId());
                                     num++;
                                 }
                             }
@@ -656,6 +780,10 @@ public class BuildQueue {
             eventService.subscribe(new EventSubscriber<BuilderEvent>() {
                 @Override
                 public void onEvent(BuilderEvent event) {
+                    if (event.getType() == BuilderEvent.EventType.DONE || event.getType() == BuilderEvent.EventType.CANCELED) {
+                        // Slave builder has free worker now.
+                        dispatcher.taskFinished(event.getTaskId());
+                    }
                     if (event.getType() == BuilderEvent.EventType.DONE && !event.isReused()) {
                         final long id = event.getTaskId();
                         try {
@@ -680,52 +808,44 @@ public class BuildQueue {
             eventService.subscribe(new AnalyticsMessenger());
 
             if (slaves.length > 0) {
+                final LinkedList<RemoteBuilderServer> offline = new LinkedList<>();
+                for (String slave : slaves) {
+                    try {
+                        offline.add(createRemoteBuilderServer(slave));
+                    } catch (IllegalArgumentException e) {
+                        LOG.error(e.getMessage(), e);
+                    }
+                }
                 executor.execute(ThreadLocalPropagateContext.wrap(new Runnable() {
                     @Override
                     public void run() {
-                        final LinkedList<RemoteBuilderServer> servers = new LinkedList<>();
-                        for (String slave : slaves) {
-                            try {
-                                servers.add(createRemoteBuilderServer(slave));
-                            } catch (IllegalArgumentException e) {
-                                LOG.error(e.getMessage(), e);
+                        for (Iterator<RemoteBuilderServer> i = offline.iterator(); i.hasNext(); ) {
+                            if (Thread.currentThread().isInterrupted()) {
+                                return;
                             }
-                        }
-                        final LinkedList<RemoteBuilderServer> offline = new LinkedList<>();
-                        for (; ; ) {
-                            while (!servers.isEmpty()) {
-                                if (Thread.currentThread().isInterrupted()) {
-                                    return;
-                                }
-                                final RemoteBuilderServer server = servers.pop();
-                                if (server.isAvailable()) {
-                                    try {
-                                        doRegisterBuilderServer(server);
-                                        LOG.debug("Pre-configured slave builder server {} registered. ", server.getBaseUrl());
-                                    } catch (BuilderException e) {
-                                        LOG.error(e.getMessage(), e);
-                                        offline.add(server);
-                                    }
-                                } else {
-                                    LOG.warn("Pre-configured slave builder server {} isn't responding. ", server.getBaseUrl());
-                                    offline.add(server);
+                            final RemoteBuilderServer server = i.next();
+                            if (server.isAvailable()) {
+                                try {
+                                    doRegisterBuilderServer(server);
+                                    LOG.debug("Pre-configured slave builder server {} registered. ", server.getBaseUrl());
+                                    i.remove();
+                                } catch (BuilderException e) {
+                                    LOG.error(e.getMessage(), e);
                                 }
-                            }
-                            if (offline.isEmpty()) {
-                                return;
                             } else {
-                                servers.addAll(offline);
-                                offline.clear();
-                                synchronized (this) {
-                                    try {
-                                        wait(5000);
-                                    } catch (InterruptedException e) {
-                                        Thread.currentThread().interrupt();
-                                        return;
-                                    }
-                                }
+                                LOG.warn("Pre-configured slave builder server {} isn't responding. ", server.getBaseUrl());
                             }
                         }
+                        if (!offline.isEmpty()) {
+                            // Try again later. Don't keep thread of queue while waiting.
+                            final Runnable retry = this;
+                            scheduler.schedule(new Runnable() {
+                                @Override
+                                public void run() {
+                                    executor.execute(retry);
+                                }
+                            }, 5, TimeUnit.SECONDS);
+                        }
                     }
                 }));
             }
@@ -752,6 +872,7 @@ public class BuildQueue {
             } catch (InterruptedException e) {
                 interrupted = true;
             }
+            dispatcher.stop();
             executor.shutdown();
             try {
                 if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
@@ -779,19 +900,78 @@ public class BuildQueue {
         return eventService;
     }
 
-    private static class InternalBuildTask extends FutureTask<RemoteTask> {
+    private class InternalBuildTask extends FutureTask<RemoteTask> implements BuildDispatcher.Job {
         final Long    id;
         final String  workspace;
         final String  project;
+        final String  builder;
+        final int     priority;
         final boolean reused;
 
-        InternalBuildTask(Callable<RemoteTask> callable, Long id, String workspace, String project, boolean reused) {
+        InternalBuildTask(Callable<RemoteTask> callable, Long id, String workspace, String project, String builder, int priority,
+                          boolean reused) {
             super(callable);
             this.id = id;
             this.workspace = workspace;
             this.project = project;
+            this.builder = builder;
+            this.priority = priority;
             this.reused = reused;
         }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getWorkspace() {
+            return workspace;
+        }
+
+        @Override
+        public String getProject() {
+            return project;
+        }
+
+        @Override
+        public String getBuilder() {
+            return builder;
+        }
+
+        @Override
+        public int getPriority() {
+            return priority;
+        }
+
+        @Override
+        public void start(RemoteBuilder remoteBuilder) {
+            executor.execute(this);
+        }
+
+        @Override
+        public void reject(String message) {
+            setException(new BuilderException(message));
+        }
+
+        @Override
+        protected void done() {
+            // Task isn't waiting any more.
+            admission.release(workspace);
+        }
+
+        /** Returns {@code true} if remote builder started this task. Must be called after task is done. */
+        boolean isAccepted() {
+            if (isCancelled()) {
+                return false;
+            }
+            try {
+                get();
+                return true;
+            } catch (Exception e) {
+                return false;
+            }
+        }
     }
 
     private static class BuilderListKey {
@@ -873,49 +1053,14 @@ public class BuildQueue {
             return builders.size();
         }
 
-        synchronized RemoteBuilder getBuilder(BaseBuilderRequest request) {
+        synchronized List<RemoteBuilder> getBuilders(String name) {
             final List<RemoteBuilder> matched = new ArrayList<>();
             for (RemoteBuilder builder : builders) {
-                if (request.getBuilder().equals(builder.getName())) {
+                if (name.equals(builder.getName())) {
                     matched.add(builder);
                 }
             }
-            final int size = matched.size();
-            if (size == 0) {
-                return null;
-            }
-            final List<RemoteBuilder> available = new ArrayList<>(matched.size());
-            for (; ; ) {
-                for (RemoteBuilder builder : matched) {
-                    if (Thread.currentThread().isInterrupted()) {
-                        return null; // stop immediately
-                    }
-                    BuilderState builderState;
-                    try {
-                        builderState = builder.getBuilderState();
-                    } catch (Exception e) {
-                        LOG.error(e.getMessage(), e);
-                        continue;
-                    }
-                    if (builderState.getFreeWorkers() > 0) {
-                        available.add(builder);
-                    }
-                }
-
-                if (available.isEmpty()) {
-                    try {
-                        wait(CHECK_AVAILABLE_BUILDER_DELAY); // wait and try again
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        return null; // expected to get here if task is canceled
-                    }
-                } else {
-                    if (available.size() > 1) {
-                        return builderSelector.select(available);
-                    }
-                    return available.get(0);
-                }
-            }
+            return matched;
         }
     }
 
@@ -1046,8 +1191,8 @@ public class BuildQueue {
                         final BuilderEvent.LoggedMessage message = event.getMessage();
                         if (message != null) {
                             bm.setChannel(String.format("builder:output:%d", id));
-                            bm.setBody(String.format("{\"num\":%d, \"line\":%s}",
-                                                     message.getLineNum(), JsonUtils.getJsonString(message.getMessage())));
+                            bm.setBody(String.format("{\"num\":%d, \"lines\":%d, \"line\":%s}", message.getLineNum(),
+                                                     message.getLines(), JsonUtils.getJsonString(message.getMessage())));
                         }
                         break;
                 }
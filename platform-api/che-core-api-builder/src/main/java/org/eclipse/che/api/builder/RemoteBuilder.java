@@ -62,9 +62,14 @@ public class RemoteBuilder {
 
     /* Package visibility, not expected to be created by api users. They should use RemoteBuilderServer to get an instance of RemoteBuilder. */
     RemoteBuilder(String baseUrl, BuilderDescriptor builderDescriptor, List<Link> links) {
+        this(baseUrl, builderDescriptor.getName(), builderDescriptor.getDescription(), links);
+    }
+
+    // for test
+    RemoteBuilder(String baseUrl, String name, String description, List<Link> links) {
         this.baseUrl = baseUrl;
-        name = builderDescriptor.getName();
-        description = builderDescriptor.getDescription();
+        this.name = name;
+        this.description = description;
         this.links = new ArrayList<>(links);
         int hashCode = 7;
         hashCode = hashCode * 31 + baseUrl.hashCode();
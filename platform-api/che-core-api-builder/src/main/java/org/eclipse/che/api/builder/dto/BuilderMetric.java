@@ -36,6 +36,18 @@ public interface BuilderMetric {
 
     String MAX_QUEUE_SIZE = "maxQueueSize";
 
+    String BUILD_CACHE_HITS = "buildCacheHits";
+
+    String BUILD_CACHE_MISSES = "buildCacheMisses";
+
+    String BUILD_CACHE_HIT_RATE = "buildCacheHitRate";
+
+    String BUILD_CACHE_BYTES_SAVED = "buildCacheBytesSaved";
+
+    String BUILD_CACHE_SIZE = "buildCacheSize";
+
+    String REUSED_BUILDS = "reusedBuilds";
+
 
     String getName();
 
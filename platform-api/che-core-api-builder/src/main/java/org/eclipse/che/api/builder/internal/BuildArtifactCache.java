@@ -0,0 +1,358 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.builder.internal;
+
+import org.eclipse.che.api.builder.dto.BaseBuilderRequest;
+import org.eclipse.che.api.builder.dto.BuildRequest;
+import org.eclipse.che.commons.lang.IoUtil;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persistent cache of build artifacts. Key of entry is digest of project sources together with name of builder, targets and options of
+ * build, so identical sources built by different users or in different workspaces get the same artifacts. Digest of sources is taken
+ * from {@link SourcesManifest}, so sources are not read again to calculate the key.
+ * <p/>
+ * Each entry is stored in separate sub-directory of cache directory, artifacts keep their paths relative to the work directory of build.
+ * Entries are added with atomic rename of temporary directory, so the cache directory may be shared between slave builders, e.g. over
+ * network file system. Total size of entries is limited, the least recently used entries are removed first. Entries that are being
+ * restored are not removed. Order of usage survives restart since it is kept in modification time of entry directories.
+ */
+public class BuildArtifactCache {
+    private static final Logger LOG = LoggerFactory.getLogger(BuildArtifactCache.class);
+
+    private static final String TMP_PREFIX = ".tmp-";
+
+    private final java.io.File directory;
+    private final long         maxSize;
+    /** Size of entries in bytes in order of usage, the least recently used entry is the first. */
+    private final LinkedHashMap<String, Long> entries;
+    /** Number of threads that restore entry, entry is not evicted while it is being restored. */
+    private final Map<String, Integer>        readers;
+    private       long                        size;
+
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private final AtomicLong bytesSaved;
+
+    /**
+     * @param directory
+     *         directory for cache entries
+     * @param maxSize
+     *         max size of all entries in bytes
+     */
+    public BuildArtifactCache(java.io.File directory, long maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Max size of cache must be positive. ");
+        }
+        this.directory = directory;
+        this.maxSize = maxSize;
+        entries = new LinkedHashMap<>(16, 0.75f, true);
+        readers = new HashMap<>();
+        hits = new AtomicLong();
+        misses = new AtomicLong();
+        bytesSaved = new AtomicLong();
+    }
+
+    /** Reads entries that were saved before, e.g. before restart or by other slave builder that shares the same directory. */
+    public synchronized void start() {
+        if (!(directory.exists() || directory.mkdirs())) {
+            throw new IllegalStateException(String.format("Unable create directory %s", directory.getAbsolutePath()));
+        }
+        entries.clear();
+        size = 0;
+        final java.io.File[] list = directory.listFiles();
+        if (list == null) {
+            return;
+        }
+        Arrays.sort(list, new Comparator<java.io.File>() {
+            @Override
+            public int compare(java.io.File a, java.io.File b) {
+                return Long.compare(a.lastModified(), b.lastModified());
+            }
+        });
+        for (java.io.File entry : list) {
+            if (!entry.isDirectory()) {
+                continue;
+            }
+            if (entry.getName().startsWith(TMP_PREFIX)) {
+                // Left after crash. Don't touch fresh ones, they may belong to other slave builder.
+                if (entry.lastModified() + 3600000L < System.currentTimeMillis()) {
+                    IoUtil.deleteRecursive(entry);
+                }
+                continue;
+            }
+            final long entrySize = sizeOf(entry);
+            entries.put(entry.getName(), entrySize);
+            size += entrySize;
+        }
+        evictIfNeeded();
+        LOG.debug("Build cache {}: {} entries, {} bytes", directory, entries.size(), size);
+    }
+
+    /**
+     * Calculates key of cache entry for build of sources with digest {@code sourcesDigest}, see {@link
+     * SourcesManagerImpl#removeSourcesDigest(java.io.File)}. Returns {@code null} if results of request may not be cached, e.g. request for
+     * analysis of dependencies, or if digest of sources is unknown.
+     */
+    public String getKey(String sourcesDigest, BaseBuilderRequest request, String builder) {
+        if (sourcesDigest == null || !(request instanceof BuildRequest)) {
+            return null;
+        }
+        final Hasher hasher = Hashing.sha256().newHasher();
+        hasher.putString(builder, StandardCharsets.UTF_8).putByte((byte)0);
+        final List<String> targets = request.getTargets();
+        if (targets != null) {
+            for (String target : targets) {
+                hasher.putString(target, StandardCharsets.UTF_8).putByte((byte)0);
+            }
+        }
+        hasher.putByte((byte)1);
+        final Map<String, String> options = request.getOptions();
+        if (options != null) {
+            for (Map.Entry<String, String> e : new TreeMap<>(options).entrySet()) {
+                hasher.putString(e.getKey(), StandardCharsets.UTF_8).putByte((byte)0);
+                hasher.putString(String.valueOf(e.getValue()), StandardCharsets.UTF_8).putByte((byte)0);
+            }
+        }
+        hasher.putByte((byte)1);
+        hasher.putBoolean(((BuildRequest)request).isSkipTest());
+        hasher.putBoolean(request.isIncludeDependencies());
+        hasher.putString(sourcesDigest, StandardCharsets.UTF_8);
+        return hasher.hash().toString();
+    }
+
+    /**
+     * Copies cached artifacts to the {@code workDir}.
+     *
+     * @return copied artifacts or {@code null} if there is no entry with specified key in cache
+     */
+    public List<java.io.File> restore(String key, java.io.File workDir) throws IOException {
+        final java.io.File entry = new java.io.File(directory, key);
+        final long entrySize;
+        synchronized (this) {
+            Long knownSize = entries.get(key);
+            if (knownSize == null) {
+                if (!entry.isDirectory()) {
+                    misses.incrementAndGet();
+                    return null;
+                }
+                // Added by other slave builder.
+                knownSize = sizeOf(entry);
+                entries.put(key, knownSize);
+                size += knownSize;
+            }
+            entrySize = knownSize;
+            final Integer count = readers.get(key);
+            readers.put(key, count == null ? 1 : count + 1);
+        }
+        final List<java.io.File> restored = new ArrayList<>();
+        long bytes = 0;
+        try {
+            final java.io.File[] list = entry.listFiles();
+            if (list == null) {
+                throw new IOException(String.format("Unable read cache entry %s", entry));
+            }
+            for (java.io.File f : list) {
+                final java.io.File target = new java.io.File(workDir, f.getName());
+                IoUtil.nioCopy(f, target, IoUtil.ANY_FILTER);
+            }
+            for (String path : listFiles(entry).keySet()) {
+                final java.io.File copy = new java.io.File(workDir, path);
+                restored.add(copy);
+                bytes += copy.length();
+            }
+            // Entry might be evicted by other slave builder while we read it.
+            if (bytes != entrySize) {
+                throw new IOException(String.format("Cache entry %s is incomplete", entry));
+            }
+        } catch (IOException e) {
+            synchronized (this) {
+                final Long removedSize = entries.remove(key);
+                if (removedSize != null) {
+                    size -= removedSize;
+                }
+            }
+            misses.incrementAndGet();
+            throw e;
+        } finally {
+            synchronized (this) {
+                final int count = readers.remove(key);
+                if (count > 1) {
+                    readers.put(key, count - 1);
+                }
+                evictIfNeeded();
+            }
+        }
+        if (!entry.setLastModified(System.currentTimeMillis())) {
+            LOG.debug("Unable update modification time of {}", entry);
+        }
+        hits.incrementAndGet();
+        bytesSaved.addAndGet(bytes);
+        return restored;
+    }
+
+    /**
+     * Adds artifacts to the cache. Artifacts outside the {@code workDir} are skipped.
+     *
+     * @return {@code true} if artifacts were added and {@code false} if cache already has entry with the same key or there is nothing to
+     * add
+     */
+    public boolean put(String key, java.io.File workDir, List<java.io.File> artifacts) throws IOException {
+        final java.io.File entry = new java.io.File(directory, key);
+        if (entry.exists()) {
+            return false;
+        }
+        final java.nio.file.Path workDirPath = workDir.toPath().toAbsolutePath().normalize();
+        final java.io.File tmp = new java.io.File(directory, TMP_PREFIX + UUID.randomUUID());
+        try {
+            boolean empty = true;
+            for (java.io.File artifact : artifacts) {
+                final java.nio.file.Path path = artifact.toPath().toAbsolutePath().normalize();
+                if (!path.startsWith(workDirPath) || path.equals(workDirPath) || !artifact.exists()) {
+                    continue;
+                }
+                IoUtil.nioCopy(artifact, new java.io.File(tmp, workDirPath.relativize(path).toString()), IoUtil.ANY_FILTER);
+                empty = false;
+            }
+            if (empty) {
+                return false;
+            }
+            final long entrySize = sizeOf(tmp);
+            if (entrySize > maxSize) {
+                return false;
+            }
+            try {
+                java.nio.file.Files.move(tmp.toPath(), entry.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException | AtomicMoveNotSupportedException e) {
+                // Other thread or slave builder got the same result first.
+                return false;
+            } catch (IOException e) {
+                if (entry.exists()) {
+                    return false;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                final Long previous = entries.put(key, entrySize);
+                if (previous != null) {
+                    size -= previous;
+                }
+                size += entrySize;
+                evictIfNeeded();
+            }
+            return true;
+        } finally {
+            if (tmp.exists()) {
+                IoUtil.deleteRecursive(tmp);
+            }
+        }
+    }
+
+    public java.io.File getDirectory() {
+        return directory;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /** Returns total size of cached artifacts in bytes. */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    /** Returns number of entries in cache. */
+    public synchronized int getCount() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /** Returns total size in bytes of artifacts that were restored from cache instead of being built. */
+    public long getBytesSaved() {
+        return bytesSaved.get();
+    }
+
+    // Must be called under lock.
+    private void evictIfNeeded() {
+        for (Iterator<Map.Entry<String, Long>> i = entries.entrySet().iterator(); size > maxSize && i.hasNext(); ) {
+            final Map.Entry<String, Long> eldest = i.next();
+            if (readers.containsKey(eldest.getKey())) {
+                // Removed when it is restored.
+                continue;
+            }
+            i.remove();
+            size -= eldest.getValue();
+            final java.io.File entry = new java.io.File(directory, eldest.getKey());
+            if (!IoUtil.deleteRecursive(entry)) {
+                LOG.warn("Unable delete cache entry {}", entry);
+            }
+        }
+    }
+
+    /** Gets all files in directory and its sub-directories sorted by their relative paths. */
+    private static TreeMap<String, java.io.File> listFiles(java.io.File dir) {
+        final TreeMap<String, java.io.File> result = new TreeMap<>();
+        final java.nio.file.Path root = dir.toPath();
+        final LinkedList<java.io.File> q = new LinkedList<>();
+        q.add(dir);
+        while (!q.isEmpty()) {
+            final java.io.File[] list = q.pop().listFiles();
+            if (list != null) {
+                for (java.io.File f : list) {
+                    if (f.isDirectory()) {
+                        q.push(f);
+                    } else {
+                        result.put(root.relativize(f.toPath()).toString().replace('\\', '/'), f);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private static long sizeOf(java.io.File dir) {
+        long size = 0;
+        for (java.io.File f : listFiles(dir).values()) {
+            size += f.length();
+        }
+        return size;
+    }
+}
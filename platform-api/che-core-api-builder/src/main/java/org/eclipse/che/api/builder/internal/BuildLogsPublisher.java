@@ -11,37 +11,49 @@
 package org.eclipse.che.api.builder.internal;
 
 import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.core.util.LineChunkPublisher;
+
+import com.google.common.base.Joiner;
 
 import java.io.IOException;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.List;
 
 /**
- * Publishes builder's outputs to the EventService.
+ * Publishes builder's outputs to the EventService. Lines are published in chunks, see {@link LineChunkPublisher}, if builder produces
+ * too much output some lines are not published but they are still written to the underlying logger.
  *
  * @author andrew00x
  */
 class BuildLogsPublisher extends DelegateBuildLogger {
-    private final AtomicInteger lineCounter;
-    private final EventService eventService;
-    private final long         taskId;
-    private final String       workspace;
-    private final String       project;
+    static final int    MAX_CHUNK_LINES      = 100;
+    static final int    MAX_CHUNK_CHARACTERS = 8192;
+    static final long   MAX_CHUNK_DELAY      = 200;
+    static final double MAX_LINES_RATE       = 1000;
+
+    private final LineChunkPublisher chunkPublisher;
 
-    BuildLogsPublisher(BuildLogger delegate, EventService eventService, long taskId, String workspace, String project) {
+    BuildLogsPublisher(BuildLogger delegate, final EventService eventService, final long taskId, final String workspace,
+                       final String project) {
         super(delegate);
-        this.eventService = eventService;
-        this.taskId = taskId;
-        this.workspace = workspace;
-        this.project = project;
-        lineCounter = new AtomicInteger(1);
+        chunkPublisher = new LineChunkPublisher(MAX_CHUNK_LINES, MAX_CHUNK_CHARACTERS, MAX_CHUNK_DELAY, MAX_LINES_RATE) {
+            @Override
+            protected void publish(int firstLineNum, List<String> lines) {
+                final BuilderEvent.LoggedMessage message =
+                        new BuilderEvent.LoggedMessage(Joiner.on('\n').join(lines), firstLineNum, lines.size());
+                eventService.publish(BuilderEvent.messageLoggedEvent(taskId, workspace, project, message));
+            }
+        };
     }
 
     @Override
     public void writeLine(String line) throws IOException {
-        if (line != null) {
-            eventService.publish(BuilderEvent.messageLoggedEvent(taskId, workspace, project,
-                                                                 new BuilderEvent.LoggedMessage(line, lineCounter.getAndIncrement())));
-        }
+        chunkPublisher.writeLine(line);
         super.writeLine(line);
     }
+
+    @Override
+    public void close() throws IOException {
+        chunkPublisher.close();
+        super.close();
+    }
 }
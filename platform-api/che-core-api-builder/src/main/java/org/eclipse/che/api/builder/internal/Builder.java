@@ -37,6 +37,7 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
+import javax.inject.Named;
 import javax.ws.rs.core.MediaType;
 
 import java.io.IOException;
@@ -73,6 +74,8 @@ public abstract class Builder {
 
     private static final AtomicLong buildIdSequence = new AtomicLong(1);
 
+    private static final int DEFAULT_CACHE_MAX_SIZE = 1024;
+
     private final ConcurrentMap<Long, FutureBuildTask> tasks;
     private final java.io.File                         rootDirectory;
     private final Set<BuildListener>                   buildListeners;
@@ -81,12 +84,25 @@ public abstract class Builder {
     private final int                                  queueSize;
     private final int                                  numberOfWorkers;
     private final AtomicBoolean                        started;
+    /** Keys of build artifact cache for builds that are in progress. Keys are mapped to work directories of builds. */
+    private final ConcurrentMap<java.io.File, String>  cacheKeys;
 
     private ThreadPoolExecutor       executor;
     private ScheduledExecutorService scheduler;
     private java.io.File             repository;
     private java.io.File             builds;
     private SourcesManagerImpl       sourcesManager;
+    private BuildArtifactCache       artifactCache;
+
+    /** Directory of cache of build artifacts. By default cache is stored in directory '{name of builder}-cache' next to the repository. */
+    @com.google.inject.Inject(optional = true)
+    @Named(Constants.BUILD_CACHE_DIRECTORY)
+    private String cacheDirectory;
+
+    /** Max size of cache of build artifacts in megabytes. Zero or negative value disables cache. */
+    @com.google.inject.Inject(optional = true)
+    @Named(Constants.BUILD_CACHE_MAX_SIZE)
+    private int cacheMaxSize = DEFAULT_CACHE_MAX_SIZE;
 
     public Builder(java.io.File rootDirectory, int numberOfWorkers, int queueSize, int keepResultTime, EventService eventService) {
         this.rootDirectory = rootDirectory;
@@ -97,6 +113,7 @@ public abstract class Builder {
 
         buildListeners = new CopyOnWriteArraySet<>();
         tasks = new ConcurrentHashMap<>();
+        cacheKeys = new ConcurrentHashMap<>();
         started = new AtomicBoolean(false);
     }
 
@@ -162,6 +179,13 @@ public abstract class Builder {
             // TODO: use single instance of SourceManager
             sourcesManager = new SourcesManagerImpl(sources);
             sourcesManager.start(); // TODO: guice must do this
+            if (cacheMaxSize > 0) {
+                // Keep cache out of repository, content of repository is removed when builder stops.
+                final java.io.File cacheDir = cacheDirectory == null ? new java.io.File(rootDirectory, getName() + "-cache")
+                                                                     : new java.io.File(cacheDirectory, getName());
+                artifactCache = new BuildArtifactCache(cacheDir, cacheMaxSize * 1024L * 1024L);
+                artifactCache.start();
+            }
             executor = new MyThreadPoolExecutor(numberOfWorkers <= 0 ? Runtime.getRuntime().availableProcessors() : numberOfWorkers,
                                                 queueSize);
             scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat(
@@ -244,6 +268,7 @@ public abstract class Builder {
                 }
             }
             tasks.clear();
+            cacheKeys.clear();
             buildListeners.clear();
             sourcesManager.stop(); // TODO: guice must do this
             if (interrupted) {
@@ -274,6 +299,12 @@ public abstract class Builder {
         return getSourcesManager().getDirectory();
     }
 
+    /** Returns cache of build artifacts or {@code null} if cache is disabled. */
+    public BuildArtifactCache getArtifactCache() {
+        checkStarted();
+        return artifactCache;
+    }
+
     public int getNumberOfWorkers() {
         checkStarted();
         return executor.getCorePoolSize();
@@ -311,6 +342,20 @@ public abstract class Builder {
                              .withValue(Integer.toString(getInternalQueueSize())));
         global.add(dtoFactory.createDto(BuilderMetric.class).withName(BuilderMetric.MAX_QUEUE_SIZE)
                              .withValue(Integer.toString(getMaxInternalQueueSize())));
+        if (artifactCache != null) {
+            global.add(dtoFactory.createDto(BuilderMetric.class).withName(BuilderMetric.BUILD_CACHE_HITS)
+                                 .withValue(Long.toString(artifactCache.getHitCount()))
+                                 .withDescription("Number of builds which results were restored from cache"));
+            global.add(dtoFactory.createDto(BuilderMetric.class).withName(BuilderMetric.BUILD_CACHE_MISSES)
+                                 .withValue(Long.toString(artifactCache.getMissCount()))
+                                 .withDescription("Number of builds which results were not found in cache"));
+            global.add(dtoFactory.createDto(BuilderMetric.class).withName(BuilderMetric.BUILD_CACHE_BYTES_SAVED)
+                                 .withValue(Long.toString(artifactCache.getBytesSaved()))
+                                 .withDescription("Size in bytes of artifacts restored from cache"));
+            global.add(dtoFactory.createDto(BuilderMetric.class).withName(BuilderMetric.BUILD_CACHE_SIZE)
+                                 .withValue(Long.toString(artifactCache.getSize()))
+                                 .withDescription("Size in bytes of cached artifacts"));
+        }
         return global;
     }
 
@@ -399,13 +444,18 @@ public abstract class Builder {
             @Override
             public void done(BuildTask task) {
                 final BaseBuilderRequest buildRequest = task.getConfiguration().getRequest();
-                eventService.publish(BuilderEvent.doneEvent(buildRequest.getId(), buildRequest.getWorkspace(), buildRequest.getProject()));
+                // Close logger first, it publishes the rest of output that must be delivered before event about end of build.
                 try {
                     myLogger.close();
                     LOG.debug("Close build logger {}", myLogger);
                 } catch (IOException e) {
                     LOG.error(e.getMessage(), e);
                 }
+                eventService.publish(BuilderEvent.doneEvent(buildRequest.getId(), buildRequest.getWorkspace(), buildRequest.getProject()));
+                final String cacheKey = cacheKeys.remove(task.getConfiguration().getWorkDir());
+                if (cacheKey != null) {
+                    saveInCache(cacheKey, task);
+                }
             }
         };
         final FutureBuildTask task = new FutureBuildTask(callable, internalId, commandLine, getName(), configuration, myLogger, callback);
@@ -436,6 +486,9 @@ public abstract class Builder {
                 eventService.publish(BuilderEvent.buildTimeStartedEvent(request.getId(), request.getWorkspace(), request.getProject(),
                                                                         System.currentTimeMillis()));
                 eventService.publish(BuilderEvent.beginEvent(request.getId(), request.getWorkspace(), request.getProject()));
+                if (restoreFromCache(configuration, logger)) {
+                    return true;
+                }
                 StreamPump output = null;
                 Watchdog watcher = null;
                 int result = -1;
@@ -484,6 +537,46 @@ public abstract class Builder {
         };
     }
 
+    /**
+     * Looks up results of build with the same sources and the same parameters in cache of build artifacts and copies them to the work
+     * directory. If results are not found remembers key of cache so results of this build are saved in cache when build is done.
+     *
+     * @return {@code true} if results of build are restored from cache and build process may be skipped
+     */
+    protected boolean restoreFromCache(BuilderConfiguration configuration, BuildLogger logger) {
+        if (artifactCache == null) {
+            return false;
+        }
+        final java.io.File workDir = configuration.getWorkDir();
+        try {
+            final String key = artifactCache.getKey(sourcesManager.removeSourcesDigest(workDir), configuration.getRequest(), getName());
+            if (key == null) {
+                return false;
+            }
+            final List<java.io.File> restored = artifactCache.restore(key, workDir);
+            if (restored != null) {
+                LOG.debug("Restore {} artifacts from cache {}", restored.size(), key);
+                logger.writeLine("[INFO] Sources are the same as in one of the previous builds, its results are reused.");
+                return true;
+            }
+            cacheKeys.put(workDir, key);
+        } catch (IOException e) {
+            LOG.warn(String.format("Unable restore results of build from cache: %s", e.getMessage()), e);
+        }
+        return false;
+    }
+
+    private void saveInCache(String key, BuildTask task) {
+        try {
+            final BuildResult result = task.getResult();
+            if (result != null && result.isSuccessful() && !result.getResults().isEmpty()) {
+                artifactCache.put(key, task.getConfiguration().getWorkDir(), result.getResults());
+            }
+        } catch (BuilderException | IOException e) {
+            LOG.warn(String.format("Unable save results of build in cache: %s", e.getMessage()), e);
+        }
+    }
+
     /**
      * Cleanup task. Cleanup means removing all local files which were created by build process, e.g logs, sources, build reports, etc.
      * <p/>
@@ -495,6 +588,9 @@ public abstract class Builder {
     protected void cleanup(BuildTask task) {
         final BuilderConfiguration configuration = task.getConfiguration();
         final java.io.File workDir = configuration.getWorkDir();
+        if (workDir != null) {
+            sourcesManager.removeSourcesDigest(workDir);
+        }
         if (workDir != null && workDir.exists()) {
             if (!IoUtil.deleteRecursive(workDir)) {
                 LOG.warn("Unable delete directory {}", workDir);
@@ -10,13 +10,14 @@
  *******************************************************************************/
 package org.eclipse.che.api.builder.internal;
 
+import org.eclipse.che.api.core.notification.DroppableEvent;
 import org.eclipse.che.api.core.notification.EventOrigin;
 
 /**
  * @author andrew00x
  */
 @EventOrigin("builder")
-public class BuilderEvent {
+public class BuilderEvent implements DroppableEvent {
     public enum EventType {
         /** Build time is started. */
         BUILD_TIME_STARTED("build_time_begin"),
@@ -60,12 +61,27 @@ public class BuilderEvent {
     public static class LoggedMessage {
         private String message;
         private int    lineNum;
+        private int    lines = 1;
 
         public LoggedMessage(String message, int lineNum) {
             this.message = message;
             this.lineNum = lineNum;
         }
 
+        /**
+         * @param message
+         *         lines separated with '\n'
+         * @param lineNum
+         *         number of the first line
+         * @param lines
+         *         number of lines in message
+         */
+        public LoggedMessage(String message, int lineNum, int lines) {
+            this.message = message;
+            this.lineNum = lineNum;
+            this.lines = lines;
+        }
+
         public LoggedMessage() {
         }
 
@@ -85,11 +101,21 @@ public class BuilderEvent {
             this.lineNum = lineNum;
         }
 
+        /** Gets number of lines in message. */
+        public int getLines() {
+            return lines;
+        }
+
+        public void setLines(int lines) {
+            this.lines = lines;
+        }
+
         @Override
         public String toString() {
             return "LoggedMessage{" +
                    "message='" + message + '\'' +
                    ", lineNum=" + lineNum +
+                   ", lines=" + lines +
                    '}';
         }
     }
@@ -173,6 +199,12 @@ public class BuilderEvent {
         this.type = type;
     }
 
+    /** Lines of log may be dropped if client doesn't keep up, events that change state of process may not. */
+    @Override
+    public boolean canBeDropped() {
+        return type == EventType.MESSAGE_LOGGED;
+    }
+
     public long getTaskId() {
         return taskId;
     }
@@ -64,6 +64,19 @@ public class Constants {
      * this time build may be terminated.
      */
     public static final String MAX_EXECUTION_TIME         = "builder.max_execution_time";
+    /** Number of threads of build queue that send build requests to slave builders. */
+    public static final String QUEUE_THREADS              = "builder.queue.threads_number";
+    /** Max number of build tasks that may wait for free slave builder. Zero or negative value means no limit. */
+    public static final String QUEUE_MAX_WAITING          = "builder.queue.max_waiting_tasks";
+    /** Max number of build tasks of one workspace that may wait for free slave builder. Zero or negative value means no limit. */
+    public static final String QUEUE_WS_MAX_WAITING       = "builder.queue.workspace.max_waiting_tasks";
+    /**
+     * Directory of cache of build artifacts. Cache may be shared between slave builders. If this parameter is not set cache is stored in
+     * {@link #BASE_DIRECTORY}.
+     */
+    public static final String BUILD_CACHE_DIRECTORY      = "builder.cache.directory";
+    /** Max size of cache of build artifacts in megabytes. Zero or negative value disables cache. */
+    public static final String BUILD_CACHE_MAX_SIZE       = "builder.cache.max_size";
 
     /** Build results archive type: .zip */
     public static final String RESULT_ARCHIVE_ZIP         = "zip";
@@ -17,25 +17,36 @@ import java.nio.charset.Charset;
 import java.nio.file.Files;
 
 /**
- * File based implementation of BuildLogger.
+ * File based implementation of BuildLogger. Lines are buffered and written to the file at most once per {@link #FLUSH_INTERVAL}
+ * milliseconds instead of on every line, buffer is also flushed when logs are read.
  *
  * @author andrew00x
  */
 public final class DefaultBuildLogger implements BuildLogger {
+    private static final long FLUSH_INTERVAL = 1000;
+
     private final java.io.File file;
     private final String       contentType;
     private final Writer       writer;
-    private final boolean      autoFlush;
+
+    private long    lastFlush;
+    private boolean closed;
 
     public DefaultBuildLogger(java.io.File file, String contentType) throws IOException {
         this.file = file;
         this.contentType = contentType;
-        autoFlush = true;
         writer = Files.newBufferedWriter(file.toPath(), Charset.defaultCharset());
+        lastFlush = System.currentTimeMillis();
     }
 
     @Override
     public Reader getReader() throws IOException {
+        synchronized (this) {
+            if (!closed) {
+                writer.flush();
+                lastFlush = System.currentTimeMillis();
+            }
+        }
         return Files.newBufferedReader(file.toPath(), Charset.defaultCharset());
     }
 
@@ -50,18 +61,21 @@ public final class DefaultBuildLogger implements BuildLogger {
     }
 
     @Override
-    public void writeLine(String line) throws IOException {
+    public synchronized void writeLine(String line) throws IOException {
         if (line != null) {
             writer.write(line);
         }
         writer.write('\n');
-        if (autoFlush) {
+        final long now = System.currentTimeMillis();
+        if (now - lastFlush >= FLUSH_INTERVAL) {
             writer.flush();
+            lastFlush = now;
         }
     }
 
     @Override
-    public void close() throws IOException {
+    public synchronized void close() throws IOException {
+        closed = true;
         writer.close();
     }
 
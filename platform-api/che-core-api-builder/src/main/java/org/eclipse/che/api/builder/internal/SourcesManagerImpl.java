@@ -17,9 +17,8 @@ import org.eclipse.che.commons.json.JsonHelper;
 import org.eclipse.che.commons.json.JsonParseException;
 import org.eclipse.che.commons.lang.IoUtil;
 import org.eclipse.che.commons.lang.Pair;
-import org.eclipse.che.commons.lang.ZipUtils;
 
-import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
 import com.google.common.io.CharStreams;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
@@ -30,6 +29,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -39,12 +39,16 @@ import java.io.StringReader;
 import java.io.Writer;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.nio.file.FileSystemException;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
 import java.text.ParseException;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArraySet;
@@ -55,6 +59,8 @@ import java.util.concurrent.FutureTask;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 import javax.ws.rs.HttpMethod;
 import javax.ws.rs.core.HttpHeaders;
@@ -62,6 +68,12 @@ import javax.ws.rs.core.MediaType;
 
 /**
  * Implementation of SourcesManager that stores sources locally and gets only updated files over virtual file system RESt API.
+ * <p/>
+ * Md5 sums of stored files are kept in manifest next to the sources, see {@link SourcesManifest}, so only files that were changed since
+ * previous synchronization are read. Work directory of build gets hard links to the stored files if file system supports them and POSIX
+ * permissions, files are copied otherwise. Updated files are never written over existing ones but replace them, so updates don't change
+ * files that are linked to the work directories of builds that are in progress. Linked files are read-only, build may replace or remove
+ * them but can't change their content in place, since it would change stored sources and work directories of other builds.
  *
  * @author andrew00x
  * @author Eugene Voevodin
@@ -70,19 +82,24 @@ import javax.ws.rs.core.MediaType;
 public class SourcesManagerImpl implements SourcesManager {
     private static final Logger LOG = LoggerFactory.getLogger(SourcesManagerImpl.class);
 
-    private final java.io.File                        directory;
-    private final ConcurrentMap<String, Future<Void>> tasks;
-    private final AtomicReference<String>             projectKeyHolder;
-    private final Set<SourceManagerListener>          listeners;
-    private final ScheduledExecutorService            executor;
+    private final java.io.File                          directory;
+    private final ConcurrentMap<String, Future<String>> tasks;
+    /** Digests of sources that are copied to work directories, see {@link #removeSourcesDigest(java.io.File)}. */
+    private final ConcurrentMap<java.io.File, String>   sourcesDigests;
+    private final AtomicReference<String>               projectKeyHolder;
+    private final Set<SourceManagerListener>            listeners;
+    private final ScheduledExecutorService              executor;
 
     private static final long KEEP_PROJECT_TIME = TimeUnit.MINUTES.toMillis(30);
     private static final int  CONNECT_TIMEOUT   = (int)TimeUnit.MINUTES.toMillis(4);//This time is chosen empirically and
     private static final int  READ_TIMEOUT      = (int)TimeUnit.MINUTES.toMillis(4);//necessary for some large projects. See IDEX-1957.
 
+    private static final String MANIFEST_SUFFIX = ".manifest";
+
     public SourcesManagerImpl(java.io.File directory) {
         this.directory = directory;
         tasks = new ConcurrentHashMap<>();
+        sourcesDigests = new ConcurrentHashMap<>();
         projectKeyHolder = new AtomicReference<>();
         executor = Executors.newSingleThreadScheduledExecutor(
                 new ThreadFactoryBuilder().setNameFormat(getClass().getSimpleName() + "-FileCleaner-%d").setDaemon(true).build());
@@ -109,6 +126,7 @@ public class SourcesManagerImpl implements SourcesManager {
         // Directory for sources. Keep sources to avoid download whole project before build.
         // This directory is not permanent and may be removed at any time.
         final java.io.File srcDir = new java.io.File(directory, workspace + java.io.File.separatorChar + project);
+        final java.io.File manifestFile = getManifestFile(srcDir);
         // Temporary directory where we copy sources before build.
         final String key = workspace + project;
         try {
@@ -122,20 +140,24 @@ public class SourcesManagerImpl implements SourcesManager {
             Thread.currentThread().interrupt();
         }
         // Avoid multiple threads download source of the same project.
-        Future<Void> future = tasks.get(key);
+        Future<String> future = tasks.get(key);
         final ValueHolder<IOException> errorHolder = new ValueHolder<>();
+        final ValueHolder<SyncStats> statsHolder = new ValueHolder<>();
         if (future == null) {
-            final FutureTask<Void> newFuture = new FutureTask<>(new Runnable() {
+            final FutureTask<String> newFuture = new FutureTask<>(new Callable<String>() {
                 @Override
-                public void run() {
+                public String call() {
                     try {
-                        download(sourcesUrl, srcDir);
+                        final SyncStats stats = download(sourcesUrl, srcDir, manifestFile);
+                        statsHolder.set(stats);
+                        return stats.digest;
                     } catch (IOException e) {
                         LOG.error(e.getMessage(), e);
                         errorHolder.set(e);
+                        return null;
                     }
                 }
-            }, null);
+            });
             future = tasks.putIfAbsent(key, newFuture);
             if (future == null) {
                 future = newFuture;
@@ -148,17 +170,28 @@ public class SourcesManagerImpl implements SourcesManager {
                 }
                 logger.writeLine("[INFO] Injecting source code into builder...");
                 newFuture.run();
-                logger.writeLine("[INFO] Source code injection finished"
-                                 + "\n[INFO] ------------------------------------------------------------------------");
             }
         }
         try {
-            future.get(); // Block thread until download is completed.
+            final String digest = future.get(); // Block thread until download is completed.
             final IOException ioError = errorHolder.get();
             if (ioError != null) {
                 throw ioError;
             }
-            IoUtil.copy(srcDir, workDir, IoUtil.ANY_FILTER);
+            final long start = System.currentTimeMillis();
+            final int linked = materialize(srcDir, workDir);
+            if (digest != null) {
+                sourcesDigests.put(workDir, digest);
+            }
+            final long materializeTime = System.currentTimeMillis() - start;
+            final SyncStats stats = statsHolder.get();
+            if (stats != null) {
+                LOG.debug("Sources of {} synchronized: {}, materialize {}ms ({} files linked)", key, stats, materializeTime, linked);
+                logger.writeLine(String.format("[INFO] Source code injection finished: %d files checked, %d of them read in %d ms, " +
+                                               "changes transferred in %d ms, work directory prepared in %d ms",
+                                               stats.checked, stats.hashed, stats.hashTime, stats.transferTime, materializeTime)
+                                 + "\n[INFO] ------------------------------------------------------------------------");
+            }
             for (SourceManagerListener listener : listeners) {
                 listener.afterDownload(new SourceManagerEvent(workspace, project, sourcesUrl, workDir));
             }
@@ -180,6 +213,17 @@ public class SourcesManagerImpl implements SourcesManager {
         }
     }
 
+    /**
+     * Gets and forgets digest of paths and md5 sums of sources that were copied to the work directory by the last call of {@link
+     * #getSources(BuildLogger, String, String, String, java.io.File)}. Digest is calculated from the manifest of sources, so files are
+     * not read again.
+     *
+     * @return digest or {@code null} if it is unknown, e.g. if sources were not synchronized successfully
+     */
+    public String removeSourcesDigest(java.io.File workDir) {
+        return sourcesDigests.remove(workDir);
+    }
+
     static final OutputStream DEV_NULL = new OutputStream() {
         public void write(byte[] b, int off, int len) {
         }
@@ -191,31 +235,19 @@ public class SourcesManagerImpl implements SourcesManager {
         }
     };
 
-    private void download(String downloadUrl, java.io.File downloadTo) throws IOException {
+    private SyncStats download(String downloadUrl, java.io.File downloadTo, java.io.File manifestFile) throws IOException {
         HttpURLConnection conn = null;
         try {
-            final LinkedList<java.io.File> q = new LinkedList<>();
-            q.add(downloadTo);
+            final SyncStats stats = new SyncStats();
             final long start = System.currentTimeMillis();
-            final List<Pair<String, String>> md5sums = new LinkedList<>();
-            while (!q.isEmpty()) {
-                java.io.File current = q.pop();
-                java.io.File[] list = current.listFiles();
-                if (list != null) {
-                    for (java.io.File f : list) {
-                        if (f.isDirectory()) {
-                            q.push(f);
-                        } else {
-                            md5sums.add(Pair.of(com.google.common.io.Files.hash(f, Hashing.md5()).toString(),
-                                                downloadTo.toPath().relativize(f.toPath()).toString()
-                                                          .replace("\\", "/"))); //Replacing of "\" is need for windows support
-                        }
-                    }
-                }
-            }
+            final SourcesManifest manifest = SourcesManifest.load(manifestFile);
+            final List<Pair<String, String>> md5sums = md5sums(downloadTo, manifest);
             final long end = System.currentTimeMillis();
+            stats.checked = manifest.getChecked();
+            stats.hashed = manifest.getHashed();
+            stats.hashTime = end - start;
             if (md5sums.size() > 0) {
-                LOG.debug("count md5sums of {} files, time: {}ms", md5sums.size(), (end - start));
+                LOG.debug("count md5sums of {} files ({} read), time: {}ms", md5sums.size(), manifest.getHashed(), (end - start));
             }
             conn = (HttpURLConnection)new URL(downloadUrl).openConnection();
             conn.setConnectTimeout(CONNECT_TIMEOUT);
@@ -265,7 +297,9 @@ public class SourcesManagerImpl implements SourcesManager {
                                         try (FileOutputStream fOut = new FileOutputStream(tmp)) {
                                             multipart.readBodyData(fOut);
                                         }
-                                        ZipUtils.unzip(tmp, downloadTo);
+                                        try (InputStream zip = new FileInputStream(tmp)) {
+                                            unzip(zip, downloadTo);
+                                        }
                                     } finally {
                                         if (tmp.exists()) {
                                             tmp.delete();
@@ -274,7 +308,7 @@ public class SourcesManagerImpl implements SourcesManager {
                                 } else {
                                     final ByteArrayOutputStream bOut = new ByteArrayOutputStream(length);
                                     multipart.readBodyData(bOut);
-                                    ZipUtils.unzip(new ByteArrayInputStream(bOut.toByteArray()), downloadTo);
+                                    unzip(new ByteArrayInputStream(bOut.toByteArray()), downloadTo);
                                 }
                             } else if ("removed-paths".equals(name)) {
                                 final ByteArrayOutputStream bOut = new ByteArrayOutputStream();
@@ -296,12 +330,20 @@ public class SourcesManagerImpl implements SourcesManager {
                     }
                 } else {
                     try (InputStream in = conn.getInputStream()) {
-                        ZipUtils.unzip(in, downloadTo);
+                        unzip(in, downloadTo);
                     }
                 }
             } else if (responseCode != HttpURLConnection.HTTP_NO_CONTENT) {
                 throw new IOException(String.format("Invalid response status %d from remote server. ", responseCode));
             }
+            stats.transferTime = System.currentTimeMillis() - end;
+            // Only updated files are read, sums of other files are taken from the manifest.
+            final SourcesManifest synced = manifest.next();
+            if (!md5sums(downloadTo, synced).isEmpty()) {
+                synced.save(manifestFile);
+            }
+            stats.digest = synced.digest();
+            return stats;
         } catch (ParseException | JsonParseException e) {
             throw new IOException(e.getMessage(), e);
         } finally {
@@ -311,6 +353,109 @@ public class SourcesManagerImpl implements SourcesManager {
         }
     }
 
+    /** Gets md5 sums and paths of all files in directory and its sub-directories. */
+    private static List<Pair<String, String>> md5sums(java.io.File dir, SourcesManifest manifest) throws IOException {
+        final List<Pair<String, String>> md5sums = new LinkedList<>();
+        final LinkedList<java.io.File> q = new LinkedList<>();
+        q.add(dir);
+        while (!q.isEmpty()) {
+            java.io.File current = q.pop();
+            java.io.File[] list = current.listFiles();
+            if (list != null) {
+                for (java.io.File f : list) {
+                    if (f.isDirectory()) {
+                        q.push(f);
+                    } else {
+                        //Replacing of "\" is need for windows support
+                        final String path = dir.toPath().relativize(f.toPath()).toString().replace("\\", "/");
+                        md5sums.add(Pair.of(manifest.md5(f, path), path));
+                    }
+                }
+            }
+        }
+        return md5sums;
+    }
+
+    /**
+     * Unzips updates of sources. Each file is written in temporary file which then replaces existed file, so content of existed file is
+     * never changed and work directories that have hard links to it aren't affected.
+     */
+    private static void unzip(InputStream in, java.io.File targetDir) throws IOException {
+        final ZipInputStream zipIn = new ZipInputStream(in);
+        ZipEntry zipEntry;
+        while ((zipEntry = zipIn.getNextEntry()) != null) {
+            final java.io.File file = new java.io.File(targetDir, zipEntry.getName());
+            if (zipEntry.isDirectory()) {
+                if (!(file.exists() || file.mkdirs())) {
+                    throw new IOException(String.format("Unable create directory %s", file.getAbsolutePath()));
+                }
+            } else {
+                final java.io.File parent = file.getParentFile();
+                if (!(parent.exists() || parent.mkdirs())) {
+                    throw new IOException(String.format("Unable create directory %s", parent.getAbsolutePath()));
+                }
+                final java.io.File tmp = new java.io.File(parent, '.' + file.getName() + ".tmp");
+                try (FileOutputStream out = new FileOutputStream(tmp)) {
+                    ByteStreams.copy(zipIn, out);
+                }
+                java.nio.file.Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            zipIn.closeEntry();
+        }
+    }
+
+    /**
+     * Creates in {@code workDir} hard links to all files of {@code srcDir}, linked files are made read-only. Falls back to copying if file
+     * system doesn't support hard links or POSIX permissions (e.g. read-only file can't be replaced on Windows) or directories are on
+     * different file systems.
+     *
+     * @return number of linked files
+     */
+    private static int materialize(java.io.File srcDir, java.io.File workDir) throws IOException {
+        final java.nio.file.Path srcPath = srcDir.toPath();
+        final java.nio.file.Path workPath = workDir.toPath();
+        final LinkedList<java.io.File> q = new LinkedList<>();
+        q.add(srcDir);
+        boolean link = java.nio.file.Files.getFileStore(srcPath).supportsFileAttributeView(PosixFileAttributeView.class);
+        int linked = 0;
+        while (!q.isEmpty()) {
+            final java.io.File[] list = q.pop().listFiles();
+            if (list == null) {
+                continue;
+            }
+            for (java.io.File f : list) {
+                final java.nio.file.Path target = workPath.resolve(srcPath.relativize(f.toPath()));
+                if (f.isDirectory()) {
+                    java.nio.file.Files.createDirectories(target);
+                    q.push(f);
+                    continue;
+                }
+                java.nio.file.Files.deleteIfExists(target);
+                // Content of linked file is shared with stored sources, don't let build change it in place.
+                if (link && f.setReadOnly()) {
+                    try {
+                        java.nio.file.Files.createLink(target, f.toPath());
+                        linked++;
+                        continue;
+                    } catch (UnsupportedOperationException | FileSystemException e) {
+                        LOG.debug("Unable create hard link, copy files instead: {}", e.getMessage());
+                        link = false;
+                    }
+                }
+                java.nio.file.Files.copy(f.toPath(), target, StandardCopyOption.COPY_ATTRIBUTES);
+                // Stored file might be made read-only for linking before, copy belongs to this build only.
+                if (!target.toFile().setWritable(true)) {
+                    LOG.debug("Unable make {} writable", target);
+                }
+            }
+        }
+        return linked;
+    }
+
+    private static java.io.File getManifestFile(java.io.File srcDir) {
+        return new java.io.File(srcDir.getParentFile(), srcDir.getName() + MANIFEST_SUFFIX);
+    }
+
     private Map<String, List<String>> parseChunkHeader(List<String> rawHeaders) throws IOException {
         final Map<String, List<String>> headers = new HashMap<>();
         for (String field : rawHeaders) {
@@ -337,6 +482,20 @@ public class SourcesManagerImpl implements SourcesManager {
         return headers;
     }
 
+    /** Timing of synchronization of stored sources with project. */
+    private static class SyncStats {
+        int  checked;
+        int  hashed;
+        long hashTime;
+        long transferTime;
+        String digest;
+
+        @Override
+        public String toString() {
+            return "checked " + checked + " files (" + hashed + " read) in " + hashTime + "ms, transfer " + transferTime + "ms";
+        }
+    }
+
     @Override
     public java.io.File getDirectory() {
         return directory;
@@ -367,6 +526,10 @@ public class SourcesManagerImpl implements SourcesManager {
                     //get list of workspace projects
                     java.io.File[] projects = workspace.listFiles();
                     for (java.io.File project : projects) {
+                        if (!project.isDirectory()) {
+                            // Manifest of sources, it is removed together with sources.
+                            continue;
+                        }
                         String key = workspace.getName() + project.getName();
                         //if project is not downloading
                         if (tasks.get(key) == null) {
@@ -375,6 +538,7 @@ public class SourcesManagerImpl implements SourcesManager {
                                 final long lastModifiedMillis = project.lastModified();
                                 if ((System.currentTimeMillis() - lastModifiedMillis) >= KEEP_PROJECT_TIME) {
                                     IoUtil.deleteRecursive(project);
+                                    getManifestFile(project).delete();
                                     LOG.debug("Remove project {} that is unused since {}", project, lastModifiedMillis);
                                 }
                             } finally {
@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.builder.internal;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Persisted md5 sums of files of cached project sources. Sum of file is reused while size and modification time of file are the same
+ * as they were when sum was calculated, so only changed files are read on each synchronization of sources.
+ * <p/>
+ * File that is modified shortly before manifest is saved may be changed again without visible change of modification time, sums of
+ * such files are not trusted and are always recalculated.
+ */
+class SourcesManifest {
+    private static final Logger LOG = LoggerFactory.getLogger(SourcesManifest.class);
+
+    private static final String HEADER = "# sources manifest v1 ";
+    /** Granularity of modification time of file that we expect from file system. */
+    private static final long   MODIFICATION_TIME_GRANULARITY = 2000;
+
+    /** Loads manifest from the file. Returns empty manifest if file doesn't exist or can't be read. */
+    static SourcesManifest load(java.io.File file) {
+        final SourcesManifest manifest = new SourcesManifest();
+        if (!file.isFile()) {
+            return manifest;
+        }
+        try (Reader fileReader = new InputStreamReader(new java.io.FileInputStream(file), StandardCharsets.UTF_8);
+             BufferedReader reader = new BufferedReader(fileReader)) {
+            String line = reader.readLine();
+            if (line == null || !line.startsWith(HEADER)) {
+                return manifest;
+            }
+            final long savedTime = Long.parseLong(line.substring(HEADER.length()));
+            while ((line = reader.readLine()) != null) {
+                final String[] parts = line.split(" ", 4);
+                final Entry entry = new Entry(parts[0], Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+                if (entry.lastModified + MODIFICATION_TIME_GRANULARITY < savedTime) {
+                    manifest.previous.put(parts[3], entry);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Unable read manifest of sources {}: {}", file, e.getMessage());
+            manifest.previous.clear();
+        }
+        return manifest;
+    }
+
+    private final Map<String, Entry> previous;
+    private final Map<String, Entry> current;
+    private       int                hashed;
+
+    SourcesManifest() {
+        previous = new HashMap<>();
+        current = new LinkedHashMap<>();
+    }
+
+    /**
+     * Gets md5 sum of file.
+     *
+     * @param file
+     *         file
+     * @param path
+     *         path of file relative to root directory of sources
+     */
+    String md5(java.io.File file, String path) throws IOException {
+        final long size = file.length();
+        final long lastModified = file.lastModified();
+        Entry entry = previous.get(path);
+        if (entry == null || entry.size != size || entry.lastModified != lastModified) {
+            entry = new Entry(Files.asByteSource(file).hash(Hashing.md5()).toString(), size, lastModified);
+            hashed++;
+        }
+        current.put(path, entry);
+        return entry.md5;
+    }
+
+    /**
+     * Creates manifest for the next check of the same files, e.g. after sources are updated. Sums of files that are checked by this
+     * manifest are reused by the new one under the same rules as sums of saved manifest.
+     */
+    SourcesManifest next() {
+        final SourcesManifest next = new SourcesManifest();
+        final long now = System.currentTimeMillis();
+        for (Map.Entry<String, Entry> e : current.entrySet()) {
+            if (e.getValue().lastModified + MODIFICATION_TIME_GRANULARITY < now) {
+                next.previous.put(e.getKey(), e.getValue());
+            }
+        }
+        return next;
+    }
+
+    /** Gets digest of paths and md5 sums of all files that were checked with {@link #md5(java.io.File, String)}. */
+    String digest() {
+        final Hasher hasher = Hashing.sha256().newHasher();
+        for (Map.Entry<String, Entry> e : new TreeMap<>(current).entrySet()) {
+            hasher.putString(e.getKey(), StandardCharsets.UTF_8).putByte((byte)0);
+            hasher.putString(e.getValue().md5, StandardCharsets.UTF_8).putByte((byte)0);
+        }
+        return hasher.hash().toString();
+    }
+
+    /** Number of files that were read to calculate their sums. */
+    int getHashed() {
+        return hashed;
+    }
+
+    /** Number of files that were checked with {@link #md5(java.io.File, String)}. */
+    int getChecked() {
+        return current.size();
+    }
+
+    /** Saves sums of all files that were checked with {@link #md5(java.io.File, String)}. */
+    void save(java.io.File file) throws IOException {
+        final java.io.File tmp = new java.io.File(file.getParentFile(), file.getName() + ".tmp");
+        try (Writer fileWriter = new OutputStreamWriter(new java.io.FileOutputStream(tmp), StandardCharsets.UTF_8);
+             Writer writer = new BufferedWriter(fileWriter)) {
+            writer.write(HEADER);
+            writer.write(Long.toString(System.currentTimeMillis()));
+            writer.write('\n');
+            for (Map.Entry<String, Entry> e : current.entrySet()) {
+                final Entry entry = e.getValue();
+                writer.write(entry.md5);
+                writer.write(' ');
+                writer.write(Long.toString(entry.size));
+                writer.write(' ');
+                writer.write(Long.toString(entry.lastModified));
+                writer.write(' ');
+                writer.write(e.getKey());
+                writer.write('\n');
+            }
+        }
+        java.nio.file.Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static class Entry {
+        final String md5;
+        final long   size;
+        final long   lastModified;
+
+        Entry(String md5, long size, long lastModified) {
+            this.md5 = md5;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.builder;
+
+import org.eclipse.che.api.builder.dto.BuildRequest;
+import org.eclipse.che.api.builder.dto.DependencyRequest;
+import org.eclipse.che.api.builder.internal.BuildArtifactCache;
+import org.eclipse.che.commons.lang.IoUtil;
+import org.eclipse.che.dto.server.DtoFactory;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class BuildArtifactCacheTest {
+    private File root;
+    private File cacheDir;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        root = Files.createTempDirectory(new File(System.getProperty("workDir", System.getProperty("java.io.tmpdir"))).toPath(),
+                                         "cache-test-").toFile();
+        cacheDir = new File(root, "cache");
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        IoUtil.deleteRecursive(root);
+    }
+
+    @Test
+    public void testKeyDependsOnDigestOfSourcesAndParametersOfBuild() throws Exception {
+        final BuildArtifactCache cache = new BuildArtifactCache(cacheDir, 1024);
+        final String key = cache.getKey("digest1", createRequest("user1", "install"), "maven");
+        assertEquals(cache.getKey("digest1", createRequest("user2", "install"), "maven"), key);
+        assertNotEquals(cache.getKey("digest2", createRequest("user1", "install"), "maven"), key);
+        assertNotEquals(cache.getKey("digest1", createRequest("user1", "package"), "maven"), key);
+        assertNotEquals(cache.getKey("digest1", createRequest("user1", "install"), "ant"), key);
+        assertNotEquals(cache.getKey("digest1", createRequest("user1", "install").withSkipTest(true), "maven"), key);
+        assertNull(cache.getKey("digest1", DtoFactory.getInstance().createDto(DependencyRequest.class), "maven"));
+        assertNull(cache.getKey(null, createRequest("user1", "install"), "maven"));
+    }
+
+    @Test
+    public void testRestoreArtifacts() throws Exception {
+        final BuildArtifactCache cache = new BuildArtifactCache(cacheDir, 1024);
+        cache.start();
+        final File workDir = createSources("build1", "class A {}");
+        final String key = cache.getKey("digest", createRequest("user1", "install"), "maven");
+        final File artifact = createFile(workDir, "target/a.jar", "jar content");
+
+        assertTrue(cache.put(key, workDir, Collections.singletonList(artifact)));
+        assertFalse(cache.put(key, workDir, Collections.singletonList(artifact)));
+
+        final File newWorkDir = createSources("build2", "class A {}");
+        final List<File> restored = cache.restore(key, newWorkDir);
+        assertEquals(restored, Collections.singletonList(new File(newWorkDir, "target/a.jar")));
+        assertEquals(new String(Files.readAllBytes(restored.get(0).toPath()), StandardCharsets.UTF_8), "jar content");
+        assertNull(cache.restore("unknown", newWorkDir));
+        assertEquals(cache.getHitCount(), 1);
+        assertEquals(cache.getMissCount(), 1);
+        assertEquals(cache.getBytesSaved(), "jar content".length());
+        assertEquals(cache.getSize(), "jar content".length());
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsedEntries() throws Exception {
+        final BuildArtifactCache cache = new BuildArtifactCache(cacheDir, 25);
+        cache.start();
+        final File workDir = createSources("build", "class A {}");
+        cache.put("a", workDir, Collections.singletonList(createFile(workDir, "a.jar", "0123456789")));
+        cache.put("b", workDir, Collections.singletonList(createFile(workDir, "b.jar", "0123456789")));
+        assertNotNull(cache.restore("a", createSources("restore", "")));
+
+        cache.put("c", workDir, Collections.singletonList(createFile(workDir, "c.jar", "0123456789")));
+
+        assertEquals(cache.getCount(), 2);
+        assertEquals(cache.getSize(), 20);
+        assertFalse(new File(cacheDir, "b").exists());
+        assertNull(cache.restore("b", createSources("restore-b", "")));
+        assertNotNull(cache.restore("a", createSources("restore-a", "")));
+        assertNotNull(cache.restore("c", createSources("restore-c", "")));
+    }
+
+    @Test
+    public void testDoNotCountIncompleteEntryAsHit() throws Exception {
+        final BuildArtifactCache cache = new BuildArtifactCache(cacheDir, 1024);
+        cache.start();
+        final File workDir = createSources("build", "class A {}");
+        cache.put("a", workDir, Arrays.asList(createFile(workDir, "target/a.jar", "0123456789"),
+                                              createFile(workDir, "target/b.jar", "0123456789")));
+        // Emulate eviction by other slave builder that shares the same directory.
+        assertTrue(new File(cacheDir, "a/target/b.jar").delete());
+
+        try {
+            cache.restore("a", createSources("restore", ""));
+            fail("IOException expected");
+        } catch (IOException expected) {
+        }
+
+        assertEquals(cache.getHitCount(), 0);
+        assertEquals(cache.getMissCount(), 1);
+        assertEquals(cache.getCount(), 0);
+        assertEquals(cache.getSize(), 0);
+    }
+
+    @Test
+    public void testDoNotAddArtifactsOutsideOfWorkDirectory() throws Exception {
+        final BuildArtifactCache cache = new BuildArtifactCache(cacheDir, 1024);
+        cache.start();
+        final File workDir = createSources("build", "class A {}");
+        final File other = createFile(root, "other.jar", "0123456789");
+        assertFalse(cache.put("a", workDir, Arrays.asList(other, workDir)));
+        assertEquals(cache.getCount(), 0);
+    }
+
+    @Test
+    public void testEntriesSurviveRestart() throws Exception {
+        BuildArtifactCache cache = new BuildArtifactCache(cacheDir, 1024);
+        cache.start();
+        final File workDir = createSources("build", "class A {}");
+        cache.put("a", workDir, Collections.singletonList(createFile(workDir, "target/a.jar", "0123456789")));
+
+        cache = new BuildArtifactCache(cacheDir, 1024);
+        cache.start();
+
+        assertEquals(cache.getCount(), 1);
+        assertEquals(cache.getSize(), 10);
+        assertNotNull(cache.restore("a", createSources("restore", "")));
+    }
+
+    private BuildRequest createRequest(String user, String target) {
+        final BuildRequest request = DtoFactory.getInstance().createDto(BuildRequest.class);
+        request.setUserId(user);
+        request.setWorkspace("ws-" + user);
+        request.setTargets(Collections.singletonList(target));
+        return request;
+    }
+
+    private File createSources(String name, String content) throws IOException {
+        final File dir = new File(root, name);
+        createFile(dir, "src/A.java", content);
+        return dir;
+    }
+
+    private File createFile(File parent, String path, String content) throws IOException {
+        final File file = new File(parent, path);
+        Files.createDirectories(file.getParentFile().toPath());
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
@@ -0,0 +1,286 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.builder;
+
+import org.eclipse.che.api.core.rest.shared.dto.Link;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load simulation of {@link BuildDispatcher} with local stand-in slave builders. Slave builder emulates latency of request
+ * for its state and runs each build for random time. One workspace schedules lots of builds at once, other workspaces
+ * schedule few builds each. Simulation reports throughput, time that builds wait in queue, separately for "heavy" and other
+ * workspaces, and number of requests for state of slave builders.
+ * <p/>
+ * The same load is also dispatched by the previous algorithm, when thread of each waiting build polls state of all slave
+ * builders under common monitor and sleeps {@code 2} seconds if there is no free worker.
+ * <p/>
+ * Run with: {@code mvn test-compile exec:java -Dexec.mainClass=org.eclipse.che.api.builder.BuildDispatcherSimulation
+ * -Dexec.classpathScope=test}
+ */
+public class BuildDispatcherSimulation {
+    private static final int  SLAVES               = 8;
+    private static final int  WORKERS_PER_SLAVE    = 4;
+    private static final int  HEAVY_WORKSPACE_JOBS = 150;
+    private static final int  LIGHT_WORKSPACES     = 25;
+    private static final int  LIGHT_WORKSPACE_JOBS = 2;
+    private static final long MIN_BUILD_TIME       = 200;
+    private static final long MAX_BUILD_TIME       = 600;
+    private static final long STATE_LATENCY        = 5;
+    private static final long REFRESH_PERIOD       = 2000;
+
+    public static void main(String[] args) throws Exception {
+        for (String mode : Arrays.asList("dispatcher", "polling")) {
+            new BuildDispatcherSimulation(mode).run();
+        }
+    }
+
+    private final String                   mode;
+    private final Map<RemoteBuilder, Slave> slaves;
+    private final List<RemoteBuilder>      builders;
+    private final ScheduledExecutorService timer;
+    private final AtomicInteger            stateRequests;
+    private final AtomicInteger            overcommits;
+
+    BuildDispatcherSimulation(String mode) {
+        this.mode = mode;
+        slaves = new ConcurrentHashMap<>();
+        builders = new ArrayList<>();
+        for (int i = 0; i < SLAVES; i++) {
+            final RemoteBuilder builder = new RemoteBuilder("http://slave" + i + "/builder", "maven", "maven",
+                                                            Collections.<Link>emptyList());
+            builders.add(builder);
+            slaves.put(builder, new Slave());
+        }
+        timer = Executors.newScheduledThreadPool(4);
+        stateRequests = new AtomicInteger();
+        overcommits = new AtomicInteger();
+    }
+
+    void run() throws Exception {
+        final List<SimJob> jobs = new ArrayList<>();
+        long id = 1;
+        for (int i = 0; i < HEAVY_WORKSPACE_JOBS; i++) {
+            jobs.add(new SimJob(id++, "heavy"));
+        }
+        for (int w = 0; w < LIGHT_WORKSPACES; w++) {
+            for (int i = 0; i < LIGHT_WORKSPACE_JOBS; i++) {
+                jobs.add(new SimJob(id++, "light" + w));
+            }
+        }
+        final CountDownLatch done = new CountDownLatch(jobs.size());
+        for (SimJob job : jobs) {
+            job.done = done;
+        }
+        final long start = System.currentTimeMillis();
+        if ("dispatcher".equals(mode)) {
+            runDispatcher(jobs, done);
+        } else {
+            runPolling(jobs, done);
+        }
+        final long time = System.currentTimeMillis() - start;
+        timer.shutdownNow();
+        report(jobs, time);
+    }
+
+    private void runDispatcher(List<SimJob> jobs, CountDownLatch done) throws InterruptedException {
+        final BuildDispatcher dispatcher = new BuildDispatcher(new RandomBuilderSelectionStrategy(), REFRESH_PERIOD) {
+            @Override
+            protected List<RemoteBuilder> getBuilders(Job job) {
+                return builders;
+            }
+
+            @Override
+            protected int getFreeWorkers(RemoteBuilder builder) {
+                return readState(builder);
+            }
+        };
+        dispatcher.start();
+        for (final SimJob job : jobs) {
+            job.onStart = new Runnable() {
+                @Override
+                public void run() {
+                    dispatcher.taskStarted(job.id, true);
+                }
+            };
+            job.onFinish = new Runnable() {
+                @Override
+                public void run() {
+                    dispatcher.taskFinished(job.id);
+                }
+            };
+            job.created = System.currentTimeMillis();
+            dispatcher.submit(job);
+        }
+        done.await();
+        dispatcher.stop();
+    }
+
+    /** Emulates previous implementation: thread per waiting build polls state of slaves under common monitor. */
+    private void runPolling(List<SimJob> jobs, CountDownLatch done) throws InterruptedException {
+        final Object monitor = new Object();
+        final BuilderSelectionStrategy selector = new RandomBuilderSelectionStrategy();
+        final List<Thread> threads = new ArrayList<>();
+        for (final SimJob job : jobs) {
+            job.created = System.currentTimeMillis();
+            final Thread thread = new Thread() {
+                @Override
+                public void run() {
+                    RemoteBuilder selected = null;
+                    synchronized (monitor) {
+                        while (selected == null) {
+                            final List<RemoteBuilder> available = new ArrayList<>();
+                            for (RemoteBuilder builder : builders) {
+                                if (readState(builder) > 0) {
+                                    available.add(builder);
+                                }
+                            }
+                            if (available.isEmpty()) {
+                                try {
+                                    monitor.wait(REFRESH_PERIOD);
+                                } catch (InterruptedException e) {
+                                    return;
+                                }
+                            } else {
+                                selected = available.size() > 1 ? selector.select(available) : available.get(0);
+                            }
+                        }
+                    }
+                    job.start(selected);
+                }
+            };
+            threads.add(thread);
+            thread.start();
+        }
+        done.await();
+    }
+
+    private int readState(RemoteBuilder builder) {
+        stateRequests.incrementAndGet();
+        try {
+            Thread.sleep(STATE_LATENCY);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return WORKERS_PER_SLAVE - slaves.get(builder).busy.get();
+    }
+
+    private void report(List<SimJob> jobs, long time) {
+        final List<Long> heavy = new ArrayList<>();
+        final List<Long> light = new ArrayList<>();
+        for (SimJob job : jobs) {
+            ("heavy".equals(job.workspace) ? heavy : light).add(job.started - job.created);
+        }
+        System.out.printf("%-10s builds: %d, time: %d ms, throughput: %.1f builds/s, state requests: %d, overcommits: %d%n",
+                          mode, jobs.size(), time, jobs.size() * 1000.0 / time, stateRequests.get(), overcommits.get());
+        System.out.printf("%-10s queue time of heavy workspace: %s%n", "", stats(heavy));
+        System.out.printf("%-10s queue time of light workspaces: %s%n", "", stats(light));
+    }
+
+    private static String stats(List<Long> times) {
+        Collections.sort(times);
+        long sum = 0;
+        for (long time : times) {
+            sum += time;
+        }
+        return String.format("avg %d ms, p50 %d ms, p95 %d ms, max %d ms", sum / times.size(), times.get(times.size() / 2),
+                             times.get((int)(times.size() * 0.95)), times.get(times.size() - 1));
+    }
+
+    private static class Slave {
+        final AtomicInteger busy = new AtomicInteger();
+    }
+
+    private class SimJob implements BuildDispatcher.Job {
+        final Long   id;
+        final String workspace;
+
+        CountDownLatch done;
+        Runnable       onStart;
+        Runnable       onFinish;
+        volatile long  created;
+        volatile long  started;
+
+        SimJob(long id, String workspace) {
+            this.id = id;
+            this.workspace = workspace;
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getWorkspace() {
+            return workspace;
+        }
+
+        @Override
+        public String getProject() {
+            return "/project";
+        }
+
+        @Override
+        public String getBuilder() {
+            return "maven";
+        }
+
+        @Override
+        public int getPriority() {
+            return BuildDispatcher.NORMAL_PRIORITY;
+        }
+
+        @Override
+        public boolean isDone() {
+            return false;
+        }
+
+        @Override
+        public void start(RemoteBuilder builder) {
+            started = System.currentTimeMillis();
+            final Slave slave = slaves.get(builder);
+            if (slave.busy.incrementAndGet() > WORKERS_PER_SLAVE) {
+                overcommits.incrementAndGet();
+            }
+            if (onStart != null) {
+                onStart.run();
+            }
+            final long buildTime = ThreadLocalRandom.current().nextLong(MIN_BUILD_TIME, MAX_BUILD_TIME);
+            timer.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    slave.busy.decrementAndGet();
+                    if (onFinish != null) {
+                        onFinish.run();
+                    }
+                    done.countDown();
+                }
+            }, buildTime, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void reject(String message) {
+            throw new IllegalStateException(message);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.builder;
+
+import org.eclipse.che.api.core.rest.shared.dto.Link;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class BuildDispatcherTest {
+    private RemoteBuilder       builder;
+    private AtomicInteger       freeWorkers;
+    private List<RemoteBuilder> builders;
+    private List<Long>          started;
+    private BuildDispatcher     dispatcher;
+
+    @BeforeMethod
+    public void setUp() {
+        builder = new RemoteBuilder("http://localhost/builder", "maven", "maven", Collections.<Link>emptyList());
+        freeWorkers = new AtomicInteger();
+        builders = new ArrayList<>();
+        builders.add(builder);
+        started = Collections.synchronizedList(new ArrayList<Long>());
+        dispatcher = new BuildDispatcher(new RandomBuilderSelectionStrategy(), 100000) {
+            @Override
+            protected List<RemoteBuilder> getBuilders(Job job) {
+                return builders;
+            }
+
+            @Override
+            protected int getFreeWorkers(RemoteBuilder builder) {
+                return freeWorkers.get();
+            }
+        };
+        dispatcher.start();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        dispatcher.stop();
+    }
+
+    @Test
+    public void shouldShareBuilderBetweenWorkspaces() throws Exception {
+        // Builder is busy until all tasks are in queue.
+        dispatcher.submit(new TestJob(1L, "ws1", BuildDispatcher.NORMAL_PRIORITY));
+        dispatcher.submit(new TestJob(2L, "ws1", BuildDispatcher.NORMAL_PRIORITY));
+        dispatcher.submit(new TestJob(3L, "ws1", BuildDispatcher.NORMAL_PRIORITY));
+        dispatcher.submit(new TestJob(4L, "ws2", BuildDispatcher.NORMAL_PRIORITY));
+        dispatcher.submit(new TestJob(5L, "ws2", BuildDispatcher.HIGH_PRIORITY));
+        waitForRefresh();
+        freeWorkers.set(5);
+        // Forget cached state of builder.
+        dispatcher.builderRemoved(builder);
+        dispatcher.buildersChanged();
+        waitForStarted(5);
+        assertEquals(started.subList(0, 2), Arrays.asList(1L, 5L));
+        assertEquals(started.subList(2, 4), Arrays.asList(2L, 4L));
+        assertEquals((long)started.get(4), 3L);
+    }
+
+    @Test
+    public void shouldNotStartMoreTasksThanBuilderHasFreeWorkers() throws Exception {
+        freeWorkers.set(2);
+        for (long id = 1; id <= 4; id++) {
+            dispatcher.submit(new TestJob(id, "ws1", BuildDispatcher.NORMAL_PRIORITY));
+        }
+        waitForStarted(2);
+        Thread.sleep(200);
+        assertEquals(started.size(), 2);
+        // First task is done, builder has one free worker again.
+        freeWorkers.set(1);
+        dispatcher.taskFinished(1L);
+        waitForStarted(3);
+        Thread.sleep(200);
+        assertEquals(started.size(), 3);
+        assertTrue(dispatcher.getStateRequestCount() <= 3);
+        assertEquals(dispatcher.getAssignedBuilder(3L), builder);
+    }
+
+    @Test
+    public void shouldReleasePendingWorkerIfTaskFinishedBeforeItWasMarkedAsStarted() throws Exception {
+        freeWorkers.set(1);
+        final TestJob first = new TestJob(1L, "ws1", BuildDispatcher.NORMAL_PRIORITY);
+        first.notifyStarted = false;
+        dispatcher.submit(first);
+        waitForStarted(1);
+        // Event about finished task is handled before task is marked as started.
+        dispatcher.taskFinished(1L);
+        dispatcher.taskStarted(1L, true);
+        dispatcher.submit(new TestJob(2L, "ws1", BuildDispatcher.NORMAL_PRIORITY));
+        waitForStarted(2);
+    }
+
+    @Test
+    public void shouldRejectTaskIfThereIsNoBuilder() throws Exception {
+        builders.clear();
+        final TestJob job = new TestJob(1L, "ws1", BuildDispatcher.NORMAL_PRIORITY);
+        dispatcher.submit(job);
+        assertTrue(job.rejected.await(5, TimeUnit.SECONDS));
+        assertTrue(started.isEmpty());
+    }
+
+    private void waitForRefresh() throws InterruptedException {
+        final long endTime = System.currentTimeMillis() + 5000;
+        while (dispatcher.getStateRequestCount() == 0 && System.currentTimeMillis() < endTime) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(100);
+    }
+
+    private void waitForStarted(int number) throws InterruptedException {
+        final long endTime = System.currentTimeMillis() + 5000;
+        while (started.size() < number && System.currentTimeMillis() < endTime) {
+            Thread.sleep(10);
+        }
+        assertEquals(started.size(), number);
+    }
+
+    private class TestJob implements BuildDispatcher.Job {
+        final Long           id;
+        final String         workspace;
+        final int            priority;
+        final CountDownLatch rejected = new CountDownLatch(1);
+        boolean notifyStarted = true;
+
+        TestJob(Long id, String workspace, int priority) {
+            this.id = id;
+            this.workspace = workspace;
+            this.priority = priority;
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getWorkspace() {
+            return workspace;
+        }
+
+        @Override
+        public String getProject() {
+            return "/project";
+        }
+
+        @Override
+        public String getBuilder() {
+            return "maven";
+        }
+
+        @Override
+        public int getPriority() {
+            return priority;
+        }
+
+        @Override
+        public boolean isDone() {
+            return false;
+        }
+
+        @Override
+        public void start(RemoteBuilder builder) {
+            started.add(id);
+            if (notifyStarted) {
+                dispatcher.taskStarted(id, true);
+            }
+        }
+
+        @Override
+        public void reject(String message) {
+            rejected.countDown();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.builder.internal;
+
+import org.eclipse.che.commons.lang.IoUtil;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+
+public class SourcesManifestTest {
+    private File root;
+    private File manifestFile;
+    private File a;
+    private File b;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        root = Files.createTempDirectory(new File(System.getProperty("workDir", System.getProperty("java.io.tmpdir"))).toPath(),
+                                         "manifest-test-").toFile();
+        manifestFile = new File(root, "project.manifest");
+        a = createFile("a.txt", "a");
+        b = createFile("b.txt", "b");
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        IoUtil.deleteRecursive(root);
+    }
+
+    @Test
+    public void testReadOnlyChangedFiles() throws Exception {
+        SourcesManifest manifest = SourcesManifest.load(manifestFile);
+        final String md5 = manifest.md5(a, "a.txt");
+        manifest.md5(b, "b.txt");
+        assertEquals(manifest.getHashed(), 2);
+        manifest.save(manifestFile);
+
+        Files.write(b.toPath(), "bb".getBytes(StandardCharsets.UTF_8));
+        manifest = SourcesManifest.load(manifestFile);
+
+        assertEquals(manifest.md5(a, "a.txt"), md5);
+        assertEquals(manifest.md5(b, "b.txt"), "21ad0bd836b90d08f4cf640b4c298e7c");
+        assertEquals(manifest.getChecked(), 2);
+        assertEquals(manifest.getHashed(), 1);
+    }
+
+    @Test
+    public void testDoNotTrustFilesModifiedShortlyBeforeSave() throws Exception {
+        a.setLastModified(System.currentTimeMillis());
+        SourcesManifest manifest = SourcesManifest.load(manifestFile);
+        manifest.md5(a, "a.txt");
+        manifest.md5(b, "b.txt");
+        manifest.save(manifestFile);
+
+        manifest = SourcesManifest.load(manifestFile);
+        manifest.md5(a, "a.txt");
+        manifest.md5(b, "b.txt");
+
+        assertEquals(manifest.getHashed(), 1);
+    }
+
+    @Test
+    public void testDigestOfSourcesAfterUpdate() throws Exception {
+        final SourcesManifest manifest = SourcesManifest.load(manifestFile);
+        manifest.md5(a, "a.txt");
+        manifest.md5(b, "b.txt");
+        final String digest = manifest.digest();
+
+        Files.write(b.toPath(), "bb".getBytes(StandardCharsets.UTF_8));
+        SourcesManifest next = manifest.next();
+        next.md5(a, "a.txt");
+        next.md5(b, "b.txt");
+
+        assertEquals(next.getHashed(), 1);
+        assertNotEquals(next.digest(), digest);
+
+        Files.write(b.toPath(), "b".getBytes(StandardCharsets.UTF_8));
+        next = next.next();
+        next.md5(b, "b.txt");
+        next.md5(a, "a.txt");
+
+        assertEquals(next.digest(), digest);
+    }
+
+    @Test
+    public void testIgnoreBrokenManifest() throws Exception {
+        Files.write(manifestFile.toPath(), "# sources manifest v1 x\n".getBytes(StandardCharsets.UTF_8));
+        final SourcesManifest manifest = SourcesManifest.load(manifestFile);
+        assertEquals(manifest.md5(a, "a.txt"), "0cc175b9c0f1b6a831c399e269772661");
+        assertEquals(manifest.getHashed(), 1);
+    }
+
+    private File createFile(String name, String content) throws Exception {
+        final File file = new File(root, name);
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        // Pretend file isn't changed recently.
+        file.setLastModified(System.currentTimeMillis() - 10000);
+        return file;
+    }
+}
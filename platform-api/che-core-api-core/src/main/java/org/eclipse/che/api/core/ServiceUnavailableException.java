@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core;
+
+/**
+ * A {@code ServiceUnavailableException} is thrown when service is temporary not able to handle request, e.g. because of overload. Client
+ * may repeat the same request later.
+ * <p/>
+ * Typically in REST API such errors are converted in HTTP response with status 503 and header 'Retry-After' if {@link #getRetryAfter()}
+ * is positive.
+ */
+@SuppressWarnings("serial")
+public class ServiceUnavailableException extends ServerException {
+    private final int retryAfter;
+
+    /**
+     * @param message
+     *         error message
+     * @param retryAfter
+     *         number of seconds after that client may repeat request, zero or negative value if it is unknown
+     */
+    public ServiceUnavailableException(String message, int retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public ServiceUnavailableException(String message) {
+        this(message, 0);
+    }
+
+    /** Gets number of seconds after that client may repeat request. Zero or negative value means that it is unknown. */
+    public int getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,77 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.notification;
+
+/**
+ * Describes asynchronous delivery of events to subscriber. Events are put in bounded queue of subscriber and delivered by
+ * shared pool of threads of {@link EventService}. Subscriber gets events in the same order as they were published, one
+ * event at a time.
+ *
+ * @see EventService#subscribe(EventSubscriber, AsyncDelivery)
+ * @see EventService#setAsyncDelivery(Class, AsyncDelivery)
+ */
+public final class AsyncDelivery {
+    /** What to do when queue of subscriber is full. */
+    public enum Backpressure {
+        /** Drop new event. */
+        DROP,
+        /** Block publisher until there is free space in queue. */
+        BLOCK,
+        /**
+         * Don't add new event if equal event is already in queue. If queue is full drop the oldest event, so subscriber
+         * always gets the latest state.
+         */
+        COALESCE,
+        /**
+         * Drop new event if queue is full and event is {@link DroppableEvent} that {@link DroppableEvent#canBeDropped() can be
+         * dropped}, e.g. line of log. Other events are added to queue even if it is full, so subscriber never misses change of
+         * state.
+         */
+        DROP_DROPPABLE
+    }
+
+    public static final int DEFAULT_QUEUE_SIZE = 1000;
+
+    private final int          queueSize;
+    private final Backpressure backpressure;
+
+    public AsyncDelivery(int queueSize, Backpressure backpressure) {
+        if (queueSize < 1) {
+            throw new IllegalArgumentException("Queue size must be positive. ");
+        }
+        if (backpressure == null) {
+            throw new IllegalArgumentException("Null backpressure. ");
+        }
+        this.queueSize = queueSize;
+        this.backpressure = backpressure;
+    }
+
+    public AsyncDelivery(Backpressure backpressure) {
+        this(DEFAULT_QUEUE_SIZE, backpressure);
+    }
+
+    /** Returns max number of events that may wait for delivery to one subscriber. */
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public Backpressure getBackpressure() {
+        return backpressure;
+    }
+
+    @Override
+    public String toString() {
+        return "AsyncDelivery{" +
+               "queueSize=" + queueSize +
+               ", backpressure=" + backpressure +
+               '}';
+    }
+}
@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.notification;
+
+/**
+ * Snapshot of statistics of asynchronous delivery of events to one subscriber.
+ *
+ * @see EventService#getAsyncDeliveryStats()
+ */
+public final class AsyncDeliveryStats {
+    private final EventSubscriber<?> subscriber;
+    private final int                queueDepth;
+    private final long               deliveredCount;
+    private final long               droppedCount;
+    private final long               totalLatency;
+    private final long               maxLatency;
+
+    AsyncDeliveryStats(EventSubscriber<?> subscriber, int queueDepth, long deliveredCount, long droppedCount, long totalLatency,
+                       long maxLatency) {
+        this.subscriber = subscriber;
+        this.queueDepth = queueDepth;
+        this.deliveredCount = deliveredCount;
+        this.droppedCount = droppedCount;
+        this.totalLatency = totalLatency;
+        this.maxLatency = maxLatency;
+    }
+
+    public EventSubscriber<?> getSubscriber() {
+        return subscriber;
+    }
+
+    /** Returns number of events that wait for delivery. */
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    /** Returns number of events that were passed to subscriber. */
+    public long getDeliveredCount() {
+        return deliveredCount;
+    }
+
+    /** Returns number of events that were dropped or coalesced because queue of subscriber was full. */
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    /** Returns average time in milliseconds between publishing of event and its delivery to subscriber. */
+    public double getAverageLatency() {
+        return deliveredCount == 0 ? 0.0 : totalLatency / 1000000.0 / deliveredCount;
+    }
+
+    /** Returns max time in milliseconds between publishing of event and its delivery to subscriber. */
+    public double getMaxLatency() {
+        return maxLatency / 1000000.0;
+    }
+
+    @Override
+    public String toString() {
+        return "AsyncDeliveryStats{" +
+               "subscriber=" + subscriber +
+               ", queueDepth=" + queueDepth +
+               ", deliveredCount=" + deliveredCount +
+               ", droppedCount=" + droppedCount +
+               ", averageLatency=" + getAverageLatency() +
+               ", maxLatency=" + getMaxLatency() +
+               '}';
+    }
+}
@@ -0,0 +1,22 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.notification;
+
+/**
+ * Event that may be dropped by asynchronous delivery with {@link AsyncDelivery.Backpressure#DROP_DROPPABLE} when subscriber doesn't
+ * keep up, e.g. line of log. Events that report change of state must not be dropped.
+ *
+ * @see AsyncDelivery
+ */
+public interface DroppableEvent {
+    /** Returns {@code true} if loss of this event is acceptable. */
+    boolean canBeDropped();
+}
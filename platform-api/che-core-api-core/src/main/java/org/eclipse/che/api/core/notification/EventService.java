@@ -11,22 +11,33 @@
 package org.eclipse.che.api.core.notification;
 
 import org.eclipse.che.commons.lang.cache.Cache;
-import org.eclipse.che.commons.lang.cache.LoadingValueSLRUCache;
-import org.eclipse.che.commons.lang.cache.SynchronizedCache;
+import org.eclipse.che.commons.lang.cache.ConcurrentLoadingValueSLRUCache;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.PreDestroy;
+import javax.inject.Named;
 import javax.inject.Singleton;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Dispatchers events to listeners. Usage example:
@@ -40,6 +51,10 @@ import java.util.concurrent.CopyOnWriteArraySet;
  *     });
  *     bus.publish(new MyEvent());
  * </pre>
+ * By default subscribers are called synchronously in the thread that publishes event. Subscriber that may be slow, e.g. sends
+ * events over network, may be subscribed with {@link AsyncDelivery}. Events for such subscriber are put in its bounded queue
+ * and delivered by shared pool of threads, subscriber gets events in the order they were published. Asynchronous delivery may
+ * be also set up for all subscribers of particular type of events, see {@link #setAsyncDelivery(Class, AsyncDelivery)}.
  *
  * @author andrew00x
  */
@@ -47,40 +62,53 @@ import java.util.concurrent.CopyOnWriteArraySet;
 public class EventService {
     private static final Logger LOG = LoggerFactory.getLogger(EventService.class);
 
-    private static final int CACHE_NUM  = 1 << 2;
-    private static final int CACHE_MASK = CACHE_NUM - 1;
-    private static final int SEG_SIZE   = 32;
+    private static final int CACHE_SIZE = 128;
 
-    private final Cache<Class<?>, Set<Class<?>>>[]              typeCache;
-    private final ConcurrentMap<Class<?>, Set<EventSubscriber>> subscribersByEventType;
+    /** Number of threads that deliver events to asynchronous subscribers. */
+    public static final String ASYNC_DELIVERY_THREADS = "event.service.async_delivery_threads";
+
+    private static final int DEFAULT_ASYNC_DELIVERY_THREADS = 4;
+    /** Max number of events that are delivered to one subscriber before thread switches to other subscribers. */
+    private static final int MAX_EVENTS_PER_DRAIN           = 64;
+
+    private final Cache<Class<?>, Set<Class<?>>>                     typeCache;
+    private final ConcurrentMap<Class<?>, Set<EventSubscriber>>      subscribersByEventType;
+    private final ConcurrentMap<EventSubscriber<?>, AsyncSubscriber> asyncSubscribers;
+    private final ConcurrentMap<Class<?>, AsyncDelivery>             asyncDeliveryByEventType;
+
+    @com.google.inject.Inject(optional = true)
+    @Named(ASYNC_DELIVERY_THREADS)
+    private int asyncDeliveryThreads = DEFAULT_ASYNC_DELIVERY_THREADS;
+
+    // Created on first asynchronous delivery.
+    private ExecutorService executor;
+    private boolean         stopped;
 
-    @SuppressWarnings("unchecked")
     public EventService() {
         subscribersByEventType = new ConcurrentHashMap<>();
-        typeCache = new Cache[CACHE_NUM];
-        for (int i = 0; i < CACHE_NUM; i++) {
-            typeCache[i] = new SynchronizedCache<>(new LoadingValueSLRUCache<Class<?>, Set<Class<?>>>(SEG_SIZE, SEG_SIZE) {
-                @Override
-                protected Set<Class<?>> loadValue(Class<?> eventClass) throws RuntimeException {
-                    LinkedList<Class<?>> parents = new LinkedList<>();
-                    Set<Class<?>> classes = new HashSet<>();
-                    parents.add(eventClass);
-                    while (!parents.isEmpty()) {
-                        Class<?> clazz = parents.pop();
-                        classes.add(clazz);
-                        Class<?> parent = clazz.getSuperclass();
-                        if (parent != null) {
-                            parents.add(parent);
-                        }
-                        Class<?>[] interfaces = clazz.getInterfaces();
-                        if (interfaces.length > 0) {
-                            Collections.addAll(parents, interfaces);
-                        }
+        asyncSubscribers = new ConcurrentHashMap<>();
+        asyncDeliveryByEventType = new ConcurrentHashMap<>();
+        typeCache = new ConcurrentLoadingValueSLRUCache<Class<?>, Set<Class<?>>>(CACHE_SIZE, CACHE_SIZE) {
+            @Override
+            protected Set<Class<?>> loadValue(Class<?> eventClass) throws RuntimeException {
+                LinkedList<Class<?>> parents = new LinkedList<>();
+                Set<Class<?>> classes = new HashSet<>();
+                parents.add(eventClass);
+                while (!parents.isEmpty()) {
+                    Class<?> clazz = parents.pop();
+                    classes.add(clazz);
+                    Class<?> parent = clazz.getSuperclass();
+                    if (parent != null) {
+                        parents.add(parent);
+                    }
+                    Class<?>[] interfaces = clazz.getInterfaces();
+                    if (interfaces.length > 0) {
+                        Collections.addAll(parents, interfaces);
                     }
-                    return classes;
                 }
-            });
-        }
+                return classes;
+            }
+        };
     }
 
     /**
@@ -95,10 +123,15 @@ public class EventService {
             throw new IllegalArgumentException("Null event.");
         }
         final Class<?> eventClass = event.getClass();
-        for (Class<?> clazz : typeCache[eventClass.hashCode() & CACHE_MASK].get(eventClass)) {
+        for (Class<?> clazz : typeCache.get(eventClass)) {
             final Set<EventSubscriber> eventSubscribers = subscribersByEventType.get(clazz);
             if (eventSubscribers != null && !eventSubscribers.isEmpty()) {
                 for (EventSubscriber eventSubscriber : eventSubscribers) {
+                    final AsyncSubscriber asyncSubscriber = asyncSubscribers.isEmpty() ? null : asyncSubscribers.get(eventSubscriber);
+                    if (asyncSubscriber != null) {
+                        asyncSubscriber.offer(event);
+                        continue;
+                    }
                     try {
                         LOG.debug("Publish event {} for {}", event, eventSubscriber);
                         eventSubscriber.onEvent(event);
@@ -119,7 +152,24 @@ public class EventService {
      */
     public void subscribe(EventSubscriber<?> subscriber) {
         final Class<?> eventType = getEventType(subscriber);
-        doSubscribe(subscriber, eventType);
+        doSubscribe(subscriber, eventType, null);
+    }
+
+    /**
+     * Subscribe event listener that gets events asynchronously. The event to subscribe to is inferred by checking the generic
+     * type arguments of the given subscriber.
+     *
+     * @param subscriber
+     *         event subscriber
+     * @param delivery
+     *         describes queue of events of subscriber
+     */
+    public void subscribe(EventSubscriber<?> subscriber, AsyncDelivery delivery) {
+        if (delivery == null) {
+            throw new IllegalArgumentException("Null delivery.");
+        }
+        final Class<?> eventType = getEventType(subscriber);
+        doSubscribe(subscriber, eventType, delivery);
     }
 
     /**
@@ -130,10 +180,91 @@ public class EventService {
      * @param eventType The event to subscribe to.
      */
     public <T> void subscribe(EventSubscriber<? extends T> subscriber, Class<T> eventType) {
-        doSubscribe(subscriber, eventType);
+        doSubscribe(subscriber, eventType, null);
     }
 
-    private void doSubscribe(EventSubscriber<?> subscriber, Class<?> eventType) {
+    /**
+     * Subscribe to an event. The given subscriber gets events asynchronously whenever an instance of the specified event is
+     * published.
+     *
+     * @param subscriber The subscriber to call when an event is published.
+     * @param eventType The event to subscribe to.
+     * @param delivery describes queue of events of subscriber
+     */
+    public <T> void subscribe(EventSubscriber<? extends T> subscriber, Class<T> eventType, AsyncDelivery delivery) {
+        if (delivery == null) {
+            throw new IllegalArgumentException("Null delivery.");
+        }
+        doSubscribe(subscriber, eventType, delivery);
+    }
+
+    /**
+     * Set asynchronous delivery for all subscribers of the specified type of events. It is applied to subscribers that are
+     * subscribed after this call and to already subscribed subscribers that get events synchronously. Subscribers that are
+     * subscribed with own {@link AsyncDelivery} keep it.
+     *
+     * @param eventType
+     *         type of events
+     * @param delivery
+     *         describes queue of events of subscriber, {@code null} removes asynchronous delivery for subscribers that are
+     *         subscribed after this call
+     */
+    public void setAsyncDelivery(Class<?> eventType, AsyncDelivery delivery) {
+        if (delivery == null) {
+            asyncDeliveryByEventType.remove(eventType);
+            return;
+        }
+        asyncDeliveryByEventType.put(eventType, delivery);
+        final Set<EventSubscriber> entries = subscribersByEventType.get(eventType);
+        if (entries != null) {
+            for (EventSubscriber subscriber : entries) {
+                asyncSubscribers.putIfAbsent(subscriber, new AsyncSubscriber(subscriber, delivery));
+            }
+        }
+    }
+
+    /** Returns statistics of delivery of events to asynchronous subscribers. */
+    public List<AsyncDeliveryStats> getAsyncDeliveryStats() {
+        final List<AsyncDeliveryStats> stats = new ArrayList<>(asyncSubscribers.size());
+        for (AsyncSubscriber asyncSubscriber : asyncSubscribers.values()) {
+            stats.add(asyncSubscriber.getStats());
+        }
+        return stats;
+    }
+
+    /** Stops delivery of events to asynchronous subscribers. Events that wait in queues are dropped. */
+    @PreDestroy
+    public void stop() {
+        synchronized (this) {
+            stopped = true;
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+        for (AsyncSubscriber asyncSubscriber : asyncSubscribers.values()) {
+            asyncSubscriber.close();
+        }
+    }
+
+    private synchronized ExecutorService getExecutor() {
+        if (executor == null && !stopped) {
+            executor = Executors.newFixedThreadPool(Math.max(asyncDeliveryThreads, 1), new ThreadFactoryBuilder()
+                    .setNameFormat("EventService-%d").setDaemon(true).build());
+        }
+        return executor;
+    }
+
+    private void doSubscribe(EventSubscriber<?> subscriber, Class<?> eventType, AsyncDelivery delivery) {
+        if (delivery == null) {
+            delivery = asyncDeliveryByEventType.get(eventType);
+        }
+        if (delivery != null) {
+            // Register queue before subscriber becomes visible for publishers, otherwise it may get events synchronously.
+            final AsyncSubscriber previous = asyncSubscribers.put(subscriber, new AsyncSubscriber(subscriber, delivery));
+            if (previous != null) {
+                previous.close();
+            }
+        }
         Set<EventSubscriber> entries = subscribersByEventType.get(eventType);
         if (entries == null) {
             Set<EventSubscriber> newEntries = new CopyOnWriteArraySet<>();
@@ -162,6 +293,10 @@ public class EventService {
                 }
             }
         }
+        final AsyncSubscriber asyncSubscriber = asyncSubscribers.remove(subscriber);
+        if (asyncSubscriber != null) {
+            asyncSubscriber.close();
+        }
     }
 
     private Class<?> getEventType(EventSubscriber<?> subscriber) {
@@ -189,4 +324,189 @@ public class EventService {
         }
         return eventType;
     }
+
+    /**
+     * Queue of events of one asynchronous subscriber. At most one thread delivers events to subscriber at a time, this keeps
+     * order of events.
+     */
+    private class AsyncSubscriber implements Runnable {
+        final EventSubscriber subscriber;
+        final AsyncDelivery   delivery;
+
+        final ReentrantLock         lock;
+        final Condition             notFull;
+        // Guarded by lock.
+        final ArrayDeque<Published> queue;
+        // Queued events for COALESCE, lets find equal event without scanning of queue. Guarded by lock.
+        final Set<Object>           queued;
+        boolean scheduled;
+        boolean overflow;
+        boolean closed;
+        long    deliveredCount;
+        long    droppedCount;
+        long    totalLatency;
+        long    maxLatency;
+
+        AsyncSubscriber(EventSubscriber subscriber, AsyncDelivery delivery) {
+            this.subscriber = subscriber;
+            this.delivery = delivery;
+            lock = new ReentrantLock();
+            notFull = lock.newCondition();
+            queue = new ArrayDeque<>();
+            queued = delivery.getBackpressure() == AsyncDelivery.Backpressure.COALESCE ? new HashSet<>() : null;
+        }
+
+        void offer(Object event) {
+            lock.lock();
+            try {
+                if (closed || !enqueue(event) || scheduled) {
+                    return;
+                }
+                scheduled = true;
+            } finally {
+                lock.unlock();
+            }
+            schedule();
+        }
+
+        /** Must be called under lock. Returns {@code false} if event was dropped. */
+        private boolean enqueue(Object event) {
+            switch (delivery.getBackpressure()) {
+                case DROP:
+                    if (queue.size() >= delivery.getQueueSize()) {
+                        droppedCount++;
+                        LOG.debug("Queue of {} is full, drop event {}", subscriber, event);
+                        return false;
+                    }
+                    break;
+                case BLOCK:
+                    try {
+                        while (queue.size() >= delivery.getQueueSize() && !closed) {
+                            notFull.await();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        droppedCount++;
+                        return false;
+                    }
+                    if (closed) {
+                        return false;
+                    }
+                    break;
+                case COALESCE:
+                    if (queued.contains(event)) {
+                        droppedCount++;
+                        return false;
+                    }
+                    if (queue.size() >= delivery.getQueueSize()) {
+                        unqueued(queue.poll());
+                        droppedCount++;
+                    }
+                    queued.add(event);
+                    break;
+                case DROP_DROPPABLE:
+                    if (queue.size() >= delivery.getQueueSize() && event instanceof DroppableEvent
+                        && ((DroppableEvent)event).canBeDropped()) {
+                        droppedCount++;
+                        if (!overflow) {
+                            overflow = true;
+                            LOG.warn("Queue of {} is full, events are dropped until subscriber catches up", subscriber);
+                        }
+                        return false;
+                    }
+                    overflow = false;
+                    break;
+            }
+            queue.add(new Published(event, System.nanoTime()));
+            return true;
+        }
+
+        /** Must be called under lock. */
+        private void unqueued(Published published) {
+            if (queued != null && published != null) {
+                queued.remove(published.event);
+            }
+        }
+
+        private void schedule() {
+            final ExecutorService executor = getExecutor();
+            try {
+                if (executor == null) {
+                    throw new RejectedExecutionException();
+                }
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                LOG.warn("Event service is stopped, events for {} are dropped", subscriber);
+                close();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void run() {
+            for (int i = 0; i < MAX_EVENTS_PER_DRAIN; i++) {
+                final Published published;
+                lock.lock();
+                try {
+                    published = queue.poll();
+                    unqueued(published);
+                    if (published == null) {
+                        scheduled = false;
+                        return;
+                    }
+                    final long latency = System.nanoTime() - published.time;
+                    deliveredCount++;
+                    totalLatency += latency;
+                    if (latency > maxLatency) {
+                        maxLatency = latency;
+                    }
+                    notFull.signal();
+                } finally {
+                    lock.unlock();
+                }
+                try {
+                    LOG.debug("Publish event {} for {}", published.event, subscriber);
+                    subscriber.onEvent(published.event);
+                } catch (RuntimeException e) {
+                    LOG.error(e.getMessage(), e);
+                }
+            }
+            // Let other subscribers get their events, continue later.
+            schedule();
+        }
+
+        void close() {
+            lock.lock();
+            try {
+                closed = true;
+                droppedCount += queue.size();
+                queue.clear();
+                if (queued != null) {
+                    queued.clear();
+                }
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        AsyncDeliveryStats getStats() {
+            lock.lock();
+            try {
+                return new AsyncDeliveryStats(subscriber, queue.size(), deliveredCount, droppedCount, totalLatency, maxLatency);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static class Published {
+        final Object event;
+        final long   time;
+
+        Published(Object event, long time) {
+            this.event = event;
+            this.time = time;
+        }
+    }
 }
@@ -61,12 +61,14 @@ public final class WSocketEventBusServer {
     void start() {
         if (start.compareAndSet(false, true)) {
             if (policy != null) {
+                // Sending of messages over websocket must not slow down publishers of events. If clients don't keep up, only
+                // droppable events, e.g. lines of build and run logs, are dropped. Events that report change of state are always sent.
                 eventService.subscribe(new EventSubscriber<Object>() {
                     @Override
                     public void onEvent(Object event) {
                         propagate(event);
                     }
-                });
+                }, new AsyncDelivery(AsyncDelivery.Backpressure.DROP_DROPPABLE));
             }
         }
     }
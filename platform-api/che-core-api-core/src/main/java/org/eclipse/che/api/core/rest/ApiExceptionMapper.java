@@ -16,10 +16,12 @@ import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.ForbiddenException;
 import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.core.ServiceUnavailableException;
 import org.eclipse.che.api.core.UnauthorizedException;
 import org.eclipse.che.dto.server.DtoFactory;
 
 import javax.inject.Singleton;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.ext.ExceptionMapper;
@@ -60,7 +62,14 @@ public class ApiExceptionMapper implements ExceptionMapper<ApiException> {
                            .entity(DtoFactory.getInstance().toJson(exception.getServiceError()))
                            .type(MediaType.APPLICATION_JSON)
                            .build();
-        else if (exception instanceof ServerException)
+        else if (exception instanceof ServiceUnavailableException) {
+            final int retryAfter = ((ServiceUnavailableException)exception).getRetryAfter();
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                           .header(HttpHeaders.RETRY_AFTER, retryAfter > 0 ? retryAfter : null)
+                           .entity(DtoFactory.getInstance().toJson(exception.getServiceError()))
+                           .type(MediaType.APPLICATION_JSON)
+                           .build();
+        } else if (exception instanceof ServerException)
             return Response.serverError()
                            .entity(DtoFactory.getInstance().toJson(exception.getServiceError()))
                            .type(MediaType.APPLICATION_JSON)
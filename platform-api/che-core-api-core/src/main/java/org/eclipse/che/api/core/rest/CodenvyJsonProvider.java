@@ -22,6 +22,7 @@ import javax.inject.Singleton;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.Produces;
 import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.GenericEntity;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
@@ -79,15 +80,34 @@ public class CodenvyJsonProvider<T> implements MessageBodyReader<T>, MessageBody
                         MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException, WebApplicationException {
         // Add Cache-Control before start write body.
         httpHeaders.putSingle(HttpHeaders.CACHE_CONTROL, "public, no-cache, no-store, no-transform");
-        if (t instanceof JsonSerializable) {
+        final Object entity = t instanceof GenericEntity ? ((GenericEntity)t).getEntity() : t;
+        if (entity instanceof JsonSerializable) {
             try (Writer w = new OutputStreamWriter(entityStream, Charset.forName("UTF-8"))) {
-                w.write(((JsonSerializable)t).toJson());
+                DtoFactory.getInstance().toJson(entity, w);
+            }
+        } else if (entity instanceof List && isListOfDtos((List<?>)entity)) {
+            // Lists of DTOs, e.g. items of folder, may be large, write them element by element instead of building JSON tree.
+            try (Writer w = new OutputStreamWriter(entityStream, Charset.forName("UTF-8"))) {
+                DtoFactory.getInstance().toJsonList((List<?>)entity, w);
             }
         } else {
             delegate.writeTo(t, type, genericType, annotations, mediaType, httpHeaders, entityStream);
         }
     }
 
+    private static boolean isListOfDtos(List<?> list) {
+        boolean dtos = false;
+        for (Object element : list) {
+            if (element != null) {
+                if (!(element instanceof JsonSerializable)) {
+                    return false;
+                }
+                dtos = true;
+            }
+        }
+        return dtos;
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
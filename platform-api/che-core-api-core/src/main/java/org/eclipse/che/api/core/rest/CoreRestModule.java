@@ -23,5 +23,7 @@ public class CoreRestModule extends AbstractModule {
         bind(CodenvyJsonProvider.class);
         bind(ApiExceptionMapper.class);
         Multibinder.newSetBinder(binder(), Class.class, Names.named("codenvy.json.ignored_classes"));
+        // HttpJsonHelper is static, it gets the same configured HttpJsonClient as HttpJsonRequestFactory.
+        requestStaticInjection(HttpJsonHelper.class);
     }
 }
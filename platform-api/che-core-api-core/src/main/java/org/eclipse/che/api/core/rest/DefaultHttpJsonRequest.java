@@ -19,7 +19,6 @@ import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.core.UnauthorizedException;
 import org.eclipse.che.api.core.rest.shared.dto.Link;
-import org.eclipse.che.api.core.rest.shared.dto.ServiceError;
 import org.eclipse.che.commons.env.EnvironmentContext;
 import org.eclipse.che.commons.lang.Pair;
 import org.eclipse.che.commons.user.User;
@@ -29,28 +28,21 @@ import org.eclipse.che.dto.server.JsonSerializable;
 import org.eclipse.che.dto.server.JsonStringMapImpl;
 
 import javax.validation.constraints.NotNull;
-import javax.ws.rs.HttpMethod;
 import javax.ws.rs.core.HttpHeaders;
-import javax.ws.rs.core.MediaType;
-import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriBuilder;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.io.Reader;
 import java.net.HttpURLConnection;
-import java.net.URL;
 import java.net.URLEncoder;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static java.util.Objects.requireNonNull;
 
 /**
- * Simple implementation of {@link HttpJsonRequest} based on {@link HttpURLConnection}.
+ * Simple implementation of {@link HttpJsonRequest} based on {@link HttpURLConnection}, connections are managed by {@link HttpJsonClient}.
  *
  * <p>The implementation is not thread-safe, instance of this class must be created each time when it's needed.
  *
@@ -65,19 +57,34 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
     private static final int      DEFAULT_QUERY_PARAMS_LIST_SIZE = 5;
     private static final Object[] EMPTY_ARRAY                    = new Object[0];
 
-    private final String url;
+    private static final HttpJsonClient.ResponseReader<DefaultHttpJsonResponse> RESPONSE_READER =
+            (responseCode, body) -> new DefaultHttpJsonResponse(CharStreams.toString(body), responseCode);
+
+    private final HttpJsonClient client;
+    private final String         url;
 
     private int                   timeout;
     private String                method;
     private Object                body;
     private List<Pair<String, ?>> queryParams;
 
+    /** Creates request that is sent with client with default configuration, use {@link HttpJsonRequestFactory} to get configured one. */
     DefaultHttpJsonRequest(String url) {
-        this.url = requireNonNull(url, "Required non-null url");
+        this(HttpJsonClient.getDefault(), url);
     }
 
+    /** Creates request that is sent with client with default configuration, use {@link HttpJsonRequestFactory} to get configured one. */
     DefaultHttpJsonRequest(Link link) {
-        this(requireNonNull(link, "Required non-null link").getHref());
+        this(HttpJsonClient.getDefault(), link);
+    }
+
+    DefaultHttpJsonRequest(HttpJsonClient client, String url) {
+        this.client = requireNonNull(client, "Required non-null client");
+        this.url = requireNonNull(url, "Required non-null url");
+    }
+
+    DefaultHttpJsonRequest(HttpJsonClient client, Link link) {
+        this(client, requireNonNull(link, "Required non-null link").getHref());
         this.method = link.getMethod();
     }
 
@@ -136,8 +143,61 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
         return doRequest(timeout, url, method, body, queryParams);
     }
 
+    @Override
+    public <T> T requestDto(@NotNull Class<T> dtoInterface) throws IOException,
+                                                                   ServerException,
+                                                                   UnauthorizedException,
+                                                                   ForbiddenException,
+                                                                   NotFoundException,
+                                                                   ConflictException,
+                                                                   BadRequestException {
+        requireNonNull(dtoInterface, "Required non-null dto interface");
+        if (method == null) {
+            throw new IllegalStateException("Could not perform request, request method wasn't set");
+        }
+        return client.request(timeout,
+                              buildUrl(url, queryParams),
+                              method,
+                              body,
+                              getAuthenticationToken(),
+                              (responseCode, response) -> DtoFactory.getInstance().createDtoFromJson(response, dtoInterface));
+    }
+
+    @Override
+    public <T> List<T> requestDtoList(@NotNull Class<T> dtoInterface) throws IOException,
+                                                                             ServerException,
+                                                                             UnauthorizedException,
+                                                                             ForbiddenException,
+                                                                             NotFoundException,
+                                                                             ConflictException,
+                                                                             BadRequestException {
+        requireNonNull(dtoInterface, "Required non-null dto interface");
+        if (method == null) {
+            throw new IllegalStateException("Could not perform request, request method wasn't set");
+        }
+        return client.request(timeout,
+                              buildUrl(url, queryParams),
+                              method,
+                              body,
+                              getAuthenticationToken(),
+                              (responseCode, response) -> DtoFactory.getInstance().createListDtoFromJson(response, dtoInterface));
+    }
+
+    @Override
+    public CompletableFuture<HttpJsonResponse> requestAsync() {
+        if (method == null) {
+            throw new IllegalStateException("Could not perform request, request method wasn't set");
+        }
+        // copy state, so this request may be changed and reused while asynchronous request is in progress
+        final int timeout = this.timeout;
+        final String method = this.method;
+        final Object body = this.body;
+        final List<Pair<String, ?>> queryParams = this.queryParams == null ? null : new ArrayList<>(this.queryParams);
+        return client.submit(() -> doRequest(timeout, url, method, body, queryParams));
+    }
+
     /**
-     * Makes this request using {@link HttpURLConnection}.
+     * Makes this request using {@link HttpJsonClient}.
      *
      * <p>Uses {@link HttpHeaders#AUTHORIZATION} header with value from {@link EnvironmentContext}.
      * <br>uses {@link HttpHeaders#ACCEPT} header with "application/json" value.
@@ -180,9 +240,12 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
                                                                                UnauthorizedException,
                                                                                ConflictException,
                                                                                BadRequestException {
-        final String authToken = getAuthenticationToken();
+        return client.request(timeout, buildUrl(url, parameters), method, body, getAuthenticationToken(), RESPONSE_READER);
+    }
+
+    private String buildUrl(String url, List<Pair<String, ?>> parameters) throws IOException {
         final boolean hasQueryParams = parameters != null && !parameters.isEmpty();
-        if (hasQueryParams || authToken != null) {
+        if (hasQueryParams || getAuthenticationToken() != null) {
             final UriBuilder ub = UriBuilder.fromUri(url);
             //remove sensitive information from url.
             ub.replaceQueryParam("token", EMPTY_ARRAY);
@@ -196,77 +259,9 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
                     ub.queryParam(name, value);
                 }
             }
-            url = ub.build().toString();
-        }
-        final HttpURLConnection conn = (HttpURLConnection)new URL(url).openConnection();
-        conn.setConnectTimeout(timeout > 0 ? timeout : 60000);
-        conn.setReadTimeout(timeout > 0 ? timeout : 60000);
-        try {
-            conn.setRequestMethod(method);
-            //drop a hint for server side that we want to receive application/json
-            conn.addRequestProperty(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON);
-            if (authToken != null) {
-                conn.setRequestProperty(HttpHeaders.AUTHORIZATION, authToken);
-            }
-            if (body != null) {
-                conn.addRequestProperty(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON);
-                conn.setDoOutput(true);
-
-                if (HttpMethod.DELETE.equals(method)) { //to avoid jdk bug described here http://bugs.java.com/view_bug.do?bug_id=7157360
-                    conn.setRequestMethod(HttpMethod.POST);
-                    conn.setRequestProperty("X-HTTP-Method-Override", HttpMethod.DELETE);
-                }
-
-                try (OutputStream output = conn.getOutputStream()) {
-                    output.write(DtoFactory.getInstance().toJson(body).getBytes());
-                }
-            }
-
-            final int responseCode = conn.getResponseCode();
-            if ((responseCode / 100) != 2) {
-                InputStream in = conn.getErrorStream();
-                if (in == null) {
-                    in = conn.getInputStream();
-                }
-                final String str;
-                try (Reader reader = new InputStreamReader(in)) {
-                    str = CharStreams.toString(reader);
-                }
-                final String contentType = conn.getContentType();
-                if (contentType != null && contentType.startsWith(MediaType.APPLICATION_JSON)) {
-                    final ServiceError serviceError = DtoFactory.getInstance().createDtoFromJson(str, ServiceError.class);
-                    if (serviceError.getMessage() != null) {
-                        if (responseCode == Response.Status.FORBIDDEN.getStatusCode()) {
-                            throw new ForbiddenException(serviceError);
-                        } else if (responseCode == Response.Status.NOT_FOUND.getStatusCode()) {
-                            throw new NotFoundException(serviceError);
-                        } else if (responseCode == Response.Status.UNAUTHORIZED.getStatusCode()) {
-                            throw new UnauthorizedException(serviceError);
-                        } else if (responseCode == Response.Status.CONFLICT.getStatusCode()) {
-                            throw new ConflictException(serviceError);
-                        } else if (responseCode == Response.Status.INTERNAL_SERVER_ERROR.getStatusCode()) {
-                            throw new ServerException(serviceError);
-                        } else if (responseCode == Response.Status.BAD_REQUEST.getStatusCode()) {
-                            throw new BadRequestException(serviceError);
-                        }
-                        throw new ServerException(serviceError);
-                    }
-                }
-                // Can't parse content as json or content has format other we expect for error.
-                throw new IOException(String.format("Failed access: %s, method: %s, response code: %d, message: %s",
-                                                    UriBuilder.fromUri(url).replaceQuery("token").build(), method, responseCode, str));
-            }
-            final String contentType = conn.getContentType();
-            if (contentType != null && !contentType.startsWith(MediaType.APPLICATION_JSON)) {
-                throw new IOException(conn.getResponseMessage());
-            }
-
-            try (Reader reader = new InputStreamReader(conn.getInputStream())) {
-                return new DefaultHttpJsonResponse(CharStreams.toString(reader), responseCode);
-            }
-        } finally {
-            conn.disconnect();
+            return ub.build().toString();
         }
+        return url;
     }
 
     private String getAuthenticationToken() {
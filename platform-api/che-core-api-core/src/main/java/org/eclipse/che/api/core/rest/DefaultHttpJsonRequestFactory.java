@@ -12,6 +12,7 @@ package org.eclipse.che.api.core.rest;
 
 import org.eclipse.che.api.core.rest.shared.dto.Link;
 
+import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.validation.constraints.NotNull;
 
@@ -23,13 +24,24 @@ import javax.validation.constraints.NotNull;
 @Singleton
 public class DefaultHttpJsonRequestFactory implements HttpJsonRequestFactory {
 
+    private final HttpJsonClient client;
+
+    @Inject
+    public DefaultHttpJsonRequestFactory(HttpJsonClient client) {
+        this.client = client;
+    }
+
+    public DefaultHttpJsonRequestFactory() {
+        this(HttpJsonClient.getDefault());
+    }
+
     @Override
     public HttpJsonRequest fromUrl(@NotNull String url) {
-        return new DefaultHttpJsonRequest(url);
+        return new DefaultHttpJsonRequest(client, url);
     }
 
     @Override
     public HttpJsonRequest fromLink(@NotNull Link link) {
-        return new DefaultHttpJsonRequest(link);
+        return new DefaultHttpJsonRequest(client, link);
     }
 }
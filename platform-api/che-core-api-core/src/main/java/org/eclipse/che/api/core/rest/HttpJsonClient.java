@@ -0,0 +1,352 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.rest;
+
+import com.google.common.io.CharStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gson.JsonSyntaxException;
+
+import org.eclipse.che.api.core.BadRequestException;
+import org.eclipse.che.api.core.ConflictException;
+import org.eclipse.che.api.core.ForbiddenException;
+import org.eclipse.che.api.core.NotFoundException;
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.core.UnauthorizedException;
+import org.eclipse.che.api.core.rest.shared.dto.ServiceError;
+import org.eclipse.che.commons.env.EnvironmentContext;
+import org.eclipse.che.dto.server.DtoFactory;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.UriBuilder;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends HTTP requests with JSON content for {@link DefaultHttpJsonRequest} and {@link HttpJsonHelper}.
+ * <p/>
+ * Connections are not closed after request. Response is read till the end and connection goes back to the keep-alive cache of JDK,
+ * so next request to the same host doesn't establish new connection, see system properties {@code http.keepAlive} and
+ * {@code http.maxConnections} (max number of idle connections per host, 5 by default). Number of concurrent requests to the same host may
+ * be limited with {@link #MAX_CONNECTIONS_PER_HOST}, request waits for free connection not longer than connection timeout. The limit is
+ * off by default: connection is held until response is read, so a service that calls the same host while handling request (directly or
+ * through other services) may wait for connection that is held by itself.
+ * <p/>
+ * Body of successful response is passed to {@link ResponseReader} while connection is open, that allows parse JSON into DTOs without
+ * reading whole response in memory.
+ */
+@Singleton
+public class HttpJsonClient {
+    /**
+     * Max number of concurrent requests to the same host, zero or negative value means no limit. Not limited by default, set it only if
+     * requests to the same host are never nested.
+     */
+    public static final String MAX_CONNECTIONS_PER_HOST = "http.client.max_connections_per_host";
+    /** Connection timeout in milliseconds, used if request doesn't set own timeout. */
+    public static final String CONNECT_TIMEOUT_MS       = "http.client.connect_timeout_ms";
+    /** Read timeout in milliseconds, used if request doesn't set own timeout. */
+    public static final String READ_TIMEOUT_MS          = "http.client.read_timeout_ms";
+    /** Number of threads for asynchronous requests. */
+    public static final String ASYNC_THREADS            = "http.client.async_threads";
+
+    private static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 0;
+    private static final int DEFAULT_TIMEOUT                  = 60000;
+    private static final int DEFAULT_ASYNC_THREADS            = 8;
+
+    private static final HttpJsonClient INSTANCE = new HttpJsonClient();
+
+    /** Client with default configuration, it is used by requests that are created without {@link HttpJsonRequestFactory}. */
+    static HttpJsonClient getDefault() {
+        return INSTANCE;
+    }
+
+    /** Reads body of successful response. Body must be read before method returns, connection is reused after that. */
+    public interface ResponseReader<T> {
+        T read(int responseCode, Reader body) throws IOException;
+    }
+
+    /** Reads the whole body of response as string. */
+    public static final ResponseReader<String> STRING_READER = new ResponseReader<String>() {
+        @Override
+        public String read(int responseCode, Reader body) throws IOException {
+            return CharStreams.toString(body);
+        }
+    };
+
+    @com.google.inject.Inject(optional = true)
+    @Named(MAX_CONNECTIONS_PER_HOST)
+    private int maxConnectionsPerHost = DEFAULT_MAX_CONNECTIONS_PER_HOST;
+
+    @com.google.inject.Inject(optional = true)
+    @Named(CONNECT_TIMEOUT_MS)
+    private int connectTimeout = DEFAULT_TIMEOUT;
+
+    @com.google.inject.Inject(optional = true)
+    @Named(READ_TIMEOUT_MS)
+    private int readTimeout = DEFAULT_TIMEOUT;
+
+    @com.google.inject.Inject(optional = true)
+    @Named(ASYNC_THREADS)
+    private int asyncThreads = DEFAULT_ASYNC_THREADS;
+
+    private final ConcurrentMap<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
+    // Created on first asynchronous request.
+    private ExecutorService executor;
+    private boolean         stopped;
+
+    public HttpJsonClient() {
+    }
+
+    public HttpJsonClient(int maxConnectionsPerHost, int connectTimeout, int readTimeout, int asyncThreads) {
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+        this.asyncThreads = asyncThreads;
+    }
+
+    /**
+     * Sends HTTP request.
+     *
+     * @param timeout
+     *         connection and read timeout in milliseconds, if it isn't greater than 0 timeouts of this client are used
+     * @param url
+     *         request url including query parameters
+     * @param method
+     *         request method
+     * @param body
+     *         request body, must be instance of {@link org.eclipse.che.dto.server.JsonSerializable}, may be {@code null}
+     * @param authToken
+     *         value of {@link HttpHeaders#AUTHORIZATION} header, may be {@code null}
+     * @param responseReader
+     *         reader of successful response
+     * @return result of {@code responseReader}
+     * @throws IOException
+     *         if content type of successful response is not "application/json", if limit of connections to the host is reached and
+     *         connection is not released during connection timeout or if other i/o error occurs
+     * @throws ServerException
+     *         when response code is 500 or it is different from 400, 401, 403, 404, 409
+     * @throws ForbiddenException
+     *         when response code is 403
+     * @throws NotFoundException
+     *         when response code is 404
+     * @throws UnauthorizedException
+     *         when response code is 401
+     * @throws ConflictException
+     *         when response code is 409
+     * @throws BadRequestException
+     *         when response code is 400
+     */
+    public <T> T request(int timeout,
+                         String url,
+                         String method,
+                         Object body,
+                         String authToken,
+                         ResponseReader<T> responseReader) throws IOException,
+                                                                  ServerException,
+                                                                  ForbiddenException,
+                                                                  NotFoundException,
+                                                                  UnauthorizedException,
+                                                                  ConflictException,
+                                                                  BadRequestException {
+        final URL target = new URL(url);
+        final int connectTimeout = timeout > 0 ? timeout : this.connectTimeout;
+        final Semaphore permits = acquireConnection(target, connectTimeout);
+        try {
+            final HttpURLConnection conn = (HttpURLConnection)target.openConnection();
+            conn.setConnectTimeout(connectTimeout);
+            conn.setReadTimeout(timeout > 0 ? timeout : readTimeout);
+            // Connection is closed only if response isn't read till the end, otherwise it may be reused by the next request.
+            boolean reusable = false;
+            try {
+                conn.setRequestMethod(method);
+                //drop a hint for server side that we want to receive application/json
+                conn.addRequestProperty(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON);
+                if (authToken != null) {
+                    conn.setRequestProperty(HttpHeaders.AUTHORIZATION, authToken);
+                }
+                if (body != null) {
+                    conn.addRequestProperty(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON);
+                    conn.setDoOutput(true);
+
+                    if (HttpMethod.DELETE.equals(method)) { //to avoid jdk bug described here http://bugs.java.com/view_bug.do?bug_id=7157360
+                        conn.setRequestMethod(HttpMethod.POST);
+                        conn.setRequestProperty("X-HTTP-Method-Override", HttpMethod.DELETE);
+                    }
+
+                    try (Writer output = new OutputStreamWriter(conn.getOutputStream(), StandardCharsets.UTF_8)) {
+                        DtoFactory.getInstance().toJson(body, output);
+                    }
+                }
+
+                final int responseCode = conn.getResponseCode();
+                if ((responseCode / 100) != 2) {
+                    InputStream in = conn.getErrorStream();
+                    if (in == null) {
+                        in = conn.getInputStream();
+                    }
+                    final String str;
+                    try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+                        str = CharStreams.toString(reader);
+                    }
+                    reusable = true;
+                    final String contentType = conn.getContentType();
+                    if (contentType != null && contentType.startsWith(MediaType.APPLICATION_JSON)) {
+                        final ServiceError serviceError = parseServiceError(str);
+                        if (serviceError != null && serviceError.getMessage() != null) {
+                            if (responseCode == Response.Status.FORBIDDEN.getStatusCode()) {
+                                throw new ForbiddenException(serviceError);
+                            } else if (responseCode == Response.Status.NOT_FOUND.getStatusCode()) {
+                                throw new NotFoundException(serviceError);
+                            } else if (responseCode == Response.Status.UNAUTHORIZED.getStatusCode()) {
+                                throw new UnauthorizedException(serviceError);
+                            } else if (responseCode == Response.Status.CONFLICT.getStatusCode()) {
+                                throw new ConflictException(serviceError);
+                            } else if (responseCode == Response.Status.INTERNAL_SERVER_ERROR.getStatusCode()) {
+                                throw new ServerException(serviceError);
+                            } else if (responseCode == Response.Status.BAD_REQUEST.getStatusCode()) {
+                                throw new BadRequestException(serviceError);
+                            }
+                            throw new ServerException(serviceError);
+                        }
+                    }
+                    // Can't parse content as json or content has format other we expect for error.
+                    throw new IOException(String.format("Failed access: %s, method: %s, response code: %d, message: %s",
+                                                        UriBuilder.fromUri(url).replaceQuery("token").build(), method, responseCode, str));
+                }
+                final String contentType = conn.getContentType();
+                if (contentType != null && !contentType.startsWith(MediaType.APPLICATION_JSON)) {
+                    throw new IOException(String.format("Unexpected content type '%s' of response from: %s, method: %s, message: %s",
+                                                        contentType, UriBuilder.fromUri(url).replaceQuery("token").build(), method,
+                                                        conn.getResponseMessage()));
+                }
+
+                final T result;
+                try (Reader reader = new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8)) {
+                    result = responseReader.read(responseCode, reader);
+                }
+                reusable = true;
+                return result;
+            } finally {
+                if (!reusable) {
+                    conn.disconnect();
+                }
+            }
+        } finally {
+            if (permits != null) {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * Runs request in separate thread. {@link EnvironmentContext} of the caller is available for the request, e.g. for getting
+     * authorization token.
+     *
+     * @param request
+     *         request, in most cases it calls {@link #request(int, String, String, Object, String, ResponseReader)}
+     * @return future that is completed with result of request or exceptionally with exception that is thrown by request
+     */
+    public <T> CompletableFuture<T> submit(final Callable<T> request) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        final EnvironmentContext context = new EnvironmentContext(EnvironmentContext.getCurrent());
+        getExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                EnvironmentContext.setCurrent(context);
+                try {
+                    future.complete(request.call());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    EnvironmentContext.reset();
+                }
+            }
+        });
+        return future;
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        stopped = true;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private synchronized ExecutorService getExecutor() {
+        if (stopped) {
+            throw new IllegalStateException("Client is stopped");
+        }
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(Math.max(asyncThreads, 1), new ThreadFactoryBuilder().setNameFormat("HttpJsonClient-%d")
+                                                                                                         .setDaemon(true)
+                                                                                                         .build());
+        }
+        return executor;
+    }
+
+    /** Waits for free connection to the host, returns {@code null} if number of connections is not limited. */
+    private Semaphore acquireConnection(URL target, int timeout) throws IOException {
+        if (maxConnectionsPerHost <= 0) {
+            return null;
+        }
+        final int port = target.getPort() == -1 ? target.getDefaultPort() : target.getPort();
+        final String host = target.getProtocol() + "://" + target.getHost().toLowerCase() + ':' + port;
+        Semaphore permits = hostPermits.get(host);
+        if (permits == null) {
+            final Semaphore newPermits = new Semaphore(maxConnectionsPerHost, true);
+            permits = hostPermits.putIfAbsent(host, newPermits);
+            if (permits == null) {
+                permits = newPermits;
+            }
+        }
+        try {
+            if (!permits.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
+                throw new IOException(String.format("Unable to get connection to %s, all %d connections are in use", host,
+                                                    maxConnectionsPerHost));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for connection to " + host);
+        }
+        return permits;
+    }
+
+    private static ServiceError parseServiceError(String json) {
+        try {
+            return DtoFactory.getInstance().createDtoFromJson(json, ServiceError.class);
+        } catch (JsonSyntaxException e) {
+            return null;
+        }
+    }
+}
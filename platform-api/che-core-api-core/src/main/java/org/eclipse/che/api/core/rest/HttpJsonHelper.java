@@ -10,37 +10,30 @@
  *******************************************************************************/
 package org.eclipse.che.api.core.rest;
 
-import com.google.common.io.CharStreams;
-
+import org.eclipse.che.api.core.BadRequestException;
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.ForbiddenException;
 import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.core.UnauthorizedException;
 import org.eclipse.che.api.core.rest.shared.dto.Link;
-import org.eclipse.che.api.core.rest.shared.dto.ServiceError;
 import org.eclipse.che.commons.env.EnvironmentContext;
 import org.eclipse.che.commons.lang.Pair;
 import org.eclipse.che.commons.user.User;
 import org.eclipse.che.dto.server.DtoFactory;
 
+import javax.inject.Inject;
 import javax.ws.rs.HttpMethod;
-import javax.ws.rs.core.HttpHeaders;
-import javax.ws.rs.core.MediaType;
-import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriBuilder;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.io.Reader;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.net.URLEncoder;
 import java.util.List;
 
 /**
  * Provides helper method to send HTTP requests with JSON content.
+ * <p/>
+ * Requests are sent with {@link HttpJsonClient} that is bound in Guice if {@link CoreRestModule} is installed, so configuration of
+ * client applies to the helper too. Without Guice client with default configuration is used.
  *
  * @author andrew00x
  */
@@ -53,6 +46,12 @@ public class HttpJsonHelper {
      */
     private static HttpJsonHelperImpl httpJsonHelperImpl = new HttpJsonHelperImpl();
 
+    /** Replaces default implementation with one that uses configured client, see {@link CoreRestModule}. */
+    @Inject
+    static void setHttpJsonHelperImpl(HttpJsonHelperImpl impl) {
+        httpJsonHelperImpl = impl;
+    }
+
 
     //==============================================================
     public static <DTO> DTO request(Class<DTO> dtoInterface, Link link, Object body, Pair<String, ?>... parameters)
@@ -338,6 +337,21 @@ public class HttpJsonHelper {
      * Execute all request from HttpJsonHelper throw single method  requestString.
      */
     public static class HttpJsonHelperImpl {
+        private final HttpJsonClient client;
+
+        public HttpJsonHelperImpl() {
+            this(HttpJsonClient.getDefault());
+        }
+
+        @Inject
+        public HttpJsonHelperImpl(HttpJsonClient client) {
+            this.client = client;
+        }
+
+        // for test
+        HttpJsonClient getClient() {
+            return client;
+        }
 
         public <DTO> DTO request(Class<DTO> dtoInterface,
                                  String url,
@@ -355,11 +369,12 @@ public class HttpJsonHelper {
                                  Object body,
                                  Pair<String, ?>... parameters)
                 throws IOException, ServerException, UnauthorizedException, ForbiddenException, NotFoundException, ConflictException {
-            final String str = requestString(timeout, url, method, body, parameters);
-            if (dtoInterface != null) {
-                return DtoFactory.getInstance().createDtoFromJson(str, dtoInterface);
+            if (dtoInterface == null) {
+                requestString(timeout, url, method, body, parameters);
+                return null;
             }
-            return null;
+            return doRequest(timeout, url, method, body, parameters,
+                             (responseCode, response) -> DtoFactory.getInstance().createDtoFromJson(response, dtoInterface));
         }
 
         public <DTO> List<DTO> requestArray(Class<DTO> dtoInterface,
@@ -378,11 +393,12 @@ public class HttpJsonHelper {
                                             Object body,
                                             Pair<String, ?>... parameters)
                 throws IOException, ServerException, UnauthorizedException, ForbiddenException, NotFoundException, ConflictException {
-            final String str = requestString(timeout, url, method, body, parameters);
-            if (dtoInterface != null) {
-                return DtoFactory.getInstance().createListDtoFromJson(str, dtoInterface);
+            if (dtoInterface == null) {
+                requestString(timeout, url, method, body, parameters);
+                return null;
             }
-            return null;
+            return doRequest(timeout, url, method, body, parameters,
+                             (responseCode, response) -> DtoFactory.getInstance().createListDtoFromJson(response, dtoInterface));
         }
 
         private String getAuthenticationToken() {
@@ -407,6 +423,16 @@ public class HttpJsonHelper {
                                     Object body,
                                     Pair<String, ?>... parameters)
                 throws IOException, ServerException, ForbiddenException, NotFoundException, UnauthorizedException, ConflictException {
+            return doRequest(timeout, url, method, body, parameters, HttpJsonClient.STRING_READER);
+        }
+
+        private <T> T doRequest(int timeout,
+                                String url,
+                                String method,
+                                Object body,
+                                Pair<String, ?>[] parameters,
+                                HttpJsonClient.ResponseReader<T> responseReader)
+                throws IOException, ServerException, ForbiddenException, NotFoundException, UnauthorizedException, ConflictException {
             final String authToken = getAuthenticationToken();
             if ((parameters != null && parameters.length > 0) || authToken != null) {
                 final UriBuilder ub = UriBuilder.fromUri(url);
@@ -423,73 +449,11 @@ public class HttpJsonHelper {
                 }
                 url = ub.build().toString();
             }
-            final HttpURLConnection conn = (HttpURLConnection)new URL(url).openConnection();
-            conn.setConnectTimeout(timeout > 0 ? timeout : 60000);
-            conn.setReadTimeout(timeout > 0 ? timeout : 60000);
             try {
-                conn.setRequestMethod(method);
-                //drop a hint for server side that we want to receive application/json
-                conn.addRequestProperty(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON);
-                if (authToken != null) {
-                    conn.setRequestProperty(HttpHeaders.AUTHORIZATION, authToken);
-                }
-                if (body != null) {
-                    conn.addRequestProperty(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON);
-                    conn.setDoOutput(true);
-
-                    if (HttpMethod.DELETE.equals(method)) { //to avoid jdk bug described here http://bugs.java.com/view_bug.do?bug_id=7157360
-                        conn.setRequestMethod(HttpMethod.POST);
-                        conn.setRequestProperty("X-HTTP-Method-Override", HttpMethod.DELETE);
-                    }
-
-                    try (OutputStream output = conn.getOutputStream()) {
-                        output.write(DtoFactory.getInstance().toJson(body).getBytes());
-                    }
-                }
-
-                final int responseCode = conn.getResponseCode();
-                if ((responseCode / 100) != 2) {
-                    InputStream in = conn.getErrorStream();
-                    if (in == null) {
-                        in = conn.getInputStream();
-                    }
-                    final String str;
-                    try (Reader reader = new InputStreamReader(in)) {
-                        str = CharStreams.toString(reader);
-                    }
-                    final String contentType = conn.getContentType();
-                    if (contentType != null && contentType.startsWith(MediaType.APPLICATION_JSON)) {
-                        final ServiceError serviceError = DtoFactory.getInstance().createDtoFromJson(str, ServiceError.class);
-                        if (serviceError.getMessage() != null) {
-                            if (responseCode == Response.Status.FORBIDDEN.getStatusCode()) {
-                                throw new ForbiddenException(serviceError);
-                            } else if (responseCode == Response.Status.NOT_FOUND.getStatusCode()) {
-                                throw new NotFoundException(serviceError);
-                            } else if (responseCode == Response.Status.UNAUTHORIZED.getStatusCode()) {
-                                throw new UnauthorizedException(serviceError);
-                            } else if (responseCode == Response.Status.CONFLICT.getStatusCode()) {
-                                throw new ConflictException(serviceError);
-                            } else if (responseCode == Response.Status.INTERNAL_SERVER_ERROR.getStatusCode()) {
-                                throw new ServerException(serviceError);
-                            }
-                            throw new ServerException(serviceError);
-                        }
-                    }
-                    // Can't parse content as json or content has format other we expect for error.
-                    throw new IOException(String.format("Failed access: %s, method: %s, response code: %d, message: %s",
-                                                        UriBuilder.fromUri(url).replaceQuery("token").build(), method, responseCode, str));
-                }
-                final String contentType = conn.getContentType();
-                if (!(contentType == null || contentType.startsWith(MediaType.APPLICATION_JSON))) {
-                    throw new IOException("We received an error response from the server." +
-                                          " Retry the request. If this issue continues, contact. support.");
-                }
-
-                try (Reader reader = new InputStreamReader(conn.getInputStream())) {
-                    return CharStreams.toString(reader);
-                }
-            } finally {
-                conn.disconnect();
+                return client.request(timeout, url, method, body, authToken, responseReader);
+            } catch (BadRequestException e) {
+                // helper doesn't distinguish bad request from other server errors
+                throw new ServerException(e.getServiceError());
             }
         }
     }
@@ -27,6 +27,7 @@ import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Defines simple set of methods for requesting json objects.
@@ -160,6 +161,60 @@ public interface HttpJsonRequest {
                                       ConflictException,
                                       BadRequestException;
 
+    /**
+     * Makes http request same as {@link #request()} and parses response body as DTO.
+     * Implementation may parse DTO directly from the response stream without buffering of response body.
+     *
+     * @param dtoInterface
+     *         interface of DTO
+     * @return DTO parsed from response body
+     * @see #request()
+     */
+    default <T> T requestDto(@NotNull Class<T> dtoInterface) throws IOException,
+                                                                    ServerException,
+                                                                    UnauthorizedException,
+                                                                    ForbiddenException,
+                                                                    NotFoundException,
+                                                                    ConflictException,
+                                                                    BadRequestException {
+        return request().asDto(dtoInterface);
+    }
+
+    /**
+     * Makes http request same as {@link #request()} and parses response body as list of DTOs.
+     * Implementation may parse DTOs directly from the response stream without buffering of response body.
+     *
+     * @param dtoInterface
+     *         interface of DTO
+     * @return list of DTOs parsed from response body
+     * @see #request()
+     */
+    default <T> List<T> requestDtoList(@NotNull Class<T> dtoInterface) throws IOException,
+                                                                              ServerException,
+                                                                              UnauthorizedException,
+                                                                              ForbiddenException,
+                                                                              NotFoundException,
+                                                                              ConflictException,
+                                                                              BadRequestException {
+        return request().asList(dtoInterface);
+    }
+
+    /**
+     * Makes http request same as {@link #request()} but doesn't wait for response.
+     * Default implementation makes request in the calling thread and returns completed future.
+     *
+     * @return future which is completed with response or exceptionally with exception thrown by {@link #request()}
+     */
+    default CompletableFuture<HttpJsonResponse> requestAsync() {
+        final CompletableFuture<HttpJsonResponse> future = new CompletableFuture<>();
+        try {
+            future.complete(request());
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
     /**
      * Uses {@link HttpMethod#GET} as a request method.
      *
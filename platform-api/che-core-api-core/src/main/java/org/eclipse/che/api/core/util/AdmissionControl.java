@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Limits number of tasks that are waiting in queue for processing, both total number of tasks and number of tasks of one workspace.
+ * Queue acquires permit with method {@link #tryAcquire(String)} before accepting new task and releases it with method {@link
+ * #release(String)} when task leaves waiting state, e.g. it is started or canceled.
+ * <p/>
+ * Queue must not keep rejected tasks and must not block caller until permit is available. Instead, it should report to the caller
+ * current state of queue, see {@link #getWaiting()} and {@link #getWaiting(String)}, so caller is able to retry later.
+ */
+public class AdmissionControl {
+    private final int                  maxWaiting;
+    private final int                  maxWaitingPerWorkspace;
+    private final Map<String, Integer> waitingByWorkspace;
+    private       int                  waiting;
+
+    /**
+     * @param maxWaiting
+     *         max number of waiting tasks. Zero or negative value means no limit.
+     * @param maxWaitingPerWorkspace
+     *         max number of waiting tasks of one workspace. Zero or negative value means no limit.
+     */
+    public AdmissionControl(int maxWaiting, int maxWaitingPerWorkspace) {
+        this.maxWaiting = maxWaiting;
+        this.maxWaitingPerWorkspace = maxWaitingPerWorkspace;
+        waitingByWorkspace = new HashMap<>();
+    }
+
+    /**
+     * Acquires permit for new task of specified workspace.
+     *
+     * @return {@code true} if task may be accepted and {@code false} if any of limits is reached
+     */
+    public synchronized boolean tryAcquire(String workspace) {
+        final int waitingInWorkspace = getWaiting(workspace);
+        if ((maxWaiting > 0 && waiting >= maxWaiting)
+            || (maxWaitingPerWorkspace > 0 && waitingInWorkspace >= maxWaitingPerWorkspace)) {
+            return false;
+        }
+        waiting++;
+        waitingByWorkspace.put(workspace, waitingInWorkspace + 1);
+        return true;
+    }
+
+    /** Releases permit that was acquired with method {@link #tryAcquire(String)}. */
+    public synchronized void release(String workspace) {
+        final Integer waitingInWorkspace = waitingByWorkspace.get(workspace);
+        if (waitingInWorkspace != null) {
+            waiting--;
+            if (waitingInWorkspace == 1) {
+                // Don't keep counters of idle workspaces.
+                waitingByWorkspace.remove(workspace);
+            } else {
+                waitingByWorkspace.put(workspace, waitingInWorkspace - 1);
+            }
+        }
+    }
+
+    /** Returns total number of waiting tasks. */
+    public synchronized int getWaiting() {
+        return waiting;
+    }
+
+    /** Returns number of waiting tasks of specified workspace. */
+    public synchronized int getWaiting(String workspace) {
+        final Integer waitingInWorkspace = waitingByWorkspace.get(workspace);
+        return waitingInWorkspace == null ? 0 : waitingInWorkspace;
+    }
+
+    public int getMaxWaiting() {
+        return maxWaiting;
+    }
+
+    public int getMaxWaitingPerWorkspace() {
+        return maxWaitingPerWorkspace;
+    }
+}
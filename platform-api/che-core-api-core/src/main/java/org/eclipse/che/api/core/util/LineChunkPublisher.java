@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.util;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Groups lines of output of process in chunks, so output of chatty process is published with few events instead of event per line.
+ * Chunk is published when it gets max number of lines or characters or when max delay since the first line of chunk is elapsed.
+ * <p/>
+ * Optionally limits rate of published lines, see {@link RateExceedDetector}. Lines above limit are dropped, instead of them chunk gets
+ * line with number of skipped lines.
+ * <p/>
+ * Lines are numbered from 1, numbers of lines of chunk are continuous. Implementation is threadsafe.
+ */
+public abstract class LineChunkPublisher {
+    private static final Logger LOG = LoggerFactory.getLogger(LineChunkPublisher.class);
+
+    private static final ScheduledExecutorService FLUSHER = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("LineChunkPublisher-Flusher").setDaemon(true).build());
+
+    private final int                maxLines;
+    private final int                maxChars;
+    private final long               maxDelayMillis;
+    private final double             maxRate;
+    private final RateExceedDetector rateDetector;
+    private final Runnable           flushTask;
+
+    private List<String>       chunk;
+    private int                chunkChars;
+    private int                firstLineNum;
+    private int                nextLineNum;
+    private long               skipped;
+    private ScheduledFuture<?> scheduledFlush;
+    private boolean            closed;
+
+    /**
+     * @param maxLines
+     *         max number of lines in one chunk
+     * @param maxChars
+     *         max number of characters in one chunk, chunk may get more characters if it consists of single line
+     * @param maxDelayMillis
+     *         max time in milliseconds that line may wait in chunk before being published
+     * @param maxRate
+     *         max number of published lines per second. Zero or negative value means no limit.
+     */
+    protected LineChunkPublisher(int maxLines, int maxChars, long maxDelayMillis, double maxRate) {
+        if (maxLines < 1 || maxChars < 1) {
+            throw new IllegalArgumentException("Max number of lines and characters in chunk must be positive. ");
+        }
+        this.maxLines = maxLines;
+        this.maxChars = maxChars;
+        this.maxDelayMillis = maxDelayMillis;
+        this.maxRate = maxRate;
+        rateDetector = maxRate > 0 ? new RateExceedDetector(maxRate) : null;
+        flushTask = new Runnable() {
+            @Override
+            public void run() {
+                flush();
+            }
+        };
+        chunk = new ArrayList<>();
+        nextLineNum = 1;
+    }
+
+    /**
+     * Publishes chunk of lines.
+     *
+     * @param firstLineNum
+     *         number of the first line of chunk
+     * @param lines
+     *         lines of chunk
+     */
+    protected abstract void publish(int firstLineNum, List<String> lines);
+
+    /** Adds line to the current chunk. Line may be dropped if rate of lines exceeds limit. */
+    public synchronized void writeLine(String line) {
+        if (closed || line == null) {
+            return;
+        }
+        if (rateDetector != null && rateDetector.updateAndCheckRate() && rateDetector.getRate() > maxRate) {
+            skipped++;
+            scheduleFlush();
+            return;
+        }
+        addSkippedMarker();
+        add(line);
+    }
+
+    /** Publishes current chunk. */
+    public synchronized void flush() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        addSkippedMarker();
+        if (chunk.isEmpty()) {
+            return;
+        }
+        final List<String> lines = Collections.unmodifiableList(chunk);
+        final int first = firstLineNum;
+        chunk = new ArrayList<>();
+        chunkChars = 0;
+        try {
+            publish(first, lines);
+        } catch (RuntimeException e) {
+            LOG.error(e.getMessage(), e);
+        }
+    }
+
+    /** Publishes current chunk. All lines that are added after this method is called are ignored. */
+    public synchronized void close() {
+        if (!closed) {
+            flush();
+            closed = true;
+        }
+    }
+
+    // Methods below must be called under lock.
+
+    private void add(String line) {
+        if (!chunk.isEmpty() && chunkChars + line.length() > maxChars) {
+            flush();
+        }
+        if (chunk.isEmpty()) {
+            firstLineNum = nextLineNum;
+        }
+        chunk.add(line);
+        chunkChars += line.length();
+        nextLineNum++;
+        if (chunk.size() >= maxLines || chunkChars >= maxChars) {
+            flush();
+        } else {
+            scheduleFlush();
+        }
+    }
+
+    private void addSkippedMarker() {
+        if (skipped > 0) {
+            final String marker = String.format("[WARNING] %d lines skipped, output rate exceeds %.0f lines / second", skipped, maxRate);
+            skipped = 0;
+            add(marker);
+        }
+    }
+
+    private void scheduleFlush() {
+        if (scheduledFlush == null) {
+            scheduledFlush = FLUSHER.schedule(flushTask, maxDelayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+}
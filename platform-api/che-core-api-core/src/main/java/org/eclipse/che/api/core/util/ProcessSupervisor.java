@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.util;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared threads that supervise external processes, they are used instead of threads per process.
+ * <ul>
+ * <li>Single timer thread for timeouts of all processes, see {@link Watchdog}. Expired tasks are executed in separate pool, so slow
+ * task, e.g. kill of process tree, doesn't delay other timeouts.</li>
+ * <li>Small pool of threads that read output of all processes, see {@link StreamPump}. Each thread reads only output that is available
+ * without blocking, so one thread serves many processes. Lines of output are passed to consumers in separate pool, so slow consumer
+ * delays output of its own process only.</li>
+ * </ul>
+ */
+public final class ProcessSupervisor {
+    private static final Logger LOG = LoggerFactory.getLogger(ProcessSupervisor.class);
+
+    /** Pause of pump thread when none of its processes have output. */
+    private static final long POLL_INTERVAL = 20;
+
+    private static final ScheduledThreadPoolExecutor TIMER;
+    private static final ExecutorService             TIMEOUT_EXECUTOR;
+    private static final ExecutorService             OUTPUT_EXECUTOR;
+    private static final PumpWorker[]                PUMP_WORKERS;
+
+    static {
+        TIMER = new ScheduledThreadPoolExecutor(1, new ThreadFactoryBuilder().setNameFormat("ProcessSupervisor-Timer")
+                                                                             .setDaemon(true)
+                                                                             .build());
+        TIMER.setRemoveOnCancelPolicy(true);
+        TIMEOUT_EXECUTOR = Executors.newCachedThreadPool(new ThreadFactoryBuilder().setNameFormat("ProcessSupervisor-Timeout-%d")
+                                                                                   .setDaemon(true)
+                                                                                   .build());
+        OUTPUT_EXECUTOR = Executors.newCachedThreadPool(new ThreadFactoryBuilder().setNameFormat("ProcessSupervisor-Output-%d")
+                                                                                  .setDaemon(true)
+                                                                                  .build());
+        PUMP_WORKERS = new PumpWorker[Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2))];
+        for (int i = 0; i < PUMP_WORKERS.length; i++) {
+            PUMP_WORKERS[i] = new PumpWorker();
+            final Thread t = new Thread(PUMP_WORKERS[i], "ProcessSupervisor-StreamPump-" + i);
+            t.setDaemon(true);
+            t.start();
+        }
+    }
+
+    /**
+     * Runs task after specified delay, task is executed in pool of threads, not in the timer thread.
+     *
+     * @return future that may be used for cancellation of the task
+     */
+    public static ScheduledFuture<?> schedule(final Runnable task, long delay, TimeUnit unit) {
+        return TIMER.schedule(new Runnable() {
+            @Override
+            public void run() {
+                TIMEOUT_EXECUTOR.execute(task);
+            }
+        }, delay, unit);
+    }
+
+    /** Adds pump to the thread that has the least number of pumps. */
+    static void pump(StreamPump pump) {
+        PumpWorker worker = PUMP_WORKERS[0];
+        for (int i = 1; i < PUMP_WORKERS.length; i++) {
+            if (PUMP_WORKERS[i].size.get() < worker.size.get()) {
+                worker = PUMP_WORKERS[i];
+            }
+        }
+        worker.add(pump);
+    }
+
+    /** Runs task of pump that may block, e.g. writing of lines to consumer, in pool of threads. */
+    static void execute(Runnable task) {
+        OUTPUT_EXECUTOR.execute(task);
+    }
+
+    private static class PumpWorker implements Runnable {
+        final AtomicInteger                     size  = new AtomicInteger();
+        final ConcurrentLinkedQueue<StreamPump> added = new ConcurrentLinkedQueue<>();
+
+        void add(StreamPump pump) {
+            size.incrementAndGet();
+            added.add(pump);
+            synchronized (this) {
+                notify();
+            }
+        }
+
+        @Override
+        public void run() {
+            final List<StreamPump> pumps = new ArrayList<>();
+            for (; ; ) {
+                try {
+                    StreamPump pump;
+                    while ((pump = added.poll()) != null) {
+                        pumps.add(pump);
+                    }
+                    if (pumps.isEmpty()) {
+                        synchronized (this) {
+                            while (added.isEmpty()) {
+                                wait();
+                            }
+                        }
+                        continue;
+                    }
+                    boolean read = false;
+                    for (Iterator<StreamPump> i = pumps.iterator(); i.hasNext(); ) {
+                        final int r = i.next().pumpAvailable();
+                        if (r < 0) {
+                            i.remove();
+                            size.decrementAndGet();
+                        } else if (r > 0) {
+                            read = true;
+                        }
+                    }
+                    if (!read) {
+                        Thread.sleep(POLL_INTERVAL);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.interrupted(); // Not expected to be interrupted, keep serving processes.
+                } catch (RuntimeException e) {
+                    LOG.error(e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    private ProcessSupervisor() {
+    }
+}
@@ -10,31 +10,67 @@
  *******************************************************************************/
 package org.eclipse.che.api.core.util;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayDeque;
 
-/** @author andrew00x */
-public final class StreamPump implements Runnable {
+/**
+ * Reads output of process line by line and writes it to {@code LineConsumer}. Output is read by shared threads of {@link
+ * ProcessSupervisor} but not by separate thread for each process. Lines are queued and written to consumer in other thread, so slow
+ * consumer doesn't delay output of other processes. If consumer doesn't keep up, output is left in the pipe and process is slowed down.
+ * <p/>
+ * Output ends at end of stream only. Children of process may keep the pipe open after process is terminated, then output is read in
+ * separate thread until they close it. Note that JDK closes the pipe when it sees termination of process if nobody is blocked in
+ * reading it at that moment, so output that children write after that is lost anyway.
+ *
+ * @author andrew00x
+ */
+public final class StreamPump {
+    private static final int BUFFER_SIZE      = 8192;
+    /** Max number of lines that wait for consumer, output isn't read while there are more lines in queue. */
+    private static final int MAX_QUEUED_LINES = 1024;
 
-    private BufferedReader bufferedReader;
+    private Process        process;
+    private InputStream    input;
     private LineConsumer   lineConsumer;
+    private CharsetDecoder decoder;
+    private ByteBuffer     bytes;
+    private CharBuffer     chars;
+    private StringBuilder  line;
+    private boolean        skipLF;
+
+    // Guarded by this.
+    private final ArrayDeque<String> lines = new ArrayDeque<>();
+    private boolean                  delivering;
+    private boolean                  ended;
+    private Exception                endException;
 
-    private Exception exception;
-    private boolean   done;
+    private volatile Exception exception;
+    private boolean            done;
 
     public synchronized void start(Process process, LineConsumer lineConsumer) {
+        this.process = process;
         this.lineConsumer = lineConsumer;
-        bufferedReader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-        final Thread t = new Thread(this, "StreamPump");
-        t.setDaemon(true);
-        t.start();
+        input = process.getInputStream();
+        decoder = Charset.defaultCharset().newDecoder()
+                         .onMalformedInput(CodingErrorAction.REPLACE)
+                         .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        bytes = ByteBuffer.allocate(BUFFER_SIZE);
+        chars = CharBuffer.allocate(BUFFER_SIZE);
+        line = new StringBuilder();
+        ProcessSupervisor.pump(this);
     }
 
     public synchronized void stop() {
-        // Not clear do we need close original stream, but since it was wrapped by BufferedReader close it anyway.
+        // Not clear do we need close original stream, but close it anyway. Pump ends with error if it isn't done yet.
         try {
-            bufferedReader.close();
+            input.close();
         } catch (IOException ignored) {
         }
     }
@@ -57,20 +93,175 @@ public final class StreamPump implements Runnable {
         return exception;
     }
 
-    @Override
-    public void run() {
-        String line;
+    /**
+     * Reads output that is available without blocking and queues complete lines for consumer. Must be called by one thread only.
+     *
+     * @return number of read bytes or {@code -1} if this method must not be called anymore
+     */
+    int pumpAvailable() {
+        try {
+            synchronized (this) {
+                if (done) {
+                    return -1;
+                }
+                if (lines.size() >= MAX_QUEUED_LINES) {
+                    return 0;
+                }
+            }
+            // Check process before its output, otherwise we may miss output that was written just before termination.
+            final boolean alive = ProcessUtil.isAlive(process);
+            final int available = input.available();
+            if (available > 0) {
+                final int r = input.read(bytes.array(), bytes.position(), Math.min(available, bytes.remaining()));
+                if (r >= 0) {
+                    bytes.position(bytes.position() + r);
+                    decode(false);
+                    return r;
+                }
+            } else if (alive) {
+                return 0;
+            } else {
+                // Children of process may still write to the pipe, reading until end of stream may block.
+                ProcessSupervisor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        readToEnd();
+                    }
+                });
+                return -1;
+            }
+            decode(true);
+            end(null);
+        } catch (Exception e) {
+            end(e);
+        }
+        return -1;
+    }
+
+    private void readToEnd() {
         try {
-            while ((line = bufferedReader.readLine()) != null) {
-                lineConsumer.writeLine(line);
+            int r;
+            while (awaitQueue() && (r = input.read(bytes.array(), bytes.position(), bytes.remaining())) >= 0) {
+                bytes.position(bytes.position() + r);
+                decode(false);
+            }
+            decode(true);
+            end(null);
+        } catch (Exception e) {
+            end(e);
+        }
+    }
+
+    /** Waits until consumer takes lines from queue. Returns {@code false} if pump is done and output must not be read anymore. */
+    private synchronized boolean awaitQueue() throws InterruptedException {
+        while (lines.size() >= MAX_QUEUED_LINES && !done) {
+            wait();
+        }
+        return !done;
+    }
+
+    private void decode(boolean endOfInput) {
+        bytes.flip();
+        CoderResult result;
+        do {
+            result = decoder.decode(bytes, chars, endOfInput);
+            writeChars();
+        } while (result.isOverflow());
+        bytes.compact();
+        if (endOfInput) {
+            while (decoder.flush(chars).isOverflow()) {
+                writeChars();
+            }
+            writeChars();
+            if (line.length() > 0) {
+                writeLine();
             }
-        } catch (IOException e) {
-            exception = e;
-        } finally {
+        }
+    }
+
+    private void writeChars() {
+        chars.flip();
+        while (chars.hasRemaining()) {
+            final char c = chars.get();
+            if (skipLF) {
+                skipLF = false;
+                if (c == '\n') {
+                    continue;
+                }
+            }
+            if (c == '\n' || c == '\r') {
+                skipLF = c == '\r';
+                writeLine();
+            } else {
+                line.append(c);
+            }
+        }
+        chars.clear();
+    }
+
+    private void writeLine() {
+        final String str = line.toString();
+        line.setLength(0);
+        synchronized (this) {
+            if (done) {
+                return;
+            }
+            lines.add(str);
+            if (delivering) {
+                return;
+            }
+            delivering = true;
+        }
+        ProcessSupervisor.execute(new Runnable() {
+            @Override
+            public void run() {
+                deliver();
+            }
+        });
+    }
+
+    private void deliver() {
+        for (; ; ) {
+            final String str;
             synchronized (this) {
-                done = true;
+                str = lines.poll();
+                if (str == null) {
+                    delivering = false;
+                    if (ended) {
+                        done(endException);
+                    }
+                    return;
+                }
                 notifyAll();
             }
+            try {
+                lineConsumer.writeLine(str);
+            } catch (IOException e) {
+                synchronized (this) {
+                    delivering = false;
+                    done(e);
+                }
+                return;
+            }
+        }
+    }
+
+    /** Called when all output is read. Pump is done when consumer gets all queued lines. */
+    private synchronized void end(Exception e) {
+        ended = true;
+        endException = e;
+        if (!delivering) {
+            done(e);
+        }
+    }
+
+    private synchronized void done(Exception e) {
+        if (done) {
+            return;
         }
+        exception = e;
+        done = true;
+        lines.clear();
+        notifyAll();
     }
 }
@@ -13,10 +13,12 @@ package org.eclipse.che.api.core.util;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
  * It controls the time of {@code Cancellable} invocation and if time if greater than timeout it terminates such {@code Cancellable}.
+ * Timeouts of all watchdogs are controlled by the shared timer of {@link ProcessSupervisor}.
  *
  * @author <a href="mailto:andrew00x@gmail.com">Andrey Parfonov</a>
  */
@@ -26,14 +28,15 @@ public final class Watchdog implements Runnable {
     private final String name;
     private final long   timeout;
 
-    private boolean     watch;
-    private Cancellable cancellable;
+    private boolean            watch;
+    private Cancellable        cancellable;
+    private ScheduledFuture<?> future;
 
     /**
      * Create new {@code Watchdog}.
      *
      * @param name
-     *         name for background {@code Thread}. It helps to identify out threads. This parameter is optional and may be {@code null}.
+     *         name of watchdog. It helps to identify watchdog in logs. This parameter is optional and may be {@code null}.
      * @param timeout
      *         timeout
      * @param unit
@@ -60,35 +63,34 @@ public final class Watchdog implements Runnable {
     public synchronized void start(Cancellable cancellable) {
         this.cancellable = cancellable;
         this.watch = true;
-        final Thread t = name == null ? new Thread(this) : new Thread(this, name);
-        t.setDaemon(true);
-        t.start();
+        future = ProcessSupervisor.schedule(this, timeout, TimeUnit.MILLISECONDS);
     }
 
     /** Stop watching. */
     public synchronized void stop() {
         watch = false;
-        notify();
+        if (future != null) {
+            future.cancel(false);
+            future = null;
+        }
     }
 
     /** NOTE: Not expected to call directly by regular users of this class. */
-    public synchronized void run() {
-        final long end = System.currentTimeMillis() + timeout;
-        long now;
-        while (watch && (end > (now = System.currentTimeMillis()))) {
-            try {
-                wait(end - now);
-            } catch (InterruptedException ignored) {
-                // Not expected to be thrown
-            }
-        }
-        if (watch) {
-            try {
-                cancellable.cancel();
-            } catch (Exception e) {
-                LOG.error(e.getMessage(), e);
+    public void run() {
+        final Cancellable myCancellable;
+        synchronized (this) {
+            if (!watch) {
+                return;
             }
             watch = false;
+            future = null;
+            myCancellable = cancellable;
+        }
+        LOG.debug("Timeout {} ms of watchdog {} is reached", timeout, name);
+        try {
+            myCancellable.cancel();
+        } catch (Exception e) {
+            LOG.error(e.getMessage(), e);
         }
     }
 }
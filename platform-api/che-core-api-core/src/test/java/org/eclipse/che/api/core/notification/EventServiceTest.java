@@ -11,12 +11,17 @@
 package org.eclipse.che.api.core.notification;
 
 import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author andrew00x
@@ -29,6 +34,11 @@ public class EventServiceTest {
         bus = new EventService();
     }
 
+    @AfterMethod
+    public void tearDown() {
+        bus.stop();
+    }
+
     @Test
     public void testSimpleEvent() {
         final List<Object> events = new ArrayList<>();
@@ -157,4 +167,177 @@ public class EventServiceTest {
         bus.publish(new Event());
         Assert.assertEquals(events.size(), 0);
     }
+
+    @Test
+    public void testAsyncDeliveryKeepsOrderOfEvents() throws Exception {
+        final List<String> events = Collections.synchronizedList(new ArrayList<String>());
+        final CountDownLatch delivered = new CountDownLatch(500);
+        final Thread publisher = Thread.currentThread();
+        final List<Thread> deliveryThreads = Collections.synchronizedList(new ArrayList<Thread>());
+        bus.subscribe(new EventSubscriber<String>() {
+            @Override
+            public void onEvent(String event) {
+                deliveryThreads.add(Thread.currentThread());
+                events.add(event);
+                delivered.countDown();
+            }
+        }, new AsyncDelivery(1000, AsyncDelivery.Backpressure.BLOCK));
+        for (int i = 0; i < 500; i++) {
+            bus.publish(String.valueOf(i));
+        }
+        Assert.assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 500; i++) {
+            Assert.assertEquals(events.get(i), String.valueOf(i));
+        }
+        Assert.assertFalse(deliveryThreads.contains(publisher));
+        AsyncDeliveryStats stats = bus.getAsyncDeliveryStats().get(0);
+        Assert.assertEquals(stats.getDeliveredCount(), 500);
+        Assert.assertEquals(stats.getDroppedCount(), 0);
+        Assert.assertEquals(stats.getQueueDepth(), 0);
+    }
+
+    @Test
+    public void testAsyncDeliveryDropsEventsWhenQueueIsFull() throws Exception {
+        final List<String> events = Collections.synchronizedList(new ArrayList<String>());
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        bus.subscribe(new EventSubscriber<String>() {
+            @Override
+            public void onEvent(String event) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                events.add(event);
+            }
+        }, new AsyncDelivery(2, AsyncDelivery.Backpressure.DROP));
+        bus.publish("0");
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        // "0" is being delivered, "1" and "2" fill up queue, "3" and "4" are dropped.
+        for (int i = 1; i < 5; i++) {
+            bus.publish(String.valueOf(i));
+        }
+        AsyncDeliveryStats stats = bus.getAsyncDeliveryStats().get(0);
+        Assert.assertEquals(stats.getQueueDepth(), 2);
+        Assert.assertEquals(stats.getDroppedCount(), 2);
+        release.countDown();
+        waitForSize(events, 3);
+        Assert.assertEquals(events, Arrays.asList("0", "1", "2"));
+    }
+
+    @Test
+    public void testAsyncDeliveryCoalescesEqualEvents() throws Exception {
+        final List<String> events = Collections.synchronizedList(new ArrayList<String>());
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        bus.subscribe(new EventSubscriber<String>() {
+            @Override
+            public void onEvent(String event) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                events.add(event);
+            }
+        }, new AsyncDelivery(2, AsyncDelivery.Backpressure.COALESCE));
+        bus.publish("start");
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        bus.publish("a");
+        bus.publish("a");
+        bus.publish("b");
+        // Queue is full, the oldest event is dropped.
+        bus.publish("c");
+        release.countDown();
+        waitForSize(events, 3);
+        Assert.assertEquals(events, Arrays.asList("start", "b", "c"));
+        Assert.assertEquals(bus.getAsyncDeliveryStats().get(0).getDroppedCount(), 2);
+    }
+
+    @Test
+    public void testAsyncDeliveryDropsOnlyDroppableEvents() throws Exception {
+        final List<String> events = Collections.synchronizedList(new ArrayList<String>());
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        bus.subscribe(new EventSubscriber<LogEvent>() {
+            @Override
+            public void onEvent(LogEvent event) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                events.add(event.text);
+            }
+        }, new AsyncDelivery(2, AsyncDelivery.Backpressure.DROP_DROPPABLE));
+        bus.publish(new LogEvent("start", false));
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        bus.publish(new LogEvent("line1", true));
+        bus.publish(new LogEvent("line2", true));
+        // Queue is full, line of log is dropped but status events are queued.
+        bus.publish(new LogEvent("line3", true));
+        bus.publish(new LogEvent("failed", false));
+        bus.publish(new LogEvent("done", false));
+        release.countDown();
+        waitForSize(events, 5);
+        Assert.assertEquals(events, Arrays.asList("start", "line1", "line2", "failed", "done"));
+        Assert.assertEquals(bus.getAsyncDeliveryStats().get(0).getDroppedCount(), 1);
+    }
+
+    @Test
+    public void testAsyncDeliveryForEventType() throws Exception {
+        final CountDownLatch delivered = new CountDownLatch(1);
+        final List<Thread> deliveryThreads = Collections.synchronizedList(new ArrayList<Thread>());
+        bus.setAsyncDelivery(Event.class, new AsyncDelivery(AsyncDelivery.Backpressure.BLOCK));
+        bus.subscribe(new EventSubscriber<Event>() {
+            @Override
+            public void onEvent(Event event) {
+                deliveryThreads.add(Thread.currentThread());
+                delivered.countDown();
+            }
+        });
+        bus.publish(new Event());
+        Assert.assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        Assert.assertNotEquals(deliveryThreads.get(0), Thread.currentThread());
+        Assert.assertEquals(bus.getAsyncDeliveryStats().size(), 1);
+    }
+
+    @Test
+    public void testUnsubscribeAsyncSubscriber() {
+        EventSubscriber<Event> l = new EventSubscriber<Event>() {
+            @Override
+            public void onEvent(Event event) {
+            }
+        };
+        bus.subscribe(l, new AsyncDelivery(AsyncDelivery.Backpressure.DROP));
+        Assert.assertEquals(bus.getAsyncDeliveryStats().size(), 1);
+        bus.unsubscribe(l);
+        Assert.assertTrue(bus.getAsyncDeliveryStats().isEmpty());
+    }
+
+    private static class LogEvent implements DroppableEvent {
+        final String  text;
+        final boolean droppable;
+
+        LogEvent(String text, boolean droppable) {
+            this.text = text;
+            this.droppable = droppable;
+        }
+
+        @Override
+        public boolean canBeDropped() {
+            return droppable;
+        }
+    }
+
+    private static void waitForSize(List<?> events, int size) throws InterruptedException {
+        final long endTime = System.currentTimeMillis() + 5000;
+        while (events.size() < size && System.currentTimeMillis() < endTime) {
+            Thread.sleep(10);
+        }
+    }
 }
@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.rest;
+
+import com.google.common.io.CharStreams;
+import com.sun.net.httpserver.HttpServer;
+
+import org.eclipse.che.api.core.rest.shared.dto.Link;
+import org.eclipse.che.dto.server.DtoFactory;
+import org.eclipse.che.dto.server.JsonArrayImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.eclipse.che.api.core.util.LinksHelper.createLink;
+
+/**
+ * Compares {@link HttpJsonClient} that keeps connections alive and parses DTOs from response stream with previous approach: new
+ * connection for each request, response is read in string and connection is closed. Requests are sent to HTTP server on loopback
+ * interface that returns list of links.
+ * <p/>
+ * Run with: {@code mvn test-compile exec:java -Dexec.mainClass=org.eclipse.che.api.core.rest.HttpJsonClientBenchmark
+ * -Dexec.classpathScope=test}
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class HttpJsonClientBenchmark {
+    /** Number of links in response. */
+    @Param({"1", "100"})
+    public int size;
+
+    private HttpServer      server;
+    private ExecutorService serverExecutor;
+    private HttpJsonClient  client;
+    private String          url;
+
+    @Setup
+    public void setUp() throws Exception {
+        final List<Link> links = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            links.add(createLink("GET", "http://localhost:8080/api/resource/" + i, MediaType.APPLICATION_JSON, "rel" + i));
+        }
+        final byte[] body = DtoFactory.getInstance().toJson(new JsonArrayImpl<>(links)).getBytes(StandardCharsets.UTF_8);
+        // otherwise response headers and body are delayed by Nagle's algorithm and latency is the same for both approaches
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 128);
+        serverExecutor = Executors.newFixedThreadPool(16);
+        server.setExecutor(serverExecutor);
+        server.createContext("/links", exchange -> {
+            exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        url = "http://" + server.getAddress().getAddress().getHostAddress() + ':' + server.getAddress().getPort() + "/links";
+        client = new HttpJsonClient(32, 5000, 5000, 1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.stop();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public List<Link> pooledClient() throws Exception {
+        return new DefaultHttpJsonRequest(client, url).useGetMethod().requestDtoList(Link.class);
+    }
+
+    @Benchmark
+    public List<Link> connectionPerRequest() throws Exception {
+        final HttpURLConnection conn = (HttpURLConnection)new URL(url).openConnection();
+        try {
+            conn.setRequestMethod("GET");
+            conn.addRequestProperty(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON);
+            conn.getResponseCode();
+            final String response;
+            try (Reader reader = new InputStreamReader(conn.getInputStream())) {
+                response = CharStreams.toString(reader);
+            }
+            return DtoFactory.getInstance().createListDtoFromJson(response, Link.class);
+        } finally {
+            conn.disconnect();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(HttpJsonClientBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,201 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.rest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import org.eclipse.che.api.core.NotFoundException;
+import org.eclipse.che.api.core.rest.shared.dto.Link;
+import org.eclipse.che.api.core.rest.shared.dto.ServiceError;
+import org.eclipse.che.commons.env.EnvironmentContext;
+import org.eclipse.che.commons.user.UserImpl;
+import org.eclipse.che.dto.server.DtoFactory;
+import org.eclipse.che.dto.server.JsonArrayImpl;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.ws.rs.core.HttpHeaders;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.eclipse.che.api.core.util.LinksHelper.createLink;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Tests of {@link HttpJsonClient} against HTTP server on loopback interface.
+ */
+public class HttpJsonClientTest {
+    private static final Link LINK = createLink("GET", "http://localhost:8080/api", "self");
+
+    private HttpServer      server;
+    private ExecutorService serverExecutor;
+    private HttpJsonClient  client;
+    private String          url;
+    /** Remote addresses of accepted connections, each new connection has new client port. */
+    private Set<String>     connections;
+    private AtomicInteger   requests;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        connections = ConcurrentHashMap.newKeySet();
+        requests = new AtomicInteger();
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/link", new JsonHandler(DtoFactory.getInstance().toJson(LINK), 200));
+        server.createContext("/links", new JsonHandler(DtoFactory.getInstance().toJson(new JsonArrayImpl<>(Arrays.asList(LINK, LINK))),
+                                                       200));
+        server.createContext("/missing", new JsonHandler(DtoFactory.getInstance().toJson(DtoFactory.getInstance()
+                                                                                                   .createDto(ServiceError.class)
+                                                                                                   .withMessage("not found")), 404));
+        server.start();
+        url = "http://" + server.getAddress().getAddress().getHostAddress() + ':' + server.getAddress().getPort();
+        client = new HttpJsonClient(2, 5000, 5000, 4);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        client.stop();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        EnvironmentContext.reset();
+    }
+
+    @Test
+    public void testReuseConnection() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            assertEquals(new DefaultHttpJsonRequest(client, url + "/link").useGetMethod().request().asDto(Link.class), LINK);
+        }
+        assertEquals(requests.get(), 20);
+        assertEquals(connections.size(), 1);
+    }
+
+    @Test
+    public void testReuseConnectionAfterErrorResponse() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            try {
+                new DefaultHttpJsonRequest(client, url + "/missing").useGetMethod().request();
+                fail("NotFoundException expected");
+            } catch (NotFoundException e) {
+                assertEquals(e.getMessage(), "not found");
+            }
+        }
+        assertEquals(connections.size(), 1);
+    }
+
+    @Test
+    public void testParseDtoFromResponseStream() throws Exception {
+        assertEquals(new DefaultHttpJsonRequest(client, url + "/link").useGetMethod().requestDto(Link.class), LINK);
+        assertEquals(new DefaultHttpJsonRequest(client, url + "/links").useGetMethod().requestDtoList(Link.class), Arrays.asList(LINK, LINK));
+    }
+
+    @Test
+    public void testAsyncRequestUsesEnvironmentContextOfCaller() throws Exception {
+        final List<String> tokens = new ArrayList<>();
+        server.createContext("/token", new JsonHandler("{}", 200) {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                synchronized (tokens) {
+                    tokens.add(exchange.getRequestHeaders().getFirst(HttpHeaders.AUTHORIZATION));
+                }
+                super.handle(exchange);
+            }
+        });
+        EnvironmentContext.getCurrent().setUser(new UserImpl("user", "user", "token123", null, false));
+
+        final CompletableFuture<HttpJsonResponse> future = new DefaultHttpJsonRequest(client, url + "/token").useGetMethod()
+                                                                                                            .requestAsync();
+
+        assertEquals(future.get(5, TimeUnit.SECONDS).getResponseCode(), 200);
+        assertEquals(tokens, Arrays.asList("token123"));
+    }
+
+    @Test
+    public void testLimitConcurrentConnectionsToHost() throws Exception {
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicInteger maxActive = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+        server.createContext("/slow", new JsonHandler("{}", 200) {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                final int current = active.incrementAndGet();
+                maxActive.accumulateAndGet(current, Math::max);
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                active.decrementAndGet();
+                super.handle(exchange);
+            }
+        });
+
+        final List<CompletableFuture<HttpJsonResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            futures.add(new DefaultHttpJsonRequest(client, url + "/slow").useGetMethod().requestAsync());
+        }
+        // give requests time to reach server
+        Thread.sleep(500);
+        release.countDown();
+        for (CompletableFuture<HttpJsonResponse> future : futures) {
+            assertEquals(future.get(5, TimeUnit.SECONDS).getResponseCode(), 200);
+        }
+
+        assertEquals(maxActive.get(), 2);
+        assertTrue(connections.size() <= 2, "Expected not more than 2 connections but was " + connections.size());
+    }
+
+    private class JsonHandler implements HttpHandler {
+        final byte[] body;
+        final int    status;
+
+        JsonHandler(String body, int status) {
+            this.body = body.getBytes(StandardCharsets.UTF_8);
+            this.status = status;
+        }
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            connections.add(exchange.getRemoteAddress().toString());
+            requests.incrementAndGet();
+            try (InputStream in = exchange.getRequestBody()) {
+                while (in.read() != -1) {
+                    // skip request body
+                }
+            }
+            exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.rest;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Field;
+
+import static org.testng.Assert.assertSame;
+
+public class HttpJsonHelperTest {
+    private Field                             implField;
+    private HttpJsonHelper.HttpJsonHelperImpl defaultImpl;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        implField = HttpJsonHelper.class.getDeclaredField("httpJsonHelperImpl");
+        implField.setAccessible(true);
+        defaultImpl = (HttpJsonHelper.HttpJsonHelperImpl)implField.get(null);
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        implField.set(null, defaultImpl);
+    }
+
+    @Test
+    public void shouldUseClientWithDefaultConfigurationWithoutGuice() throws Exception {
+        assertSame(defaultImpl.getClient(), HttpJsonClient.getDefault());
+    }
+
+    @Test
+    public void shouldUseClientBoundInGuice() throws Exception {
+        final Injector injector = Guice.createInjector(new CoreRestModule());
+
+        final HttpJsonHelper.HttpJsonHelperImpl impl = (HttpJsonHelper.HttpJsonHelperImpl)implField.get(null);
+        assertSame(impl.getClient(), injector.getInstance(HttpJsonClient.class));
+    }
+}
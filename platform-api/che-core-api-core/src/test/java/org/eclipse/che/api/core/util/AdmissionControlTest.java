@@ -0,0 +1,58 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.util;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class AdmissionControlTest {
+    @Test
+    public void shouldRejectWhenWorkspaceLimitReached() {
+        AdmissionControl admission = new AdmissionControl(10, 2);
+        assertTrue(admission.tryAcquire("ws1"));
+        assertTrue(admission.tryAcquire("ws1"));
+        assertFalse(admission.tryAcquire("ws1"));
+        assertTrue(admission.tryAcquire("ws2"));
+        assertEquals(admission.getWaiting(), 3);
+        assertEquals(admission.getWaiting("ws1"), 2);
+    }
+
+    @Test
+    public void shouldRejectWhenTotalLimitReached() {
+        AdmissionControl admission = new AdmissionControl(2, 2);
+        assertTrue(admission.tryAcquire("ws1"));
+        assertTrue(admission.tryAcquire("ws2"));
+        assertFalse(admission.tryAcquire("ws3"));
+        assertEquals(admission.getWaiting("ws3"), 0);
+    }
+
+    @Test
+    public void shouldAcceptAfterRelease() {
+        AdmissionControl admission = new AdmissionControl(1, 1);
+        assertTrue(admission.tryAcquire("ws1"));
+        admission.release("ws1");
+        assertEquals(admission.getWaiting(), 0);
+        assertEquals(admission.getWaiting("ws1"), 0);
+        assertTrue(admission.tryAcquire("ws2"));
+    }
+
+    @Test
+    public void shouldNotLimitIfLimitsAreNotSet() {
+        AdmissionControl admission = new AdmissionControl(0, 0);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(admission.tryAcquire("ws1"));
+        }
+        assertEquals(admission.getWaiting("ws1"), 100);
+    }
+}
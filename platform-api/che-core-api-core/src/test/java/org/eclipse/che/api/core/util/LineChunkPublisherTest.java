@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.util;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class LineChunkPublisherTest {
+    @Test
+    public void testPublishFullChunks() throws Exception {
+        final Collector collector = new Collector(3, 1000, 60000, 0);
+        for (int i = 1; i <= 7; i++) {
+            collector.writeLine("line" + i);
+        }
+        assertEquals(collector.chunks.size(), 2);
+        collector.close();
+        assertEquals(collector.chunks.size(), 3);
+        assertEquals(collector.firstLines, Arrays.asList(1, 4, 7));
+        assertEquals(collector.chunks.get(1), Arrays.asList("line4", "line5", "line6"));
+        assertEquals(collector.chunks.get(2), Arrays.asList("line7"));
+        collector.writeLine("ignored");
+        collector.flush();
+        assertEquals(collector.chunks.size(), 3);
+    }
+
+    @Test
+    public void testLimitCharactersInChunk() throws Exception {
+        final Collector collector = new Collector(100, 10, 60000, 0);
+        collector.writeLine("12345");
+        collector.writeLine("1234567");
+        collector.writeLine("123456789012");
+        collector.close();
+        assertEquals(collector.chunks.size(), 3);
+        assertEquals(collector.firstLines, Arrays.asList(1, 2, 3));
+    }
+
+    @Test
+    public void testPublishChunkAfterDelay() throws Exception {
+        final Collector collector = new Collector(100, 1000, 100, 0);
+        collector.writeLine("line1");
+        collector.writeLine("line2");
+        assertTrue(collector.chunks.isEmpty());
+        final long end = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while (collector.chunks.isEmpty() && System.currentTimeMillis() < end) {
+            Thread.sleep(20);
+        }
+        assertEquals(collector.chunks.size(), 1);
+        assertEquals(collector.chunks.get(0), Arrays.asList("line1", "line2"));
+    }
+
+    @Test
+    public void testSkipLinesIfRateExceeded() throws Exception {
+        final Collector collector = new Collector(100, 10000, 100, 10);
+        final long end = System.currentTimeMillis() + 1500;
+        int written = 0;
+        while (System.currentTimeMillis() < end) {
+            collector.writeLine("line");
+            written++;
+            Thread.sleep(1);
+        }
+        collector.close();
+        final List<String> lines = new ArrayList<>();
+        for (List<String> chunk : collector.chunks) {
+            lines.addAll(chunk);
+        }
+        assertTrue(lines.size() < written);
+        assertTrue(lines.get(lines.size() - 1).matches("\\[WARNING\\] \\d+ lines skipped.*"));
+        int expected = 1;
+        for (int i = 0; i < collector.chunks.size(); i++) {
+            assertEquals((int)collector.firstLines.get(i), expected);
+            expected += collector.chunks.get(i).size();
+        }
+    }
+
+    private static class Collector extends LineChunkPublisher {
+        final List<Integer>      firstLines = new CopyOnWriteArrayList<>();
+        final List<List<String>> chunks     = new CopyOnWriteArrayList<>();
+
+        Collector(int maxLines, int maxChars, long maxDelayMillis, double maxRate) {
+            super(maxLines, maxChars, maxDelayMillis, maxRate);
+        }
+
+        @Override
+        protected void publish(int firstLineNum, List<String> lines) {
+            firstLines.add(firstLineNum);
+            chunks.add(lines);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.util;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+public class StreamPumpTest {
+    @Test
+    public void testPumpLines() throws Exception {
+        final Process p = new ProcessBuilder("printf", "a\\nb\\r\\nc\\rd").redirectErrorStream(true).start();
+        final ListLineConsumer consumer = new ListLineConsumer();
+        final StreamPump pump = new StreamPump();
+        pump.start(p, consumer);
+        p.waitFor();
+        pump.await();
+        Assert.assertFalse(pump.hasError());
+        Assert.assertEquals(consumer.getLines(), Arrays.asList("a", "b", "c", "d"));
+    }
+
+    @Test
+    public void testPumpOutputUntilEndOfStreamAfterProcessIsTerminated() throws Exception {
+        // Terminated process which output isn't available yet, e.g. it is written by child that still holds the pipe.
+        final InputStream output = new InputStream() {
+            final byte[] bytes = "late\n".getBytes();
+            int pos;
+
+            @Override
+            public int available() {
+                return 0;
+            }
+
+            @Override
+            public int read() {
+                return pos < bytes.length ? bytes[pos++] : -1;
+            }
+        };
+        final Process p = new Process() {
+            @Override
+            public OutputStream getOutputStream() {
+                return null;
+            }
+
+            @Override
+            public InputStream getInputStream() {
+                return output;
+            }
+
+            @Override
+            public InputStream getErrorStream() {
+                return null;
+            }
+
+            @Override
+            public int waitFor() {
+                return 0;
+            }
+
+            @Override
+            public int exitValue() {
+                return 0;
+            }
+
+            @Override
+            public void destroy() {
+            }
+        };
+        final ListLineConsumer consumer = new ListLineConsumer();
+        final StreamPump pump = new StreamPump();
+        pump.start(p, consumer);
+        pump.await();
+        Assert.assertFalse(pump.hasError());
+        Assert.assertEquals(consumer.getLines(), Arrays.asList("late"));
+    }
+
+    @Test
+    public void testSlowConsumerDoesNotDelayOtherProcesses() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final Process slow = new ProcessBuilder("echo", "slow").start();
+        final StreamPump slowPump = new StreamPump();
+        slowPump.start(slow, new LineConsumer() {
+            @Override
+            public void writeLine(String line) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+        try {
+            for (int i = 0; i < 10; i++) {
+                final Process p = new ProcessBuilder("echo", "fast" + i).start();
+                final ListLineConsumer consumer = new ListLineConsumer();
+                final StreamPump pump = new StreamPump();
+                pump.start(p, consumer);
+                p.waitFor();
+                pump.await();
+                Assert.assertEquals(consumer.getLines(), Arrays.asList("fast" + i));
+            }
+            Assert.assertFalse(slowPump.isDone());
+        } finally {
+            release.countDown();
+        }
+        slow.waitFor();
+        slowPump.await();
+    }
+
+    @Test
+    public void testPumpManyProcesses() throws Exception {
+        final List<Process> processes = new ArrayList<>();
+        final List<ListLineConsumer> consumers = new ArrayList<>();
+        final List<StreamPump> pumps = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            final Process p = new ProcessBuilder("sh", "-c", "i=0; while [ $i -lt 1000 ]; do echo line$i; i=$((i+1)); done")
+                    .redirectErrorStream(true).start();
+            final ListLineConsumer consumer = new ListLineConsumer();
+            final StreamPump pump = new StreamPump();
+            pump.start(p, consumer);
+            processes.add(p);
+            consumers.add(consumer);
+            pumps.add(pump);
+        }
+        for (int i = 0; i < processes.size(); i++) {
+            processes.get(i).waitFor();
+            pumps.get(i).await();
+            final List<String> lines = consumers.get(i).getLines();
+            Assert.assertEquals(lines.size(), 1000);
+            Assert.assertEquals(lines.get(999), "line999");
+        }
+    }
+}
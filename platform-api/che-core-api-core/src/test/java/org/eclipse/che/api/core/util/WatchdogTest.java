@@ -35,4 +35,18 @@ public class WatchdogTest {
         latch.await(2, TimeUnit.SECONDS); // wait 2 sec
         Assert.assertTrue(cancel[0], "cancellation failed"); // should be cancelled
     }
+
+    @Test
+    public void testStoppedWatchdogDoesNotCancel() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final Watchdog watchdog = new Watchdog(1, TimeUnit.SECONDS);
+        watchdog.start(new Cancellable() {
+            @Override
+            public void cancel() throws Exception {
+                latch.countDown();
+            }
+        });
+        watchdog.stop();
+        Assert.assertFalse(latch.await(2, TimeUnit.SECONDS), "stopped watchdog must not cancel");
+    }
 }
@@ -72,6 +72,7 @@ public class DtoImplServerTemplate extends DtoImpl {
         emitSerializer(methods, builder);
         emitDeserializer(methods, builder);
         emitDeserializerShortcut(builder);
+        emitStreamDeserializer(methods, builder);
         emitCopyConstructor(methods, builder);
         // Delegation DTO methods.
         emitDelegateMethods(builder);
@@ -301,10 +302,25 @@ public class DtoImplServerTemplate extends DtoImpl {
         builder.append("\n");
         builder.append("    @Override\n");
         builder.append("    public String toJson() {\n");
-        // The default toJson() creates its own JSON for internal printing, thus keeping JSONs values is safe
-        builder.append("      return gson.toJson(toJsonElementInt(false));\n");
+        if (isCompactJson()) {
+            // The default toJson() creates its own JSON for internal printing, thus keeping JSONs values is safe
+            builder.append("      return gson.toJson(toJsonElementInt(false));\n");
+        } else {
+            // Same settings as gson uses for printing of JsonElement, null fields are skipped
+            builder.append("      java.io.StringWriter out = new java.io.StringWriter();\n");
+            builder.append("      JsonWriter writer = new JsonWriter(out);\n");
+            builder.append("      writer.setLenient(true);\n");
+            builder.append("      writer.setSerializeNulls(false);\n");
+            builder.append("      try {\n");
+            builder.append("        toJson(writer);\n");
+            builder.append("      } catch (java.io.IOException e) {\n");
+            builder.append("        throw new IllegalStateException(e);\n");
+            builder.append("      }\n");
+            builder.append("      return out.toString();\n");
+        }
         builder.append("    }\n");
         builder.append("\n");
+        emitStreamSerializer(getters, builder);
         builder.append("    @Override\n");
         builder.append("    public String toString() {\n");
         builder.append("      return toJson();\n");
@@ -451,6 +467,123 @@ public class DtoImplServerTemplate extends DtoImpl {
         }
     }
 
+    /** Generates method that writes fields of DTO directly to the JsonWriter without building of JsonElement. */
+    private void emitStreamSerializer(List<Method> getters, StringBuilder builder) {
+        builder.append("    @Override\n");
+        builder.append("    public void toJson(JsonWriter writer) throws java.io.IOException {\n");
+        if (isCompactJson()) {
+            builder.append("      gson.toJson(toJsonElementInt(false), writer);\n");
+        } else {
+            builder.append("      writer.beginObject();\n");
+            Set<String> jsonFieldNames = new HashSet<>();
+            for (Method getter : getters) {
+                final String jsonFieldName = getJsonFieldName(getter);
+                if (jsonFieldNames.add(jsonFieldName)) {
+                    builder.append("      writer.name(").append(quoteStringLiteral(jsonFieldName)).append(");\n");
+                    emitStreamSerializerImpl(expandType(getter.getGenericReturnType()), 0, builder, getJavaFieldName(getter.getName()),
+                                             "      ");
+                }
+            }
+            builder.append("      writer.endObject();\n");
+        }
+        builder.append("    }\n\n");
+    }
+
+    /**
+     * Produces code to write value of the type with the given variable name to the JsonWriter.
+     *
+     * @param expandedTypes
+     *         the type and its generic (and its generic (..)) expanded into a list, @see {@link #expandType(java.lang.reflect.Type)}
+     * @param depth
+     *         the depth (in the generics) for this recursive call. This can be used to index into {@code expandedTypes}
+     * @param inVar
+     *         the java type that will be the input for serialization
+     * @param i
+     *         indentation string
+     */
+    private void emitStreamSerializerImpl(List<Type> expandedTypes, int depth, StringBuilder builder, String inVar, String i) {
+        Type type = expandedTypes.get(depth);
+        String value = depth == 0 ? "this." + inVar : inVar;
+        String childInVar = inVar + "_";
+        Class<?> rawClass = getRawClass(type);
+        if (isList(rawClass) || isMap(rawClass)) {
+            String childInTypeName = getImplName(expandedTypes.get(depth + 1), false);
+            String ci = i;
+            if (depth == 0) {
+                builder.append(i).append("this.").append(getEnsureName(inVar)).append("();\n");
+            } else {
+                builder.append(i).append("if (").append(value).append(" == null) {\n");
+                builder.append(i).append("  writer.nullValue();\n");
+                builder.append(i).append("} else {\n");
+                ci = i + "  ";
+            }
+            if (isList(rawClass)) {
+                builder.append(ci).append("writer.beginArray();\n");
+                builder.append(ci).append("for (").append(childInTypeName).append(" ").append(childInVar).append(" : ").append(value)
+                       .append(") {\n");
+                emitStreamSerializerImpl(expandedTypes, depth + 1, builder, childInVar, ci + "  ");
+                builder.append(ci).append("}\n");
+                builder.append(ci).append("writer.endArray();\n");
+            } else {
+                String entryVar = "entry" + depth;
+                builder.append(ci).append("writer.beginObject();\n");
+                builder.append(ci).append("for (java.util.Map.Entry<String, ").append(childInTypeName).append("> ").append(entryVar)
+                       .append(" : ").append(value).append(".entrySet()) {\n");
+                builder.append(ci).append("  writer.name(").append(entryVar).append(".getKey());\n");
+                builder.append(ci).append("  ").append(childInTypeName).append(" ").append(childInVar).append(" = ").append(entryVar)
+                       .append(".getValue();\n");
+                emitStreamSerializerImpl(expandedTypes, depth + 1, builder, childInVar, ci + "  ");
+                builder.append(ci).append("}\n");
+                builder.append(ci).append("writer.endObject();\n");
+            }
+            if (depth != 0) {
+                builder.append(i).append("}\n");
+            }
+        } else if (rawClass == boolean.class
+                   || rawClass == int.class
+                   || rawClass == long.class
+                   || rawClass == double.class
+                   || rawClass == short.class
+                   || rawClass == byte.class) {
+            builder.append(i).append("writer.value(").append(value).append(");\n");
+        } else if (rawClass == float.class) {
+            // Write float as Float to get the same representation as JsonPrimitive has
+            builder.append(i).append("writer.value((Number)Float.valueOf(").append(value).append("));\n");
+        } else if (isAny(rawClass)) {
+            builder.append(i).append("if (").append(value).append(" instanceof JsonElement) {\n");
+            builder.append(i).append("  gson.toJson((JsonElement)").append(value).append(", writer);\n");
+            builder.append(i).append("} else {\n");
+            builder.append(i).append("  writer.nullValue();\n");
+            builder.append(i).append("}\n");
+        } else {
+            builder.append(i).append("if (").append(value).append(" == null) {\n");
+            builder.append(i).append("  writer.nullValue();\n");
+            builder.append(i).append("} else {\n");
+            if (rawClass.isEnum()) {
+                builder.append(i).append("  writer.value(").append(value).append(".name());\n");
+            } else if (rawClass.equals(String.class)) {
+                builder.append(i).append("  writer.value(").append(value).append(");\n");
+            } else if (rawClass == Boolean.class) {
+                builder.append(i).append("  writer.value(").append(value).append(".booleanValue());\n");
+            } else if (rawClass == Integer.class
+                       || rawClass == Long.class
+                       || rawClass == Double.class
+                       || rawClass == Float.class
+                       || rawClass == Short.class
+                       || rawClass == Byte.class) {
+                builder.append(i).append("  writer.value((Number)").append(value).append(");\n");
+            } else if (getEnclosingTemplate().isDtoInterface(rawClass)
+                       || getEnclosingTemplate().getDtoImplementation(rawClass) != null) {
+                builder.append(i).append("  ((JsonSerializable)").append(value).append(").toJson(writer);\n");
+            } else {
+                throw new IllegalArgumentException("Unable to generate server implementation for DTO interface " +
+                                                   getDtoInterface().getCanonicalName() + ". Type " + rawClass +
+                                                   " is not allowed to use in DTO interface.");
+            }
+            builder.append(i).append("}\n");
+        }
+    }
+
     /** Generates a static factory method that creates a new instance based on a JsonElement. */
     private void emitDeserializer(List<Method> getters, StringBuilder builder) {
         // The default fromJsonElement(json) works in unsafe mode and clones the JSON's for 'any' properties
@@ -489,6 +622,129 @@ public class DtoImplServerTemplate extends DtoImpl {
         builder.append("    }\n\n");
     }
 
+    /** Generates a static factory method that creates a new instance reading fields of DTO directly from the JsonReader. */
+    private void emitStreamDeserializer(List<Method> getters, StringBuilder builder) {
+        builder.append("    public static ").append(getImplClassName()).append(" fromJson(JsonReader reader) throws java.io.IOException {\n");
+        if (isCompactJson()) {
+            builder.append("      return fromJsonElement(new JsonParser().parse(reader), false);\n");
+            builder.append("    }\n\n");
+            return;
+        }
+        builder.append("      if (reader.peek() == JsonToken.NULL) {\n");
+        builder.append("        reader.nextNull();\n");
+        builder.append("        return null;\n");
+        builder.append("      }\n\n");
+        builder.append("      ").append(getImplClassName()).append(" dto = new ").append(getImplClassName()).append("();\n");
+        builder.append("      reader.beginObject();\n");
+        builder.append("      while (reader.hasNext()) {\n");
+        builder.append("        switch (reader.nextName()) {\n");
+        Set<String> jsonFieldNames = new HashSet<>();
+        for (Method getter : getters) {
+            final String jsonFieldName = getJsonFieldName(getter);
+            if (jsonFieldNames.add(jsonFieldName)) {
+                final String fieldName = getFieldNameFromGetterName(getter.getName());
+                final String fieldNameOut = fieldName + "Out";
+                builder.append("          case ").append(quoteStringLiteral(jsonFieldName)).append(": {\n");
+                emitStreamDeserializerImpl(expandType(getter.getGenericReturnType()), 0, builder, fieldNameOut, "            ");
+                builder.append("            dto.").append(getSetterName(fieldName)).append("(").append(fieldNameOut).append(");\n");
+                builder.append("            break;\n");
+                builder.append("          }\n");
+            }
+        }
+        builder.append("          default:\n");
+        builder.append("            reader.skipValue();\n");
+        builder.append("        }\n");
+        builder.append("      }\n");
+        builder.append("      reader.endObject();\n");
+        builder.append("      return dto;\n");
+        builder.append("    }\n\n");
+    }
+
+    /**
+     * Produces code to read value of the type from the JsonReader to the new variable with the given name.
+     *
+     * @param expandedTypes
+     *         the type and its generic (and its generic (..)) expanded into a list, @see {@link #expandType(java.lang.reflect.Type)}
+     * @param depth
+     *         the depth (in the generics) for this recursive call. This can be used to index into {@code expandedTypes}
+     * @param outVar
+     *         the java variable that will be the output for deserialization
+     * @param i
+     *         indentation string
+     */
+    private void emitStreamDeserializerImpl(List<Type> expandedTypes, int depth, StringBuilder builder, String outVar, String i) {
+        Type type = expandedTypes.get(depth);
+        String childOutVar = outVar + "_";
+        Class<?> rawClass = getRawClass(type);
+
+        if (isList(rawClass) || isMap(rawClass)) {
+            builder.append(i).append(getImplName(type, false)).append(" ").append(outVar).append(" = null;\n");
+            builder.append(i).append("if (reader.peek() == JsonToken.NULL) {\n");
+            builder.append(i).append("  reader.nextNull();\n");
+            builder.append(i).append("} else {\n");
+            builder.append(i).append("  ").append(outVar).append(" = new ").append(getImplName(type, true)).append("();\n");
+            if (isList(rawClass)) {
+                builder.append(i).append("  reader.beginArray();\n");
+                builder.append(i).append("  while (reader.hasNext()) {\n");
+                emitStreamDeserializerImpl(expandedTypes, depth + 1, builder, childOutVar, i + "    ");
+                builder.append(i).append("    ").append(outVar).append(".add(").append(childOutVar).append(");\n");
+                builder.append(i).append("  }\n");
+                builder.append(i).append("  reader.endArray();\n");
+            } else {
+                String keyVar = "key" + depth;
+                builder.append(i).append("  reader.beginObject();\n");
+                builder.append(i).append("  while (reader.hasNext()) {\n");
+                builder.append(i).append("    String ").append(keyVar).append(" = reader.nextName();\n");
+                emitStreamDeserializerImpl(expandedTypes, depth + 1, builder, childOutVar, i + "    ");
+                builder.append(i).append("    ").append(outVar).append(".put(").append(keyVar).append(", ").append(childOutVar)
+                       .append(");\n");
+                builder.append(i).append("  }\n");
+                builder.append(i).append("  reader.endObject();\n");
+            }
+            builder.append(i).append("}\n");
+        } else if (getEnclosingTemplate().isDtoInterface(rawClass)) {
+            builder.append(i).append(getImplName(rawClass, false)).append(" ").append(outVar).append(" = ")
+                   .append(getImplNameForDto(rawClass)).append(".fromJson(reader);\n");
+        } else if (rawClass == boolean.class) {
+            // JsonPrimitive.getAsBoolean() accepts string values as well
+            builder.append(i).append("boolean ").append(outVar)
+                   .append(" = reader.peek() == JsonToken.STRING ? Boolean.parseBoolean(reader.nextString()) : reader.nextBoolean();\n");
+        } else if (rawClass == int.class || rawClass == long.class || rawClass == double.class) {
+            String primitiveName = rawClass.getSimpleName();
+            String primitiveNameCap = primitiveName.substring(0, 1).toUpperCase() + primitiveName.substring(1);
+            builder.append(i).append(primitiveName).append(" ").append(outVar).append(" = reader.next").append(primitiveNameCap)
+                   .append("();\n");
+        } else if (rawClass == float.class) {
+            builder.append(i).append("float ").append(outVar).append(" = (float)reader.nextDouble();\n");
+        } else if (rawClass == short.class || rawClass == byte.class) {
+            String primitiveName = rawClass.getSimpleName();
+            builder.append(i).append(primitiveName).append(" ").append(outVar).append(" = (").append(primitiveName)
+                   .append(")reader.nextInt();\n");
+        } else if (rawClass.equals(String.class)) {
+            builder.append(i).append("String ").append(outVar).append(" = null;\n");
+            builder.append(i).append("if (reader.peek() == JsonToken.NULL) {\n");
+            builder.append(i).append("  reader.nextNull();\n");
+            builder.append(i).append("} else if (reader.peek() == JsonToken.BOOLEAN) {\n");
+            builder.append(i).append("  ").append(outVar).append(" = String.valueOf(reader.nextBoolean());\n");
+            builder.append(i).append("} else {\n");
+            builder.append(i).append("  ").append(outVar).append(" = reader.nextString();\n");
+            builder.append(i).append("}\n");
+        } else if (isAny(rawClass)) {
+            builder.append(i).append("JsonElement ").append(outVar).append(" = new JsonParser().parse(reader);\n");
+        } else {
+            final Class<?> dtoImplementation = getEnclosingTemplate().getDtoImplementation(rawClass);
+            if (dtoImplementation != null) {
+                builder.append(i).append(getImplName(rawClass, false)).append(" ").append(outVar).append(" = ")
+                       .append(dtoImplementation.getCanonicalName()).append(".fromJson(reader);\n");
+            } else {
+                // Use gson to handle all other types.
+                String rawClassName = rawClass.getName().replace('$', '.');
+                builder.append(i).append(rawClassName).append(" ").append(outVar).append(" = gson.fromJson(reader, ")
+                       .append(rawClassName).append(".class);\n");
+            }
+        }
+    }
+
     private void emitDeserializeFieldForMethod(Method method, StringBuilder builder) {
         final String fieldName = getFieldNameFromGetterName(method.getName());
         final String fieldNameIn = fieldName + "In";
@@ -10,25 +10,23 @@
  *******************************************************************************/
 package org.eclipse.che.dto.server;
 
-import org.eclipse.che.commons.lang.cache.Cache;
-import org.eclipse.che.commons.lang.cache.LoadingValueSLRUCache;
-import org.eclipse.che.commons.lang.cache.SynchronizedCache;
-import org.eclipse.che.commons.lang.reflect.ParameterizedTypeImpl;
 import org.eclipse.che.dto.shared.DTO;
 import org.eclipse.che.dto.shared.JsonArray;
 import org.eclipse.che.dto.shared.JsonStringMap;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.google.gson.stream.MalformedJsonException;
 
-import java.io.BufferedReader;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
+import java.io.StringReader;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -42,23 +40,6 @@ import java.util.concurrent.ConcurrentHashMap;
  * @author andrew00x
  */
 public final class DtoFactory {
-    private static final Gson gson = new GsonBuilder().serializeNulls().create();
-
-    private static final Cache<Type, ParameterizedType> listTypeCache = new SynchronizedCache<>(
-            new LoadingValueSLRUCache<Type, ParameterizedType>(16, 16) {
-                @Override
-                protected ParameterizedType loadValue(Type type) {
-                    return new ParameterizedTypeImpl(List.class, type);
-                }
-            });
-    private static final Cache<Type, ParameterizedType> mapTypeCache  = new SynchronizedCache<>(
-            new LoadingValueSLRUCache<Type, ParameterizedType>(16, 16) {
-                @Override
-                protected ParameterizedType loadValue(Type type) {
-                    return new ParameterizedTypeImpl(Map.class, String.class, type);
-                }
-            });
-
     private static final DtoFactory INSTANCE = new DtoFactory();
 
     public static DtoFactory getInstance() {
@@ -132,6 +113,65 @@ public final class DtoFactory {
         throw new IllegalArgumentException("JsonSerializable instance required. ");
     }
 
+    /**
+     * Writes JSON representation of DTO to the specified writer. Unlike {@link #toJson(Object)} doesn't create JSON string in memory.
+     *
+     * @param dto
+     *         DTO object
+     * @param writer
+     *         writer
+     * @throws IllegalArgumentException
+     *         if specified object is not instance of JsonSerializable
+     * @throws IOException
+     *         if an i/o error occurs
+     */
+    public <T> void toJson(T dto, Writer writer) throws IOException {
+        if (dto instanceof JsonSerializable) {
+            final JsonWriter jsonWriter = new JsonWriter(writer);
+            // the same settings as generated DTOs use in method toJson()
+            jsonWriter.setLenient(true);
+            jsonWriter.setSerializeNulls(false);
+            ((JsonSerializable)dto).toJson(jsonWriter);
+            jsonWriter.flush();
+            return;
+        }
+        throw new IllegalArgumentException("JsonSerializable instance required. ");
+    }
+
+    /**
+     * Writes JSON array of DTOs to the specified writer. Each DTO is written directly to the stream, so neither JSON string nor
+     * JSON tree of the whole list is created in memory.
+     *
+     * @param dtos
+     *         DTO objects, {@code null} elements are written as JSON {@code null}
+     * @param writer
+     *         writer
+     * @throws IllegalArgumentException
+     *         if any element of list is not instance of JsonSerializable
+     * @throws IOException
+     *         if an i/o error occurs
+     */
+    public void toJsonList(List<?> dtos, Writer writer) throws IOException {
+        for (Object dto : dtos) {
+            if (dto != null && !(dto instanceof JsonSerializable)) {
+                throw new IllegalArgumentException("JsonSerializable instance required. ");
+            }
+        }
+        final JsonWriter jsonWriter = new JsonWriter(writer);
+        jsonWriter.setLenient(true);
+        jsonWriter.setSerializeNulls(false);
+        jsonWriter.beginArray();
+        for (Object dto : dtos) {
+            if (dto == null) {
+                jsonWriter.nullValue();
+            } else {
+                ((JsonSerializable)dto).toJson(jsonWriter);
+            }
+        }
+        jsonWriter.endArray();
+        jsonWriter.flush();
+    }
+
     public <T> JsonElement toJsonElement(T dto) {
         if (dto instanceof JsonSerializable) {
             return ((JsonSerializable)dto).toJsonElement();
@@ -165,7 +205,15 @@ public final class DtoFactory {
      *         if can't provide any implementation for specified interface
      */
     public <T> T createDtoFromJson(String json, Class<T> dtoInterface) {
-        return getDtoProvider(dtoInterface).fromJson(json);
+        final DtoProvider<T> dtoProvider = getDtoProvider(dtoInterface);
+        if (json == null) {
+            return null;
+        }
+        try {
+            return readDto(newJsonReader(new StringReader(json)), dtoProvider);
+        } catch (IOException e) {
+            throw new JsonSyntaxException(e);
+        }
     }
 
     /**
@@ -182,14 +230,7 @@ public final class DtoFactory {
      *         if an i/o error occurs
      */
     public <T> T createDtoFromJson(Reader json, Class<T> dtoInterface) throws IOException {
-        DtoProvider<T> dtoProvider = getDtoProvider(dtoInterface);
-        StringBuilder sb = new StringBuilder();
-        BufferedReader br = new BufferedReader(json);
-        String line;
-        while ((line = br.readLine()) != null) {
-            sb.append(line);
-        }
-        return dtoProvider.fromJson(sb.toString());
+        return readDto(newJsonReader(json), getDtoProvider(dtoInterface));
     }
 
     /**
@@ -224,12 +265,11 @@ public final class DtoFactory {
      */
     public <T> JsonArray<T> createListDtoFromJson(String json, Class<T> dtoInterface) {
         final DtoProvider<T> dtoProvider = getDtoProvider(dtoInterface);
-        final List<JsonElement> list = gson.fromJson(json, listTypeCache.get(JsonElement.class));
-        final List<T> result = new ArrayList<>(list.size());
-        for (JsonElement e : list) {
-            result.add(dtoProvider.fromJson(e));
+        try {
+            return readListDto(newJsonReader(new StringReader(json)), dtoProvider);
+        } catch (IOException e) {
+            throw new JsonSyntaxException(e);
         }
-        return new JsonArrayImpl<>(result);
     }
 
 
@@ -245,22 +285,7 @@ public final class DtoFactory {
      *         if can't provide any implementation for specified interface
      */
     public <T> JsonArray<T> createListDtoFromJson(Reader json, Class<T> dtoInterface) throws IOException {
-        final DtoProvider<T> dtoProvider = getDtoProvider(dtoInterface);
-        final List<JsonElement> list;
-        try {
-            list = gson.fromJson(json, listTypeCache.get(JsonElement.class));
-        } catch (JsonSyntaxException e) {
-            final Throwable cause = e.getCause();
-            if (cause instanceof IOException) {
-                throw (IOException)cause;
-            }
-            throw e;
-        }
-        final List<T> result = new ArrayList<>(list.size());
-        for (JsonElement e : list) {
-            result.add(dtoProvider.fromJson(e));
-        }
-        return new JsonArrayImpl<>(result);
+        return readListDto(newJsonReader(json), getDtoProvider(dtoInterface));
     }
 
     /**
@@ -295,12 +320,11 @@ public final class DtoFactory {
      */
     public <T> JsonStringMap<T> createMapDtoFromJson(String json, Class<T> dtoInterface) {
         final DtoProvider<T> dtoProvider = getDtoProvider(dtoInterface);
-        final Map<String, JsonElement> map = gson.fromJson(json, mapTypeCache.get(JsonElement.class));
-        final Map<String, T> result = new LinkedHashMap<>(map.size());
-        for (Map.Entry<String, JsonElement> e : map.entrySet()) {
-            result.put(e.getKey(), dtoProvider.fromJson(e.getValue()));
+        try {
+            return readMapDto(newJsonReader(new StringReader(json)), dtoProvider);
+        } catch (IOException e) {
+            throw new JsonSyntaxException(e);
         }
-        return new JsonStringMapImpl<>(result);
     }
 
 
@@ -317,24 +341,8 @@ public final class DtoFactory {
      * @throws IOException
      *         if an i/o error occurs
      */
-    @SuppressWarnings("unchecked")
     public <T> JsonStringMap<T> createMapDtoFromJson(Reader json, Class<T> dtoInterface) throws IOException {
-        final DtoProvider<T> dtoProvider = getDtoProvider(dtoInterface);
-        final Map<String, JsonElement> map;
-        try {
-            map = gson.fromJson(json, mapTypeCache.get(JsonElement.class));
-        } catch (JsonSyntaxException e) {
-            final Throwable cause = e.getCause();
-            if (cause instanceof IOException) {
-                throw (IOException)cause;
-            }
-            throw e;
-        }
-        final Map<String, T> result = new LinkedHashMap<>(map.size());
-        for (Map.Entry<String, JsonElement> e : map.entrySet()) {
-            result.put(e.getKey(), dtoProvider.fromJson(e.getValue()));
-        }
-        return new JsonStringMapImpl<>(result);
+        return readMapDto(newJsonReader(json), getDtoProvider(dtoInterface));
     }
 
     /**
@@ -356,6 +364,65 @@ public final class DtoFactory {
 
     //
 
+    private static JsonReader newJsonReader(Reader json) {
+        final JsonReader reader = new JsonReader(json);
+        reader.setLenient(true);
+        return reader;
+    }
+
+    /** Reads single DTO, empty input or JSON {@code null} gives {@code null} as JsonParser does. */
+    private static <T> T readDto(JsonReader reader, DtoProvider<T> dtoProvider) throws IOException {
+        try {
+            try {
+                reader.peek();
+            } catch (EOFException e) {
+                return null;
+            }
+            final T dto = dtoProvider.fromJson(reader);
+            checkConsumed(reader);
+            return dto;
+        } catch (MalformedJsonException | IllegalStateException | NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    private static <T> JsonArray<T> readListDto(JsonReader reader, DtoProvider<T> dtoProvider) throws IOException {
+        try {
+            final List<T> result = new ArrayList<>();
+            reader.beginArray();
+            while (reader.hasNext()) {
+                result.add(dtoProvider.fromJson(reader));
+            }
+            reader.endArray();
+            checkConsumed(reader);
+            return new JsonArrayImpl<>(result);
+        } catch (MalformedJsonException | IllegalStateException | NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    private static <T> JsonStringMap<T> readMapDto(JsonReader reader, DtoProvider<T> dtoProvider) throws IOException {
+        try {
+            final Map<String, T> result = new LinkedHashMap<>();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                final String key = reader.nextName();
+                result.put(key, dtoProvider.fromJson(reader));
+            }
+            reader.endObject();
+            checkConsumed(reader);
+            return new JsonStringMapImpl<>(result);
+        } catch (MalformedJsonException | IllegalStateException | NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    private static void checkConsumed(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.END_DOCUMENT) {
+            throw new JsonSyntaxException("JSON document was not fully consumed.");
+        }
+    }
+
     @SuppressWarnings("unchecked")
     private <T> DtoProvider<T> getDtoProvider(Class<T> dtoInterface) {
         DtoProvider<?> dtoProvider = dtoInterface2Providers.get(dtoInterface);
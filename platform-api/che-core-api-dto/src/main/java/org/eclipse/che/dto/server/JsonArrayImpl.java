@@ -14,7 +14,9 @@ import org.eclipse.che.dto.shared.JsonArray;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
+import com.google.gson.stream.JsonWriter;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
@@ -154,6 +156,12 @@ public class JsonArrayImpl<T> implements JsonArray<T> {
         return gson.toJson(this);
     }
 
+    /** Writes the same JSON as {@link #toJson()}, null values are kept regardless of settings of writer. */
+    @Override
+    public void toJson(JsonWriter writer) throws IOException {
+        gson.toJson(this, getClass(), writer);
+    }
+
     @Override
     public JsonElement toJsonElement() {
         return gson.toJsonTree(this);
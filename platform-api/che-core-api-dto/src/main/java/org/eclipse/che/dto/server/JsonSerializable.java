@@ -13,9 +13,11 @@
 // limitations under the License.
 package org.eclipse.che.dto.server;
 
+import java.io.IOException;
 import java.io.Serializable;
 
 import com.google.gson.JsonElement;
+import com.google.gson.stream.JsonWriter;
 
 /** An entity that may serialize itself to JSON. */
 public interface JsonSerializable extends Serializable {
@@ -25,4 +27,12 @@ public interface JsonSerializable extends Serializable {
 
     /** Serializes DTO to JSON object. */
     JsonElement toJsonElement();
+
+    /**
+     * Writes DTO to the stream in JSON format. Default implementation builds JSON object with {@link #toJsonElement()}, generated
+     * DTOs write fields directly to the stream.
+     */
+    default void toJson(JsonWriter writer) throws IOException {
+        GsonAdapters.JSON_ELEMENT.write(writer, toJsonElement());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.dto;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParser;
+
+import org.eclipse.che.dto.definitions.ComplicatedDto;
+import org.eclipse.che.dto.definitions.SimpleDto;
+import org.eclipse.che.dto.server.DtoFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares streaming JSON serialization and parsing of DTOs with previous implementation that builds tree of JsonElements. Results
+ * include allocation rate per operation ({@code gc.alloc.rate.norm}) that shows memory allocated for intermediate JSON trees.
+ * <p/>
+ * Run with: {@code mvn test-compile exec:java -Dexec.mainClass=org.eclipse.che.dto.DtoJsonBenchmark -Dexec.classpathScope=test}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DtoJsonBenchmark {
+    private static final Gson gson = new GsonBuilder().disableHtmlEscaping().create();
+
+    /** Number of items in each collection of DTO. */
+    @Param({"10", "1000"})
+    public int size;
+
+    private DtoFactory     dtoFactory;
+    private ComplicatedDto dto;
+    private String         json;
+
+    @Setup
+    public void setUp() {
+        dtoFactory = DtoFactory.getInstance();
+        final List<String> strings = new ArrayList<>(size);
+        final List<SimpleDto> simpleDtos = new ArrayList<>(size);
+        final Map<String, SimpleDto> map = new HashMap<>(size);
+        for (int i = 0; i < size; i++) {
+            final SimpleDto simpleDto = dtoFactory.createDto(SimpleDto.class).withName("name" + i).withId(i).withDefault("default" + i);
+            strings.add("string" + i);
+            simpleDtos.add(simpleDto);
+            map.put("key" + i, simpleDto);
+        }
+        dto = dtoFactory.createDto(ComplicatedDto.class)
+                        .withStrings(strings)
+                        .withSimpleDtos(simpleDtos)
+                        .withMap(map)
+                        .withSimpleEnum(ComplicatedDto.SimpleEnum.TWO);
+        json = dtoFactory.toJson(dto);
+    }
+
+    @Benchmark
+    public String serializeTree() {
+        final StringWriter writer = new StringWriter();
+        gson.toJson(dtoFactory.toJsonElement(dto), writer);
+        return writer.toString();
+    }
+
+    @Benchmark
+    public String serializeStream() throws IOException {
+        final StringWriter writer = new StringWriter();
+        dtoFactory.toJson(dto, writer);
+        return writer.toString();
+    }
+
+    @Benchmark
+    public ComplicatedDto parseTree() {
+        return DtoServerImpls.ComplicatedDtoImpl.fromJsonElement(new JsonParser().parse(new StringReader(json)), false);
+    }
+
+    @Benchmark
+    public ComplicatedDto parseStream() throws IOException {
+        return dtoFactory.createDtoFromJson(new StringReader(json), ComplicatedDto.class);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(DtoJsonBenchmark.class.getSimpleName()).addProfiler(GCProfiler.class).build()).run();
+    }
+}
@@ -10,8 +10,10 @@
  *******************************************************************************/
 package org.eclipse.che.dto;
 
+import com.google.gson.GsonBuilder;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.google.gson.JsonPrimitive;
@@ -26,9 +28,14 @@ import org.eclipse.che.dto.definitions.model.Model;
 import org.eclipse.che.dto.definitions.model.ModelComponentDto;
 import org.eclipse.che.dto.definitions.model.ModelDto;
 import org.eclipse.che.dto.server.DtoFactory;
+import org.eclipse.che.dto.server.JsonArrayImpl;
+import org.eclipse.che.dto.server.JsonSerializable;
+import org.eclipse.che.dto.server.JsonStringMapImpl;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -36,6 +43,7 @@ import java.util.Map;
 
 import static java.util.Arrays.asList;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 
 /**
@@ -325,6 +333,90 @@ public class ServerDtoTest {
         assertEquals(complicatedDto.getArrayOfArrayOfEnum().get(0).get(2), ComplicatedDto.SimpleEnum.THREE);
     }
 
+    @Test
+    public void testStreamingSerializerWritesSameJsonAsJsonElement() throws Exception {
+        SimpleDto simpleDto = dtoFactory.createDto(SimpleDto.class).withName("<a & b>").withId(1);
+        Map<String, SimpleDto> mapDtos = new HashMap<>(2);
+        mapDtos.put("first", simpleDto);
+        mapDtos.put("second", null);
+        ComplicatedDto complicatedDto = dtoFactory.createDto(ComplicatedDto.class)
+                                                  .withStrings(asList("a", null, "\"quoted\""))
+                                                  .withMap(mapDtos)
+                                                  .withSimpleDtos(asList(simpleDto, null))
+                                                  .withArrayOfArrayOfEnum(asList(asList(ComplicatedDto.SimpleEnum.TWO)));
+        DtoWithAny dtoWithAny = dtoFactory.createDto(DtoWithAny.class).withStuff(createTestValueForAny())
+                                          .withObjects(createListTestValueForAny());
+
+        for (Object dto : asList(simpleDto, complicatedDto, dtoWithAny)) {
+            final String expected = new GsonBuilder().disableHtmlEscaping().create().toJson(dtoFactory.toJsonElement(dto));
+            final StringWriter writer = new StringWriter();
+            dtoFactory.toJson(dto, writer);
+            assertEquals(writer.toString(), expected);
+            assertEquals(dtoFactory.toJson(dto), expected);
+        }
+    }
+
+    @Test
+    public void testStreamingSerializerWritesListOfDtos() throws Exception {
+        SimpleDto first = dtoFactory.createDto(SimpleDto.class).withName("first").withId(1);
+        SimpleDto second = dtoFactory.createDto(SimpleDto.class).withName("second").withId(2);
+        JsonArray expected = new JsonArray();
+        expected.add(dtoFactory.toJsonElement(first));
+        expected.add(JsonNull.INSTANCE);
+        expected.add(dtoFactory.toJsonElement(second));
+
+        final StringWriter writer = new StringWriter();
+        dtoFactory.toJsonList(asList(first, null, second), writer);
+
+        assertEquals(writer.toString(), new GsonBuilder().disableHtmlEscaping().create().toJson(expected));
+    }
+
+    @Test
+    public void testStreamingSerializerKeepsNullsOfJsonArrayAndMap() throws Exception {
+        Map<String, String> map = new HashMap<>(2);
+        map.put("key", null);
+        for (JsonSerializable json : asList(new JsonStringMapImpl<>(map), new JsonArrayImpl<>(asList("a", null)))) {
+            final StringWriter writer = new StringWriter();
+            dtoFactory.toJson(json, writer);
+            assertEquals(writer.toString(), json.toJson());
+        }
+        assertEquals(new JsonStringMapImpl<>(map).toJson(), "{\"key\":null}");
+    }
+
+    @Test
+    public void testStreamingDeserializerSkipsUnknownFields() throws Exception {
+        final String json = "{\n" +
+                            "  \"unknown\": {\"name\": \"x\", \"list\": [1, {\"a\": null}]},\n" +
+                            "  \"strings\": [\"a\", null, true],\n" +
+                            "  \"simpleEnum\": \"TWO\",\n" +
+                            "  \"map\": {\"first\": {\"name\": \"n\", \"id\": \"2\", \"default\": null}},\n" +
+                            "  \"simpleDtos\": null,\n" +
+                            "  \"arrayOfArrayOfEnum\": [[\"ONE\"], null]\n" +
+                            "}";
+
+        ComplicatedDto dto = dtoFactory.createDtoFromJson(new StringReader(json), ComplicatedDto.class);
+
+        assertEquals(dto.getStrings(), asList("a", null, "true"));
+        assertEquals(dto.getSimpleEnum(), ComplicatedDto.SimpleEnum.TWO);
+        checkSimpleDto(dto.getMap().get("first"), "n", 2, null);
+        assertTrue(dto.getSimpleDtos().isEmpty());
+        assertEquals(dto.getArrayOfArrayOfEnum(), asList(asList(ComplicatedDto.SimpleEnum.ONE), null));
+        assertNull(dtoFactory.createDtoFromJson(new StringReader(" null "), ComplicatedDto.class));
+        assertNull(dtoFactory.createDtoFromJson(new StringReader(""), ComplicatedDto.class));
+    }
+
+    @Test
+    public void testListSimpleDtoDeserializerFromReader() throws Exception {
+        org.eclipse.che.dto.shared.JsonArray<SimpleDto> list =
+                dtoFactory.createListDtoFromJson(new StringReader("[{\"name\": \"a\", \"id\": 1}, null, {\"id\": 2}]"),
+                                                 SimpleDto.class);
+
+        assertEquals(list.size(), 3);
+        checkSimpleDto(list.get(0), "a", 1, null);
+        assertNull(list.get(1));
+        checkSimpleDto(list.get(2), null, 2, null);
+    }
+
     private void checkSimpleDto(SimpleDto dto, String expectedName, int expectedId, String expectedDefault) {
         assertEquals(dto.getName(), expectedName);
         assertEquals(dto.getId(), expectedId);
@@ -54,14 +54,17 @@ import static org.eclipse.che.dto.server.DtoFactory.newDto;
 @Singleton
 public class GitProjectImporter implements ProjectImporter {
 
-    private final GitConnectionFactory gitConnectionFactory;
-    private final LocalPathResolver    localPathResolver;
+    private final GitConnectionFactory    gitConnectionFactory;
+    private final LocalPathResolver       localPathResolver;
+    private final GitValueProviderFactory gitValueProviderFactory;
     private static final Logger LOG = LoggerFactory.getLogger(GitProjectImporter.class);
 
     @Inject
-    public GitProjectImporter(GitConnectionFactory gitConnectionFactory, LocalPathResolver localPathResolver) {
+    public GitProjectImporter(GitConnectionFactory gitConnectionFactory, LocalPathResolver localPathResolver,
+                              GitValueProviderFactory gitValueProviderFactory) {
         this.gitConnectionFactory = gitConnectionFactory;
         this.localPathResolver = localPathResolver;
+        this.gitValueProviderFactory = gitValueProviderFactory;
     }
 
     @Override
@@ -195,6 +198,8 @@ public class GitProjectImporter implements ProjectImporter {
             if (git != null) {
                 git.close();
             }
+            // Repository is created or removed bypassing virtual filesystem.
+            gitValueProviderFactory.invalidate(baseFolder.getWorkspace(), baseFolder.getPath());
         }
     }
 
@@ -12,55 +12,100 @@ package org.eclipse.che.api.git;
 
 import com.google.inject.Inject;
 
-import org.eclipse.che.api.core.ApiException;
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.core.notification.EventSubscriber;
 import org.eclipse.che.api.project.server.FolderEntry;
 import org.eclipse.che.api.project.server.InvalidValueException;
 import org.eclipse.che.api.project.server.ValueProvider;
 import org.eclipse.che.api.project.server.ValueProviderFactory;
 import org.eclipse.che.api.project.server.ValueStorageException;
-import org.eclipse.che.api.vfs.server.MountPoint;
 import org.eclipse.che.api.vfs.server.VirtualFile;
-import org.eclipse.che.api.vfs.server.VirtualFileSystem;
-import org.eclipse.che.api.vfs.server.VirtualFileSystemRegistry;
-import org.eclipse.che.api.vfs.shared.PropertyFilter;
-import org.eclipse.che.api.vfs.shared.dto.Item;
+import org.eclipse.che.api.vfs.server.observation.MoveEvent;
+import org.eclipse.che.api.vfs.server.observation.RenameEvent;
+import org.eclipse.che.api.vfs.server.observation.VirtualFileEvent;
+import org.eclipse.che.commons.lang.Pair;
 import org.eclipse.che.vfs.impl.fs.LocalPathResolver;
 import org.eclipse.che.vfs.impl.fs.VirtualFileImpl;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Singleton;
+import java.io.File;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
-
-import static org.eclipse.che.api.git.shared.StatusFormat.LONG;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
+ * Detects whether project is under git. Project is under git if its directory or any parent directory has {@code .git}, that is what
+ * {@code git status} checks but without running of git process.
+ * <p/>
+ * Results are cached, cache is invalidated when {@code .git} or folder of project is created, removed, moved or renamed through virtual
+ * filesystem. Native git commands that create or remove repository bypass virtual filesystem, so whoever runs them must call {@link
+ * #invalidate(String, String)}.
+ *
  * @author Roman Nikitenko
  */
 @Singleton
 public class GitValueProviderFactory implements ValueProviderFactory {
+    private static final String GIT_DIR            = ".git";
+    private static final int    MAX_CACHED_FOLDERS = 10000;
+
+    private final LocalPathResolver localPathResolver;
+    private final EventService      eventService;
+
+    /** Results of detection, key is pair of workspace id and path of folder. */
+    private final ConcurrentMap<Pair<String, String>, Boolean> repositories  = new ConcurrentHashMap<>();
+    /** Changed on each invalidation before cache is cleaned, so detection that is concurrent with invalidation drops its result. */
+    private final AtomicLong                                   invalidations = new AtomicLong();
+
+    private final EventSubscriber<VirtualFileEvent> vfsSubscriber = new EventSubscriber<VirtualFileEvent>() {
+        @Override
+        public void onEvent(VirtualFileEvent event) {
+            switch (event.getType()) {
+                case CREATED:
+                case DELETED:
+                    onChange(event.getWorkspaceId(), event.getPath(), event.isFolder());
+                    break;
+                case MOVED:
+                    onChange(event.getWorkspaceId(), event.getPath(), event.isFolder());
+                    onChange(event.getWorkspaceId(), ((MoveEvent)event).getOldPath(), event.isFolder());
+                    break;
+                case RENAMED:
+                    onChange(event.getWorkspaceId(), event.getPath(), event.isFolder());
+                    onChange(event.getWorkspaceId(), ((RenameEvent)event).getOldPath(), event.isFolder());
+                    break;
+            }
+        }
+    };
 
     @Inject
-    private GitConnectionFactory      gitConnectionFactory;
-    @Inject
-    private VirtualFileSystemRegistry vfsRegistry;
-    @Inject
-    private LocalPathResolver         localPathResolver;
+    public GitValueProviderFactory(LocalPathResolver localPathResolver, EventService eventService) {
+        this.localPathResolver = localPathResolver;
+        this.eventService = eventService;
+    }
+
+    @PostConstruct
+    public void start() {
+        eventService.subscribe(vfsSubscriber);
+    }
 
+    @PreDestroy
+    public void stop() {
+        eventService.unsubscribe(vfsSubscriber);
+    }
 
     @Override
     public ValueProvider newInstance(final FolderEntry folder) {
         return new ValueProvider() {
             @Override
             public List<String> getValues(String attributeName) throws ValueStorageException {
-                try (GitConnection gitConnection =
-                             gitConnectionFactory.getConnection(resolveLocalPathByPath(folder.getPath(), folder.getWorkspace()))) {
-
-                    //check whether the project git repository by performing git status(throw Exception if the project is not git repository)
-                    gitConnection.status(LONG);
-                    return Arrays.asList("git");
-                } catch (ApiException e) {
-                    throw new ValueStorageException(e.getMessage());
+                if (!isGitRepository(folder)) {
+                    throw new ValueStorageException(String.format("Not a git repository: %s", folder.getPath()));
                 }
+                return Arrays.asList("git");
             }
 
             @Override
@@ -72,11 +117,64 @@ public class GitValueProviderFactory implements ValueProviderFactory {
         };
     }
 
-    private String resolveLocalPathByPath(String folderPath, String wsId) throws ApiException {
-        VirtualFileSystem vfs = vfsRegistry.getProvider(wsId).newInstance(null);
-        Item gitProject = vfs.getItemByPath(folderPath, null, false, PropertyFilter.ALL_FILTER);
-        final MountPoint mountPoint = vfs.getMountPoint();
-        final VirtualFile virtualFile = mountPoint.getVirtualFile(gitProject.getPath());
-        return localPathResolver.resolve((VirtualFileImpl)virtualFile);
+    /**
+     * Removes cached results for folder and all its sub-folders.
+     *
+     * @param workspace
+     *         id of workspace
+     * @param path
+     *         path of folder in virtual filesystem
+     */
+    public void invalidate(String workspace, String path) {
+        invalidations.incrementAndGet();
+        final String prefix = path.endsWith("/") ? path : path + '/';
+        for (Iterator<Pair<String, String>> i = repositories.keySet().iterator(); i.hasNext(); ) {
+            final Pair<String, String> key = i.next();
+            if (key.first.equals(workspace) && (key.second.equals(path) || key.second.startsWith(prefix))) {
+                i.remove();
+            }
+        }
+    }
+
+    boolean isGitRepository(FolderEntry folder) {
+        final Pair<String, String> key = Pair.of(folder.getWorkspace(), folder.getPath());
+        Boolean git = repositories.get(key);
+        if (git == null) {
+            final long invalidationsBefore = invalidations.get();
+            git = detect(folder.getVirtualFile());
+            if (repositories.size() >= MAX_CACHED_FOLDERS) {
+                repositories.clear();
+            }
+            repositories.put(key, git);
+            // Invalidation that happens after put removes result itself, otherwise result might be outdated so take it back.
+            if (invalidations.get() != invalidationsBefore) {
+                repositories.remove(key, git);
+            }
+        }
+        return git;
+    }
+
+    private boolean detect(VirtualFile virtualFile) {
+        if (!(virtualFile instanceof VirtualFileImpl)) {
+            return false;
+        }
+        for (File dir = new File(localPathResolver.resolve((VirtualFileImpl)virtualFile)); dir != null; dir = dir.getParentFile()) {
+            if (new File(dir, GIT_DIR).exists()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void onChange(String workspace, String path, boolean folder) {
+        if (path == null) {
+            return;
+        }
+        final int lastSlash = path.lastIndexOf('/');
+        if (GIT_DIR.equals(path.substring(lastSlash + 1))) {
+            invalidate(workspace, lastSlash > 0 ? path.substring(0, lastSlash) : "/");
+        } else if (folder) {
+            invalidate(workspace, path);
+        }
     }
 }
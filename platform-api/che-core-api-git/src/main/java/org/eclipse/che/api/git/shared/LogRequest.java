@@ -12,6 +12,8 @@ package org.eclipse.che.api.git.shared;
 
 import org.eclipse.che.dto.shared.DTO;
 
+import java.util.List;
+
 /**
  * Request to get commit logs.
  *
@@ -26,7 +28,27 @@ public interface LogRequest extends GitRequest {
     
     void setRevisionRangeSince(String revisionRangeSince);
     void setRevisionRangeUntil(String revisionRangeUntil);	
-    // private List<String> fileFilter;
+
+    /** @return number of commits to skip before the first returned commit */
+    int getSkip();
+
+    void setSkip(int skip);
+
+    LogRequest withSkip(int skip);
+
+    /** @return max number of returned commits, {@code 0} means no limit */
+    int getMaxCount();
+
+    void setMaxCount(int maxCount);
+
+    LogRequest withMaxCount(int maxCount);
+
+    /** @return paths of files or directories, if not empty only commits that change any of these paths are returned */
+    List<String> getFileFilter();
+
+    void setFileFilter(List<String> fileFilter);
+
+    LogRequest withFileFilter(List<String> fileFilter);
     // private boolean noRenames = true;
     // private int renameLimit;
 }
\ No newline at end of file
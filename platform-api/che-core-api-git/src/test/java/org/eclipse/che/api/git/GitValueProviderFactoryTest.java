@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.git;
+
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.project.server.FolderEntry;
+import org.eclipse.che.api.vfs.server.observation.CreateEvent;
+import org.eclipse.che.api.vfs.server.observation.DeleteEvent;
+import org.eclipse.che.commons.lang.IoUtil;
+import org.eclipse.che.vfs.impl.fs.LocalPathResolver;
+import org.eclipse.che.vfs.impl.fs.VirtualFileImpl;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class GitValueProviderFactoryTest {
+    private static final String WORKSPACE = "my_ws";
+
+    private LocalPathResolver       localPathResolver;
+    private EventService            eventService;
+    private GitValueProviderFactory factory;
+    private File                    root;
+    private File                    projectDir;
+    private FolderEntry             project;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        root = Files.createTempDirectory("git-detect-").toFile();
+        projectDir = new File(root, "project");
+        assertTrue(projectDir.mkdir());
+        localPathResolver = mock(LocalPathResolver.class);
+        eventService = new EventService();
+        factory = new GitValueProviderFactory(localPathResolver, eventService);
+        final VirtualFileImpl virtualFile = mock(VirtualFileImpl.class);
+        when(virtualFile.getPath()).thenReturn("/project");
+        when(localPathResolver.resolve(virtualFile)).thenReturn(projectDir.getAbsolutePath());
+        project = new FolderEntry(WORKSPACE, virtualFile);
+        factory.start();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        factory.stop();
+        IoUtil.deleteRecursive(root);
+    }
+
+    @Test
+    public void testCacheResultOfDetection() throws Exception {
+        assertFalse(factory.isGitRepository(project));
+        assertTrue(new File(projectDir, ".git").mkdir());
+        assertFalse(factory.isGitRepository(project));
+        verify(localPathResolver, times(1)).resolve((VirtualFileImpl)project.getVirtualFile());
+    }
+
+    @Test
+    public void testInvalidateCacheWhenGitDirectoryIsCreatedOrRemoved() throws Exception {
+        assertFalse(factory.isGitRepository(project));
+        assertTrue(new File(projectDir, ".git").mkdir());
+        eventService.publish(new CreateEvent(WORKSPACE, "/project/.git", true));
+        assertTrue(factory.isGitRepository(project));
+        assertTrue(new File(projectDir, ".git").delete());
+        eventService.publish(new DeleteEvent(WORKSPACE, "/project/.git", true));
+        assertFalse(factory.isGitRepository(project));
+    }
+
+    @Test
+    public void testInvalidateCacheOfSubFolders() throws Exception {
+        assertFalse(factory.isGitRepository(project));
+        assertTrue(new File(projectDir, ".git").mkdir());
+        factory.invalidate("other_ws", "/");
+        assertFalse(factory.isGitRepository(project));
+        factory.invalidate(WORKSPACE, "/");
+        assertTrue(factory.isGitRepository(project));
+    }
+
+    @Test
+    public void testDoNotCacheResultOfDetectionConcurrentWithInvalidation() throws Exception {
+        final VirtualFileImpl virtualFile = (VirtualFileImpl)project.getVirtualFile();
+        when(localPathResolver.resolve(virtualFile)).thenAnswer(invocation -> {
+            factory.invalidate(WORKSPACE, "/project");
+            return projectDir.getAbsolutePath();
+        });
+        assertFalse(factory.isGitRepository(project));
+        when(localPathResolver.resolve(virtualFile)).thenReturn(projectDir.getAbsolutePath());
+        assertTrue(new File(projectDir, ".git").mkdir());
+        assertTrue(factory.isGitRepository(project));
+    }
+
+    @Test
+    public void testDetectRepositoryInParentDirectory() throws Exception {
+        assertTrue(new File(root, ".git").mkdir());
+        assertTrue(factory.isGitRepository(project));
+    }
+}
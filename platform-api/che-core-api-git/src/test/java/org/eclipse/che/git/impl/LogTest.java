@@ -0,0 +1,148 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.git.impl;
+
+import com.google.common.io.Files;
+
+import org.eclipse.che.api.git.GitConnection;
+import org.eclipse.che.api.git.GitConnectionFactory;
+import org.eclipse.che.api.git.GitException;
+import org.eclipse.che.api.git.shared.AddRequest;
+import org.eclipse.che.api.git.shared.CommitRequest;
+import org.eclipse.che.api.git.shared.LogRequest;
+import org.eclipse.che.api.git.shared.Revision;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.eclipse.che.dto.server.DtoFactory.newDto;
+import static org.eclipse.che.git.impl.GitTestUtil.addFile;
+import static org.eclipse.che.git.impl.GitTestUtil.cleanupTestRepo;
+import static org.eclipse.che.git.impl.GitTestUtil.connectToInitializedGitRepository;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.fail;
+
+public class LogTest {
+
+    private File repository;
+
+    @BeforeMethod
+    public void setUp() {
+        repository = Files.createTempDir();
+    }
+
+    @AfterMethod
+    public void cleanUp() {
+        cleanupTestRepo(repository);
+    }
+
+    @Test(dataProvider = "GitConnectionFactory", dataProviderClass = org.eclipse.che.git.impl.GitConnectionFactoryProvider.class)
+    public void testLog(GitConnectionFactory connectionFactory) throws GitException, IOException {
+        //given
+        GitConnection connection = connectToInitializedGitRepository(connectionFactory, repository);
+        commitFile(connection, "a", "first");
+        commitFile(connection, "b", "second");
+        commitFile(connection, "a", "third");
+
+        //when
+        List<Revision> commits = connection.log(newDto(LogRequest.class)).getCommits();
+
+        //then
+        assertEquals(messages(commits), Arrays.asList("third", "second", "first"));
+        // served from cache
+        assertEquals(messages(connection.log(newDto(LogRequest.class)).getCommits()), Arrays.asList("third", "second", "first"));
+    }
+
+    @Test(dataProvider = "GitConnectionFactory", dataProviderClass = org.eclipse.che.git.impl.GitConnectionFactoryProvider.class)
+    public void testLogPage(GitConnectionFactory connectionFactory) throws GitException, IOException {
+        //given
+        GitConnection connection = connectToInitializedGitRepository(connectionFactory, repository);
+        commitFile(connection, "a", "first");
+        commitFile(connection, "b", "second");
+        commitFile(connection, "a", "third");
+
+        //when
+        List<Revision> page = connection.log(newDto(LogRequest.class).withSkip(1).withMaxCount(1)).getCommits();
+
+        //then
+        assertEquals(messages(page), Collections.singletonList("second"));
+    }
+
+    @Test(dataProvider = "GitConnectionFactory", dataProviderClass = org.eclipse.che.git.impl.GitConnectionFactoryProvider.class)
+    public void testLogAfterNewCommit(GitConnectionFactory connectionFactory) throws GitException, IOException {
+        //given
+        GitConnection connection = connectToInitializedGitRepository(connectionFactory, repository);
+        commitFile(connection, "a", "first");
+        connection.log(newDto(LogRequest.class));
+        commitFile(connection, "b", "second");
+
+        //when
+        List<Revision> commits = connection.log(newDto(LogRequest.class).withMaxCount(1)).getCommits();
+
+        //then
+        assertEquals(messages(commits), Collections.singletonList("second"));
+    }
+
+    @Test(dataProvider = "GitConnectionFactory", dataProviderClass = org.eclipse.che.git.impl.GitConnectionFactoryProvider.class)
+    public void testLogWithFileFilter(GitConnectionFactory connectionFactory) throws GitException, IOException {
+        //given
+        GitConnection connection = connectToInitializedGitRepository(connectionFactory, repository);
+        commitFile(connection, "a", "first");
+        commitFile(connection, "b", "second");
+        commitFile(connection, "a", "third");
+
+        //when
+        List<Revision> commits = connection.log(newDto(LogRequest.class).withFileFilter(Collections.singletonList("b"))).getCommits();
+
+        //then
+        assertEquals(messages(commits), Collections.singletonList("second"));
+    }
+
+    @Test(dataProvider = "GitConnectionFactory", dataProviderClass = org.eclipse.che.git.impl.GitConnectionFactoryProvider.class)
+    public void testRejectOptionInRevisionRange(GitConnectionFactory connectionFactory) throws GitException, IOException {
+        //given
+        GitConnection connection = connectToInitializedGitRepository(connectionFactory, repository);
+        commitFile(connection, "a", "first");
+        File output = new File(repository, "output.txt");
+        LogRequest request = newDto(LogRequest.class);
+        request.setRevisionRangeSince("--output=" + output.getAbsolutePath());
+
+        //when
+        try {
+            connection.log(request);
+            fail("GitException expected");
+        } catch (GitException expected) {
+            //then
+            assertFalse(output.exists());
+        }
+    }
+
+    private void commitFile(GitConnection connection, String name, String message) throws GitException, IOException {
+        addFile(connection, name, message + " content");
+        connection.add(newDto(AddRequest.class).withFilepattern(Arrays.asList(name)));
+        connection.commit(newDto(CommitRequest.class).withMessage(message));
+    }
+
+    private List<String> messages(List<Revision> commits) {
+        String[] messages = new String[commits.size()];
+        for (int i = 0; i < messages.length; i++) {
+            messages[i] = commits.get(i).getMessage();
+        }
+        return Arrays.asList(messages);
+    }
+}
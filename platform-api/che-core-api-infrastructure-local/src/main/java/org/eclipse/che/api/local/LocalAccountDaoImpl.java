@@ -19,7 +19,8 @@ import org.eclipse.che.api.account.server.dao.Member;
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.core.ServerException;
-import org.eclipse.che.api.local.storage.LocalStorage;
+import org.eclipse.che.api.local.storage.JournalStorage;
+import org.eclipse.che.api.local.storage.KeyIndex;
 import org.eclipse.che.api.local.storage.LocalStorageFactory;
 import org.eclipse.che.api.workspace.server.dao.WorkspaceDao;
 
@@ -30,10 +31,11 @@ import javax.inject.Named;
 import javax.inject.Singleton;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -45,53 +47,84 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 @Singleton
 public class LocalAccountDaoImpl implements AccountDao {
 
-    private final List<Account> accounts;
-    private final List<Member>  members;
-    private final ReadWriteLock lock;
-    private final WorkspaceDao  workspaceDao;
-    private final LocalStorage  accountStorage;
-    private final LocalStorage  memberStorage;
+    private final Map<String, Account>    accounts;
+    /** Index of accounts by names. */
+    private final Map<String, Account>    names;
+    private final Map<String, Member>     members;
+    /** Index of memberships by accounts. */
+    private final KeyIndex                accountMembers;
+    /** Index of memberships by users. */
+    private final KeyIndex                userMembers;
+    private final ReadWriteLock           lock;
+    private final WorkspaceDao            workspaceDao;
+    private final JournalStorage<Account> accountStorage;
+    private final JournalStorage<Member>  memberStorage;
 
     @Inject
     public LocalAccountDaoImpl(WorkspaceDao workspaceDao, LocalStorageFactory storageFactory) throws IOException {
         this.workspaceDao = workspaceDao;
-        this.accounts = new LinkedList<>();
-        this.members = new LinkedList<>();
+        this.accounts = new LinkedHashMap<>();
+        this.names = new HashMap<>();
+        this.members = new LinkedHashMap<>();
+        this.accountMembers = new KeyIndex();
+        this.userMembers = new KeyIndex();
         lock = new ReentrantReadWriteLock();
-        accountStorage = storageFactory.create("accounts.json");
-        memberStorage = storageFactory.create("account-members.json");
+        accountStorage = storageFactory.createJournalStorage("accounts.json", new TypeToken<Account>() {}, Account::getId);
+        memberStorage = storageFactory.createJournalStorage("account-members.json", new TypeToken<Member>() {}, LocalAccountDaoImpl::key);
     }
 
     @Inject
     @PostConstruct
     public void start(@Named("codenvy.local.infrastructure.accounts") Set<Account> defaultAccounts,
-                      @Named("codenvy.local.infrastructure.account.members") Set<Member> defaultMembers) {
-        List<Account> storedAccounts = accountStorage.loadList(new TypeToken<List<Account>>() {});
-        accounts.addAll(storedAccounts.isEmpty() ? defaultAccounts : storedAccounts);
-        List<Member> storedMembers = memberStorage.loadList(new TypeToken<List<Member>>() {});
-        members.addAll(storedMembers.isEmpty() ? defaultMembers : storedMembers);
+                      @Named("codenvy.local.infrastructure.account.members") Set<Member> defaultMembers) throws IOException {
+        lock.writeLock().lock();
+        try {
+            final Map<String, Account> storedAccounts = accountStorage.load();
+            if (storedAccounts.isEmpty()) {
+                for (Account account : defaultAccounts) {
+                    accountStorage.put(account.getId(), account);
+                    storedAccounts.put(account.getId(), doClone(account));
+                }
+            }
+            for (Account account : storedAccounts.values()) {
+                accounts.put(account.getId(), account);
+                names.put(account.getName(), account);
+            }
+            final Map<String, Member> storedMembers = memberStorage.load();
+            if (storedMembers.isEmpty()) {
+                for (Member member : defaultMembers) {
+                    memberStorage.put(key(member), member);
+                    storedMembers.put(key(member), doClone(member));
+                }
+            }
+            for (Member member : storedMembers.values()) {
+                addToIndexes(member);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     @PreDestroy
     public void stop() throws IOException {
-        accountStorage.store(accounts);
-        memberStorage.store(members);
+        accountStorage.close();
+        memberStorage.close();
     }
 
     @Override
-    public void create(Account account) throws ConflictException {
+    public void create(Account account) throws ConflictException, ServerException {
         lock.writeLock().lock();
         try {
-            for (Account a : accounts) {
-                if (a.getId().equals(account.getId())) {
-                    throw new ConflictException(String.format("Account with id %s already exists.", account.getId()));
-                }
-                if (a.getName().equals(account.getName())) {
-                    throw new ConflictException(String.format("Account with name %s already exists.", account.getName()));
-                }
+            if (accounts.containsKey(account.getId())) {
+                throw new ConflictException(String.format("Account with id %s already exists.", account.getId()));
+            }
+            if (names.containsKey(account.getName())) {
+                throw new ConflictException(String.format("Account with name %s already exists.", account.getName()));
             }
-            accounts.add(new Account().withId(account.getId()).withName(account.getName())
-                                      .withAttributes(new LinkedHashMap<>(account.getAttributes())));
+            final Account newAccount = doClone(account);
+            store(newAccount);
+            accounts.put(newAccount.getId(), newAccount);
+            names.put(newAccount.getName(), newAccount);
         } finally {
             lock.writeLock().unlock();
         }
@@ -101,11 +134,9 @@ public class LocalAccountDaoImpl implements AccountDao {
     public Account getById(String id) throws NotFoundException {
         lock.readLock().lock();
         try {
-            for (Account account : accounts) {
-                if (account.getId().equals(id)) {
-                    return new Account().withId(account.getId()).withName(account.getName())
-                                        .withAttributes(new LinkedHashMap<>(account.getAttributes()));
-                }
+            final Account account = accounts.get(id);
+            if (account != null) {
+                return doClone(account);
             }
         } finally {
             lock.readLock().unlock();
@@ -117,11 +148,9 @@ public class LocalAccountDaoImpl implements AccountDao {
     public Account getByName(String name) throws NotFoundException {
         lock.readLock().lock();
         try {
-            for (Account account : accounts) {
-                if (account.getName().equals(name)) {
-                    return new Account().withId(account.getId()).withName(account.getName())
-                                        .withAttributes(new LinkedHashMap<>(account.getAttributes()));
-                }
+            final Account account = names.get(name);
+            if (account != null) {
+                return doClone(account);
             }
         } finally {
             lock.readLock().unlock();
@@ -134,14 +163,11 @@ public class LocalAccountDaoImpl implements AccountDao {
         final List<Account> result = new LinkedList<>();
         lock.readLock().lock();
         try {
-            for (Member member : members) {
-                if (member.getUserId().equals(owner) && member.getRoles().contains("account/owner")) {
-                    for (Account account : accounts) {
-                        if (account.getId().equals(member.getAccountId())) {
-                            result.add(new Account().withId(account.getId()).withName(account.getName())
-                                                    .withAttributes(new LinkedHashMap<>(account.getAttributes())));
-                        }
-                    }
+            for (String key : userMembers.get(owner)) {
+                final Member member = members.get(key);
+                final Account account = accounts.get(member.getAccountId());
+                if (account != null && member.getRoles().contains("account/owner")) {
+                    result.add(doClone(account));
                 }
             }
         } finally {
@@ -155,11 +181,8 @@ public class LocalAccountDaoImpl implements AccountDao {
         final List<Member> result = new LinkedList<>();
         lock.readLock().lock();
         try {
-            for (Member member : members) {
-                if (userId.equals(member.getUserId())) {
-                    result.add(new Member().withUserId(member.getUserId()).withAccountId(member.getAccountId())
-                                           .withRoles(new ArrayList<>(member.getRoles())));
-                }
+            for (String key : userMembers.get(userId)) {
+                result.add(doClone(members.get(key)));
             }
         } finally {
             lock.readLock().unlock();
@@ -168,21 +191,25 @@ public class LocalAccountDaoImpl implements AccountDao {
     }
 
     @Override
-    public void update(Account account) throws NotFoundException {
+    public void update(Account account) throws NotFoundException, ServerException {
         lock.writeLock().lock();
         try {
-            Account myAccount = null;
-            for (int i = 0, size = accounts.size(); i < size && myAccount == null; i++) {
-                if (accounts.get(i).getId().equals(account.getId())) {
-                    myAccount = accounts.get(i);
-                }
-            }
+            final Account myAccount = accounts.get(account.getId());
             if (myAccount == null) {
                 throw new NotFoundException(String.format("Not found account %s", account.getId()));
             }
+            final Account sameName = names.get(account.getName());
+            if (sameName != null && sameName != myAccount) {
+                // AccountService checks name before update, don't break index if other caller doesn't
+                throw new ServerException(String.format("Account with name %s already exists.", account.getName()));
+            }
+            store(doClone(myAccount).withName(account.getName())
+                                    .withAttributes(new LinkedHashMap<>(account.getAttributes())));
+            names.remove(myAccount.getName(), myAccount);
             myAccount.setName(account.getName());
             myAccount.getAttributes().clear();
             myAccount.getAttributes().putAll(account.getAttributes());
+            names.put(myAccount.getName(), myAccount);
         } finally {
             lock.writeLock().unlock();
         }
@@ -192,54 +219,46 @@ public class LocalAccountDaoImpl implements AccountDao {
     public void remove(String id) throws NotFoundException, ServerException, ConflictException {
         lock.writeLock().lock();
         try {
-            Account myAccount = null;
-            for (int i = 0, size = accounts.size(); i < size && myAccount == null; i++) {
-                if (accounts.get(i).getId().equals(id)) {
-                    myAccount = accounts.get(i);
-                }
-            }
+            final Account myAccount = accounts.get(id);
             if (myAccount == null) {
                 throw new NotFoundException(String.format("Not found account %s", id));
             }
             if (!workspaceDao.getByAccount(id).isEmpty()) {
                 throw new ConflictException("It is not possible to remove account that has associated workspaces");
             }
-            for (Iterator<Member> itr = members.iterator(); itr.hasNext(); ) {
-                final Member member = itr.next();
-                if (member.getAccountId().equals(id)) {
-                    itr.remove();
-                }
+            for (String key : new ArrayList<>(accountMembers.get(id))) {
+                removeMember(members.get(key));
+            }
+            try {
+                accountStorage.remove(id);
+            } catch (IOException e) {
+                throw new ServerException(e.getMessage(), e);
             }
-            accounts.remove(myAccount);
+            accounts.remove(id);
+            names.remove(myAccount.getName(), myAccount);
         } finally {
             lock.writeLock().unlock();
         }
     }
 
     @Override
-    public void addMember(Member member) throws NotFoundException, ConflictException {
+    public void addMember(Member member) throws NotFoundException, ConflictException, ServerException {
         lock.writeLock().lock();
         try {
-            Account myAccount = null;
-            for (int i = 0, size = accounts.size(); i < size && myAccount == null; i++) {
-                if (accounts.get(i).getId().equals(member.getAccountId())) {
-                    myAccount = accounts.get(i);
-                }
-            }
-            if (myAccount == null) {
+            if (!accounts.containsKey(member.getAccountId())) {
                 throw new NotFoundException(String.format("Not found account %s", member.getAccountId()));
             }
-
-            for (Member m : members) {
-                if (m.getUserId().equals(member.getUserId()) && m.getAccountId().equals(member.getAccountId())) {
-                    throw new ConflictException(String.format("Membership of user %s in account %s already exists.",
-                                                              member.getUserId(), member.getAccountId())
-                    );
-                }
+            if (members.containsKey(key(member))) {
+                throw new ConflictException(String.format("Membership of user %s in account %s already exists.",
+                                                          member.getUserId(), member.getAccountId()));
             }
-
-            members.add(new Member().withUserId(member.getUserId()).withAccountId(member.getAccountId())
-                                    .withRoles(new ArrayList<>(member.getRoles())));
+            final Member newMember = doClone(member);
+            try {
+                memberStorage.put(key(newMember), newMember);
+            } catch (IOException e) {
+                throw new ServerException(e.getMessage(), e);
+            }
+            addToIndexes(newMember);
         } finally {
             lock.writeLock().unlock();
         }
@@ -250,11 +269,8 @@ public class LocalAccountDaoImpl implements AccountDao {
         final List<Member> result = new LinkedList<>();
         lock.readLock().lock();
         try {
-            for (Member member : members) {
-                if (accountId.equals(member.getAccountId())) {
-                    result.add(new Member().withUserId(member.getUserId()).withAccountId(member.getAccountId())
-                                           .withRoles(new ArrayList<>(member.getRoles())));
-                }
+            for (String key : accountMembers.get(accountId)) {
+                result.add(doClone(members.get(key)));
             }
         } finally {
             lock.readLock().unlock();
@@ -263,32 +279,56 @@ public class LocalAccountDaoImpl implements AccountDao {
     }
 
     @Override
-    public void removeMember(Member member) throws NotFoundException {
+    public void removeMember(Member member) throws NotFoundException, ServerException {
         lock.writeLock().lock();
         try {
-            Member myMember = null;
-            for (int i = 0, size = members.size(); i < size && myMember == null; i++) {
-                if (members.get(i).getUserId().equals(member.getUserId())) {
-                    myMember = members.get(i);
-                }
-            }
+            final Member myMember = members.get(key(member));
             if (myMember == null) {
-                throw new NotFoundException(String.format("User with id %s hasn't any account membership", member.getUserId()));
-            }
-
-            Account myAccount = null;
-            for (int i = 0, size = accounts.size(); i < size && myAccount == null; i++) {
-                if (accounts.get(i).getId().equals(member.getAccountId())) {
-                    myAccount = accounts.get(i);
+                if (!accounts.containsKey(member.getAccountId())) {
+                    throw new NotFoundException(String.format("Not found account %s", member.getAccountId()));
                 }
+                throw new NotFoundException(String.format("User with id %s hasn't any account membership", member.getUserId()));
             }
-            if (myAccount == null) {
-                throw new NotFoundException(String.format("Not found account %s", member.getAccountId()));
+            final String key = key(myMember);
+            try {
+                memberStorage.remove(key);
+            } catch (IOException e) {
+                throw new ServerException(e.getMessage(), e);
             }
-
-            members.remove(myMember);
+            members.remove(key);
+            accountMembers.remove(myMember.getAccountId(), key);
+            userMembers.remove(myMember.getUserId(), key);
         } finally {
             lock.writeLock().unlock();
         }
     }
+
+    private void addToIndexes(Member member) {
+        final String key = key(member);
+        members.put(key, member);
+        accountMembers.add(member.getAccountId(), key);
+        userMembers.add(member.getUserId(), key);
+    }
+
+    private void store(Account account) throws ServerException {
+        try {
+            accountStorage.put(account.getId(), account);
+        } catch (IOException e) {
+            throw new ServerException(e.getMessage(), e);
+        }
+    }
+
+    private static String key(Member member) {
+        return member.getAccountId() + ':' + member.getUserId();
+    }
+
+    private static Account doClone(Account account) {
+        return new Account().withId(account.getId()).withName(account.getName())
+                            .withAttributes(new LinkedHashMap<>(account.getAttributes()));
+    }
+
+    private static Member doClone(Member member) {
+        return new Member().withUserId(member.getUserId()).withAccountId(member.getAccountId())
+                           .withRoles(new ArrayList<>(member.getRoles()));
+    }
 }
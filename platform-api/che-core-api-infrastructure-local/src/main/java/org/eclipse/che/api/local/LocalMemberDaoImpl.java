@@ -16,7 +16,8 @@ import com.google.common.reflect.TypeToken;
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.core.ServerException;
-import org.eclipse.che.api.local.storage.LocalStorage;
+import org.eclipse.che.api.local.storage.JournalStorage;
+import org.eclipse.che.api.local.storage.KeyIndex;
 import org.eclipse.che.api.local.storage.LocalStorageFactory;
 import org.eclipse.che.api.user.server.dao.UserDao;
 import org.eclipse.che.api.workspace.server.dao.Member;
@@ -30,8 +31,10 @@ import javax.inject.Named;
 import javax.inject.Singleton;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -42,31 +45,50 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 @Singleton
 public class LocalMemberDaoImpl implements MemberDao {
 
-    private final List<Member>  members;
-    private final ReadWriteLock lock;
-    private final WorkspaceDao  workspaceDao;
-    private final UserDao       userDao;
-    private final LocalStorage  memberStorage;
+    private final Map<String, Member>    members;
+    /** Index of memberships by workspaces. */
+    private final KeyIndex               workspaces;
+    /** Index of memberships by users. */
+    private final KeyIndex               users;
+    private final ReadWriteLock          lock;
+    private final WorkspaceDao           workspaceDao;
+    private final UserDao                userDao;
+    private final JournalStorage<Member> memberStorage;
 
     @Inject
     public LocalMemberDaoImpl(WorkspaceDao workspaceDao, UserDao userDao, LocalStorageFactory storageFactory) throws IOException {
         this.workspaceDao = workspaceDao;
         this.userDao = userDao;
-        this.members = new LinkedList<>();
+        this.members = new LinkedHashMap<>();
+        this.workspaces = new KeyIndex();
+        this.users = new KeyIndex();
         lock = new ReentrantReadWriteLock();
-        memberStorage = storageFactory.create("members.json");
+        memberStorage = storageFactory.createJournalStorage("members.json", new TypeToken<Member>() {}, LocalMemberDaoImpl::key);
     }
 
     @Inject
     @PostConstruct
-    public void start(@Named("codenvy.local.infrastructure.workspace.members") Set<Member> defaultMembers) {
-        List<Member> storedMembers = memberStorage.loadList(new TypeToken<List<Member>>() {});
-        members.addAll(members.isEmpty() ? defaultMembers : storedMembers);
+    public void start(@Named("codenvy.local.infrastructure.workspace.members") Set<Member> defaultMembers) throws IOException {
+        lock.writeLock().lock();
+        try {
+            final Map<String, Member> storedMembers = memberStorage.load();
+            if (storedMembers.isEmpty()) {
+                for (Member member : defaultMembers) {
+                    memberStorage.put(key(member), member);
+                    storedMembers.put(key(member), doClone(member));
+                }
+            }
+            for (Member member : storedMembers.values()) {
+                addToIndexes(member);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     @PreDestroy
     public void stop() throws IOException {
-        memberStorage.store(members);
+        memberStorage.close();
     }
 
     @Override
@@ -77,15 +99,14 @@ public class LocalMemberDaoImpl implements MemberDao {
             workspaceDao.getById(member.getWorkspaceId());
             // Check user existence
             userDao.getById(member.getUserId());
-            for (Member m : members) {
-                if (m.getWorkspaceId().equals(member.getWorkspaceId()) && m.getUserId().equals(member.getUserId())) {
-                    throw new ConflictException(
-                            String.format("Membership of user %s in workspace %s already exists. Use update method instead.",
-                                          member.getUserId(), member.getWorkspaceId()));
-                }
+            if (members.containsKey(key(member))) {
+                throw new ConflictException(
+                        String.format("Membership of user %s in workspace %s already exists. Use update method instead.",
+                                      member.getUserId(), member.getWorkspaceId()));
             }
-            members.add(new Member().withUserId(member.getUserId()).withWorkspaceId(member.getWorkspaceId())
-                                    .withRoles(new ArrayList<>(member.getRoles())));
+            final Member newMember = doClone(member);
+            store(newMember);
+            addToIndexes(newMember);
         } finally {
             lock.writeLock().unlock();
         }
@@ -99,17 +120,12 @@ public class LocalMemberDaoImpl implements MemberDao {
             workspaceDao.getById(member.getWorkspaceId());
             // Check user existence
             userDao.getById(member.getUserId());
-            Member myMember = null;
-            for (int i = 0, size = members.size(); i < size && myMember == null; i++) {
-                Member m = members.get(i);
-                if (m.getWorkspaceId().equals(member.getWorkspaceId()) && m.getUserId().equals(member.getUserId())) {
-                    myMember = m;
-                }
-            }
+            final Member myMember = members.get(key(member));
             if (myMember == null) {
                 throw new NotFoundException(String.format("Unable to update membership: user %s has no memberships in workspace %s.",
                                                           member.getUserId(), member.getWorkspaceId()));
             }
+            store(doClone(member));
             myMember.getRoles().clear();
             myMember.getRoles().addAll(member.getRoles());
         } finally {
@@ -122,11 +138,8 @@ public class LocalMemberDaoImpl implements MemberDao {
         final List<Member> result = new LinkedList<>();
         lock.readLock().lock();
         try {
-            for (Member member : members) {
-                if (member.getWorkspaceId().equals(wsId)) {
-                    result.add(new Member().withUserId(member.getUserId()).withWorkspaceId(member.getWorkspaceId())
-                                           .withRoles(new ArrayList<>(member.getRoles())));
-                }
+            for (String key : workspaces.get(wsId)) {
+                result.add(doClone(members.get(key)));
             }
         } finally {
             lock.readLock().unlock();
@@ -139,11 +152,8 @@ public class LocalMemberDaoImpl implements MemberDao {
         final List<Member> result = new LinkedList<>();
         lock.readLock().lock();
         try {
-            for (Member member : members) {
-                if (member.getUserId().equals(userId)) {
-                    result.add(new Member().withUserId(member.getUserId()).withWorkspaceId(member.getWorkspaceId())
-                                           .withRoles(new ArrayList<>(member.getRoles())));
-                }
+            for (String key : users.get(userId)) {
+                result.add(doClone(members.get(key)));
             }
         } finally {
             lock.readLock().unlock();
@@ -155,11 +165,9 @@ public class LocalMemberDaoImpl implements MemberDao {
     public Member getWorkspaceMember(String wsId, String userId) throws NotFoundException, ServerException {
         lock.readLock().lock();
         try {
-            for (Member member : members) {
-                if (member.getWorkspaceId().equals(member.getWorkspaceId()) && member.getUserId().equals(userId)) {
-                    return new Member().withUserId(member.getUserId()).withWorkspaceId(member.getWorkspaceId())
-                                       .withRoles(new ArrayList<>(member.getRoles()));
-                }
+            final Member member = members.get(key(wsId, userId));
+            if (member != null) {
+                return doClone(member);
             }
         } finally {
             lock.readLock().unlock();
@@ -168,23 +176,52 @@ public class LocalMemberDaoImpl implements MemberDao {
     }
 
     @Override
-    public void remove(Member member) throws NotFoundException {
+    public void remove(Member member) throws NotFoundException, ServerException {
         lock.writeLock().lock();
         try {
-            Member myMember = null;
-            for (int i = 0, size = members.size(); i < size && myMember == null; i++) {
-                Member m = members.get(i);
-                if (m.getWorkspaceId().equals(member.getWorkspaceId()) && m.getUserId().equals(member.getUserId())) {
-                    myMember = m;
-                }
-            }
-            if (myMember == null) {
+            final String key = key(member);
+            if (!members.containsKey(key)) {
                 throw new NotFoundException(String.format("Unable to update membership: user %s has no memberships in workspace %s.",
                                                           member.getUserId(), member.getWorkspaceId()));
             }
-            members.remove(myMember);
+            try {
+                memberStorage.remove(key);
+            } catch (IOException e) {
+                throw new ServerException(e.getMessage(), e);
+            }
+            members.remove(key);
+            workspaces.remove(member.getWorkspaceId(), key);
+            users.remove(member.getUserId(), key);
         } finally {
             lock.writeLock().unlock();
         }
     }
+
+    private void addToIndexes(Member member) {
+        final String key = key(member);
+        members.put(key, member);
+        workspaces.add(member.getWorkspaceId(), key);
+        users.add(member.getUserId(), key);
+    }
+
+    private void store(Member member) throws ServerException {
+        try {
+            memberStorage.put(key(member), member);
+        } catch (IOException e) {
+            throw new ServerException(e.getMessage(), e);
+        }
+    }
+
+    private static String key(Member member) {
+        return key(member.getWorkspaceId(), member.getUserId());
+    }
+
+    private static String key(String wsId, String userId) {
+        return wsId + ':' + userId;
+    }
+
+    private static Member doClone(Member member) {
+        return new Member().withUserId(member.getUserId()).withWorkspaceId(member.getWorkspaceId())
+                           .withRoles(new ArrayList<>(member.getRoles()));
+    }
 }
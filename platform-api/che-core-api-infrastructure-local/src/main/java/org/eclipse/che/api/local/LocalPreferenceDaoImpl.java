@@ -15,7 +15,7 @@ import com.google.common.reflect.TypeToken;
 
 import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.core.ServerException;
-import org.eclipse.che.api.local.storage.LocalStorage;
+import org.eclipse.che.api.local.storage.JournalStorage;
 import org.eclipse.che.api.local.storage.LocalStorageFactory;
 import org.eclipse.che.api.user.server.dao.PreferenceDao;
 
@@ -38,39 +38,46 @@ import java.util.regex.Pattern;
 @Singleton
 public class LocalPreferenceDaoImpl implements PreferenceDao {
 
-    private final Map<String, Map<String, String>> preferences;
-    private final ReadWriteLock                    lock;
-    private final LocalStorage                     preferenceStorage;
+    private final Map<String, Map<String, String>>    preferences;
+    private final ReadWriteLock                       lock;
+    private final JournalStorage<Map<String, String>> preferenceStorage;
 
     @Inject
     public LocalPreferenceDaoImpl(LocalStorageFactory localStorageFactory) throws IOException {
         preferences = new HashMap<>();
         lock = new ReentrantReadWriteLock();
-        preferenceStorage = localStorageFactory.create("preferences.json");
+        preferenceStorage = localStorageFactory.createJournalStorage("preferences.json", new TypeToken<Map<String, String>>() {}, null);
     }
 
     @PostConstruct
-    private void start() {
-        preferences.putAll(preferenceStorage.loadMap(new TypeToken<Map<String, Map<String, String>>>() {}));
+    private void start() throws IOException {
+        preferences.putAll(preferenceStorage.load());
         // Add default entry if file doesn't exist or invalid or empty.
         if (preferences.isEmpty()) {
             final Map<String, String> newPreferences = new HashMap<>(4);
             newPreferences.put("preference1", "value");
             newPreferences.put("preference2", "value");
+            preferenceStorage.put("codenvy", newPreferences);
             preferences.put("codenvy", newPreferences);
         }
     }
 
     @PreDestroy
     private void stop() throws IOException {
-        preferenceStorage.store(preferences);
+        preferenceStorage.close();
     }
 
     @Override
     public void setPreferences(String userId, Map<String, String> prefs) throws ServerException, NotFoundException {
         lock.writeLock().lock();
         try {
-            preferences.put(userId, new HashMap<>(prefs));
+            final Map<String, String> copy = new HashMap<>(prefs);
+            try {
+                preferenceStorage.put(userId, copy);
+            } catch (IOException e) {
+                throw new ServerException(e.getMessage(), e);
+            }
+            preferences.put(userId, copy);
         } finally {
             lock.writeLock().unlock();
         }
@@ -115,6 +122,11 @@ public class LocalPreferenceDaoImpl implements PreferenceDao {
     public void remove(String userId) throws ServerException {
         lock.writeLock().lock();
         try {
+            try {
+                preferenceStorage.remove(userId);
+            } catch (IOException e) {
+                throw new ServerException(e.getMessage(), e);
+            }
             preferences.remove(userId);
         } finally {
             lock.writeLock().unlock();
@@ -14,7 +14,8 @@ package org.eclipse.che.api.local;
 import com.google.common.reflect.TypeToken;
 
 import org.eclipse.che.api.core.NotFoundException;
-import org.eclipse.che.api.local.storage.LocalStorage;
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.local.storage.JournalStorage;
 import org.eclipse.che.api.local.storage.LocalStorageFactory;
 import org.eclipse.che.api.user.server.dao.Profile;
 import org.eclipse.che.api.user.server.dao.UserProfileDao;
@@ -36,20 +37,20 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 @Singleton
 public class LocalProfileDaoImpl implements UserProfileDao {
 
-    private final Map<String, Profile> profiles;
-    private final ReadWriteLock        lock;
-    private final LocalStorage         profileStorage;
+    private final Map<String, Profile>    profiles;
+    private final ReadWriteLock           lock;
+    private final JournalStorage<Profile> profileStorage;
 
     @Inject
     public LocalProfileDaoImpl(LocalStorageFactory storageFactory) throws IOException {
         profiles = new HashMap<>();
         lock = new ReentrantReadWriteLock();
-        profileStorage = storageFactory.create("profiles.json");
+        profileStorage = storageFactory.createJournalStorage("profiles.json", new TypeToken<Profile>() {}, Profile::getId);
     }
 
     @PostConstruct
-    private void start() {
-        profiles.putAll(profileStorage.loadMap(new TypeToken<Map<String, Profile>>() {}));
+    private void start() throws IOException {
+        profiles.putAll(profileStorage.load());
         // Add default entry if file doesn't exist or invalid or empty.
         if (profiles.isEmpty()) {
             final Map<String, String> attributes = new HashMap<>(2);
@@ -58,22 +59,24 @@ public class LocalProfileDaoImpl implements UserProfileDao {
             Profile profile = new Profile().withId("codenvy")
                                            .withUserId("codenvy")
                                            .withAttributes(attributes);
+            profileStorage.put(profile.getId(), profile);
             profiles.put(profile.getId(), profile);
         }
     }
 
     @PreDestroy
     private void stop() throws IOException {
-        profileStorage.store(profiles);
+        profileStorage.close();
     }
 
     @Override
-    public void create(Profile profile) {
+    public void create(Profile profile) throws ServerException {
         lock.writeLock().lock();
         try {
             // just replace existed profile
             final Profile copy = new Profile().withId(profile.getId()).withUserId(profile.getUserId())
                                               .withAttributes(new LinkedHashMap<>(profile.getAttributes()));
+            store(copy);
             profiles.put(copy.getId(), copy);
         } finally {
             lock.writeLock().unlock();
@@ -81,13 +84,15 @@ public class LocalProfileDaoImpl implements UserProfileDao {
     }
 
     @Override
-    public void update(Profile profile) throws NotFoundException {
+    public void update(Profile profile) throws NotFoundException, ServerException {
         lock.writeLock().lock();
         try {
             final Profile myProfile = profiles.get(profile.getId());
             if (myProfile == null) {
                 throw new NotFoundException(String.format("Profile not found %s", profile.getId()));
             }
+            store(new Profile().withId(myProfile.getId()).withUserId(myProfile.getUserId())
+                               .withAttributes(new LinkedHashMap<>(profile.getAttributes())));
             myProfile.getAttributes().clear();
             myProfile.getAttributes().putAll(profile.getAttributes());
         } finally {
@@ -96,13 +101,18 @@ public class LocalProfileDaoImpl implements UserProfileDao {
     }
 
     @Override
-    public void remove(String id) throws NotFoundException {
+    public void remove(String id) throws NotFoundException, ServerException {
         lock.writeLock().lock();
         try {
-            final Profile profile = profiles.remove(id);
-            if (profile == null) {
+            if (!profiles.containsKey(id)) {
                 throw new NotFoundException(String.format("Profile not found %s", id));
             }
+            try {
+                profileStorage.remove(id);
+            } catch (IOException e) {
+                throw new ServerException(e.getMessage(), e);
+            }
+            profiles.remove(id);
         } finally {
             lock.writeLock().unlock();
         }
@@ -122,4 +132,12 @@ public class LocalProfileDaoImpl implements UserProfileDao {
             lock.readLock().unlock();
         }
     }
+
+    private void store(Profile profile) throws ServerException {
+        try {
+            profileStorage.put(profile.getId(), profile);
+        } catch (IOException e) {
+            throw new ServerException(e.getMessage(), e);
+        }
+    }
 }
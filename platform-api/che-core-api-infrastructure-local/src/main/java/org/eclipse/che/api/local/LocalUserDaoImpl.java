@@ -15,7 +15,8 @@ import com.google.common.reflect.TypeToken;
 
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.NotFoundException;
-import org.eclipse.che.api.local.storage.LocalStorage;
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.local.storage.JournalStorage;
 import org.eclipse.che.api.local.storage.LocalStorageFactory;
 import org.eclipse.che.api.user.server.dao.User;
 import org.eclipse.che.api.user.server.dao.UserDao;
@@ -27,9 +28,9 @@ import javax.inject.Named;
 import javax.inject.Singleton;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -40,39 +41,53 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 @Singleton
 public class LocalUserDaoImpl implements UserDao {
 
-    private final List<User>    users;
-    private final ReadWriteLock lock;
-    private final LocalStorage  userStorage;
+    private final Map<String, User>    users;
+    /** Index of users by aliases. */
+    private final Map<String, User>    aliases;
+    private final ReadWriteLock        lock;
+    private final JournalStorage<User> userStorage;
 
     @Inject
     public LocalUserDaoImpl(LocalStorageFactory storageFactory) throws IOException {
-        this.users = new LinkedList<>();
+        this.users = new LinkedHashMap<>();
+        this.aliases = new HashMap<>();
         lock = new ReentrantReadWriteLock();
-        userStorage = storageFactory.create("users.json");
+        userStorage = storageFactory.createJournalStorage("users.json", new TypeToken<User>() {}, User::getId);
     }
 
     @Inject
     @PostConstruct
-    public void start(@Named("codenvy.local.infrastructure.users") Set<User> defaultUsers) {
-        List<User> storedUsers = userStorage.loadList(new TypeToken<List<User>>() {});
-        users.addAll(storedUsers.isEmpty() ? defaultUsers : storedUsers);
+    public void start(@Named("codenvy.local.infrastructure.users") Set<User> defaultUsers) throws IOException {
+        lock.writeLock().lock();
+        try {
+            final Map<String, User> storedUsers = userStorage.load();
+            if (storedUsers.isEmpty()) {
+                for (User user : defaultUsers) {
+                    userStorage.put(user.getId(), user);
+                    storedUsers.put(user.getId(), doClone(user));
+                }
+            }
+            for (User user : storedUsers.values()) {
+                users.put(user.getId(), user);
+                for (String alias : user.getAliases()) {
+                    aliases.put(alias, user);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     @PreDestroy
     public void stop() throws IOException {
-        userStorage.store(users);
+        userStorage.close();
     }
 
     @Override
     public boolean authenticate(String alias, String password) throws NotFoundException {
         lock.readLock().lock();
         try {
-            User myUser = null;
-            for (int i = 0, size = users.size(); i < size && myUser == null; i++) {
-                if (users.get(i).getAliases().contains(alias)) {
-                    myUser = users.get(i);
-                }
-            }
+            final User myUser = aliases.get(alias);
             if (myUser == null) {
                 throw new NotFoundException(String.format("User not found %s", alias));
             }
@@ -83,65 +98,75 @@ public class LocalUserDaoImpl implements UserDao {
     }
 
     @Override
-    public void create(User user) throws ConflictException {
+    public void create(User user) throws ConflictException, ServerException {
         lock.writeLock().lock();
         try {
             final String userId = user.getId();
-            final Set<String> aliases = new HashSet<>(user.getAliases());
-            for (User u : users) {
-                if (u.getId().equals(userId)) {
+            if (users.containsKey(userId)) {
+                throw new ConflictException(
+                        String.format("Unable create new user '%s'. User id %s is already in use.", user.getEmail(), userId));
+            }
+            for (String alias : user.getAliases()) {
+                if (aliases.containsKey(alias)) {
                     throw new ConflictException(
-                            String.format("Unable create new user '%s'. User id %s is already in use.", user.getEmail(), userId));
-                }
-                for (String alias : u.getAliases()) {
-                    if (aliases.contains(alias)) {
-                        throw new ConflictException(
-                                String.format("Unable create new user '%s'. User alias %s is already in use.", user.getEmail(), alias));
-                    }
+                            String.format("Unable create new user '%s'. User alias %s is already in use.", user.getEmail(), alias));
                 }
             }
-            users.add(doClone(user));
+            final User newUser = doClone(user);
+            store(newUser);
+            users.put(userId, newUser);
+            for (String alias : newUser.getAliases()) {
+                aliases.put(alias, newUser);
+            }
         } finally {
             lock.writeLock().unlock();
         }
     }
 
     @Override
-    public void update(User user) throws NotFoundException {
+    public void update(User user) throws NotFoundException, ServerException {
         lock.writeLock().lock();
         try {
-            User myUser = null;
-            for (int i = 0, size = users.size(); i < size && myUser == null; i++) {
-                if (users.get(i).getId().equals(user.getId())) {
-                    myUser = users.get(i);
-                }
-            }
+            final User myUser = users.get(user.getId());
             if (myUser == null) {
                 throw new NotFoundException(String.format("User not found %s", user.getId()));
             }
+            final User updated = doClone(myUser).withEmail(user.getEmail())
+                                                .withPassword(user.getPassword())
+                                                .withAliases(new ArrayList<>(user.getAliases()));
+            store(updated);
+            for (String alias : myUser.getAliases()) {
+                aliases.remove(alias, myUser);
+            }
             myUser.getAliases().clear();
             myUser.getAliases().addAll(user.getAliases());
             myUser.setEmail(user.getEmail());
             myUser.setPassword(user.getPassword());
+            for (String alias : myUser.getAliases()) {
+                aliases.put(alias, myUser);
+            }
         } finally {
             lock.writeLock().unlock();
         }
     }
 
     @Override
-    public void remove(String id) throws NotFoundException {
+    public void remove(String id) throws NotFoundException, ServerException {
         lock.writeLock().lock();
         try {
-            User myUser = null;
-            for (int i = 0, size = users.size(); i < size && myUser == null; i++) {
-                if (users.get(i).getId().equals(id)) {
-                    myUser = users.get(i);
-                }
-            }
+            final User myUser = users.get(id);
             if (myUser == null) {
                 throw new NotFoundException(String.format("User not found %s", id));
             }
-            users.remove(myUser);
+            try {
+                userStorage.remove(id);
+            } catch (IOException e) {
+                throw new ServerException(e.getMessage(), e);
+            }
+            users.remove(id);
+            for (String alias : myUser.getAliases()) {
+                aliases.remove(alias, myUser);
+            }
         } finally {
             lock.writeLock().unlock();
         }
@@ -151,12 +176,7 @@ public class LocalUserDaoImpl implements UserDao {
     public User getByAlias(String alias) throws NotFoundException {
         lock.readLock().lock();
         try {
-            User user = null;
-            for (int i = 0, size = users.size(); i < size && user == null; i++) {
-                if (users.get(i).getAliases().contains(alias)) {
-                    user = users.get(i);
-                }
-            }
+            final User user = aliases.get(alias);
             if (user == null) {
                 throw new NotFoundException(String.format("User not found %s", alias));
             }
@@ -170,12 +190,7 @@ public class LocalUserDaoImpl implements UserDao {
     public User getById(String id) throws NotFoundException {
         lock.readLock().lock();
         try {
-            User user = null;
-            for (int i = 0, size = users.size(); i < size && user == null; i++) {
-                if (users.get(i).getId().equals(id)) {
-                    user = users.get(i);
-                }
-            }
+            final User user = users.get(id);
             if (user == null) {
                 throw new NotFoundException(String.format("User not found %s", id));
             }
@@ -185,6 +200,14 @@ public class LocalUserDaoImpl implements UserDao {
         }
     }
 
+    private void store(User user) throws ServerException {
+        try {
+            userStorage.put(user.getId(), user);
+        } catch (IOException e) {
+            throw new ServerException(e.getMessage(), e);
+        }
+    }
+
     private User doClone(User user) {
         return new User().withId(user.getId())
                          .withEmail(user.getEmail())
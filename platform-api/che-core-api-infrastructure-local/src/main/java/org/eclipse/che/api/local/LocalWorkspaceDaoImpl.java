@@ -15,7 +15,9 @@ import com.google.common.reflect.TypeToken;
 
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.NotFoundException;
-import org.eclipse.che.api.local.storage.LocalStorage;
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.local.storage.JournalStorage;
+import org.eclipse.che.api.local.storage.KeyIndex;
 import org.eclipse.che.api.local.storage.LocalStorageFactory;
 import org.eclipse.che.api.workspace.server.dao.Workspace;
 import org.eclipse.che.api.workspace.server.dao.WorkspaceDao;
@@ -26,9 +28,11 @@ import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -42,86 +46,110 @@ public class LocalWorkspaceDaoImpl implements WorkspaceDao {
 
     private static final Pattern WS_NAME = Pattern.compile("[\\w][\\w\\.\\-]{1,18}[\\w]");
 
-    private final List<Workspace> workspaces;
-    private final ReadWriteLock   lock;
-    private final LocalStorage    workspaceStorage;
+    private final Map<String, Workspace>    workspaces;
+    /** Index of workspaces by names. */
+    private final Map<String, Workspace>    names;
+    /** Index of workspaces by accounts. */
+    private final KeyIndex                  accounts;
+    private final ReadWriteLock             lock;
+    private final JournalStorage<Workspace> workspaceStorage;
 
     @Inject
     public LocalWorkspaceDaoImpl(LocalStorageFactory storageFactory) throws IOException {
-        this.workspaces = new LinkedList<>();
+        this.workspaces = new LinkedHashMap<>();
+        this.names = new HashMap<>();
+        this.accounts = new KeyIndex();
         lock = new ReentrantReadWriteLock();
-        workspaceStorage = storageFactory.create("workspaces.json");
+        workspaceStorage = storageFactory.createJournalStorage("workspaces.json", new TypeToken<Workspace>() {}, Workspace::getId);
     }
 
     @Inject
     @PostConstruct
-    public void start(@Named("codenvy.local.infrastructure.workspaces") Set<Workspace> defaultWorkspaces) {
-        List<Workspace> storedWorkspaces = workspaceStorage.loadList(new TypeToken<List<Workspace>>() {});
-        workspaces.addAll(storedWorkspaces.isEmpty() ? defaultWorkspaces : storedWorkspaces);
+    public void start(@Named("codenvy.local.infrastructure.workspaces") Set<Workspace> defaultWorkspaces) throws IOException {
+        lock.writeLock().lock();
+        try {
+            final Map<String, Workspace> storedWorkspaces = workspaceStorage.load();
+            if (storedWorkspaces.isEmpty()) {
+                for (Workspace workspace : defaultWorkspaces) {
+                    workspaceStorage.put(workspace.getId(), workspace);
+                    storedWorkspaces.put(workspace.getId(), doClone(workspace));
+                }
+            }
+            for (Workspace workspace : storedWorkspaces.values()) {
+                addToIndexes(workspace);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     @PreDestroy
     public void stop() throws IOException {
-        workspaceStorage.store(workspaces);
+        workspaceStorage.close();
     }
 
     @Override
-    public void create(Workspace workspace) throws ConflictException {
+    public void create(Workspace workspace) throws ConflictException, ServerException {
         validateWorkspaceName(workspace.getName());
         lock.writeLock().lock();
         try {
-            for (Workspace w : workspaces) {
-                if (w.getId().equals(workspace.getId())) {
-                    throw new ConflictException(String.format("Workspace with id %s already exists.", workspace.getId()));
-                }
-                if (w.getName().equals(workspace.getName())) {
-                    throw new ConflictException(String.format("Workspace with name %s already exists.", workspace.getName()));
-                }
+            if (workspaces.containsKey(workspace.getId())) {
+                throw new ConflictException(String.format("Workspace with id %s already exists.", workspace.getId()));
             }
-            workspaces.add(new Workspace().withId(workspace.getId()).withName(workspace.getName()).withAccountId(workspace.getAccountId())
-                                          .withAttributes(new LinkedHashMap<>(workspace.getAttributes()))
-                                          .withTemporary(workspace.isTemporary()));
+            if (names.containsKey(workspace.getName())) {
+                throw new ConflictException(String.format("Workspace with name %s already exists.", workspace.getName()));
+            }
+            final Workspace newWorkspace = doClone(workspace);
+            store(newWorkspace);
+            addToIndexes(newWorkspace);
         } finally {
             lock.writeLock().unlock();
         }
     }
 
     @Override
-    public void update(Workspace workspace) throws NotFoundException, ConflictException {
+    public void update(Workspace workspace) throws NotFoundException, ConflictException, ServerException {
         validateWorkspaceName(workspace.getName());
         lock.writeLock().lock();
         try {
-            Workspace myWorkspace = null;
-            for (int i = 0, size = workspaces.size(); i < size && myWorkspace == null; i++) {
-                if (workspaces.get(i).getId().equals(workspace.getId())) {
-                    myWorkspace = workspaces.get(i);
-                }
-            }
+            final Workspace myWorkspace = workspaces.get(workspace.getId());
             if (myWorkspace == null) {
                 throw new NotFoundException(String.format("Workspace not found %s", workspace.getId()));
             }
+            final Workspace sameName = names.get(workspace.getName());
+            if (sameName != null && sameName != myWorkspace) {
+                throw new ConflictException(String.format("Workspace with name %s already exists.", workspace.getName()));
+            }
+            store(doClone(myWorkspace).withName(workspace.getName())
+                                      .withAttributes(new LinkedHashMap<>(workspace.getAttributes())));
+            names.remove(myWorkspace.getName());
             myWorkspace.setName(workspace.getName());
             myWorkspace.getAttributes().clear();
             myWorkspace.getAttributes().putAll(workspace.getAttributes());
+            names.put(myWorkspace.getName(), myWorkspace);
         } finally {
             lock.writeLock().unlock();
         }
     }
 
     @Override
-    public void remove(String id) throws NotFoundException {
+    public void remove(String id) throws NotFoundException, ServerException {
         lock.writeLock().lock();
         try {
-            Workspace myWorkspace = null;
-            for (int i = 0, size = workspaces.size(); i < size && myWorkspace == null; i++) {
-                if (workspaces.get(i).getId().equals(id)) {
-                    myWorkspace = workspaces.get(i);
-                }
-            }
+            final Workspace myWorkspace = workspaces.get(id);
             if (myWorkspace == null) {
                 throw new NotFoundException(String.format("Workspace not found %s", id));
             }
-            workspaces.remove(myWorkspace);
+            try {
+                workspaceStorage.remove(id);
+            } catch (IOException e) {
+                throw new ServerException(e.getMessage(), e);
+            }
+            workspaces.remove(id);
+            names.remove(myWorkspace.getName());
+            if (myWorkspace.getAccountId() != null) {
+                accounts.remove(myWorkspace.getAccountId(), id);
+            }
         } finally {
             lock.writeLock().unlock();
         }
@@ -131,34 +159,28 @@ public class LocalWorkspaceDaoImpl implements WorkspaceDao {
     public Workspace getById(String id) throws NotFoundException {
         lock.readLock().lock();
         try {
-            for (Workspace workspace : workspaces) {
-                if (workspace.getId().equals(id)) {
-                    return new Workspace().withId(workspace.getId()).withName(workspace.getName()).withAccountId(workspace.getAccountId())
-                                          .withAttributes(new LinkedHashMap<>(workspace.getAttributes()))
-                                          .withTemporary(workspace.isTemporary());
-                }
+            final Workspace workspace = workspaces.get(id);
+            if (workspace == null) {
+                throw new NotFoundException(String.format("Workspace not found %s", id));
             }
+            return doClone(workspace);
         } finally {
             lock.readLock().unlock();
         }
-        throw new NotFoundException(String.format("Workspace not found %s", id));
     }
 
     @Override
     public Workspace getByName(String name) throws NotFoundException {
         lock.readLock().lock();
         try {
-            for (Workspace workspace : workspaces) {
-                if (workspace.getName().equals(name)) {
-                    return new Workspace().withId(workspace.getId()).withName(workspace.getName()).withAccountId(workspace.getAccountId())
-                                          .withAttributes(new LinkedHashMap<>(workspace.getAttributes()))
-                                          .withTemporary(workspace.isTemporary());
-                }
+            final Workspace workspace = names.get(name);
+            if (workspace == null) {
+                throw new NotFoundException(String.format("Workspace not found %s", name));
             }
+            return doClone(workspace);
         } finally {
             lock.readLock().unlock();
         }
-        throw new NotFoundException(String.format("Workspace not found %s", name));
     }
 
     @Override
@@ -166,13 +188,8 @@ public class LocalWorkspaceDaoImpl implements WorkspaceDao {
         final List<Workspace> result = new LinkedList<>();
         lock.readLock().lock();
         try {
-            for (Workspace workspace : workspaces) {
-                if (workspace.getAccountId().equals(accountId)) {
-                    result.add(new Workspace().withId(workspace.getId()).withName(workspace.getName())
-                                              .withAccountId(workspace.getAccountId())
-                                              .withAttributes(new LinkedHashMap<>(workspace.getAttributes()))
-                                              .withTemporary(workspace.isTemporary()));
-                }
+            for (String id : accounts.get(accountId)) {
+                result.add(doClone(workspaces.get(id)));
             }
         } finally {
             lock.readLock().unlock();
@@ -180,6 +197,28 @@ public class LocalWorkspaceDaoImpl implements WorkspaceDao {
         return result;
     }
 
+    private void addToIndexes(Workspace workspace) {
+        workspaces.put(workspace.getId(), workspace);
+        names.put(workspace.getName(), workspace);
+        if (workspace.getAccountId() != null) {
+            accounts.add(workspace.getAccountId(), workspace.getId());
+        }
+    }
+
+    private void store(Workspace workspace) throws ServerException {
+        try {
+            workspaceStorage.put(workspace.getId(), workspace);
+        } catch (IOException e) {
+            throw new ServerException(e.getMessage(), e);
+        }
+    }
+
+    private Workspace doClone(Workspace workspace) {
+        return new Workspace().withId(workspace.getId()).withName(workspace.getName()).withAccountId(workspace.getAccountId())
+                              .withAttributes(new LinkedHashMap<>(workspace.getAttributes()))
+                              .withTemporary(workspace.isTemporary());
+    }
+
     private void validateWorkspaceName(String workspaceName) throws ConflictException {
         if (workspaceName == null) {
             throw new ConflictException("Workspace name required");
@@ -0,0 +1,276 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.local.storage;
+
+import com.google.common.io.Files;
+import com.google.common.reflect.TypeToken;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Keyed collection of objects stored in file system as snapshot and append-only journal of changes.
+ * <p/>
+ * Each change is appended to journal as single line, so cost of write doesn't depend on number of stored objects. When journal
+ * becomes bigger than collection itself it is compacted: current state is written to new snapshot and journal is truncated.
+ * Snapshot is JSON object where keys are keys of stored objects, it is the same format that is used by {@link LocalStorage}
+ * for maps. Snapshot in format of JSON array, that is used by {@link LocalStorage} for lists, may be read if function that gets
+ * key of object is provided.
+ * <p/>
+ * Journal is flushed after each change but it isn't synced with storage device.
+ */
+public class JournalStorage<T> {
+    private static final Logger LOG = LoggerFactory.getLogger(JournalStorage.class);
+
+    /** Min number of records in journal before compaction. */
+    public static final int DEFAULT_COMPACTION_THRESHOLD = 1000;
+
+    private final File                snapshotFile;
+    private final File                journalFile;
+    private final Type                type;
+    private final Function<T, String> keyFunction;
+    private final int                 compactionThreshold;
+    private final Gson                gson;
+
+    /** JSON of each stored object. It is kept for writing of snapshot without serialization of all objects. */
+    private final Map<String, String> records;
+
+    private Writer journal;
+    private int    journalRecords;
+
+    /**
+     * @param rootDirPath
+     *         directory of storage
+     * @param fileName
+     *         name of snapshot file, journal is stored in the same directory with ".journal" suffix
+     * @param type
+     *         type of stored objects
+     * @param keyFunction
+     *         gets key of object, it is used only for reading of snapshot in format of JSON array, may be {@code null}
+     * @param compactionThreshold
+     *         min number of records in journal before compaction
+     * @throws IOException
+     *         if root directory can't be created
+     */
+    public JournalStorage(String rootDirPath, String fileName, TypeToken<T> type, Function<T, String> keyFunction,
+                          int compactionThreshold) throws IOException {
+        final File rootDir = new File(rootDirPath);
+        if (!rootDir.exists() && !rootDir.mkdirs()) {
+            throw new IOException("Impossible to create root folder for local storage");
+        }
+        this.snapshotFile = new File(rootDir, fileName);
+        this.journalFile = new File(rootDir, fileName + ".journal");
+        this.type = type.getType();
+        this.keyFunction = keyFunction;
+        this.compactionThreshold = compactionThreshold;
+        this.gson = new Gson();
+        this.records = new LinkedHashMap<>();
+    }
+
+    /**
+     * Loads stored objects: reads snapshot and applies changes from journal. Journal is compacted after loading.
+     * Invalid content of snapshot or journal is skipped.
+     *
+     * @return stored objects in order of addition
+     * @throws IOException
+     *         if new snapshot can't be written
+     */
+    public synchronized Map<String, T> load() throws IOException {
+        records.clear();
+        if (snapshotFile.exists()) {
+            readSnapshot();
+        }
+        if (journalFile.exists()) {
+            replayJournal();
+        }
+        final Map<String, T> result = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : records.entrySet()) {
+            try {
+                result.put(entry.getKey(), gson.<T>fromJson(entry.getValue(), type));
+            } catch (JsonParseException e) {
+                LOG.warn("{} contains invalid object with key {}", snapshotFile.getName(), entry.getKey());
+            }
+        }
+        compact();
+        return result;
+    }
+
+    /**
+     * Stores object, existed object with the same key is replaced.
+     *
+     * @throws IOException
+     *         if journal can't be written
+     */
+    public synchronized void put(String key, T value) throws IOException {
+        final String json = gson.toJson(value, type);
+        append("{\"key\":" + gson.toJson(key) + ",\"value\":" + json + "}\n");
+        records.put(key, json);
+        compactIfNeeded();
+    }
+
+    /**
+     * Removes object with specified key.
+     *
+     * @throws IOException
+     *         if journal can't be written
+     */
+    public synchronized void remove(String key) throws IOException {
+        if (records.containsKey(key)) {
+            append("{\"key\":" + gson.toJson(key) + "}\n");
+            records.remove(key);
+            compactIfNeeded();
+        }
+    }
+
+    /** Number of stored objects. */
+    public synchronized int size() {
+        return records.size();
+    }
+
+    /**
+     * Writes current state to snapshot and truncates journal.
+     *
+     * @throws IOException
+     *         if snapshot or journal can't be written
+     */
+    public synchronized void compact() throws IOException {
+        closeJournal();
+        final File tmp = new File(snapshotFile.getParentFile(), snapshotFile.getName() + ".tmp");
+        try (Writer writer = Files.newWriter(tmp, StandardCharsets.UTF_8)) {
+            writer.write('{');
+            boolean first = true;
+            for (Map.Entry<String, String> entry : records.entrySet()) {
+                if (!first) {
+                    writer.write(',');
+                }
+                first = false;
+                writer.write(gson.toJson(entry.getKey()));
+                writer.write(':');
+                writer.write(entry.getValue());
+            }
+            writer.write('}');
+        }
+        java.nio.file.Files.move(tmp.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                                 StandardCopyOption.ATOMIC_MOVE);
+        // Changes from journal are already in snapshot. If journal isn't truncated because of failure, it is safe to apply it again.
+        journal = Files.newWriter(journalFile, StandardCharsets.UTF_8);
+        journalRecords = 0;
+    }
+
+    /**
+     * Compacts journal and closes storage. Storage may be used after closing, journal is reopened with the next change.
+     *
+     * @throws IOException
+     *         if snapshot or journal can't be written
+     */
+    public synchronized void close() throws IOException {
+        compact();
+        closeJournal();
+    }
+
+    private void append(String record) throws IOException {
+        if (journal == null) {
+            // journal is closed or its last record might be broken with previous failure
+            compact();
+        }
+        try {
+            journal.write(record);
+            journal.flush();
+        } catch (IOException e) {
+            closeJournal();
+            throw e;
+        }
+        journalRecords++;
+    }
+
+    private void compactIfNeeded() throws IOException {
+        if (journalRecords >= compactionThreshold && journalRecords > records.size()) {
+            compact();
+        }
+    }
+
+    private void closeJournal() {
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                LOG.warn("Unable close journal {}: {}", journalFile.getName(), e.getMessage());
+            }
+            journal = null;
+        }
+    }
+
+    private void readSnapshot() {
+        try (Reader reader = Files.newReader(snapshotFile, StandardCharsets.UTF_8)) {
+            final JsonElement snapshot = new JsonParser().parse(reader);
+            if (snapshot.isJsonObject()) {
+                for (Map.Entry<String, JsonElement> entry : snapshot.getAsJsonObject().entrySet()) {
+                    records.put(entry.getKey(), entry.getValue().toString());
+                }
+            } else if (snapshot.isJsonArray() && keyFunction != null) {
+                for (JsonElement element : snapshot.getAsJsonArray()) {
+                    records.put(keyFunction.apply(gson.<T>fromJson(element, type)), element.toString());
+                }
+            } else if (!snapshot.isJsonNull()) {
+                LOG.warn("{} contains unexpected JSON content", snapshotFile.getName());
+            }
+        } catch (JsonParseException e) {
+            records.clear();
+            LOG.warn("{} contains invalid JSON content", snapshotFile.getName());
+        } catch (IOException e) {
+            LOG.warn("Impossible to read from {}", snapshotFile.getName());
+        }
+    }
+
+    private void replayJournal() {
+        try (BufferedReader reader = Files.newReader(journalFile, StandardCharsets.UTF_8)) {
+            final JsonParser parser = new JsonParser();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                try {
+                    final JsonObject record = parser.parse(line).getAsJsonObject();
+                    final String key = record.get("key").getAsString();
+                    final JsonElement value = record.get("value");
+                    if (value == null || value.isJsonNull()) {
+                        records.remove(key);
+                    } else {
+                        records.put(key, value.toString());
+                    }
+                } catch (JsonParseException | IllegalStateException | NullPointerException | UnsupportedOperationException e) {
+                    // most likely record was not completely written
+                    LOG.warn("{} contains invalid record, skip it", journalFile.getName());
+                }
+            }
+        } catch (IOException e) {
+            LOG.warn("Impossible to read from {}", journalFile.getName());
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.local.storage;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Secondary index of stored objects, maps value of some attribute, e.g. id of owner, to keys of objects. Index is not thread-safe,
+ * it should be guarded with the same lock as indexed objects.
+ */
+public class KeyIndex {
+    private final Map<String, Set<String>> index = new HashMap<>();
+
+    /** Adds key of object to index. */
+    public void add(String value, String key) {
+        Set<String> keys = index.get(value);
+        if (keys == null) {
+            index.put(value, keys = new LinkedHashSet<>());
+        }
+        keys.add(key);
+    }
+
+    /** Removes key of object from index. */
+    public void remove(String value, String key) {
+        final Set<String> keys = index.get(value);
+        if (keys != null && keys.remove(key) && keys.isEmpty()) {
+            index.remove(value);
+        }
+    }
+
+    /** Gets keys of objects with specified value of attribute in order of addition. Returned set must not be modified. */
+    public Set<String> get(String value) {
+        final Set<String> keys = index.get(value);
+        return keys == null ? Collections.<String>emptySet() : Collections.unmodifiableSet(keys);
+    }
+
+    public void clear() {
+        index.clear();
+    }
+}
@@ -11,11 +11,14 @@
 package org.eclipse.che.api.local.storage;
 
 
+import com.google.common.reflect.TypeToken;
+
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 import java.io.IOException;
 import java.util.Map;
+import java.util.function.Function;
 
 /**
  * Factory for injection to LocalStorage stored file.
@@ -25,9 +28,16 @@ import java.util.Map;
 @Singleton
 public class LocalStorageFactory {
 
+    private final String pathToStorage;
+
+    @com.google.inject.Inject(optional = true)
+    @Named("local.storage.journal.compaction_threshold")
+    private int compactionThreshold = JournalStorage.DEFAULT_COMPACTION_THRESHOLD;
+
     @Inject
-    @Named("local.storage.path")
-    private String pathToStorage;
+    public LocalStorageFactory(@Named("local.storage.path") String pathToStorage) {
+        this.pathToStorage = pathToStorage;
+    }
 
     /**
      * @param fileName
@@ -52,4 +62,20 @@ public class LocalStorageFactory {
     public LocalStorage create(String fileName, Map<Class<?>, Object> typeAdapters) throws IOException {
         return new LocalStorage(pathToStorage, fileName, typeAdapters);
     }
-}
\ No newline at end of file
+
+    /**
+     * @param fileName
+     *         name of snapshot file in local storage.
+     * @param type
+     *         type of stored objects.
+     * @param keyFunction
+     *         gets key of object, it is needed for reading of snapshot that is stored as list by {@link LocalStorage}, may be null.
+     * @return instance of JournalStorage.
+     * @throws IOException
+     *         occurs when cannot create root storage directory.
+     */
+    public <T> JournalStorage<T> createJournalStorage(String fileName, TypeToken<T> type, Function<T, String> keyFunction)
+            throws IOException {
+        return new JournalStorage<>(pathToStorage, fileName, type, keyFunction, compactionThreshold);
+    }
+}
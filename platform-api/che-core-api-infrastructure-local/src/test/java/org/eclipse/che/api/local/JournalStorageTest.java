@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.local;
+
+import com.google.common.io.Files;
+import com.google.common.reflect.TypeToken;
+
+import org.eclipse.che.api.local.storage.JournalStorage;
+import org.eclipse.che.api.local.storage.LocalStorage;
+import org.eclipse.che.api.user.server.dao.User;
+import org.eclipse.che.commons.lang.IoUtil;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests of {@link JournalStorage}.
+ */
+public class JournalStorageTest {
+
+    private File storageDir;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        storageDir = java.nio.file.Files.createTempDirectory("journal-storage-").toFile();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        IoUtil.deleteRecursive(storageDir);
+    }
+
+    @Test
+    public void testLoadChangesFromJournal() throws Exception {
+        final JournalStorage<User> storage = newStorage(1000);
+        storage.load();
+        storage.put("id1", newUser("id1"));
+        storage.put("id2", newUser("id2"));
+        storage.put("id1", newUser("id1").withEmail("changed@test.com"));
+        storage.remove("id2");
+        // emulate crash, storage is not closed and snapshot is not written
+
+        final Map<String, User> users = newStorage(1000).load();
+
+        assertEquals(users.keySet(), Collections.singleton("id1"));
+        assertEquals(users.get("id1").getEmail(), "changed@test.com");
+    }
+
+    @Test
+    public void testCompactJournal() throws Exception {
+        final JournalStorage<User> storage = newStorage(10);
+        storage.load();
+        for (int i = 0; i < 100; i++) {
+            storage.put("id" + (i % 5), newUser("id" + i));
+        }
+
+        assertTrue(journal().length() < 10 * 200, "Journal must be compacted, but its size is " + journal().length());
+        final Map<String, User> users = newStorage(10).load();
+        assertEquals(users.size(), 5);
+        assertEquals(users.get("id4").getId(), "id99");
+    }
+
+    @Test
+    public void testWriteSnapshotAndTruncateJournalOnClose() throws Exception {
+        final JournalStorage<User> storage = newStorage(1000);
+        storage.load();
+        storage.put("id1", newUser("id1"));
+        storage.close();
+
+        assertEquals(journal().length(), 0);
+        assertEquals(newStorage(1000).load().get("id1").getId(), "id1");
+    }
+
+    @Test
+    public void testLoadSnapshotStoredAsListByLocalStorage() throws Exception {
+        new LocalStorage(storageDir.getPath(), "users.json").store(Arrays.asList(newUser("id1"), newUser("id2")));
+
+        final Map<String, User> users = newStorage(1000).load();
+
+        assertEquals(users.size(), 2);
+        assertEquals(users.get("id2").getEmail(), "id2@test.com");
+    }
+
+    @Test
+    public void testSkipBrokenRecordOfJournal() throws Exception {
+        final JournalStorage<User> storage = newStorage(1000);
+        storage.load();
+        storage.put("id1", newUser("id1"));
+        Files.append("{\"key\":\"id2\",\"val", journal(), StandardCharsets.UTF_8);
+
+        final Map<String, User> users = newStorage(1000).load();
+
+        assertEquals(users.size(), 1);
+        assertEquals(users.get("id1").getId(), "id1");
+    }
+
+    private JournalStorage<User> newStorage(int compactionThreshold) throws Exception {
+        return new JournalStorage<>(storageDir.getPath(), "users.json", new TypeToken<User>() {}, User::getId, compactionThreshold);
+    }
+
+    private File journal() {
+        return new File(storageDir, "users.json.journal");
+    }
+
+    private static User newUser(String id) {
+        return new User().withId(id).withEmail(id + "@test.com").withAliases(Arrays.asList(id + "@test.com"));
+    }
+}
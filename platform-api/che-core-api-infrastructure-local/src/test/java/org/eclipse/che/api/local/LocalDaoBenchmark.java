@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.local;
+
+import org.eclipse.che.api.local.storage.LocalStorageFactory;
+import org.eclipse.che.api.user.server.dao.User;
+import org.eclipse.che.api.workspace.server.dao.Member;
+import org.eclipse.che.api.workspace.server.dao.Workspace;
+import org.eclipse.che.commons.lang.IoUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load test of local DAOs: lookups of users and memberships and creation of users when storage contains many users, workspaces and
+ * memberships. Each created user is written to journal of storage.
+ * <p/>
+ * Run with: {@code mvn test-compile exec:java -Dexec.mainClass=org.eclipse.che.api.local.LocalDaoBenchmark
+ * -Dexec.classpathScope=test}
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class LocalDaoBenchmark {
+    /** Number of users, each user has own workspace. */
+    @Param({"1000", "10000"})
+    public int size;
+
+    private File                  storageDir;
+    private LocalUserDaoImpl      userDao;
+    private LocalWorkspaceDaoImpl workspaceDao;
+    private LocalMemberDaoImpl    memberDao;
+    private AtomicLong            counter;
+
+    @Setup
+    public void setUp() throws Exception {
+        storageDir = Files.createTempDirectory("local-dao-benchmark-").toFile();
+        final LocalStorageFactory storageFactory = new LocalStorageFactory(storageDir.getPath());
+        userDao = new LocalUserDaoImpl(storageFactory);
+        userDao.start(Collections.<User>emptySet());
+        workspaceDao = new LocalWorkspaceDaoImpl(storageFactory);
+        workspaceDao.start(Collections.<Workspace>emptySet());
+        memberDao = new LocalMemberDaoImpl(workspaceDao, userDao, storageFactory);
+        memberDao.start(Collections.<Member>emptySet());
+        for (int i = 0; i < size; i++) {
+            final User user = new User().withId("user" + i).withEmail("user" + i + "@test.com");
+            user.getAliases().add(user.getEmail());
+            userDao.create(user);
+            workspaceDao.create(new Workspace().withId("ws" + i).withName("ws" + i).withAccountId("account" + (i % 100)));
+            final Member member = new Member().withUserId(user.getId()).withWorkspaceId("ws" + i);
+            member.getRoles().add("workspace/admin");
+            memberDao.create(member);
+        }
+        counter = new AtomicLong();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        memberDao.stop();
+        workspaceDao.stop();
+        userDao.stop();
+        IoUtil.deleteRecursive(storageDir);
+    }
+
+    @Benchmark
+    public User getUserByAlias() throws Exception {
+        return userDao.getByAlias("user" + ThreadLocalRandom.current().nextInt(size) + "@test.com");
+    }
+
+    @Benchmark
+    public Member getWorkspaceMember() throws Exception {
+        final int i = ThreadLocalRandom.current().nextInt(size);
+        return memberDao.getWorkspaceMember("ws" + i, "user" + i);
+    }
+
+    @Benchmark
+    public Object getWorkspacesByAccount() throws Exception {
+        return workspaceDao.getByAccount("account" + ThreadLocalRandom.current().nextInt(100));
+    }
+
+    @Benchmark
+    public void createUser() throws Exception {
+        final User user = new User().withId("new" + counter.incrementAndGet());
+        user.getAliases().add(user.getId() + "@test.com");
+        userDao.create(user);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(LocalDaoBenchmark.class.getSimpleName()).build()).run();
+    }
+}
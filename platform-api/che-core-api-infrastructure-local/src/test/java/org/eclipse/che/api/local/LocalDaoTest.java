@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.local;
+
+import org.eclipse.che.api.account.server.dao.Account;
+import org.eclipse.che.api.core.ConflictException;
+import org.eclipse.che.api.core.NotFoundException;
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.local.storage.LocalStorageFactory;
+import org.eclipse.che.api.user.server.dao.User;
+import org.eclipse.che.api.workspace.server.dao.Member;
+import org.eclipse.che.api.workspace.server.dao.Workspace;
+import org.eclipse.che.commons.lang.IoUtil;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Tests of local DAOs that are backed by {@link org.eclipse.che.api.local.storage.JournalStorage}.
+ */
+public class LocalDaoTest {
+
+    private File                  storageDir;
+    private LocalStorageFactory   storageFactory;
+    private LocalUserDaoImpl      userDao;
+    private LocalWorkspaceDaoImpl workspaceDao;
+    private LocalMemberDaoImpl    memberDao;
+    private LocalAccountDaoImpl   accountDao;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        storageDir = java.nio.file.Files.createTempDirectory("local-dao-").toFile();
+        storageFactory = new LocalStorageFactory(storageDir.getPath());
+        start();
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        stop();
+        IoUtil.deleteRecursive(storageDir);
+    }
+
+    @Test
+    public void testKeepChangesAfterRestart() throws Exception {
+        userDao.create(new User().withId("user1").withEmail("user1@test.com").withAliases(Arrays.asList("user1@test.com")));
+        workspaceDao.create(new Workspace().withId("ws1").withName("ws1").withAccountId("acc1"));
+        memberDao.create(new Member().withUserId("user1").withWorkspaceId("ws1").withRoles(Arrays.asList("workspace/admin")));
+        userDao.update(new User().withId("user1").withEmail("new@test.com").withAliases(Arrays.asList("new@test.com")));
+
+        stop();
+        start();
+
+        assertEquals(userDao.getByAlias("new@test.com").getId(), "user1");
+        assertEquals(workspaceDao.getByName("ws1").getId(), "ws1");
+        assertEquals(workspaceDao.getByAccount("acc1").size(), 1);
+        assertEquals(memberDao.getWorkspaceMember("ws1", "user1").getRoles(), Arrays.asList("workspace/admin"));
+    }
+
+    @Test(expectedExceptions = NotFoundException.class)
+    public void testUpdateAliasIndex() throws Exception {
+        userDao.create(new User().withId("user1").withEmail("user1@test.com").withAliases(Arrays.asList("user1@test.com")));
+        userDao.update(new User().withId("user1").withEmail("new@test.com").withAliases(Arrays.asList("new@test.com")));
+
+        userDao.getByAlias("user1@test.com");
+    }
+
+    @Test(expectedExceptions = ConflictException.class)
+    public void testRejectWorkspaceWithExistedName() throws Exception {
+        workspaceDao.create(new Workspace().withId("ws1").withName("ws1"));
+        workspaceDao.create(new Workspace().withId("ws2").withName("ws1"));
+    }
+
+    @Test
+    public void testRejectAccountRenamingToExistedName() throws Exception {
+        accountDao.create(new Account().withId("acc1").withName("acc1"));
+        accountDao.create(new Account().withId("acc2").withName("acc2"));
+
+        try {
+            accountDao.update(new Account().withId("acc2").withName("acc1"));
+            fail("ServerException expected");
+        } catch (ServerException expected) {
+        }
+
+        assertEquals(accountDao.getByName("acc1").getId(), "acc1");
+        assertEquals(accountDao.getByName("acc2").getId(), "acc2");
+    }
+
+    @Test
+    public void testRemoveMembershipFromIndexes() throws Exception {
+        userDao.create(new User().withId("user1").withEmail("user1@test.com").withAliases(Arrays.asList("user1@test.com")));
+        workspaceDao.create(new Workspace().withId("ws1").withName("ws1"));
+        final Member member = new Member().withUserId("user1").withWorkspaceId("ws1").withRoles(Arrays.asList("workspace/admin"));
+        memberDao.create(member);
+
+        memberDao.remove(member);
+
+        assertTrue(memberDao.getWorkspaceMembers("ws1").isEmpty());
+        assertTrue(memberDao.getUserRelationships("user1").isEmpty());
+    }
+
+    private void start() throws Exception {
+        userDao = new LocalUserDaoImpl(storageFactory);
+        userDao.start(Collections.<User>emptySet());
+        workspaceDao = new LocalWorkspaceDaoImpl(storageFactory);
+        workspaceDao.start(Collections.<Workspace>emptySet());
+        memberDao = new LocalMemberDaoImpl(workspaceDao, userDao, storageFactory);
+        memberDao.start(Collections.<Member>emptySet());
+        accountDao = new LocalAccountDaoImpl(workspaceDao, storageFactory);
+        accountDao.start(Collections.<Account>emptySet(), Collections.<org.eclipse.che.api.account.server.dao.Member>emptySet());
+    }
+
+    private void stop() throws Exception {
+        accountDao.stop();
+        memberDao.stop();
+        workspaceDao.stop();
+        userDao.stop();
+    }
+}
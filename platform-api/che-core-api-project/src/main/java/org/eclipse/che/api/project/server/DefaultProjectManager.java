@@ -33,13 +33,19 @@ import org.eclipse.che.api.project.shared.dto.SourceEstimation;
 
 import org.eclipse.che.api.vfs.server.Path;
 import org.eclipse.che.api.vfs.server.VirtualFileSystemRegistry;
+import org.eclipse.che.api.vfs.server.observation.MoveEvent;
+import org.eclipse.che.api.vfs.server.observation.RenameEvent;
 import org.eclipse.che.api.vfs.server.observation.VirtualFileEvent;
 import org.eclipse.che.commons.env.EnvironmentContext;
 import org.eclipse.che.commons.lang.Pair;
 import org.eclipse.che.commons.lang.cache.Cache;
+import org.eclipse.che.commons.lang.cache.CacheStats;
+import org.eclipse.che.commons.lang.cache.ConcurrentSLRUCache;
 import org.eclipse.che.commons.lang.cache.SLRUCache;
 import org.eclipse.che.dto.server.DtoFactory;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -56,12 +62,19 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -76,9 +89,25 @@ public final class DefaultProjectManager implements ProjectManager {
     private static final int CACHE_MASK = CACHE_NUM - 1;
     private static final int SEG_SIZE   = 32;
 
+    private static final int CONFIG_SEG_SIZE = 64;
+
+    /** Period in seconds of saving of modification dates of projects to misc file. */
+    private static final long MODIFICATIONS_FLUSH_PERIOD = 5;
+
     private final Lock[]                                     miscLocks;
     private final Cache<Pair<String, String>, ProjectMisc>[] miscCaches;
 
+    /** Configurations of projects with evaluated values of attributes, key is pair of workspace id and path of project. */
+    private final ConcurrentSLRUCache<Pair<String, String>, ProjectConfig> configCache;
+    /** Incremented on each invalidation before cache is cleaned, configuration read concurrently with invalidation is dropped. */
+    private final AtomicLong                                               configInvalidations;
+
+    private final ProjectRootIndex                                          projectRoots;
+    private final ProjectRootIndex.Resolver                                 projectResolver;
+    /** Modification dates of projects that are not saved in misc file yet, key is pair of workspace id and path of project. */
+    private final ConcurrentMap<Pair<String, String>, PendingModification> modifications;
+    private final ScheduledExecutorService                                 modificationsFlusher;
+
     private final VirtualFileSystemRegistry         fileSystemRegistry;
     private final EventService                      eventService;
     private final EventSubscriber<VirtualFileEvent> vfsSubscriber;
@@ -123,6 +152,25 @@ public final class DefaultProjectManager implements ProjectManager {
             };
         }
 
+        this.configCache = new ConcurrentSLRUCache<>(CONFIG_SEG_SIZE, CONFIG_SEG_SIZE);
+        this.configInvalidations = new AtomicLong();
+
+        this.projectRoots = new ProjectRootIndex();
+        this.projectResolver = new ProjectRootIndex.Resolver() {
+            @Override
+            public Boolean isProject(String workspace, String path) {
+                try {
+                    return getProject(workspace, path) != null;
+                } catch (Exception e) {
+                    LOG.error(e.getMessage(), e);
+                    return null;
+                }
+            }
+        };
+        this.modifications = new ConcurrentHashMap<>();
+        this.modificationsFlusher = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("ProjectModificationsFlusher").setDaemon(true).build());
+
         vfsSubscriber = new EventSubscriber<VirtualFileEvent>() {
             @Override
             public void onEvent(VirtualFileEvent event) {
@@ -137,16 +185,26 @@ public final class DefaultProjectManager implements ProjectManager {
                     case DELETED:
                     case MOVED:
                     case RENAMED: {
-                        final int length = path.length();
-                        for (int i = 1; i < length && (i = path.indexOf('/', i)) > 0; i++) {
-                            final String projectPath = path.substring(0, i);
-                            try {
-                                final Project project = getProject(workspace, projectPath);
-                                if (project != null) {
-                                    getProjectMisc(project).setModificationDate(System.currentTimeMillis());
-                                }
-                            } catch (Exception e) {
-                                LOG.error(e.getMessage(), e);
+                        String oldPath = null;
+                        if (event instanceof MoveEvent) {
+                            oldPath = ((MoveEvent)event).getOldPath();
+                        } else if (event instanceof RenameEvent) {
+                            oldPath = ((RenameEvent)event).getOldPath();
+                        }
+                        invalidateProjectConfig(workspace, path);
+                        updateProjectRoots(workspace, path, event);
+                        if (oldPath != null) {
+                            invalidateProjectConfig(workspace, oldPath);
+                            updateProjectRoots(workspace, oldPath, event);
+                        }
+                        // Dates are applied to ProjectMisc on read and saved periodically, see getProjectMisc() and flushModifications().
+                        final List<String> projectPaths = projectRoots.getProjects(workspace, path, projectResolver);
+                        if (!projectPaths.isEmpty()) {
+                            final PendingModification modification =
+                                    new PendingModification(System.currentTimeMillis(),
+                                                            new EnvironmentContext(EnvironmentContext.getCurrent()));
+                            for (String projectPath : projectPaths) {
+                                modifications.put(Pair.of(workspace, projectPath), modification);
                             }
                         }
                         break;
@@ -435,12 +493,73 @@ public final class DefaultProjectManager implements ProjectManager {
             if (misc == null) {
                 miscCaches[index].put(key, misc = readProjectMisc(project));
             }
+            final PendingModification modification = modifications.get(key);
+            if (modification != null && misc.getModificationDate() < modification.date) {
+                misc.setModificationDate(modification.date);
+            }
             return misc;
         } finally {
             miscLocks[index].unlock();
         }
     }
 
+    /**
+     * Gets configuration of project. Configuration is read from project.json file only once and is kept in cache until project.json or
+     * any other file of project or its modules is changed.
+     *
+     * @param project
+     *         project
+     * @return configuration of project
+     * @throws ServerException
+     *         if an error occurs
+     * @see #invalidateProjectConfig(String, String)
+     */
+    public ProjectConfig getProjectConfig(Project project) throws ServerException, ValueStorageException, ProjectTypeConstraintException,
+                                                                  InvalidValueException {
+        final Pair<String, String> key = Pair.of(project.getWorkspace(), project.getPath());
+        final ProjectConfig cached = configCache.get(key);
+        if (cached != null) {
+            return new ProjectConfig(cached);
+        }
+        final long invalidationsBefore = configInvalidations.get();
+        final ProjectConfig config = project.readConfig();
+        final ProjectConfig copy = new ProjectConfig(config);
+        configCache.put(key, copy);
+        // Invalidation that happens after put removes configuration itself, otherwise it might be read before invalidation so take it
+        // back. Checking before put isn't enough, invalidation may run between check and put.
+        if (configInvalidations.get() != invalidationsBefore) {
+            configCache.remove(key, copy);
+        }
+        return config;
+    }
+
+    /**
+     * Removes cached configurations of projects that contain item with specified path and of all projects under this path.
+     *
+     * @param workspace
+     *         id of workspace
+     * @param path
+     *         path of changed item
+     */
+    public void invalidateProjectConfig(String workspace, String path) {
+        if (path == null) {
+            return;
+        }
+        configInvalidations.incrementAndGet();
+        final String prefix = path.endsWith("/") ? path : path + '/';
+        for (Iterator<Map.Entry<Pair<String, String>, ProjectConfig>> i = configCache.iterator(); i.hasNext(); ) {
+            final Pair<String, String> key = i.next().getKey();
+            if (key.first.equals(workspace)
+                && (key.second.equals(path) || key.second.startsWith(prefix) || path.startsWith(key.second + '/'))) {
+                i.remove();
+            }
+        }
+    }
+
+    /** Gets statistics of usage of cache of projects configurations. */
+    public CacheStats getProjectConfigCacheStats() {
+        return configCache.getStats();
+    }
 
     public Set<Project> getProjectModules(Project parent)
             throws ServerException, ForbiddenException, ConflictException, IOException, NotFoundException {
@@ -554,14 +673,76 @@ public final class DefaultProjectManager implements ProjectManager {
     }
 
 
+    /** Updates index of projects after creation, removal, moving or renaming of item. */
+    private void updateProjectRoots(String workspace, String path, VirtualFileEvent event) {
+        switch (event.getType()) {
+            case DELETED:
+            case MOVED:
+            case RENAMED:
+                if (event.isFolder()) {
+                    projectRoots.remove(workspace, path);
+                }
+                // fall through
+            case CREATED: {
+                final String codenvyDir = '/' + Constants.CODENVY_DIR;
+                int index = path.indexOf(codenvyDir + '/');
+                if (index < 0 && path.endsWith(codenvyDir)) {
+                    index = path.length() - codenvyDir.length();
+                }
+                if (index >= 0) {
+                    // Project file might be created or removed.
+                    projectRoots.reset(workspace, path.substring(0, index));
+                }
+                break;
+            }
+        }
+    }
+
+    /** Saves modification dates that were collected since previous call of this method to misc files of projects. */
+    void flushModifications() {
+        final EnvironmentContext callerContext = EnvironmentContext.getCurrent();
+        for (Map.Entry<Pair<String, String>, PendingModification> entry : modifications.entrySet()) {
+            final Pair<String, String> key = entry.getKey();
+            final PendingModification modification = entry.getValue();
+            EnvironmentContext.setCurrent(modification.context);
+            try {
+                final Project project = getProject(key.first, key.second);
+                if (project != null) {
+                    saveProjectMisc(project, getProjectMisc(project));
+                }
+            } catch (Exception e) {
+                LOG.error(e.getMessage(), e);
+            } finally {
+                EnvironmentContext.setCurrent(callerContext);
+            }
+            // Keep date if project was modified again while saving.
+            modifications.remove(key, modification);
+        }
+    }
+
     @PostConstruct
     void start() {
         eventService.subscribe(vfsSubscriber);
+        modificationsFlusher.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                flushModifications();
+            }
+        }, MODIFICATIONS_FLUSH_PERIOD, MODIFICATIONS_FLUSH_PERIOD, TimeUnit.SECONDS);
     }
 
     @PreDestroy
     void stop() {
         eventService.unsubscribe(vfsSubscriber);
+        modificationsFlusher.shutdownNow();
+        try {
+            modificationsFlusher.awaitTermination(MODIFICATIONS_FLUSH_PERIOD, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushModifications();
+        projectRoots.clear();
+        configCache.clear();
         for (int i = 0, length = miscLocks.length; i < length; i++) {
             miscLocks[i].lock();
             try {
@@ -802,4 +983,15 @@ public final class DefaultProjectManager implements ProjectManager {
         return path.substring(0, end);
     }
 
+
+    private static class PendingModification {
+        final long               date;
+        /** Context of user that modified project, it is used for saving of misc file in background. */
+        final EnvironmentContext context;
+
+        PendingModification(long date, EnvironmentContext context) {
+            this.date = date;
+            this.context = context;
+        }
+    }
 }
@@ -107,8 +107,19 @@ public class Project {
     }
 
 
+    /**
+     * Gets configuration of this project.
+     *
+     * @see ProjectManager#getProjectConfig(Project)
+     */
     public ProjectConfig getConfig() throws ServerException, ValueStorageException, ProjectTypeConstraintException,
                                             InvalidValueException {
+        return manager.getProjectConfig(this);
+    }
+
+    /** Reads configuration from project.json file and evaluates values of attributes of all types of this project. */
+    ProjectConfig readConfig() throws ServerException, ValueStorageException, ProjectTypeConstraintException,
+                                      InvalidValueException {
 
         final ProjectJson projectJson = ProjectJson.load(this);
 
@@ -264,6 +275,7 @@ public class Project {
 
 
         projectJson.save(this);
+        manager.invalidateProjectConfig(getWorkspace(), getPath());
 
     }
 
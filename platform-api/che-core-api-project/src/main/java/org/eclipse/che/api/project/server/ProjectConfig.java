@@ -54,6 +54,19 @@ public class ProjectConfig {
         this("", BaseProjectType.ID, new HashMap<String, AttributeValue>(), new Runners(), new Builders(), new ArrayList<String>());
     }
 
+    /** Copy constructor. */
+    public ProjectConfig(ProjectConfig other) {
+        this.description = other.description;
+        this.typeId = other.typeId;
+        this.attributes = new HashMap<>(other.attributes.size());
+        for (Map.Entry<String, AttributeValue> e : other.attributes.entrySet()) {
+            this.attributes.put(e.getKey(), new AttributeValue(e.getValue().getList()));
+        }
+        this.runners = new Runners(other.runners);
+        this.builders = new Builders(other.builders);
+        this.mixinTypes = new ArrayList<>(other.mixinTypes);
+    }
+
 
     public String getDescription() {
         return description;
@@ -115,6 +115,30 @@ public interface ProjectManager {
      */
     ProjectMisc getProjectMisc(Project project) throws ServerException;
 
+    /**
+     * Gets configuration of project. Configuration may be cached by implementation, each call returns new copy of configuration so
+     * caller may modify it.
+     *
+     * @param project
+     *         project
+     * @return configuration of project
+     * @throws ServerException
+     *         if an error occurs
+     * @see Project#getConfig()
+     */
+    ProjectConfig getProjectConfig(Project project) throws ServerException, ValueStorageException, ProjectTypeConstraintException,
+                                                           InvalidValueException;
+
+    /**
+     * Drops cached configuration of project, its parent projects and modules. Should be called after changes of project's files that
+     * are made bypassing virtual filesystem, e.g. by external tools.
+     *
+     * @param workspace
+     *         id of workspace
+     * @param path
+     *         path of changed item
+     */
+    void invalidateProjectConfig(String workspace, String path);
 
     /**
      * Gets Project modules.
@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.server;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers which folders of virtual filesystem are roots of projects or modules. Folders are kept in trie of names of path segments,
+ * one trie per workspace, so all projects that contain some item are found with one memory lookup per segment of path of item. Folder
+ * that isn't known yet is checked with {@link Resolver} once, result is kept until it is dropped with {@link #reset(String, String)} or
+ * {@link #remove(String, String)}. Folders below a folder that isn't project and isn't inside of any project are not checked and not
+ * remembered.
+ * <p/>
+ * Number of workspaces is limited, trie of the least recently used workspace is dropped when limit is exceeded, so tries of workspaces
+ * that are not used anymore don't stay in memory forever. Dropped trie is rebuilt with {@link Resolver} when workspace is used again.
+ */
+class ProjectRootIndex {
+    /** Checks whether folder is root of project. */
+    interface Resolver {
+        /** Returns {@code null} if it's not possible to check folder now, such result isn't remembered. */
+        Boolean isProject(String workspace, String path);
+    }
+
+    private static final int MAX_WORKSPACES = 256;
+
+    private final ConcurrentMap<String, Root> workspaces    = new ConcurrentHashMap<>();
+    /** Incremented on each change of index, prevents remembering of result of check that was done concurrently with change. */
+    private final AtomicLong                  modifications = new AtomicLong();
+    private final int                         maxWorkspaces;
+
+    ProjectRootIndex() {
+        this(MAX_WORKSPACES);
+    }
+
+    // for test
+    ProjectRootIndex(int maxWorkspaces) {
+        this.maxWorkspaces = maxWorkspaces;
+    }
+
+    /**
+     * Gets paths of projects that contain item with specified path, item itself isn't checked. Paths are sorted from the top project
+     * to the most nested module.
+     */
+    List<String> getProjects(String workspace, String path, Resolver resolver) {
+        List<String> projects = null;
+        Node node = getRoot(workspace);
+        final int length = path.length();
+        for (int start = 1, end; start < length && (end = path.indexOf('/', start)) > 0; start = end + 1) {
+            node = node.child(path.substring(start, end));
+            Boolean project = node.project;
+            if (project == null) {
+                final long modificationsBefore = modifications.get();
+                project = resolver.isProject(workspace, path.substring(0, end));
+                if (project != null && modifications.get() == modificationsBefore) {
+                    node.project = project;
+                }
+            }
+            if (project != null && project) {
+                if (projects == null) {
+                    projects = new ArrayList<>(2);
+                }
+                projects.add(path.substring(0, end));
+            } else if (project != null && projects == null) {
+                // Modules may be only inside of projects, don't remember folders of trees that don't belong to any project.
+                break;
+            }
+        }
+        return projects == null ? Collections.<String>emptyList() : projects;
+    }
+
+    /** Forgets whether folder with specified path is project, e.g. when its project.json is created or removed. */
+    void reset(String workspace, String path) {
+        modifications.incrementAndGet();
+        final Node node = find(workspace, path);
+        if (node != null) {
+            node.project = null;
+        }
+    }
+
+    /** Forgets about folder with specified path and all its sub-folders, e.g. when folder is removed or moved. */
+    void remove(String workspace, String path) {
+        modifications.incrementAndGet();
+        final int lastSlash = path.lastIndexOf('/');
+        if (lastSlash < 0 || lastSlash == path.length() - 1) {
+            if ("/".equals(path)) {
+                workspaces.remove(workspace);
+            }
+            return;
+        }
+        final Node parent = find(workspace, path.substring(0, lastSlash));
+        if (parent != null) {
+            parent.children.remove(path.substring(lastSlash + 1));
+        }
+    }
+
+    void clear() {
+        modifications.incrementAndGet();
+        workspaces.clear();
+    }
+
+    private Node getRoot(String workspace) {
+        Root root = workspaces.get(workspace);
+        if (root == null) {
+            final Root newRoot = new Root();
+            newRoot.lastAccess = System.nanoTime();
+            root = workspaces.putIfAbsent(workspace, newRoot);
+            if (root == null) {
+                if (workspaces.size() > maxWorkspaces) {
+                    evictLeastRecentlyUsed();
+                }
+                return newRoot;
+            }
+        }
+        root.lastAccess = System.nanoTime();
+        return root;
+    }
+
+    private synchronized void evictLeastRecentlyUsed() {
+        while (workspaces.size() > maxWorkspaces) {
+            Map.Entry<String, Root> eldest = null;
+            for (Map.Entry<String, Root> entry : workspaces.entrySet()) {
+                if (eldest == null || entry.getValue().lastAccess - eldest.getValue().lastAccess < 0) {
+                    eldest = entry;
+                }
+            }
+            if (eldest == null) {
+                return;
+            }
+            workspaces.remove(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    private Node find(String workspace, String path) {
+        Node node = workspaces.get(workspace);
+        for (String name : path.split("/")) {
+            if (node == null) {
+                break;
+            }
+            if (!name.isEmpty()) {
+                node = node.children.get(name);
+            }
+        }
+        return node;
+    }
+
+    private static class Node {
+        final ConcurrentMap<String, Node> children = new ConcurrentHashMap<>(4);
+        /** {@code TRUE} if folder is project, {@code FALSE} if it isn't and {@code null} if it isn't known yet. */
+        volatile Boolean project;
+
+        Node child(String name) {
+            Node child = children.get(name);
+            if (child == null) {
+                final Node newChild = new Node();
+                child = children.putIfAbsent(name, newChild);
+                if (child == null) {
+                    child = newChild;
+                }
+            }
+            return child;
+        }
+    }
+
+    private static class Root extends Node {
+        volatile long lastAccess;
+    }
+}
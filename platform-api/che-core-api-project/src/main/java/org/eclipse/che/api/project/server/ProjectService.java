@@ -55,6 +55,7 @@ import org.eclipse.che.api.project.shared.dto.RunnerEnvironmentLeaf;
 import org.eclipse.che.api.project.shared.dto.RunnerEnvironmentTree;
 import org.eclipse.che.api.project.shared.dto.RunnerSource;
 import org.eclipse.che.api.project.shared.dto.RunnersDescriptor;
+import org.eclipse.che.api.project.shared.dto.SearchSnippet;
 import org.eclipse.che.api.project.shared.dto.Source;
 import org.eclipse.che.api.project.shared.dto.SourceEstimation;
 import org.eclipse.che.api.project.shared.dto.TreeElement;
@@ -62,6 +63,8 @@ import org.eclipse.che.api.vfs.server.ContentStream;
 import org.eclipse.che.api.vfs.server.VirtualFile;
 import org.eclipse.che.api.vfs.server.VirtualFileSystemImpl;
 import org.eclipse.che.api.vfs.server.search.QueryExpression;
+import org.eclipse.che.api.vfs.server.search.SearchResult;
+import org.eclipse.che.api.vfs.server.search.Searcher;
 import org.eclipse.che.api.vfs.server.search.SearcherProvider;
 import org.eclipse.che.api.vfs.shared.dto.AccessControlEntry;
 import org.eclipse.che.api.vfs.shared.dto.Principal;
@@ -87,12 +90,18 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.GenericEntity;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriBuilder;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -121,6 +130,15 @@ public class ProjectService extends Service {
     private static final Logger  LOG                   = LoggerFactory.getLogger(ProjectService.class);
     private static final Pattern RUNNER_NAME_VALIDATOR = Pattern.compile("[\\w-]+((:/)?[^/\\\\]+)?");
 
+    static final String SEARCH_TOTAL_HITS_HEADER     = "X-Search-Total-Hits";
+    static final String SEARCH_NEXT_CURSOR_HEADER    = "X-Search-Next-Cursor";
+    /** Value is {@code false} if initial indexing of workspace is in progress and result may not contain all matched files. */
+    static final String SEARCH_INDEX_COMPLETE_HEADER = "X-Search-Index-Complete";
+    /** Max number of items that are read from index at once. */
+    private static final int SEARCH_PAGE_SIZE = 100;
+    /** Max number of items in search result that isn't streamed, the rest of result may be got with cursor. */
+    static final int         MAX_SEARCH_ITEMS = 1000;
+
     @Inject
     private ProjectManager              projectManager;
     @Inject
@@ -1137,13 +1155,13 @@ public class ProjectService extends Service {
     @GET
     @Path("/export/{path:.*}")
     @Produces(ExtMediaType.APPLICATION_ZIP)
-    public ContentStream exportZip(@ApiParam(value = "Workspace ID", required = true)
-                                   @PathParam("ws-id") String workspace,
-                                   @ApiParam(value = "Path to resource to be imported")
-                                   @PathParam("path") String path)
+    public Response exportZip(@ApiParam(value = "Workspace ID", required = true)
+                              @PathParam("ws-id") String workspace,
+                              @ApiParam(value = "Path to resource to be imported")
+                              @PathParam("path") String path)
             throws NotFoundException, ForbiddenException, ServerException {
         final FolderEntry folder = asFolder(workspace, path);
-        return VirtualFileSystemImpl.exportZip(folder.getVirtualFile());
+        return VirtualFileSystemImpl.exportZipStreaming(folder.getVirtualFile());
     }
 
     @POST
@@ -1310,7 +1328,12 @@ public class ProjectService extends Service {
     }
 
     @ApiOperation(value = "Search for resources",
-                  notes = "Search for resources applying a number of search filters as query parameters",
+                  notes = "Search for resources applying a number of search filters as query parameters. Total number of matched " +
+                          "resources is returned in header " + SEARCH_TOTAL_HITS_HEADER + ". If there are more matched resources than " +
+                          "returned, header " + SEARCH_NEXT_CURSOR_HEADER + " contains cursor that may be used to get next page of " +
+                          "result. Result that isn't streamed contains at most " + MAX_SEARCH_ITEMS + " items. Cursor isn't returned if " +
+                          "result is streamed. Header " + SEARCH_INDEX_COMPLETE_HEADER + " is false " +
+                          "if files of workspace are still being indexed and result may be incomplete",
                   response = ItemReference.class,
                   responseContainer = "List")
     @ApiResponses(value = {
@@ -1322,20 +1345,30 @@ public class ProjectService extends Service {
     @GET
     @Path("/search/{path:.*}")
     @Produces(MediaType.APPLICATION_JSON)
-    public List<ItemReference> search(@ApiParam(value = "Workspace ID", required = true)
-                                      @PathParam("ws-id") String workspace,
-                                      @ApiParam(value = "Path to resource, i.e. where to search?", required = true)
-                                      @PathParam("path") String path,
-                                      @ApiParam(value = "Resource name")
-                                      @QueryParam("name") String name,
-                                      @ApiParam(value = "Media type")
-                                      @QueryParam("mediatype") String mediatype,
-                                      @ApiParam(value = "Search keywords")
-                                      @QueryParam("text") String text,
-                                      @ApiParam(value = "Maximum items to display. If this parameter is dropped, there are no limits")
-                                      @QueryParam("maxItems") @DefaultValue("-1") int maxItems,
-                                      @ApiParam(value = "Skip count")
-                                      @QueryParam("skipCount") int skipCount)
+    public Response search(@ApiParam(value = "Workspace ID", required = true)
+                           @PathParam("ws-id") String workspace,
+                           @ApiParam(value = "Path to resource, i.e. where to search?", required = true)
+                           @PathParam("path") String path,
+                           @ApiParam(value = "Resource name")
+                           @QueryParam("name") String name,
+                           @ApiParam(value = "Media type")
+                           @QueryParam("mediatype") String mediatype,
+                           @ApiParam(value = "Search keywords")
+                           @QueryParam("text") String text,
+                           @ApiParam(value = "Maximum items to display. If this parameter is dropped, there are no limits for " +
+                                             "streamed result, otherwise result contains at most " + MAX_SEARCH_ITEMS + " items")
+                           @QueryParam("maxItems") @DefaultValue("-1") int maxItems,
+                           @ApiParam(value = "Skip count")
+                           @QueryParam("skipCount") int skipCount,
+                           @ApiParam(value = "Cursor of result from header " + SEARCH_NEXT_CURSOR_HEADER + " of previous page. " +
+                                             "If set then result starts from the item that follows the last item of previous page")
+                           @QueryParam("after") String after,
+                           @ApiParam(value = "Order of items", allowableValues = "relevance,path")
+                           @QueryParam("order") @DefaultValue("relevance") String order,
+                           @ApiParam(value = "Include lines of files that are matched to the search keywords")
+                           @QueryParam("snippets") boolean snippets,
+                           @ApiParam(value = "Write items to response as soon as they are found")
+                           @QueryParam("stream") boolean stream)
             throws NotFoundException, ForbiddenException, ConflictException, ServerException {
 
         // to search from workspace root path should end with "/" i.e /{ws}/search/?<query>
@@ -1345,38 +1378,129 @@ public class ProjectService extends Service {
             if (skipCount < 0) {
                 throw new ConflictException(String.format("Invalid 'skipCount' parameter: %d.", skipCount));
             }
+            final QueryExpression.Order searchOrder;
+            try {
+                searchOrder = QueryExpression.Order.valueOf(order.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new ConflictException(String.format("Invalid 'order' parameter: %s.", order));
+            }
             final QueryExpression expr = new QueryExpression()
                     .setPath(path.startsWith("/") ? path : ('/' + path))
                     .setName(name)
                     .setMediaType(mediatype)
-                    .setText(text);
-
-            final String[] result = searcherProvider.getSearcher(folder.getVirtualFile().getMountPoint(), true).search(expr);
+                    .setText(text)
+                    .setOrder(searchOrder)
+                    .setIncludeSnippets(snippets)
+                    .setAfter(after)
+                    .setSkipCount(skipCount)
+                    .setMaxItems(searchPageSize(maxItems, 0));
+
+            final Searcher searcher = searcherProvider.getSearcher(folder.getVirtualFile().getMountPoint(), true);
+            final SearchResult firstPage = searcher.searchPage(expr);
             if (skipCount > 0) {
-                if (skipCount > result.length) {
+                if (skipCount > firstPage.getTotalHits()) {
                     throw new ConflictException(
                             String.format("'skipCount' parameter: %d is greater then total number of items in result: %d.",
-                                          skipCount, result.length));
+                                          skipCount, firstPage.getTotalHits()));
                 }
             }
-            final int length = maxItems > 0 ? Math.min(result.length, maxItems) : result.length;
-            final List<ItemReference> items = new ArrayList<>(length);
             final FolderEntry root = projectManager.getProjectsRoot(workspace);
             final UriBuilder uriBuilder = getServiceContext().getServiceUriBuilder();
-            for (int i = skipCount; i < length; i++) {
-                VirtualFileEntry child = null;
-                try {
-                    child = root.getChild(result[i]);
-                } catch (ForbiddenException ignored) {
-                    // Ignore item that user can't access
+            final Response.ResponseBuilder response = Response.ok().header(SEARCH_TOTAL_HITS_HEADER, firstPage.getTotalHits())
+                                                              .header(SEARCH_INDEX_COMPLETE_HEADER, firstPage.isIndexComplete());
+            if (stream) {
+                return response.entity(new StreamingOutput() {
+                    @Override
+                    public void write(OutputStream output) throws IOException {
+                        final Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+                        writer.write('[');
+                        boolean first = true;
+                        try {
+                            int found = 0;
+                            for (SearchResult page = firstPage; page != null; page = nextSearchPage(searcher, expr, page, maxItems, found)) {
+                                for (ItemReference item : toItemReferences(root, page, uriBuilder)) {
+                                    if (!first) {
+                                        writer.write(',');
+                                    }
+                                    writer.write(DtoFactory.getInstance().toJson(item));
+                                    first = false;
+                                }
+                                // Send found items to client before searching for next page.
+                                writer.flush();
+                                found += page.getEntries().size();
+                            }
+                        } catch (ConflictException | ServerException e) {
+                            throw new IOException(e.getMessage(), e);
+                        }
+                        writer.write(']');
+                        writer.flush();
+                    }
+                }).build();
+            }
+            // Whole result is kept in memory, so its size is limited. Client gets cursor for the rest of result.
+            final int limit = maxItems > 0 && maxItems < MAX_SEARCH_ITEMS ? maxItems : MAX_SEARCH_ITEMS;
+            final List<ItemReference> items = new ArrayList<>();
+            SearchResult page = firstPage;
+            for (int found = 0; ; ) {
+                items.addAll(toItemReferences(root, page, uriBuilder));
+                found += page.getEntries().size();
+                final SearchResult next = nextSearchPage(searcher, expr, page, limit, found);
+                if (next == null) {
+                    break;
                 }
-                if (child != null && child.isFile()) {
-                    items.add(DtoConverter.toItemReferenceDto((FileEntry)child, uriBuilder.clone()));
+                page = next;
+            }
+            if (page.getNextCursor() != null) {
+                response.header(SEARCH_NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            return response.entity(new GenericEntity<List<ItemReference>>(items) {
+            }).build();
+        }
+        return Response.ok(new GenericEntity<List<ItemReference>>(Collections.<ItemReference>emptyList()) {
+        }).build();
+    }
+
+    /** Returns size of the next page of search result. Big result is read with pages of limited size to avoid keeping all of it in memory. */
+    private static int searchPageSize(int maxItems, int found) {
+        return maxItems > 0 ? Math.min(maxItems - found, SEARCH_PAGE_SIZE) : SEARCH_PAGE_SIZE;
+    }
+
+    /** Returns next page of search result or {@code null} if there is no more items or requested number of items is found. */
+    private static SearchResult nextSearchPage(Searcher searcher, QueryExpression expr, SearchResult page, int maxItems, int found)
+            throws ConflictException, ServerException {
+        if (page.getNextCursor() == null || (maxItems > 0 && found >= maxItems)) {
+            return null;
+        }
+        return searcher.searchPage(expr.setSkipCount(0).setAfter(page.getNextCursor()).setMaxItems(searchPageSize(maxItems, found)));
+    }
+
+    private static List<ItemReference> toItemReferences(FolderEntry root, SearchResult page, UriBuilder uriBuilder) throws ServerException {
+        final List<ItemReference> items = new ArrayList<>(page.getEntries().size());
+        for (SearchResult.Entry entry : page.getEntries()) {
+            VirtualFileEntry child = null;
+            try {
+                child = root.getChild(entry.getPath());
+            } catch (ForbiddenException ignored) {
+                // Ignore item that user can't access
+            }
+            if (child != null && child.isFile()) {
+                final ItemReference item = DtoConverter.toItemReferenceDto((FileEntry)child, uriBuilder.clone());
+                if (!entry.getSnippets().isEmpty()) {
+                    final List<SearchSnippet> snippets = new ArrayList<>(entry.getSnippets().size());
+                    for (SearchResult.Snippet snippet : entry.getSnippets()) {
+                        snippets.add(DtoFactory.getInstance().createDto(SearchSnippet.class)
+                                               .withLineNumber(snippet.getLineNumber())
+                                               .withColumn(snippet.getColumn())
+                                               .withText(snippet.getText())
+                                               .withStartOffset(snippet.getStartOffset())
+                                               .withEndOffset(snippet.getEndOffset()));
+                    }
+                    item.setSnippets(snippets);
                 }
+                items.add(item);
             }
-            return items;
         }
-        return Collections.emptyList();
+        return items;
     }
 
     @ApiOperation(value = "Get user permissions in a project",
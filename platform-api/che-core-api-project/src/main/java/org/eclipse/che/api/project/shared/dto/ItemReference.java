@@ -89,4 +89,12 @@ public interface ItemReference extends Hyperlinks {
 
     ItemReference withContentLength(long length);
 
+
+    /** Lines of file that are matched to the search query. Set only in result of search if snippets were requested. */
+    List<SearchSnippet> getSnippets();
+
+    void setSnippets(List<SearchSnippet> snippets);
+
+    ItemReference withSnippets(List<SearchSnippet> snippets);
+
 }
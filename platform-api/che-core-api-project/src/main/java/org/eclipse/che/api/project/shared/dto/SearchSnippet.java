@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.shared.dto;
+
+import org.eclipse.che.dto.shared.DTO;
+
+/**
+ * Fragment of line of file that contains word matched by search query.
+ */
+@DTO
+public interface SearchSnippet {
+    /** Number of line, the first line of file has number 1. */
+    int getLineNumber();
+
+    void setLineNumber(int lineNumber);
+
+    SearchSnippet withLineNumber(int lineNumber);
+
+    /** Offset of the matched word in the line. */
+    int getColumn();
+
+    void setColumn(int column);
+
+    SearchSnippet withColumn(int column);
+
+    /** Fragment of line, long lines are cut around the matched word. */
+    String getText();
+
+    void setText(String text);
+
+    SearchSnippet withText(String text);
+
+    /** Offset of the first character of the matched word in the fragment. */
+    int getStartOffset();
+
+    void setStartOffset(int startOffset);
+
+    SearchSnippet withStartOffset(int startOffset);
+
+    /** Offset after the last character of the matched word in the fragment. */
+    int getEndOffset();
+
+    void setEndOffset(int endOffset);
+
+    SearchSnippet withEndOffset(int endOffset);
+}
@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.project.server;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class ProjectRootIndexTest {
+    private ProjectRootIndex          index;
+    private Set<String>               projects;
+    private List<String>              resolved;
+    private ProjectRootIndex.Resolver resolver;
+
+    @BeforeMethod
+    public void setUp() {
+        index = new ProjectRootIndex();
+        projects = new HashSet<>(Arrays.asList("/a", "/a/b/c"));
+        resolved = new ArrayList<>();
+        resolver = new ProjectRootIndex.Resolver() {
+            @Override
+            public Boolean isProject(String workspace, String path) {
+                resolved.add(path);
+                return projects.contains(path);
+            }
+        };
+    }
+
+    @Test
+    public void testGetProjects() {
+        Assert.assertEquals(index.getProjects("ws", "/a/b/c/d/file.txt", resolver), Arrays.asList("/a", "/a/b/c"));
+        Assert.assertEquals(resolved, Arrays.asList("/a", "/a/b", "/a/b/c", "/a/b/c/d"));
+        resolved.clear();
+        Assert.assertEquals(index.getProjects("ws", "/a/b/c/d/other.txt", resolver), Arrays.asList("/a", "/a/b/c"));
+        Assert.assertEquals(index.getProjects("ws", "/a", resolver), Collections.emptyList());
+        Assert.assertTrue(resolved.isEmpty());
+    }
+
+    @Test
+    public void testDoNotCheckFoldersOutsideOfProjects() {
+        Assert.assertEquals(index.getProjects("ws", "/x/y/z/file.txt", resolver), Collections.emptyList());
+        Assert.assertEquals(index.getProjects("ws", "/x/y/other.txt", resolver), Collections.emptyList());
+        Assert.assertEquals(resolved, Collections.singletonList("/x"));
+    }
+
+    @Test
+    public void testReset() {
+        index.getProjects("ws", "/a/b/file.txt", resolver);
+        projects.add("/a/b");
+        index.reset("ws", "/a/b");
+        Assert.assertEquals(index.getProjects("ws", "/a/b/file.txt", resolver), Arrays.asList("/a", "/a/b"));
+        Assert.assertEquals(resolved, Arrays.asList("/a", "/a/b", "/a/b"));
+    }
+
+    @Test
+    public void testRemove() {
+        index.getProjects("ws", "/a/b/c/file.txt", resolver);
+        index.getProjects("other_ws", "/a/b/c/file.txt", resolver);
+        resolved.clear();
+        index.remove("ws", "/a/b");
+        index.getProjects("ws", "/a/b/c/file.txt", resolver);
+        index.getProjects("other_ws", "/a/b/c/file.txt", resolver);
+        Assert.assertEquals(resolved, Arrays.asList("/a/b", "/a/b/c"));
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsedWorkspace() {
+        index = new ProjectRootIndex(2);
+        index.getProjects("ws1", "/a/file.txt", resolver);
+        index.getProjects("ws2", "/a/file.txt", resolver);
+        index.getProjects("ws1", "/a/file.txt", resolver);
+        index.getProjects("ws3", "/a/file.txt", resolver);
+        resolved.clear();
+        index.getProjects("ws1", "/a/file.txt", resolver);
+        index.getProjects("ws3", "/a/file.txt", resolver);
+        Assert.assertTrue(resolved.isEmpty());
+        index.getProjects("ws2", "/a/file.txt", resolver);
+        Assert.assertEquals(resolved, Collections.singletonList("/a"));
+    }
+}
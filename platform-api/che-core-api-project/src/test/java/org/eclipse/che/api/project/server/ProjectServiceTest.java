@@ -47,6 +47,7 @@ import org.eclipse.che.api.project.shared.dto.RunnerConfiguration;
 import org.eclipse.che.api.project.shared.dto.RunnerEnvironmentLeaf;
 import org.eclipse.che.api.project.shared.dto.RunnerEnvironmentTree;
 import org.eclipse.che.api.project.shared.dto.RunnersDescriptor;
+import org.eclipse.che.api.project.shared.dto.SearchSnippet;
 import org.eclipse.che.api.project.shared.dto.Source;
 import org.eclipse.che.api.project.shared.dto.SourceEstimation;
 import org.eclipse.che.api.project.shared.dto.TreeElement;
@@ -99,6 +100,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.net.URLEncoder;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -118,6 +120,7 @@ import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
 import static org.testng.AssertJUnit.assertFalse;
 import static org.testng.AssertJUnit.assertTrue;
 
@@ -2722,6 +2725,109 @@ public class ProjectServiceTest {
         Assert.assertTrue(result.get(0).getPath().equals("/my_project/c/test"));
     }
 
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSearchPagesWithCursor() throws Exception {
+        Project myProject = pm.getProject(workspace, "my_project");
+        myProject.getBaseFolder().createFolder("a").createFile("test.txt", "test".getBytes(), MediaType.TEXT_PLAIN);
+        myProject.getBaseFolder().createFolder("b").createFile("test.txt", "test".getBytes(), MediaType.TEXT_PLAIN);
+        myProject.getBaseFolder().createFolder("c").createFile("test.txt", "test".getBytes(), MediaType.TEXT_PLAIN);
+
+        ContainerResponse response = launcher.service(HttpMethod.GET,
+                                                      String.format(
+                                                              "http://localhost:8080/api/project/%s/search/my_project?name=test.txt&order=path&maxItems=2",
+                                                              workspace),
+                                                      "http://localhost:8080/api", null, null, null);
+        assertEquals(response.getStatus(), 200, "Error: " + response.getEntity());
+        List<ItemReference> result = (List<ItemReference>)response.getEntity();
+        assertEquals(result.size(), 2);
+        assertEquals(result.get(0).getPath(), "/my_project/a/test.txt");
+        assertEquals(result.get(1).getPath(), "/my_project/b/test.txt");
+        assertEquals(response.getHttpHeaders().getFirst(ProjectService.SEARCH_TOTAL_HITS_HEADER).toString(), "3");
+        assertEquals(response.getHttpHeaders().getFirst(ProjectService.SEARCH_INDEX_COMPLETE_HEADER).toString(), "true");
+        String cursor = (String)response.getHttpHeaders().getFirst(ProjectService.SEARCH_NEXT_CURSOR_HEADER);
+        assertNotNull(cursor);
+
+        response = launcher.service(HttpMethod.GET,
+                                    String.format(
+                                            "http://localhost:8080/api/project/%s/search/my_project?name=test.txt&order=path&maxItems=2&after=%s",
+                                            workspace, URLEncoder.encode(cursor, "UTF-8")),
+                                    "http://localhost:8080/api", null, null, null);
+        assertEquals(response.getStatus(), 200, "Error: " + response.getEntity());
+        result = (List<ItemReference>)response.getEntity();
+        assertEquals(result.size(), 1);
+        assertEquals(result.get(0).getPath(), "/my_project/c/test.txt");
+        assertNull(response.getHttpHeaders().getFirst(ProjectService.SEARCH_NEXT_CURSOR_HEADER));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testLimitSearchResultThatIsNotStreamed() throws Exception {
+        Project myProject = pm.getProject(workspace, "my_project");
+        for (int i = 0; i <= ProjectService.MAX_SEARCH_ITEMS; i++) {
+            myProject.getBaseFolder().createFile("test" + i + ".txt", "test".getBytes(), MediaType.TEXT_PLAIN);
+        }
+
+        ContainerResponse response = launcher.service(HttpMethod.GET,
+                                                      String.format(
+                                                              "http://localhost:8080/api/project/%s/search/my_project?name=test*.txt",
+                                                              workspace),
+                                                      "http://localhost:8080/api", null, null, null);
+        assertEquals(response.getStatus(), 200, "Error: " + response.getEntity());
+        List<ItemReference> result = (List<ItemReference>)response.getEntity();
+        assertEquals(result.size(), ProjectService.MAX_SEARCH_ITEMS);
+        assertEquals(response.getHttpHeaders().getFirst(ProjectService.SEARCH_TOTAL_HITS_HEADER).toString(),
+                     String.valueOf(ProjectService.MAX_SEARCH_ITEMS + 1));
+        assertNotNull(response.getHttpHeaders().getFirst(ProjectService.SEARCH_NEXT_CURSOR_HEADER));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testSearchWithSnippets() throws Exception {
+        Project myProject = pm.getProject(workspace, "my_project");
+        myProject.getBaseFolder().createFolder("a").createFile("test.txt", "hello\nsay searchhit twice".getBytes(), MediaType.TEXT_PLAIN);
+
+        ContainerResponse response = launcher.service(HttpMethod.GET,
+                                                      String.format(
+                                                              "http://localhost:8080/api/project/%s/search/my_project?text=searchhit&snippets=true",
+                                                              workspace),
+                                                      "http://localhost:8080/api", null, null, null);
+        assertEquals(response.getStatus(), 200, "Error: " + response.getEntity());
+        List<ItemReference> result = (List<ItemReference>)response.getEntity();
+        assertEquals(result.size(), 1);
+        List<SearchSnippet> snippets = result.get(0).getSnippets();
+        assertEquals(snippets.size(), 1);
+        assertEquals(snippets.get(0).getLineNumber(), 2);
+        assertEquals(snippets.get(0).getColumn(), 4);
+        assertEquals(snippets.get(0).getText(), "say searchhit twice");
+        assertEquals(snippets.get(0).getStartOffset(), 4);
+        assertEquals(snippets.get(0).getEndOffset(), 13);
+    }
+
+    @Test
+    public void testSearchStreamsResult() throws Exception {
+        Project myProject = pm.getProject(workspace, "my_project");
+        for (int i = 0; i < 150; i++) {
+            myProject.getBaseFolder().createFile("test" + i + ".txt", "test".getBytes(), MediaType.TEXT_PLAIN);
+        }
+
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+        ContainerResponse response = launcher.service(HttpMethod.GET,
+                                                      String.format(
+                                                              "http://localhost:8080/api/project/%s/search/my_project?name=test*.txt&stream=true",
+                                                              workspace),
+                                                      "http://localhost:8080/api", null, null, writer, null);
+        assertEquals(response.getStatus(), 200, "Error: " + response.getEntity());
+        assertEquals(response.getHttpHeaders().getFirst(ProjectService.SEARCH_TOTAL_HITS_HEADER).toString(), "150");
+        List<ItemReference> result = DtoFactory.getInstance().createListDtoFromJson(new String(writer.getBody()), ItemReference.class);
+        assertEquals(result.size(), 150);
+        Set<String> paths = new HashSet<>(150);
+        for (ItemReference itemReference : result) {
+            paths.add(itemReference.getPath());
+        }
+        assertEquals(paths.size(), 150);
+    }
+
     @Test
     public void testSetBasicPermissions() throws Exception {
         Project myProject = pm.getProject(workspace, "my_project");
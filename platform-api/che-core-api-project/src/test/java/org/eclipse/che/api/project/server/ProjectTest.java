@@ -208,6 +208,42 @@ public class ProjectTest {
         Assert.assertTrue(modificationDate2 > modificationDate1);
     }
 
+    @Test
+    public void testModificationDateIsSavedToMiscFile() throws Exception {
+        Project myProject = pm.getProject("my_ws", "my_project");
+        myProject.getBaseFolder().createFolder("a").createFolder("b").createFile("test.txt", "test".getBytes(), MediaType.TEXT_PLAIN);
+        long modificationDate = myProject.getModificationDate();
+        Assert.assertTrue(modificationDate > 0);
+
+        ((DefaultProjectManager)pm).flushModifications();
+
+        FileEntry miscFile = (FileEntry)myProject.getBaseFolder().getChild(Constants.CODENVY_MISC_FILE_RELATIVE_PATH);
+        Assert.assertNotNull(miscFile);
+        Properties misc = new Properties();
+        misc.loadFromXML(miscFile.getInputStream());
+        Assert.assertEquals(Long.parseLong(misc.getProperty(ProjectMisc.UPDATED)), modificationDate);
+    }
+
+    @Test
+    public void testConfigIsCachedUntilProjectChanged() throws Exception {
+        Project myProject = pm.getProject("my_ws", "my_project");
+        Map<String, List<String>> attributes = new HashMap<>(2);
+        attributes.put("my_property_1", Arrays.asList("value_1", "value_2"));
+        new ProjectJson("my_project_type", attributes, null, null, "test project").save(myProject);
+
+        long hits = ((DefaultProjectManager)pm).getProjectConfigCacheStats().getHitCount();
+        ProjectConfig config = myProject.getConfig();
+        Assert.assertEquals(config.getDescription(), "test project");
+        // modification of returned config doesn't affect cached one
+        config.getAttributes().clear();
+        Assert.assertEquals(myProject.getConfig().getAttributes().get("my_property_1").getList(), Arrays.asList("value_1", "value_2"));
+        Assert.assertEquals(((DefaultProjectManager)pm).getProjectConfigCacheStats().getHitCount(), hits + 1);
+
+        // project.json is updated through virtual filesystem
+        new ProjectJson("my_project_type", attributes, null, null, "updated project").save(myProject);
+        Assert.assertEquals(myProject.getConfig().getDescription(), "updated project");
+    }
+
     @Test
     public void testIfDefaultBuilderRunnerAppearsInProject() throws Exception {
         Project myProject = pm.getProject("my_ws", "my_project");
@@ -22,6 +22,7 @@ import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.ForbiddenException;
 import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.core.ServiceUnavailableException;
 import org.eclipse.che.api.core.UnauthorizedException;
 import org.eclipse.che.api.core.notification.EventService;
 import org.eclipse.che.api.core.notification.EventSubscriber;
@@ -29,6 +30,7 @@ import org.eclipse.che.api.core.rest.HttpJsonHelper;
 import org.eclipse.che.api.core.rest.RemoteServiceDescriptor;
 import org.eclipse.che.api.core.rest.ServiceContext;
 import org.eclipse.che.api.core.rest.shared.dto.Link;
+import org.eclipse.che.api.core.util.AdmissionControl;
 import org.eclipse.che.api.core.util.ValueHolder;
 import org.eclipse.che.api.project.server.ProjectService;
 import org.eclipse.che.api.project.shared.EnvironmentId;
@@ -89,12 +91,11 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.SynchronousQueue;
-import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
@@ -117,6 +118,12 @@ public class RunQueue {
 
     private static final int DEFAULT_MAX_MEMORY_SIZE = 1000;
 
+    private static final int DEFAULT_QUEUE_THREADS  = 16;
+    private static final int DEFAULT_MAX_WAITING    = 1000;
+    private static final int DEFAULT_WS_MAX_WAITING = 10;
+    /** Number of seconds after that client may retry request rejected because of overloaded queue. */
+    private static final int OVERLOAD_RETRY_AFTER   = 30;
+
     private static final int APPLICATION_CHECK_URL_TIMEOUT = 2000;
     private static final int APPLICATION_CHECK_URL_COUNT   = 30;
 
@@ -136,8 +143,9 @@ public class RunQueue {
     private final Lock[]                                          resourceCheckerLocks;
     private final int                                             resourceCheckerMask;
 
-    private ExecutorService          executor;
+    private ScheduledExecutorService executor;
     private ScheduledExecutorService cleanScheduler;
+    private AdmissionControl         admission;
 
     /** Optional pre-configured slave runners. */
     @com.google.inject.Inject(optional = true)
@@ -158,6 +166,24 @@ public class RunQueue {
     @Named(Constants.RUNNER_WS_MAX_MEMORY_SIZE)
     private int defMaxMemorySize = DEFAULT_MAX_MEMORY_SIZE;
 
+    /**
+     * Number of threads that check status of builds and start applications on slave runners. Tasks that wait for the end of build or for
+     * runner with enough resources don't hold threads, so this number doesn't limit number of tasks in queue.
+     */
+    @com.google.inject.Inject(optional = true)
+    @Named(Constants.QUEUE_THREADS)
+    private int queueThreads = DEFAULT_QUEUE_THREADS;
+
+    @com.google.inject.Inject(optional = true)
+    @Named(Constants.QUEUE_MAX_WAITING)
+    private int maxWaiting = DEFAULT_MAX_WAITING;
+
+    @com.google.inject.Inject(optional = true)
+    @Named(Constants.QUEUE_WS_MAX_WAITING)
+    // Switched to default for test.
+    // private
+    int maxWaitingPerWorkspace = DEFAULT_WS_MAX_WAITING;
+
     // Switched to default for test.
     // private
     long cleanerPeriod              = PROCESS_CLEANER_PERIOD;
@@ -219,54 +245,15 @@ public class RunQueue {
     @PostConstruct
     public void start() {
         if (started.compareAndSet(false, true)) {
-            executor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS, new SynchronousQueue<Runnable>(),
-                                              new ThreadFactoryBuilder().setNameFormat("RunQueue-[%d]").setDaemon(true).build()) {
-                @Override
-                protected void afterExecute(Runnable runnable, Throwable error) {
-                    boolean isInterrupted = Thread.interrupted();
-                    try {
-                        super.afterExecute(runnable, error);
-                        if (runnable instanceof InternalRunTask) {
-                            final InternalRunTask internalRunTask = (InternalRunTask)runnable;
-                            if (error == null) {
-                                try {
-                                    internalRunTask.get();
-                                } catch (CancellationException e) {
-                                    LOG.warn("Task {}, workspace '{}', project '{}' was cancelled",
-                                             internalRunTask.id, internalRunTask.workspace, internalRunTask.project);
-                                    error = e;
-                                } catch (ExecutionException e) {
-                                    error = e.getCause();
-                                    logError(internalRunTask, error == null ? e : error);
-                                } catch (InterruptedException e) {
-                                    Thread.currentThread().interrupt();
-                                }
-                            } else {
-                                logError(internalRunTask, error);
-                            }
-                            if (error != null) {
-                                eventService.publish(RunnerEvent.errorEvent(internalRunTask.id, internalRunTask.workspace,
-                                                                            internalRunTask.project, error.getMessage()));
-                            }
-                        }
-                    } finally {
-                        if (isInterrupted) {
-                            Thread.currentThread().interrupt();
-                        }
-                    }
-                }
-
-                private void logError(InternalRunTask runTask, Throwable t) {
-                    String errorMessage = t.getMessage();
-                    if (errorMessage != null) {
-                        LOG.warn("Execution error, task {}, workspace '{}', project '{}', message '{}'",
-                                 runTask.id, runTask.workspace, runTask.project, errorMessage);
-                    } else {
-                        LOG.warn(String.format("Execution error, task %d, workspace '%s', project '%s', message '%s'",
-                                               runTask.id, runTask.workspace, runTask.project, ""), t);
-                    }
-                }
-            };
+            admission = new AdmissionControl(maxWaiting, maxWaitingPerWorkspace);
+            final ScheduledThreadPoolExecutor pool = new ScheduledThreadPoolExecutor(queueThreads,
+                                                                                     new ThreadFactoryBuilder().setNameFormat("RunQueue-[%d]")
+                                                                                                               .setDaemon(true).build());
+            pool.setKeepAliveTime(60L, TimeUnit.SECONDS);
+            pool.allowCoreThreadTimeOut(true);
+            // Waiting tasks are re-scheduled with delay, don't wait for them when queue is stopped.
+            pool.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+            executor = pool;
             cleanScheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("RunQueueScheduler-%d")
                                                                                                   .setDaemon(true).build());
             cleanScheduler.scheduleAtFixedRate(new Runnable() {
@@ -337,13 +324,13 @@ public class RunQueue {
             eventService.subscribe(new AnalyticsMessenger());
 
             if (slaves.length > 0) {
-                executor.execute(ThreadLocalPropagateContext.wrap(new RegisterSlaveRunnerTask(slaves, null)));
+                executor.execute(new RegisterSlaveRunnerTask(slaves, null));
             }
             if (slavesPaid.length > 0) {
-                executor.execute(ThreadLocalPropagateContext.wrap(new RegisterSlaveRunnerTask(slavesPaid, "paid")));
+                executor.execute(new RegisterSlaveRunnerTask(slavesPaid, "paid"));
             }
             if (slavesAlwaysOn.length > 0) {
-                executor.execute(ThreadLocalPropagateContext.wrap(new RegisterSlaveRunnerTask(slavesAlwaysOn, "always_on")));
+                executor.execute(new RegisterSlaveRunnerTask(slavesAlwaysOn, "always_on"));
             }
         } else {
             throw new IllegalStateException("Already started");
@@ -390,7 +377,8 @@ public class RunQueue {
         }
     }
 
-    public RunQueueTask run(String workspace, String project, ServiceContext serviceContext, RunOptions runOptions) throws RunnerException {
+    public RunQueueTask run(String workspace, String project, ServiceContext serviceContext, RunOptions runOptions)
+            throws RunnerException, ServiceUnavailableException {
         checkStarted();
         final DtoFactory dtoFactory = DtoFactory.getInstance();
         if (runOptions == null) {
@@ -506,6 +494,7 @@ public class RunQueue {
         }
         // Options for web shell that runner may provide to the server with running application.
         request.setShellOptions(runOptions.getShellOptions());
+        checkAdmission(workspace);
         final ValueHolder<BuildTaskDescriptor> buildTaskHolder = new ValueHolder<>();
         // Sometime user may request to skip build of project before run.
         final boolean skipBuild = runOptions.getSkipBuild();
@@ -521,13 +510,18 @@ public class RunQueue {
             // We want bundle of application with all dependencies (libraries) that application needs.
             buildOptions.setIncludeDependencies(true);
             buildOptions.setSkipTest(true);
-            final RemoteServiceDescriptor builderService = getBuilderServiceDescriptor(workspace, serviceContext);
-            // schedule build
-            buildTaskHolder.set(startBuild(builderService, project, buildOptions));
+            try {
+                final RemoteServiceDescriptor builderService = getBuilderServiceDescriptor(workspace, serviceContext);
+                // schedule build
+                buildTaskHolder.set(startBuild(builderService, project, buildOptions));
+            } catch (RunnerException | RuntimeException e) {
+                admission.release(workspace);
+                throw e;
+            }
         }
         final Callable<RemoteRunnerProcess> callable = createTaskFor(matchedRunners, request, buildTaskHolder);
         final Long id = sequence.getAndIncrement();
-        final InternalRunTask future = new InternalRunTask(ThreadLocalPropagateContext.wrap(callable), id, workspace, project);
+        final InternalRunTask future = new InternalRunTask(callable, id, workspace, project);
         request.setId(id); // for getting callback events from remote runner
         final RunQueueTask task = new RunQueueTask(id,
                                                    request,
@@ -543,6 +537,20 @@ public class RunQueue {
         return task;
     }
 
+    /**
+     * Checks limits of queue before accepting new task. Caller that gets error should retry later, we don't keep rejected tasks and don't
+     * block caller until queue has free space.
+     */
+    private void checkAdmission(String workspace) throws ServiceUnavailableException {
+        if (!admission.tryAcquire(workspace)) {
+            throw new ServiceUnavailableException(String.format(
+                    "Run queue is overloaded: %d applications are waiting for start, %d of them from workspace '%s'. Max allowed " +
+                    "number of waiting applications is %d, for one workspace %d. Try again later.",
+                    admission.getWaiting(), admission.getWaiting(workspace), workspace,
+                    admission.getMaxWaiting(), admission.getMaxWaitingPerWorkspace()), OVERLOAD_RETRY_AFTER);
+        }
+    }
+
     private void resolveProjectRunnerEnvironments(String infra, RunRequest request, ProjectDescriptor projectDescriptor,
                                                   String envName, List<RemoteRunner> matchedRunners) throws RunnerException {
         final List<String> recipesUrls = new LinkedList<>();
@@ -932,73 +940,67 @@ public class RunQueue {
     /* ============================================================================================ */
 
     private class RegisterSlaveRunnerTask implements Runnable {
-        final String[] mySlaves;
-        final String   infra;
+        final LinkedList<RemoteRunnerServer> offline;
 
         RegisterSlaveRunnerTask(String[] mySlaves, String infra) {
-            this.mySlaves = mySlaves;
-            this.infra = infra;
-        }
-
-        @Override
-        public void run() {
-            final LinkedList<RemoteRunnerServer> servers = new LinkedList<>();
+            offline = new LinkedList<>();
             for (String slaveUrl : mySlaves) {
                 try {
                     RemoteRunnerServer server = createRemoteRunnerServer(slaveUrl);
                     if (infra != null) {
                         server.setInfra(infra);
                     }
-                    servers.add(server);
+                    offline.add(server);
                 } catch (IllegalArgumentException e) {
                     LOG.error(e.getMessage(), e);
                 }
             }
-            final LinkedList<RemoteRunnerServer> offline = new LinkedList<>();
-            for (; ; ) {
-                while (!servers.isEmpty()) {
-                    if (Thread.currentThread().isInterrupted()) {
-                        return;
-                    }
-                    final RemoteRunnerServer server = servers.pop();
-                    if (server.isAvailable()) {
-                        try {
-                            doRegisterRunnerServer(server);
-                            LOG.debug("Pre-configured slave runner server '{}' registered.", server.getBaseUrl());
-                        } catch (RunnerException e) {
-                            LOG.error(e.getMessage(), e);
-                            offline.add(server);
-                        }
-                    } else {
-                        LOG.warn("Pre-configured slave runner server '{}' isn't responding.", server.getBaseUrl());
-                        offline.add(server);
-                    }
-                }
-                if (offline.isEmpty()) {
+        }
+
+        @Override
+        public void run() {
+            for (Iterator<RemoteRunnerServer> i = offline.iterator(); i.hasNext(); ) {
+                if (Thread.currentThread().isInterrupted()) {
                     return;
-                } else {
-                    servers.addAll(offline);
-                    offline.clear();
-                    synchronized (this) {
-                        try {
-                            wait(5000);
-                        } catch (InterruptedException e) {
-                            Thread.currentThread().interrupt();
-                            return;
-                        }
+                }
+                final RemoteRunnerServer server = i.next();
+                if (server.isAvailable()) {
+                    try {
+                        doRegisterRunnerServer(server);
+                        LOG.debug("Pre-configured slave runner server '{}' registered.", server.getBaseUrl());
+                        i.remove();
+                    } catch (RunnerException e) {
+                        LOG.error(e.getMessage(), e);
                     }
+                } else {
+                    LOG.warn("Pre-configured slave runner server '{}' isn't responding.", server.getBaseUrl());
+                }
+            }
+            if (!offline.isEmpty()) {
+                // Try again later. Don't keep thread of queue while waiting.
+                try {
+                    executor.schedule(this, 5, TimeUnit.SECONDS);
+                } catch (RejectedExecutionException ignored) {
+                    // Queue is stopped.
                 }
             }
         }
     }
 
 
+    /**
+     * Starts application on slave runner. Instance of this class is called multiple times, each call makes one step: checks status of
+     * build of application, if application needs build, or tries to find runner with enough resources. If the step can't be completed,
+     * e.g. build is in progress, it throws {@link RetryException} and should be called again after delay that is provided by exception.
+     */
     private class RemoteRunnerProcessCallable implements Callable<RemoteRunnerProcess> {
         private final ValueHolder<BuildTaskDescriptor> buildTaskHolder;
         private final RunRequest                       request;
         private final List<RemoteRunner>               matchedRunners;
         private final Set<Pair<String, String>>        lowDiskSpaceRunners;
         private final Set<Pair<String, String>>        criticalDiskSpaceRunners;
+        private          boolean                       buildChecked;
+        private volatile boolean                       buildDone;
 
         public RemoteRunnerProcessCallable(ValueHolder<BuildTaskDescriptor> buildTaskHolder, RunRequest request,
                                            List<RemoteRunner> matchedRunners) {
@@ -1011,85 +1013,73 @@ public class RunQueue {
 
         @Override
         public RemoteRunnerProcess call() throws Exception {
-            BuildTaskDescriptor buildDescriptor = buildTaskHolder.get();
-            if (buildDescriptor != null) {
-                final Link buildStatusLink = buildDescriptor.getLink(org.eclipse.che.api.builder.internal.Constants.LINK_REL_GET_STATUS);
-                if (buildStatusLink == null) {
-                    throw new RunnerException("Invalid response from builder service. Unable get URL for checking build status");
-                }
-                for (; ; ) {
-                    if (Thread.currentThread().isInterrupted()) {
-                        // Expected to get here if task is canceled. Try to cancel related runner process.
-                        tryCancelBuild(buildDescriptor);
-                        return null;
-                    }
-                    synchronized (this) {
-                        try {
-                            wait(checkBuildResultPeriod);
-                        } catch (InterruptedException e) {
-                            // Expected to get here if task is canceled. Try to cancel related build process.
-                            tryCancelBuild(buildDescriptor);
-                            return null;
-                        }
-                    }
-                    buildDescriptor = HttpJsonHelper.request(BuildTaskDescriptor.class, DtoFactory.getInstance().clone(buildStatusLink));
-                    // to be able show current state of build process with RunQueueTask.
-                    buildTaskHolder.set(buildDescriptor);
-                    final BuildStatus buildStatus = buildDescriptor.getStatus();
-                    if (buildStatus == BuildStatus.SUCCESSFUL) {
-                        request.withBuildTaskDescriptor(buildDescriptor);
-                        break; // get out from loop
-                    } else if (buildStatus == BuildStatus.CANCELLED || buildStatus == BuildStatus.FAILED) {
-                        String msg = "Unable start application. Build of application is failed or cancelled.";
-                        final Link logLink = buildDescriptor.getLink(org.eclipse.che.api.builder.internal.Constants.LINK_REL_VIEW_LOG);
-                        if (logLink != null) {
-                            msg += (" Build logs: " + logLink.getHref());
-                        }
-                        throw new RunnerException(msg);
-                    } else if (buildStatus == BuildStatus.IN_PROGRESS || buildStatus == BuildStatus.IN_QUEUE) {
-                        // wait
-                        LOG.debug("Build in of project '{}' from workspace '{}' is progress", request.getProject(), request.getWorkspace());
-                    }
+            if (!buildDone) {
+                final BuildTaskDescriptor buildDescriptor = buildTaskHolder.get();
+                if (buildDescriptor != null) {
+                    checkBuild(buildDescriptor);
                 }
+                buildDone = true;
             }
-
             // List of runners that have enough resources for launch application.
             final List<RemoteRunner> available = new LinkedList<>();
-            for (; ; ) {
-                for (RemoteRunner runner : matchedRunners) {
-                    if (Thread.currentThread().isInterrupted()) {
-                        // Expected to get here if task is canceled. Stop immediately.
-                        return null;
-                    }
-                    RunnerState runnerState;
-                    try {
-                        runnerState = runner.getRemoteRunnerState();
-                    } catch (Exception e) {
-                        LOG.error(e.getMessage(), e);
-                        continue;
-                    }
-                    if (runnerState.getServerState().getFreeMemory() >= request.getMemorySize()
-                        && hasEnoughSpaceOnDisk(runner.getName(), runner.getBaseUrl(), runnerState)) {
+            for (RemoteRunner runner : matchedRunners) {
+                RunnerState runnerState;
+                try {
+                    runnerState = runner.getRemoteRunnerState();
+                } catch (Exception e) {
+                    LOG.error(e.getMessage(), e);
+                    continue;
+                }
+                if (runnerState.getServerState().getFreeMemory() >= request.getMemorySize()
+                    && hasEnoughSpaceOnDisk(runner.getName(), runner.getBaseUrl(), runnerState)) {
 
-                        available.add(runner);
-                    }
+                    available.add(runner);
                 }
-                if (available.isEmpty()) {
-                    synchronized (this) {
-                        try {
-                            // Wait and try again.
-                            wait(checkAvailableRunnerPeriod);
-                        } catch (InterruptedException e) {
-                            // Expected to get here if task is canceled.
-                            Thread.currentThread().interrupt();
-                            return null;
-                        }
-                    }
-                } else {
-                    final RemoteRunner runner = available.size() > 1 ? runnerSelector.select(available) : available.get(0);
-                    LOG.info("Use runner '{}' at '{}'", runner.getName(), runner.getBaseUrl());
-                    return runner.run(request);
+            }
+            if (available.isEmpty()) {
+                // Wait and try again.
+                throw new RetryException(checkAvailableRunnerPeriod);
+            }
+            final RemoteRunner runner = available.size() > 1 ? runnerSelector.select(available) : available.get(0);
+            LOG.info("Use runner '{}' at '{}'", runner.getName(), runner.getBaseUrl());
+            return runner.run(request);
+        }
+
+        /** Returns normally if build is successful, throws {@code RetryException} if build isn't finished yet. */
+        private void checkBuild(BuildTaskDescriptor buildDescriptor) throws Exception {
+            final Link buildStatusLink = buildDescriptor.getLink(org.eclipse.che.api.builder.internal.Constants.LINK_REL_GET_STATUS);
+            if (buildStatusLink == null) {
+                throw new RunnerException("Invalid response from builder service. Unable get URL for checking build status");
+            }
+            if (!buildChecked) {
+                // Build is just started, don't check its status immediately.
+                buildChecked = true;
+                throw new RetryException(checkBuildResultPeriod);
+            }
+            buildDescriptor = HttpJsonHelper.request(BuildTaskDescriptor.class, DtoFactory.getInstance().clone(buildStatusLink));
+            // to be able show current state of build process with RunQueueTask.
+            buildTaskHolder.set(buildDescriptor);
+            final BuildStatus buildStatus = buildDescriptor.getStatus();
+            if (buildStatus == BuildStatus.SUCCESSFUL) {
+                request.withBuildTaskDescriptor(buildDescriptor);
+            } else if (buildStatus == BuildStatus.CANCELLED || buildStatus == BuildStatus.FAILED) {
+                String msg = "Unable start application. Build of application is failed or cancelled.";
+                final Link logLink = buildDescriptor.getLink(org.eclipse.che.api.builder.internal.Constants.LINK_REL_VIEW_LOG);
+                if (logLink != null) {
+                    msg += (" Build logs: " + logLink.getHref());
                 }
+                throw new RunnerException(msg);
+            } else {
+                LOG.debug("Build in of project '{}' from workspace '{}' is progress", request.getProject(), request.getWorkspace());
+                throw new RetryException(checkBuildResultPeriod);
+            }
+        }
+
+        /** Called if task is canceled. Tries to cancel related build process if it isn't finished yet. */
+        void cancelBuild() {
+            final BuildTaskDescriptor buildDescriptor = buildTaskHolder.get();
+            if (!buildDone && buildDescriptor != null) {
+                tryCancelBuild(buildDescriptor);
             }
         }
 
@@ -1140,17 +1130,88 @@ public class RunQueue {
         }
     }
 
-    // for store workspace, project and id of process with FutureTask
-    private static class InternalRunTask extends FutureTask<RemoteRunnerProcess> {
-        final Long   id;
-        final String workspace;
-        final String project;
+    /**
+     * Run task that doesn't hold thread while it waits for the end of build or for runner with enough resources. If callable of task
+     * throws {@link RetryException} task is re-scheduled with delay that is provided by exception.
+     */
+    private class InternalRunTask extends FutureTask<RemoteRunnerProcess> {
+        final Long                          id;
+        final String                        workspace;
+        final String                        project;
+        final Callable<RemoteRunnerProcess> callable;
+        final Callable<RemoteRunnerProcess> wrapped;
 
         InternalRunTask(Callable<RemoteRunnerProcess> callable, Long id, String workspace, String project) {
             super(callable);
+            this.callable = callable;
             this.id = id;
             this.workspace = workspace;
             this.project = project;
+            wrapped = ThreadLocalPropagateContext.wrap(callable);
+        }
+
+        @Override
+        public void run() {
+            if (isDone()) {
+                return;
+            }
+            try {
+                set(wrapped.call());
+            } catch (RetryException e) {
+                try {
+                    executor.schedule(this, e.delay, TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException ree) {
+                    // Queue is stopped.
+                    cancel(false);
+                }
+            } catch (Throwable e) {
+                setException(e);
+            }
+        }
+
+        @Override
+        protected void done() {
+            admission.release(workspace);
+            Throwable error = null;
+            try {
+                get();
+            } catch (CancellationException e) {
+                LOG.warn("Task {}, workspace '{}', project '{}' was cancelled", id, workspace, project);
+                if (callable instanceof RemoteRunnerProcessCallable) {
+                    ((RemoteRunnerProcessCallable)callable).cancelBuild();
+                }
+                error = e;
+            } catch (ExecutionException e) {
+                error = e.getCause();
+                logError(error == null ? e : error);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (error != null) {
+                eventService.publish(RunnerEvent.errorEvent(id, workspace, project, error.getMessage()));
+            }
+        }
+
+        private void logError(Throwable t) {
+            String errorMessage = t.getMessage();
+            if (errorMessage != null) {
+                LOG.warn("Execution error, task {}, workspace '{}', project '{}', message '{}'", id, workspace, project, errorMessage);
+            } else {
+                LOG.warn(String.format("Execution error, task %d, workspace '%s', project '%s', message '%s'", id, workspace, project, ""),
+                         t);
+            }
+        }
+    }
+
+    /** Thrown by step of {@link InternalRunTask} that can't be completed now and should be retried later. */
+    @SuppressWarnings("serial")
+    private static class RetryException extends Exception {
+        final long delay;
+
+        RetryException(long delay) {
+            // Stack trace isn't needed, it's expected control flow.
+            super(null, null, false, false);
+            this.delay = delay;
         }
     }
 
@@ -1205,12 +1266,16 @@ public class RunQueue {
 
     // >>>>>>>>>>>>>>>>>>>>>>>>>>>>> application start checker
 
-    private static class ApplicationUrlChecker implements Runnable {
+    /** Checks application URL a few times with delay between attempts and notifies client when application is available. */
+    private class ApplicationUrlChecker implements Runnable {
         final long taskId;
         final URL  url;
         final int  healthCheckerTimeout;
         final int  healthCheckAttempts;
 
+        String requestMethod = HttpMethod.HEAD;
+        int    attempts;
+
         ApplicationUrlChecker(long taskId, URL url, int healthCheckerTimeout, int healthCheckAttempts) {
             this.taskId = taskId;
             this.url = url;
@@ -1218,59 +1283,63 @@ public class RunQueue {
             this.healthCheckAttempts = healthCheckAttempts;
         }
 
+        /** Schedules next check of application URL. Thread isn't blocked while waiting for the next attempt. */
+        void schedule() {
+            try {
+                executor.schedule(this, healthCheckerTimeout, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException ignored) {
+                // Queue is stopped.
+            }
+        }
+
         @Override
         public void run() {
-            boolean ok = false;
-            String requestMethod = HttpMethod.HEAD;
-            for (int i = 0; !ok && i < healthCheckAttempts; i++) {
-                if (Thread.currentThread().isInterrupted()) {
-                    return;
+            if (!check() && ++attempts < healthCheckAttempts) {
+                schedule();
+            }
+        }
+
+        private boolean check() {
+            HttpURLConnection conn = null;
+            try {
+                conn = (HttpURLConnection)url.openConnection();
+                conn.setRequestMethod(requestMethod);
+                conn.setConnectTimeout(1000);
+                conn.setReadTimeout(1000);
+
+                LOG.debug(String.format("Response code: %d.", conn.getResponseCode()));
+                if (405 == conn.getResponseCode()) {
+                    // In case of Method not allowed, we use get instead of HEAD. X-HTTP-Method-Override would be nice but support is
+                    // to weak and will trigger much more GET than with this fallback.
+                    // Note: Response.Status in JAX-WS in JEE6 hasn't any status matching 405, so here we use int code comparison. Fixed
+                    // in JEE7.
+                    requestMethod = HttpMethod.GET;
                 }
-                try {
-                    Thread.sleep(healthCheckerTimeout);
-                } catch (InterruptedException e) {
-                    return;
+                Response.Status status = Response.Status.fromStatusCode(conn.getResponseCode());
+                if (status == null) {
+                    return false;
                 }
-                HttpURLConnection conn = null;
-                try {
-                    conn = (HttpURLConnection)url.openConnection();
-                    conn.setRequestMethod(requestMethod);
-                    conn.setConnectTimeout(1000);
-                    conn.setReadTimeout(1000);
-
-                    LOG.debug(String.format("Response code: %d.", conn.getResponseCode()));
-                    if (405 == conn.getResponseCode()) {
-                        // In case of Method not allowed, we use get instead of HEAD. X-HTTP-Method-Override would be nice but support is
-                        // to weak and will trigger much more GET than with this fallback.
-                        // Note: Response.Status in JAX-WS in JEE6 hasn't any status matching 405, so here we use int code comparison. Fixed
-                        // in JEE7.
-                        requestMethod = HttpMethod.GET;
-                    }
-                    Response.Status status = Response.Status.fromStatusCode(conn.getResponseCode());
-                    if (status == null) {
-                        continue;
-                    }
-                    if (Response.Status.Family.SUCCESSFUL == status.getFamily()
-                        || Response.Status.Family.REDIRECTION == status.getFamily()
-                        || Response.Status.Family.INFORMATIONAL == status.getFamily()) {
-                        ok = true;
-                        LOG.debug("Application URL '{}' - OK", url);
-                        final ChannelBroadcastMessage bm = new ChannelBroadcastMessage();
-                        bm.setChannel(String.format("runner:app_health:%d", taskId));
-                        bm.setBody(String.format("{\"url\":%s,\"status\":\"%s\"}", JsonUtils.getJsonString(url.toString()), "OK"));
-                        try {
-                            WSConnectionContext.sendMessage(bm);
-                        } catch (Exception e) {
-                            LOG.error(e.getMessage(), e);
-                        }
-                    }
-                } catch (IOException ignored) {
-                } finally {
-                    if (conn != null) {
-                        conn.disconnect();
+                if (Response.Status.Family.SUCCESSFUL == status.getFamily()
+                    || Response.Status.Family.REDIRECTION == status.getFamily()
+                    || Response.Status.Family.INFORMATIONAL == status.getFamily()) {
+                    LOG.debug("Application URL '{}' - OK", url);
+                    final ChannelBroadcastMessage bm = new ChannelBroadcastMessage();
+                    bm.setChannel(String.format("runner:app_health:%d", taskId));
+                    bm.setBody(String.format("{\"url\":%s,\"status\":\"%s\"}", JsonUtils.getJsonString(url.toString()), "OK"));
+                    try {
+                        WSConnectionContext.sendMessage(bm);
+                    } catch (Exception e) {
+                        LOG.error(e.getMessage(), e);
                     }
+                    return true;
+                }
+            } catch (IOException ignored) {
+            } finally {
+                if (conn != null) {
+                    conn.disconnect();
                 }
             }
+            return false;
         }
     }
 
@@ -1341,10 +1410,10 @@ public class RunQueue {
                             if (event.getType() == RunnerEvent.EventType.STARTED) {
                                 final Link appLink = descriptor.getLink(Constants.LINK_REL_WEB_URL);
                                 if (appLink != null) {
-                                    executor.execute(new ApplicationUrlChecker(id,
-                                                                               new URL(appLink.getHref()),
-                                                                               APPLICATION_CHECK_URL_TIMEOUT,
-                                                                               APPLICATION_CHECK_URL_COUNT));
+                                    new ApplicationUrlChecker(id,
+                                                              new URL(appLink.getHref()),
+                                                              APPLICATION_CHECK_URL_TIMEOUT,
+                                                              APPLICATION_CHECK_URL_COUNT).schedule();
                                 }
                             }
                         } catch (RunnerException re) {
@@ -1367,8 +1436,8 @@ public class RunQueue {
                         final RunnerEvent.LoggedMessage message = event.getMessage();
                         if (message != null) {
                             bm.setChannel(String.format("runner:output:%d", id));
-                            bm.setBody(String.format("{\"num\":%d, \"line\":%s}",
-                                                     message.getLineNum(), JsonUtils.getJsonString(message.getMessage())));
+                            bm.setBody(String.format("{\"num\":%d, \"lines\":%d, \"line\":%s}", message.getLineNum(),
+                                                     message.getLines(), JsonUtils.getJsonString(message.getMessage())));
                         }
                         break;
                 }
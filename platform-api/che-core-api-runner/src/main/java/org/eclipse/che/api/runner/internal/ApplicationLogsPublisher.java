@@ -11,60 +11,54 @@
 package org.eclipse.che.api.runner.internal;
 
 import org.eclipse.che.api.core.notification.EventService;
-import org.eclipse.che.api.core.util.RateExceedDetector;
+import org.eclipse.che.api.core.util.LineChunkPublisher;
+
+import com.google.common.base.Joiner;
 
 import java.io.IOException;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.List;
 
 /**
- * Publishes application's outputs to the EventService.
+ * Publishes application's outputs to the EventService. Lines are published in chunks, see {@link LineChunkPublisher}. If application
+ * exceeds rate of output lines that are above the limit are not published, instead of them a warning with number of skipped lines is
+ * published. All lines are still written to the underlying logger.
  *
  * @author andrew00x
  */
 public class ApplicationLogsPublisher extends DelegateApplicationLogger {
-    private final AtomicInteger      lineCounter;
-    private final EventService       eventService;
-    private final long               processId;
-    private final String             workspace;
-    private final String             project;
-    private final RateExceedDetector maxEventRateChecker;
+    static final int  MAX_CHUNK_LINES      = 100;
+    static final int  MAX_CHUNK_CHARACTERS = 8192;
+    static final long MAX_CHUNK_DELAY      = 200;
 
-    private boolean outputEnabled = true;
+    private final LineChunkPublisher chunkPublisher;
 
     int maxLogsRate = 60;
 
     public ApplicationLogsPublisher(ApplicationLogger delegate,
-                                    EventService eventService,
-                                    long processId,
-                                    String workspace,
-                                    String project) {
+                                    final EventService eventService,
+                                    final long processId,
+                                    final String workspace,
+                                    final String project) {
         super(delegate);
-        this.eventService = eventService;
-        this.processId = processId;
-        this.workspace = workspace;
-        this.project = project;
-        lineCounter = new AtomicInteger(1);
-        maxEventRateChecker = new RateExceedDetector(maxLogsRate);
+        chunkPublisher = new LineChunkPublisher(MAX_CHUNK_LINES, MAX_CHUNK_CHARACTERS, MAX_CHUNK_DELAY, maxLogsRate) {
+            @Override
+            protected void publish(int firstLineNum, List<String> lines) {
+                final RunnerEvent.LoggedMessage message =
+                        new RunnerEvent.LoggedMessage(Joiner.on('\n').join(lines), firstLineNum, lines.size());
+                eventService.publish(RunnerEvent.messageLoggedEvent(processId, workspace, project, message));
+            }
+        };
     }
 
     @Override
     public void writeLine(String line) throws IOException {
-        if (outputEnabled) {
-            double rate;
-            if (maxEventRateChecker.updateAndCheckRate() && (rate = maxEventRateChecker.getRate()) > maxLogsRate) {
-                outputEnabled = false;
-                final String message = String.format(
-                        "[WARNING] Application '%s' has exceeded output rate of %.2f messages / second. Application output has been disabled.",
-                        project.startsWith("/") ? project.substring(1) : project, rate);
-                eventService.publish(RunnerEvent.messageLoggedEvent(processId, workspace, project,
-                                                                    new RunnerEvent.LoggedMessage(message, lineCounter.getAndIncrement())));
-                return;
-            }
-            if (line != null) {
-                eventService.publish(RunnerEvent.messageLoggedEvent(processId, workspace, project,
-                                                                    new RunnerEvent.LoggedMessage(line, lineCounter.getAndIncrement())));
-            }
-        }
+        chunkPublisher.writeLine(line);
         super.writeLine(line);
     }
+
+    @Override
+    public void close() throws IOException {
+        chunkPublisher.close();
+        super.close();
+    }
 }
@@ -64,6 +64,12 @@ public class Constants {
     public static final String APP_LIFETIME                       = "runner.app_lifetime";
     /** Name of configuration parameter that sets amount of memory (in megabytes) for running applications. */
     public static final String TOTAL_APPS_MEM_SIZE                = "runner.total_apps_mem_size_mb";
+    /** Number of threads of run queue that wait for build results and start applications on slave runners. */
+    public static final String QUEUE_THREADS                      = "runner.queue.threads_number";
+    /** Max number of applications that may wait for start. Zero or negative value means no limit. */
+    public static final String QUEUE_MAX_WAITING                  = "runner.queue.max_waiting_tasks";
+    /** Max number of applications of one workspace that may wait for start. Zero or negative value means no limit. */
+    public static final String QUEUE_WS_MAX_WAITING               = "runner.queue.workspace.max_waiting_tasks";
 
     public static final String RUNNER_ASSIGNED_TO_WORKSPACE = "runner.assigned_to_workspace";
     public static final String RUNNER_ASSIGNED_TO_PROJECT   = "runner.assigned_to_project";
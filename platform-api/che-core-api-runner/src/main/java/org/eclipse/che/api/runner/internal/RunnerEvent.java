@@ -10,13 +10,14 @@
  *******************************************************************************/
 package org.eclipse.che.api.runner.internal;
 
+import org.eclipse.che.api.core.notification.DroppableEvent;
 import org.eclipse.che.api.core.notification.EventOrigin;
 
 /**
  * @author andrew00x
  */
 @EventOrigin("runner")
-public class RunnerEvent {
+public class RunnerEvent implements DroppableEvent {
     public enum EventType {
         /** Application launching process started. */
         PREPARATION_STARTED("preparation started"),
@@ -58,12 +59,27 @@ public class RunnerEvent {
     public static class LoggedMessage {
         private String message;
         private int    lineNum;
+        private int    lines = 1;
 
         public LoggedMessage(String message, int lineNum) {
             this.message = message;
             this.lineNum = lineNum;
         }
 
+        /**
+         * @param message
+         *         lines separated with '\n'
+         * @param lineNum
+         *         number of the first line
+         * @param lines
+         *         number of lines in message
+         */
+        public LoggedMessage(String message, int lineNum, int lines) {
+            this.message = message;
+            this.lineNum = lineNum;
+            this.lines = lines;
+        }
+
         public LoggedMessage() {
         }
 
@@ -83,11 +99,21 @@ public class RunnerEvent {
             this.lineNum = lineNum;
         }
 
+        /** Gets number of lines in message. */
+        public int getLines() {
+            return lines;
+        }
+
+        public void setLines(int lines) {
+            this.lines = lines;
+        }
+
         @Override
         public String toString() {
             return "LoggedMessage{" +
                    "message='" + message + '\'' +
                    ", lineNum=" + lineNum +
+                   ", lines=" + lines +
                    '}';
         }
     }
@@ -171,6 +197,12 @@ public class RunnerEvent {
         this.type = type;
     }
 
+    /** Lines of log may be dropped if client doesn't keep up, events that change state of process may not. */
+    @Override
+    public boolean canBeDropped() {
+        return type == EventType.MESSAGE_LOGGED;
+    }
+
     public long getProcessId() {
         return processId;
     }
@@ -14,6 +14,7 @@ import org.eclipse.che.api.builder.BuildStatus;
 import org.eclipse.che.api.builder.RemoteBuilderServer;
 import org.eclipse.che.api.builder.dto.BuildOptions;
 import org.eclipse.che.api.builder.dto.BuildTaskDescriptor;
+import org.eclipse.che.api.core.ServiceUnavailableException;
 import org.eclipse.che.api.core.notification.EventService;
 import org.eclipse.che.api.core.rest.HttpJsonHelper;
 import org.eclipse.che.api.core.rest.RemoteServiceDescriptor;
@@ -641,6 +642,31 @@ public class RunQueueTest {
         runQueue.run(wsId, pPath, serviceContext, dto(RunOptions.class).withMemorySize(129));
     }
 
+    @Test(expectedExceptions = {ServiceUnavailableException.class},
+            expectedExceptionsMessageRegExp = "Run queue is overloaded: 1 applications are waiting for start, 1 of them from workspace " +
+                                              "'my_ws'. Max allowed number of waiting applications is 1000, for one workspace 1. Try " +
+                                              "again later.")
+    public void testErrorWhenTooManyApplicationsAreWaitingForStart() throws Exception {
+        runQueue.stop();
+        runQueue.maxWaitingPerWorkspace = 1;
+        runQueue.start();
+        RemoteRunnerServer runnerServer = registerDefaultRunnerServer();
+        RemoteRunner runner = runnerServer.getRemoteRunner("java/web");
+        // No free memory, first application waits for runner.
+        doReturn(dto(RunnerState.class).withServerState(dto(ServerState.class).withFreeMemory(0))).when(runner).getRemoteRunnerState();
+
+        ServiceContext serviceContext = newServiceContext();
+        project.withRunners(dto(RunnersDescriptor.class).withDefault("system:/java/web/tomcat7"));
+
+        doReturn(project).when(runQueue).getProjectDescriptor(wsId, pPath, serviceContext);
+        doReturn(workspace).when(runQueue).getWorkspaceDescriptor(wsId, serviceContext);
+        doNothing().when(runQueue).checkResources(eq(workspace), any(RunRequest.class));
+
+        RunQueueTask task = runQueue.run(wsId, pPath, serviceContext, null);
+        assertTrue(task.isWaiting());
+        runQueue.run(wsId, pPath, serviceContext, null);
+    }
+
     @Test
     public void testWhenRunningOutOfDiskSpace() throws Exception {
         RemoteRunnerServer runnerServer = registerDefaultRunnerServer();
@@ -10,6 +10,11 @@
  *******************************************************************************/
 package org.eclipse.che.api.vfs.server;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 /**
  * Advisory file locks. It does not prevent access to the file from other programs.
  * <p/>
@@ -30,15 +35,38 @@ package org.eclipse.che.api.vfs.server;
  *         }
  *      }
  * </pre>
+ * Locks are hierarchical: shared lock of path conflicts with exclusive lock of any parent or child path and exclusive
+ * lock of path conflicts with any lock of parent or child path. Locks obtained by the same thread never conflict.
+ * <p/>
+ * Implementation uses multiple granularity locking. Each path element has own node in the lock table. Thread that
+ * acquires lock for path puts "intention" lock on each parent node and real lock on the node of the path itself, so
+ * cost of acquiring lock depends on depth of the path and does not depend on number of locks that are held. Thread
+ * that can't get lock does not keep partially acquired intention locks, it releases them and waits on the node that
+ * prevents it from getting lock. Release of lock wakes up only threads that are waiting on released nodes.
  *
  * @author <a href="mailto:andrew00x@gmail.com">Andrey Parfonov</a>
  */
 public final class PathLockFactory {
     private static final int MAX_RECURSIVE_LOCKS = (1 << 10) - 1;
+
+    // Lock modes.
+    private static final int INTENTION_SHARED    = 0;
+    private static final int INTENTION_EXCLUSIVE = 1;
+    private static final int SHARED              = 2;
+    private static final int EXCLUSIVE           = 3;
+
+    /** Compatibility of lock modes, e.g. COMPATIBLE[requested][held]. */
+    private static final boolean[][] COMPATIBLE = {
+            //  IS     IX     S      X
+            {true, true, true, false},   // IS
+            {true, true, false, false},  // IX
+            {true, false, true, false},  // S
+            {false, false, false, false} // X
+    };
+
     /** Max number of threads allowed to access file. */
-    private final int maxThreads;
-    // Tail of the "lock table".
-    private final Node tail = new Node(null, 0, null);
+    private final int                       maxThreads;
+    private final ConcurrentMap<Path, Node> nodes;
 
     /**
      * @param maxThreads
@@ -50,145 +78,203 @@ public final class PathLockFactory {
             throw new IllegalArgumentException();
         }
         this.maxThreads = maxThreads;
+        nodes = new ConcurrentHashMap<>();
     }
 
     public PathLock getLock(Path path, boolean exclusive) {
-        return new PathLock(path, exclusive ? maxThreads : 1);
+        return new PathLock(path, exclusive || maxThreads == 1);
     }
 
-    private synchronized void acquire(Path path, int permits) {
-        while (!tryAcquire(path, permits)) {
+    private void acquire(Path path, boolean exclusive, long timeoutMilliseconds) {
+        final long endTime = timeoutMilliseconds > 0 ? System.currentTimeMillis() + timeoutMilliseconds : 0;
+        final Thread current = Thread.currentThread();
+        final Path[] hierarchy = hierarchy(path);
+        final int last = hierarchy.length - 1;
+        for (; ; ) {
+            Node blocker = null;
+            long blockerVersion = 0;
+            int locked = 0;
+            for (; locked <= last; locked++) {
+                final int mode = modeOf(exclusive, locked == last);
+                final Node node = pin(hierarchy[locked]);
+                synchronized (node) {
+                    if (node.tryAcquire(current, mode)) {
+                        continue;
+                    }
+                    blocker = node;
+                    blockerVersion = node.version;
+                }
+                break;
+            }
+            if (blocker == null) {
+                return;
+            }
+            // Don't keep intention locks while waiting, otherwise threads that wait for each other may be dead locked.
+            for (int i = locked - 1; i >= 0; i--) {
+                release(hierarchy[i], current, modeOf(exclusive, false));
+            }
             try {
-                wait();
-            } catch (InterruptedException e) {
-                notifyAll();
-                throw new RuntimeException(e);
+                await(blocker, blockerVersion, path, endTime);
+            } finally {
+                unpin(hierarchy[locked]);
             }
         }
     }
 
-    private synchronized void acquire(Path path, int permits, long timeoutMilliseconds) {
-        final long endTime = System.currentTimeMillis() + timeoutMilliseconds;
-        long waitTime = timeoutMilliseconds;
-        while (!tryAcquire(path, permits)) {
+    private void await(Node node, long version, Path path, long endTime) {
+        synchronized (node) {
+            node.waiters++;
             try {
-                wait(waitTime);
+                while (node.version == version) {
+                    if (endTime > 0) {
+                        final long waitTime = endTime - System.currentTimeMillis();
+                        if (waitTime <= 0) {
+                            throw new RuntimeException(String.format("Get lock timeout for '%s'. ", path));
+                        }
+                        node.wait(waitTime);
+                    } else {
+                        node.wait();
+                    }
+                }
             } catch (InterruptedException e) {
-                notifyAll();
                 throw new RuntimeException(e);
+            } finally {
+                node.waiters--;
             }
-            long now = System.currentTimeMillis();
-            if (now >= endTime) {
-                throw new RuntimeException(String.format("Get lock timeout for '%s'. ", path));
-            }
-            waitTime = endTime - now;
         }
     }
 
-    private synchronized void release(Path path, int permits) {
-        Node node = tail;
-        while (node != null) {
-            Node prev = node.prev;
-            if (prev == null) {
-                break;
-            }
-            if (prev.path.equals(path)) {
-                if (prev.threadDeep == 1) {
-                    // If last recursive lock.
-                    prev.permits += permits;
-                    if (prev.permits >= maxThreads) {
-                        // remove
-                        node.prev = prev.prev;
-                        prev.prev = null;
-                    }
-                } else {
-                    --prev.threadDeep;
-                }
+    private void release(Path path, boolean exclusive) {
+        final Thread current = Thread.currentThread();
+        final Path[] hierarchy = hierarchy(path);
+        final int last = hierarchy.length - 1;
+        if (release(hierarchy[last], current, modeOf(exclusive, true))) {
+            for (int i = last - 1; i >= 0; i--) {
+                release(hierarchy[i], current, modeOf(exclusive, false));
             }
-            node = node.prev;
         }
-        notifyAll();
-        //System.err.printf(">>>>> release: %s : %d%n", path, permits);
     }
 
-    private boolean tryAcquire(Path path, int permits) {
-        //System.err.printf(">>>>> acquire: %s : %d%n", path, permits);
-        Node node = tail.prev;
-        final Thread current = Thread.currentThread();
-        while (node != null) {
-            if (node.path.equals(path)) {
-                if (node.threadId == current.getId()) {
-                    // Current thread already has direct lock for this path
-                    if (node.threadDeep > MAX_RECURSIVE_LOCKS) {
-                        throw new Error("Max number of recursive locks exceeded. ");
-                    }
-                    ++node.threadDeep;
-                    return true;
-                }
-                if (node.permits > permits) {
-                    // Lock already exists and current thread is not owner of this lock,
-                    // but lock is not exclusive and we can "share" it for other thread.
-                    node.permits -= permits; // decrement number of allowed concurrent threads
-                    return true;
-                }
-                // Lock is exclusive or max number of allowed concurrent thread is reached.
+    private boolean release(Path path, Thread thread, int mode) {
+        final Node node = nodes.get(path);
+        if (node == null) {
+            return false;
+        }
+        synchronized (node) {
+            if (!node.release(thread, mode)) {
                 return false;
-            } else if ((node.path.isChild(path) || path.isChild(node.path)) && node.permits <= permits) {
-                // Found some path which already has lock that prevents us to get required permits.
-                // There is two possibilities:
-                // 1. Parent of the path we try to lock already locked
-                // 2. Child of the path we try to lock already locked
-                // Need to check is such lock obtained by current thread or not.
-                // If such lock obtained by other thread stop here immediately there is no reasons to continue.
-                if (node.threadId != current.getId()) {
-                    return false;
-                }
             }
-            node = node.prev;
+            node.version++;
+            if (node.waiters > 0) {
+                node.notifyAll();
+            }
+            unpin(path);
         }
-        // If we are here there is no lock for path yet.
-        tail.prev = new Node(path, maxThreads - permits, tail.prev);
         return true;
     }
 
-    public synchronized void checkClean() {
-        assert tail.prev == null;
+    /** Gets node for the path from the lock table and prevents its removing until {@link #unpin(Path)} is called. */
+    private Node pin(Path path) {
+        return nodes.compute(path, (p, node) -> {
+            if (node == null) {
+                node = new Node();
+            }
+            node.pins++;
+            return node;
+        });
+    }
+
+    private void unpin(Path path) {
+        nodes.computeIfPresent(path, (p, node) -> --node.pins == 0 ? null : node);
+    }
+
+    private static int modeOf(boolean exclusive, boolean target) {
+        if (target) {
+            return exclusive ? EXCLUSIVE : SHARED;
+        }
+        return exclusive ? INTENTION_EXCLUSIVE : INTENTION_SHARED;
+    }
+
+    /** Gets all paths from root to the specified path inclusive. */
+    private static Path[] hierarchy(Path path) {
+        final Path[] hierarchy = new Path[path.length() + 1];
+        for (int i = hierarchy.length - 1; i >= 0; i--) {
+            hierarchy[i] = path;
+            path = path.getParent();
+        }
+        return hierarchy;
+    }
+
+    public void checkClean() {
+        assert nodes.isEmpty();
     }
 
    /* =============================================== */
 
-    private static class Node {
-        final Path path;
-        final long threadId = Thread.currentThread().getId();
-        int  permits;
-        int  threadDeep;
-        Node prev;
+    /** State of locks of single path. All fields except pins are guarded by monitor of node itself. */
+    private final class Node {
+        /** Number of threads that hold locks of each mode. */
+        final int[]               held    = new int[4];
+        /** Reentrant counters of locks per thread and mode. */
+        final Map<Thread, int[]> holders = new HashMap<>(4);
+        // Incremented on each release, waiters use it to find out that state of the node is changed.
+        long version;
+        int  waiters;
+        // Number of threads that hold or wait for lock of this node. Guarded by lock table.
+        int  pins;
 
-        Node(Path path, int permits, Node prev) {
-            this.path = path;
-            this.permits = permits;
-            this.prev = prev;
-            threadDeep = 1;
+        boolean tryAcquire(Thread thread, int mode) {
+            int[] counters = holders.get(thread);
+            if (counters != null && counters[mode] > 0) {
+                if (counters[mode] > MAX_RECURSIVE_LOCKS) {
+                    throw new Error("Max number of recursive locks exceeded. ");
+                }
+                counters[mode]++;
+                return true;
+            }
+            for (int heldMode = 0; heldMode < held.length; heldMode++) {
+                final int heldByOthers = held[heldMode] - (counters != null && counters[heldMode] > 0 ? 1 : 0);
+                if (heldByOthers > 0 && !COMPATIBLE[mode][heldMode]) {
+                    return false;
+                }
+            }
+            if (mode == SHARED && held[SHARED] >= maxThreads) {
+                // Max number of allowed concurrent threads is reached.
+                return false;
+            }
+            if (counters == null) {
+                holders.put(thread, counters = new int[4]);
+            }
+            counters[mode] = 1;
+            held[mode]++;
+            return true;
         }
 
-        @Override
-        public String toString() {
-            return "Node{" +
-                   "path=" + path +
-                   ", threadId=" + threadId +
-                   ", permits=" + permits +
-                   ", prev=" + prev +
-                   '}';
+        boolean release(Thread thread, int mode) {
+            final int[] counters = holders.get(thread);
+            if (counters == null || counters[mode] == 0) {
+                return false;
+            }
+            if (--counters[mode] == 0) {
+                held[mode]--;
+                if (counters[INTENTION_SHARED] == 0
+                    && counters[INTENTION_EXCLUSIVE] == 0
+                    && counters[SHARED] == 0
+                    && counters[EXCLUSIVE] == 0) {
+                    holders.remove(thread);
+                }
+            }
+            return true;
         }
     }
 
     public final class PathLock {
-        private final Path path;
-        private final int  permits;
+        private final Path    path;
+        private final boolean exclusive;
 
-        private PathLock(Path path, int permits) {
+        private PathLock(Path path, boolean exclusive) {
             this.path = path;
-            this.permits = permits;
+            this.exclusive = exclusive;
         }
 
         /**
@@ -197,7 +283,7 @@ public final class PathLockFactory {
          * @return this PathLock instance
          */
         public PathLock acquire() {
-            PathLockFactory.this.acquire(path, permits);
+            PathLockFactory.this.acquire(path, exclusive, 0);
             return this;
         }
 
@@ -212,18 +298,18 @@ public final class PathLockFactory {
          *         if waiting timeout reached
          */
         public PathLock acquire(long timeoutMilliseconds) {
-            PathLockFactory.this.acquire(path, permits, timeoutMilliseconds);
+            PathLockFactory.this.acquire(path, exclusive, Math.max(timeoutMilliseconds, 1));
             return this;
         }
 
         /** Release file permit. */
         public void release() {
-            PathLockFactory.this.release(path, permits);
+            PathLockFactory.this.release(path, exclusive);
         }
 
         /** Returns <code>true</code> if this lock is exclusive and <code>false</code> otherwise. */
         public boolean isExclusive() {
-            return permits == PathLockFactory.this.maxThreads;
+            return exclusive;
         }
     }
 }
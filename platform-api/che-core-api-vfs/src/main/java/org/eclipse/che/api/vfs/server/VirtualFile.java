@@ -23,6 +23,7 @@ import org.eclipse.che.api.vfs.shared.dto.Property;
 import org.eclipse.che.commons.lang.Pair;
 
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -377,6 +378,23 @@ public interface VirtualFile extends Comparable<VirtualFile> {
      */
     ContentStream zip(VirtualFileFilter filter) throws ForbiddenException, ServerException;
 
+    /**
+     * Writes zipped content of folder denoted by this VirtualFile to the specified stream. Unlike to the method {@link
+     * #zip(VirtualFileFilter)} this method doesn't keep whole archive in memory or in temporary file, each entry is written
+     * to the stream as soon as it is read. All child items that user doesn't have read permission are not added in result
+     * archive. Stream is not closed after writing of archive.
+     *
+     * @param out
+     *         stream for writing of zipped content
+     * @param filter
+     *         filter of file. Only files that are matched to the filter are added in the zip archive
+     * @throws ForbiddenException
+     *         if this item doesn't denote a folder
+     * @throws ServerException
+     *         if other error occurs
+     */
+    void zip(OutputStream out, VirtualFileFilter filter) throws ForbiddenException, ServerException;
+
     /**
      * Imports ZIP content to the folder denoted by this VirtualFile.
      *
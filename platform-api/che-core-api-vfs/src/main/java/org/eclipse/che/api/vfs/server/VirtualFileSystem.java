@@ -863,7 +863,8 @@ public interface VirtualFileSystem {
     Item updateItem(String id, List<Property> properties, String lockToken) throws NotFoundException, ForbiddenException, ServerException;
 
     /**
-     * Export content of {@code folderId} to ZIP archive.
+     * Export content of {@code folderId} to ZIP archive. Archive is written directly to the response stream, so response doesn't
+     * have Content-Length header.
      *
      * @param folderId
      *         folder for ZIP
@@ -882,7 +883,7 @@ public interface VirtualFileSystem {
     @GET
     @Path("export")
     @Produces({ExtMediaType.APPLICATION_ZIP})
-    ContentStream exportZip(String folderId) throws NotFoundException, ForbiddenException, ServerException;
+    Response exportZip(String folderId) throws NotFoundException, ForbiddenException, ServerException;
 
     /**
      * Export content of {@code folderId} to ZIP archive. Unlike to the method {@link #exportZip(String)} this method includes in the zip
@@ -15,6 +15,8 @@ import org.eclipse.che.api.core.ForbiddenException;
 import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.vfs.server.search.QueryExpression;
+import org.eclipse.che.api.vfs.server.search.SearchResult;
+import org.eclipse.che.api.vfs.server.search.Searcher;
 import org.eclipse.che.api.vfs.server.search.SearcherProvider;
 import org.eclipse.che.api.vfs.server.util.LinksHelper;
 import org.eclipse.che.api.vfs.shared.ItemType;
@@ -55,18 +57,21 @@ import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
 import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -546,24 +551,29 @@ public abstract class VirtualFileSystemImpl implements VirtualFileSystem {
                     .setMediaType(query.getFirst("mediaType"))
                     .setText(query.getFirst("text"));
 
-            final String[] result = searcherProvider.getSearcher(mountPoint, true).search(expr);
-            if (skipCount > 0) {
-                if (skipCount > result.length) {
-                    throw new ConflictException("'skipCount' parameter is greater then total number of items. ");
-                }
+            final Searcher searcher = searcherProvider.getSearcher(mountPoint, true);
+            // All items are returned if maxItems isn't set.
+            expr.setMaxItems(maxItems).setSkipCount(skipCount);
+            SearchResult result = searcher.searchPage(expr);
+            if (skipCount > 0 && skipCount > result.getTotalHits()) {
+                throw new ConflictException("'skipCount' parameter is greater then total number of items. ");
             }
-            final int length = maxItems > 0 ? Math.min(result.length, maxItems) : result.length;
-            final List<Item> items = new ArrayList<>(length);
-            for (int i = skipCount; i < length; i++) {
-                String path = result[i];
-                try {
-                    items.add(fromVirtualFile(mountPoint.getVirtualFile(path), false, propertyFilter));
-                } catch (NotFoundException | ForbiddenException ignored) {
+            final List<Item> items = new ArrayList<>(result.getEntries().size());
+            for (; ; ) {
+                for (SearchResult.Entry entry : result.getEntries()) {
+                    try {
+                        items.add(fromVirtualFile(mountPoint.getVirtualFile(entry.getPath()), false, propertyFilter));
+                    } catch (NotFoundException | ForbiddenException ignored) {
+                    }
+                }
+                if (maxItems > 0 || result.getNextCursor() == null) {
+                    break;
                 }
+                result = searcher.searchPage(expr.setSkipCount(0).setAfter(result.getNextCursor()));
             }
 
-            return DtoFactory.getInstance().createDto(ItemList.class).withItems(items).withNumItems(result.length)
-                             .withHasMoreItems(length < result.length);
+            return DtoFactory.getInstance().createDto(ItemList.class).withItems(items).withNumItems(result.getTotalHits())
+                             .withHasMoreItems(result.getNextCursor() != null);
         }
         throw new ServerException("Not supported. ");
     }
@@ -636,15 +646,21 @@ public abstract class VirtualFileSystemImpl implements VirtualFileSystem {
 
     @Path("export/{folderId}")
     @Override
-    public ContentStream exportZip(@PathParam("folderId") String folderId) throws NotFoundException, ForbiddenException, ServerException {
-        return exportZip(mountPoint.getVirtualFileById(folderId));
+    public Response exportZip(@PathParam("folderId") String folderId) throws NotFoundException, ForbiddenException, ServerException {
+        return exportZipStreaming(mountPoint.getVirtualFileById(folderId));
     }
 
-    // For usage from Project API.
+    /** @deprecated use {@link #exportZipStreaming(VirtualFile)}, it doesn't copy the whole archive in temporary storage. */
+    @Deprecated
     public static ContentStream exportZip(VirtualFile folder) throws ForbiddenException, ServerException {
         return folder.zip(VirtualFileFilter.ALL);
     }
 
+    // For usage from Project API.
+    public static Response exportZipStreaming(VirtualFile folder) throws ForbiddenException, ServerException {
+        return zipResponse(folder, VirtualFileFilter.ALL).build();
+    }
+
     @Path("export/{folderId}")
     @Override
     public Response exportZip(@PathParam("folderId") String folderId, InputStream in)
@@ -662,15 +678,14 @@ public abstract class VirtualFileSystemImpl implements VirtualFileSystem {
     // For usage from Project API.
     public static Response exportZipMultipart(VirtualFile folder, InputStream in) throws ForbiddenException, ServerException {
         final List<String> deleted = new LinkedList<>();
-        final ContentStream zip = exportZip(folder, in, deleted);
-        if (zip == null) {
+        final VirtualFileFilter filter = getDiffFilter(folder, in, deleted);
+        if (filter == null) {
             return Response.status(204).build();
         }
         final List<OutputItem> multipart = new LinkedList<>();
         // String name, Object entity, MediaType mediaType, String fileName
-        final OutputItem updates = OutputItem.create("updates", zip.getStream(), ExtMediaType.APPLICATION_ZIP_TYPE, zip.getFileName());
-        updates.getHeaders().putSingle(HttpHeaders.CONTENT_LENGTH, Long.toString(zip.getLength()));
-        multipart.add(updates);
+        multipart.add(OutputItem.create("updates", zipStreamingOutput(folder, filter), ExtMediaType.APPLICATION_ZIP_TYPE,
+                                        folder.getName() + ".zip"));
 
         if (!deleted.isEmpty()) {
             multipart.add(OutputItem.create("removed-paths", deleted, MediaType.APPLICATION_JSON_TYPE));
@@ -680,7 +695,7 @@ public abstract class VirtualFileSystemImpl implements VirtualFileSystem {
         return Response
                 .ok(new GenericEntity<List<OutputItem>>(multipart) {
                 }, "multipart/form-data; boundary=" + boundary)
-                .lastModified(zip.getLastModificationDate())
+                .lastModified(new Date())
                 .build();
     }
 
@@ -688,15 +703,11 @@ public abstract class VirtualFileSystemImpl implements VirtualFileSystem {
     // For usage from Project API.
     public static Response exportZip(VirtualFile folder, InputStream in) throws ForbiddenException, ServerException {
         final List<String> deleted = new LinkedList<>();
-        final ContentStream zip = exportZip(folder, in, deleted);
-        if (zip == null) {
+        final VirtualFileFilter filter = getDiffFilter(folder, in, deleted);
+        if (filter == null) {
             return Response.status(204).build();
         }
-        final Response.ResponseBuilder responseBuilder = Response
-                .ok(zip.getStream(), zip.getMimeType())
-                .lastModified(zip.getLastModificationDate())
-                .header(HttpHeaders.CONTENT_LENGTH, Long.toString(zip.getLength()))
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + zip.getFileName() + '"');
+        final Response.ResponseBuilder responseBuilder = zipResponse(folder, filter);
         if (!deleted.isEmpty()) {
             final StringBuilder buff = new StringBuilder();
             for (String str : deleted) {
@@ -710,9 +721,51 @@ public abstract class VirtualFileSystemImpl implements VirtualFileSystem {
         return responseBuilder.build();
     }
 
-    // For usage from Project API.
+    /**
+     * Creates response builder that writes zipped content of folder directly to the response stream. Archive is not buffered
+     * so response doesn't have Content-Length header and is sent with chunked transfer encoding.
+     */
+    private static Response.ResponseBuilder zipResponse(VirtualFile folder, VirtualFileFilter filter) throws ForbiddenException {
+        return Response.ok(zipStreamingOutput(folder, filter), ExtMediaType.APPLICATION_ZIP)
+                       .lastModified(new Date())
+                       .header(HttpHeaders.CACHE_CONTROL, "public, no-cache, no-store, no-transform")
+                       .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + folder.getName() + ".zip\"");
+    }
+
+    private static StreamingOutput zipStreamingOutput(final VirtualFile folder, final VirtualFileFilter filter)
+            throws ForbiddenException {
+        // Check it before response is committed, otherwise client gets broken archive instead of error status.
+        if (!folder.isFolder()) {
+            throw new ForbiddenException(String.format("Unable export to zip. Item '%s' is not a folder. ", folder.getPath()));
+        }
+        return new StreamingOutput() {
+            @Override
+            public void write(OutputStream output) throws IOException {
+                try {
+                    folder.zip(output, filter);
+                } catch (ForbiddenException | ServerException e) {
+                    throw new IOException(e.getMessage(), e);
+                }
+            }
+        };
+    }
+
+    /** @deprecated use {@link #getDiffFilter(VirtualFile, InputStream, List)} and {@link VirtualFile#zip(OutputStream, VirtualFileFilter)}. */
+    @Deprecated
     protected static ContentStream exportZip(VirtualFile folder, InputStream in, List<String> deleted)
             throws ForbiddenException, ServerException {
+        final VirtualFileFilter filter = getDiffFilter(folder, in, deleted);
+        return filter == null ? null : folder.zip(filter);
+    }
+
+    /**
+     * Compares md5 sums sent by client with md5 sums of files in {@code folder} and creates filter that accepts only new and
+     * updated files. Paths of files that are removed locally are added in {@code deleted}.
+     *
+     * @return filter of files that should be sent to client or {@code null} if there is no any difference
+     */
+    protected static VirtualFileFilter getDiffFilter(VirtualFile folder, InputStream in, List<String> deleted)
+            throws ForbiddenException, ServerException {
         final List<Pair<String, String>> remote = new LinkedList<>();
         final BufferedReader reader = new BufferedReader(new InputStreamReader(in));
         String line;
@@ -731,7 +784,7 @@ public abstract class VirtualFileSystemImpl implements VirtualFileSystem {
             throw new ServerException(e.getMessage(), e);
         }
         if (remote.isEmpty()) {
-            return folder.zip(VirtualFileFilter.ALL);
+            return VirtualFileFilter.ALL;
         }
         final LazyIterator<Pair<String, String>> md5Sums = folder.countMd5Sums();
         final int size = md5Sums.size();
@@ -784,7 +837,7 @@ public abstract class VirtualFileSystemImpl implements VirtualFileSystem {
             return null;
         }
 
-        final ContentStream zip = folder.zip(new VirtualFileFilter() {
+        final VirtualFileFilter filter = new VirtualFileFilter() {
             @Override
             public boolean accept(VirtualFile file) {
                 for (Pair<String, org.eclipse.che.api.vfs.server.Path> pair : diff) {
@@ -795,7 +848,7 @@ public abstract class VirtualFileSystemImpl implements VirtualFileSystem {
                 }
                 return false;
             }
-        });
+        };
 
         deleted.clear();
         for (Pair<String, org.eclipse.che.api.vfs.server.Path> pair : diff) {
@@ -803,7 +856,7 @@ public abstract class VirtualFileSystemImpl implements VirtualFileSystem {
                 deleted.add(pair.first);
             }
         }
-        return zip;
+        return filter;
     }
 
     @Path("import/{parentId}")
@@ -910,13 +963,7 @@ public abstract class VirtualFileSystemImpl implements VirtualFileSystem {
     @Path("downloadzip/{folderId}")
     @Override
     public Response downloadZip(@PathParam("folderId") String folderId) throws NotFoundException, ForbiddenException, ServerException {
-        final ContentStream zip = exportZip(folderId);
-        return Response //
-                .ok(zip.getStream(), zip.getMimeType()) //
-                .lastModified(zip.getLastModificationDate()) //
-                .header(HttpHeaders.CONTENT_LENGTH, Long.toString(zip.getLength())) //
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + zip.getFileName() + '"') //
-                .build();
+        return exportZip(folderId);
     }
 
     @Path("uploadzip/{parentId}")
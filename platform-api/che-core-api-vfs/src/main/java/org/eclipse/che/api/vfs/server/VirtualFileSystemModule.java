@@ -10,6 +10,8 @@
  *******************************************************************************/
 package org.eclipse.che.api.vfs.server;
 
+import org.eclipse.che.api.vfs.server.observation.VirtualFileEventBatcher;
+
 import com.google.inject.AbstractModule;
 import com.google.inject.multibindings.Multibinder;
 import com.google.inject.name.Names;
@@ -32,5 +34,6 @@ public class VirtualFileSystemModule extends AbstractModule {
         bind(RequestValidator.class).toProvider(Providers.<RequestValidator>of(null));
         bind(VirtualFileSystemFactory.class);
         bind(URLHandlerFactorySetup.Initializer.class).asEagerSingleton();
+        bind(VirtualFileEventBatcher.class).asEagerSingleton();
     }
 }
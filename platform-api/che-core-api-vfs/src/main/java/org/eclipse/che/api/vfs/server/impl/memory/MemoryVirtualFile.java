@@ -57,6 +57,7 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -996,11 +997,19 @@ public class MemoryVirtualFile implements VirtualFile {
 
     @Override
     public ContentStream zip(VirtualFileFilter filter) throws ForbiddenException, ServerException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        zip(out, filter);
+        final byte[] zipContent = out.toByteArray();
+        return new ContentStream(getName() + ".zip", new ByteArrayInputStream(zipContent), ExtMediaType.APPLICATION_ZIP, zipContent.length,
+                                 new Date());
+    }
+
+    @Override
+    public void zip(OutputStream out, VirtualFileFilter filter) throws ForbiddenException, ServerException {
         checkExist();
         if (!isFolder()) {
             throw new ForbiddenException(String.format("Unable export to zip. Item '%s' is not a folder. ", getPath()));
         }
-        final ByteArrayOutputStream out = new ByteArrayOutputStream();
         try {
             final ZipOutputStream zipOut = new ZipOutputStream(out);
             final LinkedList<VirtualFile> q = new LinkedList<>();
@@ -1026,13 +1035,10 @@ public class MemoryVirtualFile implements VirtualFile {
                     }
                 }
             }
-            zipOut.close();
+            zipOut.finish();
         } catch (IOException e) {
             throw new ServerException(e.getMessage(), e);
         }
-        final byte[] zipContent = out.toByteArray();
-        return new ContentStream(getName() + ".zip", new ByteArrayInputStream(zipContent), ExtMediaType.APPLICATION_ZIP, zipContent.length,
-                                 new Date());
     }
 
     @Override
@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.server.observation;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Group of changes of virtual filesystem of one workspace. Subscribers that don't need each change separately may subscribe
+ * to this event instead of {@link VirtualFileEvent}, e.g. unzip of archive that contains thousands of files produces few
+ * batches instead of thousands of {@link CreateEvent}s.
+ *
+ * @see VirtualFileEventBatcher
+ */
+public class VirtualFileEventBatch {
+    private final String                                    workspaceId;
+    private final List<VirtualFileEvent>                    events;
+    private final String                                    commonPath;
+    private final Map<VirtualFileEvent.ChangeType, Integer> counts;
+
+    public VirtualFileEventBatch(String workspaceId, List<VirtualFileEvent> events) {
+        this.workspaceId = workspaceId;
+        this.events = Collections.unmodifiableList(events);
+        counts = new EnumMap<>(VirtualFileEvent.ChangeType.class);
+        String common = null;
+        for (VirtualFileEvent event : events) {
+            final Integer count = counts.get(event.getType());
+            counts.put(event.getType(), count == null ? 1 : count + 1);
+            common = common == null ? parentOf(event.getPath()) : commonParent(common, event.getPath());
+        }
+        commonPath = common == null ? "/" : common;
+    }
+
+    public String getWorkspaceId() {
+        return workspaceId;
+    }
+
+    /** Returns changes in the order they happened. Repeated updates of the same item are collapsed into one event. */
+    public List<VirtualFileEvent> getEvents() {
+        return events;
+    }
+
+    /** Returns the deepest folder that contains all changed items. */
+    public String getCommonPath() {
+        return commonPath;
+    }
+
+    /** Returns number of changes of specified type in this batch. */
+    public int getCount(VirtualFileEvent.ChangeType type) {
+        final Integer count = counts.get(type);
+        return count == null ? 0 : count;
+    }
+
+    private static String parentOf(String path) {
+        final int slash = path.lastIndexOf('/');
+        return slash > 0 ? path.substring(0, slash) : "/";
+    }
+
+    private static String commonParent(String common, String path) {
+        while (!"/".equals(common) && !(path.startsWith(common) && path.length() > common.length()
+                                        && path.charAt(common.length()) == '/')) {
+            common = parentOf(common);
+        }
+        return common;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("VirtualFileEventBatch{workspaceId='").append(workspaceId).append('\'');
+        for (Map.Entry<VirtualFileEvent.ChangeType, Integer> e : counts.entrySet()) {
+            sb.append(", ").append(e.getValue()).append(' ').append(e.getKey());
+        }
+        return sb.append(" under ").append(commonPath).append('}').toString();
+    }
+}
@@ -0,0 +1,264 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.server.observation;
+
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.core.notification.EventSubscriber;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects {@link VirtualFileEvent}s and publishes them as {@link VirtualFileEventBatch}es. Events of one workspace are
+ * published in batch when there are no new events during {@link #WINDOW} milliseconds, when the oldest event in batch waits
+ * longer than {@link #MAX_DELAY} milliseconds or when batch gets {@link #MAX_SIZE} events. Repeated updates of the same
+ * item are collapsed into one event, update of just created item is collapsed into creation event.
+ * <p/>
+ * {@link VirtualFileEvent}s are still published for each change, only subscribers of {@link VirtualFileEventBatch} get
+ * batches. Batches are published from single thread in the order they were collected.
+ */
+@Singleton
+public class VirtualFileEventBatcher {
+    private static final Logger LOG = LoggerFactory.getLogger(VirtualFileEventBatcher.class);
+
+    /** Time in milliseconds without new events after that batch is published. */
+    public static final String WINDOW    = "vfs.event.batch.window_ms";
+    /** Max time in milliseconds that event waits in batch. */
+    public static final String MAX_DELAY = "vfs.event.batch.max_delay_ms";
+    /** Max number of events in batch. */
+    public static final String MAX_SIZE  = "vfs.event.batch.max_size";
+
+    private static final long DEFAULT_WINDOW    = 100;
+    private static final long DEFAULT_MAX_DELAY = 1000;
+    private static final int  DEFAULT_MAX_SIZE  = 10000;
+
+    private final EventService                      eventService;
+    private final EventSubscriber<VirtualFileEvent> subscriber;
+    private final ConcurrentMap<String, Buffer>     buffers;
+    // Batches ready for publishing. Guarded by itself.
+    private final ArrayDeque<VirtualFileEventBatch> ready;
+
+    @com.google.inject.Inject(optional = true)
+    @Named(WINDOW)
+    private long window   = DEFAULT_WINDOW;
+    @com.google.inject.Inject(optional = true)
+    @Named(MAX_DELAY)
+    private long maxDelay = DEFAULT_MAX_DELAY;
+    @com.google.inject.Inject(optional = true)
+    @Named(MAX_SIZE)
+    private int  maxSize  = DEFAULT_MAX_SIZE;
+
+    private ScheduledExecutorService timer;
+
+    private final Runnable publisher = new Runnable() {
+        @Override
+        public void run() {
+            publishReady();
+        }
+    };
+
+    @Inject
+    public VirtualFileEventBatcher(EventService eventService) {
+        this.eventService = eventService;
+        buffers = new ConcurrentHashMap<>();
+        ready = new ArrayDeque<>();
+        subscriber = new EventSubscriber<VirtualFileEvent>() {
+            @Override
+            public void onEvent(VirtualFileEvent event) {
+                add(event);
+            }
+        };
+    }
+
+    // for test
+    VirtualFileEventBatcher(EventService eventService, long window, long maxDelay, int maxSize) {
+        this(eventService);
+        this.window = window;
+        this.maxDelay = maxDelay;
+        this.maxSize = maxSize;
+    }
+
+    @PostConstruct
+    public void start() {
+        timer = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("VirtualFileEventBatcher")
+                                                                                     .setDaemon(true).build());
+        eventService.subscribe(subscriber);
+    }
+
+    @PreDestroy
+    public void stop() {
+        eventService.unsubscribe(subscriber);
+        flush();
+        timer.shutdownNow();
+    }
+
+    /** Publishes all collected events without waiting for end of window. Returns when batches are published. */
+    public void flush() {
+        for (Buffer buffer : buffers.values()) {
+            synchronized (buffer) {
+                buffer.takeBatch();
+            }
+        }
+        try {
+            timer.submit(publisher).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | RejectedExecutionException e) {
+            LOG.error(e.getMessage(), e);
+        }
+    }
+
+    void add(VirtualFileEvent event) {
+        for (; ; ) {
+            Buffer buffer = buffers.get(event.getWorkspaceId());
+            if (buffer == null) {
+                final Buffer newBuffer = new Buffer(event.getWorkspaceId());
+                buffer = buffers.putIfAbsent(event.getWorkspaceId(), newBuffer);
+                if (buffer == null) {
+                    buffer = newBuffer;
+                }
+            }
+            synchronized (buffer) {
+                // Empty buffer is removed from the map after publishing of batch, retry with new one.
+                if (!buffer.removed) {
+                    buffer.add(event);
+                    return;
+                }
+            }
+        }
+    }
+
+    /** Must be called by timer thread only, that keeps order of batches. */
+    private void publishReady() {
+        for (; ; ) {
+            final VirtualFileEventBatch batch;
+            synchronized (ready) {
+                batch = ready.poll();
+            }
+            if (batch == null) {
+                return;
+            }
+            LOG.debug("Publish {}", batch);
+            eventService.publish(batch);
+        }
+    }
+
+    private void schedule(Runnable task, long delay) {
+        try {
+            timer.schedule(task, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            LOG.warn("Event batcher is stopped, events are dropped");
+        }
+    }
+
+    private class Buffer implements Runnable {
+        final String workspaceId;
+
+        // All fields below are guarded by monitor of buffer.
+        List<VirtualFileEvent> events;
+        // Index of the latest event of path in the list of events.
+        Map<String, Integer>   lastByPath;
+        long                   firstEventTime;
+        long                   lastEventTime;
+        boolean                scheduled;
+        boolean                removed;
+
+        Buffer(String workspaceId) {
+            this.workspaceId = workspaceId;
+            events = new ArrayList<>();
+            lastByPath = new HashMap<>();
+        }
+
+        void add(VirtualFileEvent event) {
+            final long now = System.currentTimeMillis();
+            if (events.isEmpty()) {
+                firstEventTime = now;
+            }
+            lastEventTime = now;
+            final Integer last = lastByPath.get(event.getPath());
+            if (last != null && isCollapsed(events.get(last), event)) {
+                return;
+            }
+            lastByPath.put(event.getPath(), events.size());
+            events.add(event);
+            if (events.size() >= maxSize) {
+                takeBatch();
+                schedule(publisher, 0);
+            } else if (!scheduled) {
+                scheduled = true;
+                schedule(this, window);
+            }
+        }
+
+        private boolean isCollapsed(VirtualFileEvent previous, VirtualFileEvent event) {
+            switch (event.getType()) {
+                case CONTENT_UPDATED:
+                case PROPERTIES_UPDATED:
+                case ACL_UPDATED:
+                    return previous.getType() == event.getType() || previous.getType() == VirtualFileEvent.ChangeType.CREATED;
+                default:
+                    return false;
+            }
+        }
+
+        void takeBatch() {
+            if (events.isEmpty()) {
+                return;
+            }
+            synchronized (ready) {
+                ready.add(new VirtualFileEventBatch(workspaceId, events));
+            }
+            events = new ArrayList<>();
+            lastByPath = new HashMap<>();
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                scheduled = false;
+                if (!events.isEmpty()) {
+                    final long now = System.currentTimeMillis();
+                    final long nextCheck = Math.min(lastEventTime + window, firstEventTime + maxDelay);
+                    if (now < nextCheck) {
+                        scheduled = true;
+                        schedule(this, nextCheck - now);
+                    } else {
+                        takeBatch();
+                    }
+                }
+                if (events.isEmpty()) {
+                    removed = buffers.remove(workspaceId, this);
+                }
+            }
+            publishReady();
+        }
+    }
+}
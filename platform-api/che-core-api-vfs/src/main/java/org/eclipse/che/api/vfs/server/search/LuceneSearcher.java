@@ -10,7 +10,9 @@
  *******************************************************************************/
 package org.eclipse.che.api.vfs.server.search;
 
+import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.ForbiddenException;
+import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.vfs.server.LazyIterator;
 import org.eclipse.che.api.vfs.server.MountPoint;
@@ -23,8 +25,11 @@ import org.apache.lucene.analysis.Tokenizer;
 import org.apache.lucene.analysis.TokenStream;
 import org.apache.lucene.analysis.core.LowerCaseFilter;
 import org.apache.lucene.analysis.core.WhitespaceTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.tokenattributes.OffsetAttribute;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
+import org.apache.lucene.document.SortedDocValuesField;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.document.TextField;
 import org.apache.lucene.index.IndexWriter;
@@ -34,14 +39,21 @@ import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.lucene.queryparser.classic.QueryParser;
 import org.apache.lucene.search.BooleanClause;
 import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.FieldDoc;
 import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MultiTermQuery;
 import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.SearcherFactory;
 import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
 import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.search.WildcardQuery;
 import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -50,8 +62,19 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Lucene based searcher.
@@ -59,14 +82,30 @@ import java.util.Set;
  * @author andrew00x
  */
 public abstract class LuceneSearcher implements Searcher {
-    private static final Logger LOG          = LoggerFactory.getLogger(LuceneSearcher.class);
-    private static final int    RESULT_LIMIT = 1000;
+    private static final Logger LOG                 = LoggerFactory.getLogger(LuceneSearcher.class);
+    private static final int    RESULT_LIMIT        = 1000;
+    /** Max number of files that are found by walker of tree but not indexed yet. */
+    private static final int    INDEX_QUEUE_SIZE    = 1024;
+    private static final long   INDEX_QUEUE_TIMEOUT = 100; // ms
+    /** Size of page of result if query doesn't set it. */
+    private static final int    DEFAULT_PAGE_SIZE   = 100;
+    private static final int    MAX_SNIPPETS        = 10;
+    /** Max length of fragment of line in snippet. Longer lines are cut around matched word. */
+    private static final int    MAX_SNIPPET_LENGTH  = 200;
+
+    private static final Sort PATH_ORDER      = new Sort(new SortField("path", SortField.Type.STRING));
+    private static final Sort RELEVANCE_ORDER = new Sort(SortField.FIELD_SCORE, new SortField("path", SortField.Type.STRING));
 
     private final VirtualFileFilter filter;
 
-    private IndexWriter     luceneIndexWriter;
-    private SearcherManager searcherManager;
-    private boolean         closed;
+    private volatile IndexWriter luceneIndexWriter;
+    private SearcherManager      searcherManager;
+    private boolean              closed;
+    private boolean              closing;
+    private boolean              closeOnRelease;
+    private int                  users;
+    private volatile boolean     indexComplete;
+    private volatile MountPoint  mountPoint;
 
     public LuceneSearcher(Set<String> indexedMediaTypes) {
         this(new MediaTypeFilter(indexedMediaTypes));
@@ -98,8 +137,27 @@ public abstract class LuceneSearcher implements Searcher {
      *         if any virtual filesystem error
      */
     public void init(MountPoint mountPoint) throws ServerException {
-        doInit();
+        doInit(mountPoint);
         addTree(mountPoint.getRoot());
+        setIndexComplete();
+    }
+
+    /**
+     * Returns {@code true} if all files of mount point are indexed. Until initial indexing is complete search is performed over
+     * partial index and may not find all matched files.
+     */
+    public boolean isIndexComplete() {
+        return indexComplete;
+    }
+
+    protected final void setIndexComplete() {
+        indexComplete = true;
+    }
+
+    /** Opens index and remembers mount point, content of its files is used for creating snippets of search result. */
+    protected final synchronized void doInit(MountPoint mountPoint) throws ServerException {
+        this.mountPoint = mountPoint;
+        doInit();
     }
 
     protected final synchronized void doInit() throws ServerException {
@@ -122,12 +180,140 @@ public abstract class LuceneSearcher implements Searcher {
         }
     }
 
-    public synchronized IndexWriter getIndexWriter() {
+    /**
+     * Registers operation which uses index. Searcher which is closed with {@link #closeWhenReleased()} stays open until all
+     * registered operations call {@link #release()}.
+     *
+     * @throws ServerException
+     *         if searcher is closed or is being closed
+     */
+    public final synchronized void acquire() throws ServerException {
+        if (closed || closing) {
+            throw new ServerException("Searcher is closed. ");
+        }
+        users++;
+    }
+
+    /** Completes operation registered with {@link #acquire()}. Closes searcher if close was requested while it was in use. */
+    public final void release() {
+        final boolean close;
+        synchronized (this) {
+            close = --users == 0 && closeOnRelease && !closing;
+            closing |= close;
+        }
+        if (close) {
+            close();
+        }
+    }
+
+    /** Closes searcher after all operations which currently use index are complete, see {@link #acquire()}. */
+    public void closeWhenReleased() {
+        final boolean close;
+        synchronized (this) {
+            closeOnRelease = true;
+            close = users == 0 && !closing;
+            closing |= close;
+        }
+        if (close) {
+            close();
+        }
+    }
+
+    /**
+     * Cancels close requested with {@link #closeWhenReleased()}.
+     *
+     * @return {@code false} if it is too late and searcher is closed or is being closed
+     */
+    public synchronized boolean cancelClose() {
+        if (closed || closing) {
+            return false;
+        }
+        closeOnRelease = false;
+        return true;
+    }
+
+    public IndexWriter getIndexWriter() {
         return luceneIndexWriter;
     }
 
     @Override
     public String[] search(QueryExpression query) throws ServerException {
+        final Query luceneQuery = createLuceneQuery(query);
+        IndexSearcher luceneSearcher = null;
+        acquire();
+        try {
+            searcherManager.maybeRefresh();
+            luceneSearcher = searcherManager.acquire();
+            final TopDocs topDocs = luceneSearcher.search(luceneQuery, RESULT_LIMIT);
+            if (topDocs.totalHits > RESULT_LIMIT) {
+                throw new ServerException(String.format("Too many (%d) matched results found. ", topDocs.totalHits));
+            }
+            final String[] result = new String[topDocs.scoreDocs.length];
+            for (int i = 0, length = result.length; i < length; i++) {
+                result[i] = luceneSearcher.doc(topDocs.scoreDocs[i].doc).getField("path").stringValue();
+            }
+            return result;
+        } catch (IOException e) {
+            throw new ServerException(e.getMessage(), e);
+        } finally {
+            try {
+                searcherManager.release(luceneSearcher);
+            } catch (IOException e) {
+                LOG.error(e.getMessage());
+            }
+            release();
+        }
+    }
+
+    /**
+     * Paging is done with {@link IndexSearcher#searchAfter(ScoreDoc, Query, int, Sort, boolean, boolean)}, so only one page of
+     * result is collected regardless of number of matched documents. Items with the same relevance are ordered by path, path is
+     * unique and cursor that contains path of the last item of page stays valid even if index is changed between requests.
+     */
+    @Override
+    public SearchResult searchPage(QueryExpression query) throws ConflictException, ServerException {
+        final Query luceneQuery = createLuceneQuery(query);
+        final boolean byRelevance = query.getOrder() == QueryExpression.Order.RELEVANCE;
+        final int skipCount = Math.max(query.getSkipCount(), 0);
+        final int pageSize = query.getMaxItems() > 0 ? query.getMaxItems() : DEFAULT_PAGE_SIZE;
+        // Read before searcher is refreshed, refreshed searcher sees all files that were indexed before index became complete.
+        final boolean complete = isIndexComplete();
+        IndexSearcher luceneSearcher = null;
+        acquire();
+        try {
+            searcherManager.maybeRefresh();
+            luceneSearcher = searcherManager.acquire();
+            final FieldDoc after = query.getAfter() == null
+                                   ? null : parseCursor(query.getAfter(), byRelevance, luceneSearcher.getIndexReader().maxDoc());
+            // One more item to find out whether there is next page.
+            final int numHits = (int)Math.min((long)skipCount + pageSize + 1, Integer.MAX_VALUE);
+            final TopDocs topDocs = luceneSearcher.searchAfter(after, luceneQuery, numHits, byRelevance ? RELEVANCE_ORDER : PATH_ORDER,
+                                                               byRelevance, false);
+            final ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+            final int end = (int)Math.min(scoreDocs.length, (long)skipCount + pageSize);
+            final Set<String> words = query.isIncludeSnippets() && query.getText() != null
+                                      ? getMatchedWords(luceneSearcher, query.getText())
+                                      : Collections.<String>emptySet();
+            final List<SearchResult.Entry> entries = new ArrayList<>(Math.max(end - skipCount, 0));
+            for (int i = skipCount; i < end; i++) {
+                final String path = pathOf((FieldDoc)scoreDocs[i]);
+                entries.add(new SearchResult.Entry(path, scoreDocs[i].score, createSnippets(path, words)));
+            }
+            final String nextCursor = scoreDocs.length > end ? createCursor((FieldDoc)scoreDocs[end - 1], byRelevance) : null;
+            return new SearchResult(entries, topDocs.totalHits, nextCursor, complete);
+        } catch (IOException e) {
+            throw new ServerException(e.getMessage(), e);
+        } finally {
+            try {
+                searcherManager.release(luceneSearcher);
+            } catch (IOException e) {
+                LOG.error(e.getMessage());
+            }
+            release();
+        }
+    }
+
+    private Query createLuceneQuery(QueryExpression query) throws ServerException {
         final BooleanQuery luceneQuery = new BooleanQuery();
         final String name = query.getName();
         final String path = query.getPath();
@@ -150,33 +336,111 @@ public abstract class LuceneSearcher implements Searcher {
                 throw new ServerException(e.getMessage());
             }
         }
-        IndexSearcher luceneSearcher = null;
+        return luceneQuery;
+    }
+
+    /* Cursor is order of page ('p' - path, 'r' - relevance) and sort values of the last item of page, e.g. 'p:/a/b/c.txt' or
+       'r:3f800000:/a/b/c.txt', score is encoded in hex form to avoid loss of precision. */
+
+    private static String createCursor(FieldDoc last, boolean byRelevance) {
+        if (byRelevance) {
+            return "r:" + Integer.toHexString(Float.floatToIntBits((Float)last.fields[0])) + ':' + pathOf(last);
+        }
+        return "p:" + pathOf(last);
+    }
+
+    private static FieldDoc parseCursor(String cursor, boolean byRelevance, int maxDoc) throws ConflictException {
+        // Paths are unique so doc number is used only to skip document with the same path as the last item of previous page.
+        final int doc = maxDoc - 1;
         try {
-            searcherManager.maybeRefresh();
-            luceneSearcher = searcherManager.acquire();
-            final TopDocs topDocs = luceneSearcher.search(luceneQuery, RESULT_LIMIT);
-            if (topDocs.totalHits > RESULT_LIMIT) {
-                throw new ServerException(String.format("Too many (%d) matched results found. ", topDocs.totalHits));
+            if (byRelevance && cursor.startsWith("r:")) {
+                final int separator = cursor.indexOf(':', 2);
+                if (separator > 0) {
+                    final float score = Float.intBitsToFloat((int)Long.parseLong(cursor.substring(2, separator), 16));
+                    final BytesRef path = new BytesRef(cursor.substring(separator + 1));
+                    return new FieldDoc(doc, score, new Object[]{score, path});
+                }
+            } else if (!byRelevance && cursor.startsWith("p:")) {
+                return new FieldDoc(doc, Float.NaN, new Object[]{new BytesRef(cursor.substring(2))});
             }
-            final String[] result = new String[topDocs.scoreDocs.length];
-            for (int i = 0, length = result.length; i < length; i++) {
-                result[i] = luceneSearcher.doc(topDocs.scoreDocs[i].doc).getField("path").stringValue();
+        } catch (NumberFormatException ignored) {
+        }
+        throw new ConflictException(String.format("Invalid cursor '%s'. ", cursor));
+    }
+
+    private static String pathOf(FieldDoc doc) {
+        return ((BytesRef)doc.fields[doc.fields.length - 1]).utf8ToString();
+    }
+
+    /** Gets words of index that are matched by text of query. Wildcard and fuzzy terms are expanded with words from index. */
+    private Set<String> getMatchedWords(IndexSearcher luceneSearcher, String text) throws IOException {
+        final QueryParser qParser = new QueryParser("text", makeAnalyzer());
+        qParser.setMultiTermRewriteMethod(MultiTermQuery.SCORING_BOOLEAN_REWRITE);
+        final Set<Term> terms = new HashSet<>();
+        try {
+            luceneSearcher.createNormalizedWeight(qParser.parse(text), false).extractTerms(terms);
+        } catch (ParseException | BooleanQuery.TooManyClauses | UnsupportedOperationException e) {
+            LOG.debug("Unable get matched words for '{}'. {}", text, e.getMessage());
+        }
+        final Set<String> words = new HashSet<>(terms.size());
+        for (Term term : terms) {
+            if ("text".equals(term.field())) {
+                words.add(term.text());
             }
-            return result;
-        } catch (IOException e) {
-            throw new ServerException(e.getMessage(), e);
-        } finally {
-            try {
-                searcherManager.release(luceneSearcher);
-            } catch (IOException e) {
-                LOG.error(e.getMessage());
+        }
+        return words;
+    }
+
+    /** Finds lines of file that contain words matched by query. Content of file is analyzed in the same way as it was indexed. */
+    private List<SearchResult.Snippet> createSnippets(String path, Set<String> words) {
+        final MountPoint mountPoint = this.mountPoint;
+        if (words.isEmpty() || mountPoint == null) {
+            return Collections.emptyList();
+        }
+        final List<SearchResult.Snippet> snippets = new ArrayList<>();
+        try (Analyzer analyzer = makeAnalyzer();
+             BufferedReader reader = new BufferedReader(new InputStreamReader(mountPoint.getVirtualFile(path).getContent().getStream()))) {
+            String line;
+            int lineNumber = 0;
+            while (snippets.size() < MAX_SNIPPETS && (line = reader.readLine()) != null) {
+                lineNumber++;
+                try (TokenStream tokens = analyzer.tokenStream("text", line)) {
+                    final CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+                    final OffsetAttribute offset = tokens.addAttribute(OffsetAttribute.class);
+                    tokens.reset();
+                    while (snippets.size() < MAX_SNIPPETS && tokens.incrementToken()) {
+                        if (words.contains(term.toString())) {
+                            snippets.add(createSnippet(lineNumber, line, offset.startOffset(), offset.endOffset()));
+                        }
+                    }
+                    tokens.end();
+                }
             }
+        } catch (NotFoundException | ForbiddenException | ServerException | IOException e) {
+            // File may be removed or updated since it was indexed.
+            LOG.debug("Unable create snippets for '{}'. {}", path, e.getMessage());
         }
+        return snippets;
+    }
+
+    private static SearchResult.Snippet createSnippet(int lineNumber, String line, int start, int end) {
+        if (line.length() <= MAX_SNIPPET_LENGTH) {
+            return new SearchResult.Snippet(lineNumber, start, line, start, end);
+        }
+        final int fragmentStart = Math.max(0, Math.min(start - (MAX_SNIPPET_LENGTH - (end - start)) / 2, line.length() - MAX_SNIPPET_LENGTH));
+        final int fragmentEnd = Math.min(line.length(), Math.max(fragmentStart + MAX_SNIPPET_LENGTH, end));
+        return new SearchResult.Snippet(lineNumber, start, line.substring(fragmentStart, fragmentEnd), start - fragmentStart,
+                                        end - fragmentStart);
     }
 
     @Override
     public final void add(VirtualFile virtualFile) throws ServerException {
-        doAdd(virtualFile);
+        acquire();
+        try {
+            doAdd(virtualFile);
+        } finally {
+            release();
+        }
     }
 
     protected void doAdd(VirtualFile virtualFile) throws ServerException {
@@ -211,6 +475,48 @@ public abstract class LuceneSearcher implements Searcher {
         LOG.debug("Indexed {} files from {}, time: {} ms", indexedFiles, tree.getPath(), (end - start));
     }
 
+    /**
+     * Adds all files of tree to index in parallel. Current thread walks tree and puts found files in bounded queue, {@code
+     * threads} tasks that are executed by {@code executor} read content of files from queue and add them to index. If
+     * readers don't keep up or {@code executor} has no free threads, current thread indexes files itself. Method returns
+     * when all found files are indexed. Documents that are added to index become visible for search before method returns,
+     * so search may be performed over partial index while this method is running.
+     *
+     * @param tree
+     *         root of tree for indexing
+     * @param executor
+     *         executor for tasks that read content of files and add them to index
+     * @param threads
+     *         number of tasks for reading and indexing of files
+     * @throws ServerException
+     *         if any virtual filesystem error occurs or if current thread is interrupted
+     */
+    protected void addTree(VirtualFile tree, Executor executor, int threads) throws ServerException {
+        addTree(tree, VirtualFileFilter.ALL, executor, threads);
+    }
+
+    /**
+     * Adds files of tree that are accepted by {@code filter} to index in parallel. Filter is always called by current thread.
+     *
+     * @see #addTree(VirtualFile, Executor, int)
+     */
+    protected void addTree(VirtualFile tree, VirtualFileFilter filter, Executor executor, int threads) throws ServerException {
+        final long start = System.currentTimeMillis();
+        final TreeIndexer indexer = new TreeIndexer(filter);
+        try {
+            for (int i = 0; i < threads; i++) {
+                executor.execute(indexer);
+            }
+        } catch (RejectedExecutionException e) {
+            // Current thread does all work that readers can't do.
+            LOG.warn("Unable start threads for indexing of {}. {}", tree.getPath(), e.getMessage());
+        }
+        indexer.walk(tree);
+        final long time = Math.max(System.currentTimeMillis() - start, 1);
+        final int indexedFiles = indexer.indexed.get();
+        LOG.debug("Indexed {} files from {}, time: {} ms, {} files/s", indexedFiles, tree.getPath(), time, indexedFiles * 1000L / time);
+    }
+
     protected void addFile(VirtualFile virtualFile) throws ServerException {
         if (virtualFile.exists()) {
             try (Reader fContentReader = filter.accept(virtualFile) ? new BufferedReader(
@@ -229,6 +535,7 @@ public abstract class LuceneSearcher implements Searcher {
 
     @Override
     public final void delete(String path, boolean isFile) throws ServerException {
+        acquire();
         try {
             if (isFile) {
                 Term term = new Term("path", path);
@@ -242,12 +549,19 @@ public abstract class LuceneSearcher implements Searcher {
             throw oome;
         } catch (IOException e) {
             throw new ServerException(e.getMessage(), e);
+        } finally {
+            release();
         }
     }
 
     @Override
     public final void update(VirtualFile virtualFile) throws ServerException {
-        doUpdate(new Term("path", virtualFile.getPath()), virtualFile);
+        acquire();
+        try {
+            doUpdate(new Term("path", virtualFile.getPath()), virtualFile);
+        } finally {
+            release();
+        }
     }
 
     protected void doUpdate(Term deleteTerm, VirtualFile virtualFile) throws ServerException {
@@ -267,6 +581,7 @@ public abstract class LuceneSearcher implements Searcher {
     protected Document createDocument(VirtualFile virtualFile, Reader inReader) throws ServerException {
         final Document doc = new Document();
         doc.add(new StringField("path", virtualFile.getPath(), Field.Store.YES));
+        doc.add(new SortedDocValuesField("path", new BytesRef(virtualFile.getPath())));
         doc.add(new StringField("name", virtualFile.getName(), Field.Store.YES));
         doc.add(new StringField("mediatype", getMediaType(virtualFile), Field.Store.YES));
         if (inReader != null) {
@@ -275,6 +590,114 @@ public abstract class LuceneSearcher implements Searcher {
         return doc;
     }
 
+    /**
+     * Pipeline for indexing of tree. Instance of this class is shared between walker of tree, see {@link #walk(VirtualFile)},
+     * and readers of content, see {@link #run()}.
+     */
+    private class TreeIndexer implements Runnable {
+        final VirtualFileFilter          filter;
+        final BlockingQueue<VirtualFile> queue = new ArrayBlockingQueue<>(INDEX_QUEUE_SIZE);
+        final AtomicInteger              indexed = new AtomicInteger();
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+
+        volatile boolean walked;
+        /** Number of files that are found but not indexed yet. Guarded by this. */
+        int pending;
+
+        TreeIndexer(VirtualFileFilter filter) {
+            this.filter = filter;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (error.get() == null) {
+                    final VirtualFile file = queue.poll(INDEX_QUEUE_TIMEOUT, TimeUnit.MILLISECONDS);
+                    if (file != null) {
+                        index(file);
+                    } else if (walked) {
+                        break;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        void walk(VirtualFile tree) throws ServerException {
+            try {
+                final LinkedList<VirtualFile> q = new LinkedList<>();
+                q.add(tree);
+                while (!q.isEmpty() && error.get() == null) {
+                    final VirtualFile folder = q.pop();
+                    if (folder.exists()) {
+                        LazyIterator<VirtualFile> children = folder.getChildren(VirtualFileFilter.ALL);
+                        while (children.hasNext()) {
+                            final VirtualFile child = children.next();
+                            if (child.isFolder()) {
+                                q.push(child);
+                            } else if (filter.accept(child)) {
+                                synchronized (this) {
+                                    pending++;
+                                }
+                                if (!queue.offer(child)) {
+                                    index(child);
+                                }
+                            }
+                        }
+                    }
+                }
+            } catch (ServerException | RuntimeException | Error e) {
+                error.compareAndSet(null, e);
+            } finally {
+                walked = true;
+            }
+            // Help readers, some of them may not be even started if executor is busy.
+            VirtualFile file;
+            while ((file = queue.poll()) != null) {
+                index(file);
+            }
+            try {
+                synchronized (this) {
+                    while (pending > 0) {
+                        wait();
+                    }
+                }
+            } catch (InterruptedException e) {
+                error.compareAndSet(null, e);
+                Thread.currentThread().interrupt();
+            }
+            final Throwable e = error.get();
+            if (e instanceof ServerException) {
+                throw (ServerException)e;
+            } else if (e instanceof RuntimeException) {
+                throw (RuntimeException)e;
+            } else if (e instanceof Error) {
+                throw (Error)e;
+            } else if (e != null) {
+                throw new ServerException(String.format("Indexing of %s is interrupted. ", tree.getPath()));
+            }
+        }
+
+        void index(VirtualFile file) {
+            try {
+                // Skip rest of files if indexing is failed.
+                if (error.get() == null) {
+                    addFile(file);
+                    indexed.incrementAndGet();
+                }
+            } catch (ServerException | RuntimeException | Error e) {
+                error.compareAndSet(null, e);
+            } finally {
+                synchronized (this) {
+                    if (--pending == 0) {
+                        notifyAll();
+                    }
+                }
+            }
+        }
+    }
+
     /** Get virtual file media type. Any additional parameters (e.g. 'charset') are removed. */
     private String getMediaType(VirtualFile virtualFile) throws ServerException {
         String mediaType = virtualFile.getMediaType();
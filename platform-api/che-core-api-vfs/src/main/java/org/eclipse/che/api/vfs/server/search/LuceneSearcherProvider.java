@@ -12,12 +12,16 @@ package org.eclipse.che.api.vfs.server.search;
 
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.vfs.server.MountPoint;
+import org.eclipse.che.api.vfs.server.VirtualFileFilter;
+import org.eclipse.che.api.vfs.server.util.MediaTypeFilter;
+import org.eclipse.che.api.vfs.server.util.VirtualFileFilters;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.net.URL;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
@@ -31,6 +35,24 @@ public abstract class LuceneSearcherProvider implements SearcherProvider {
     @Override
     public abstract Searcher getSearcher(MountPoint mountPoint, boolean create) throws ServerException;
 
+    /**
+     * Creates filter of files which content must be indexed. Filter accepts files with media types from {@link
+     * #getIndexedMediaTypes()} that are accepted by all {@code filters}.
+     */
+    protected VirtualFileFilter createIndexFilter(Set<VirtualFileFilter> filters) {
+        final VirtualFileFilter mediaTypeFilter = new MediaTypeFilter(getIndexedMediaTypes());
+        if (filters.isEmpty()) {
+            return mediaTypeFilter;
+        }
+        final VirtualFileFilter[] myFilters = new VirtualFileFilter[filters.size() + 1];
+        final Iterator<VirtualFileFilter> iterator = filters.iterator();
+        for (int i = 1; i < myFilters.length; i++) {
+            myFilters[i] = iterator.next();
+        }
+        myFilters[0] = mediaTypeFilter;
+        return VirtualFileFilters.createAndFilter(myFilters);
+    }
+
     /** Get list of media type of virtual files which must be indexed. */
     protected Set<String> getIndexedMediaTypes() {
         Set<String> forIndex = null;
@@ -12,10 +12,23 @@ package org.eclipse.che.api.vfs.server.search;
 
 /** @author andrew00x */
 public class QueryExpression {
-    private String name;
-    private String path;
-    private String mediaType;
-    private String text;
+    /** Order of search results. */
+    public enum Order {
+        /** Most relevant results first, results with the same relevance are ordered by path. */
+        RELEVANCE,
+        /** Results are ordered by path. */
+        PATH
+    }
+
+    private String  name;
+    private String  path;
+    private String  mediaType;
+    private String  text;
+    private int     maxItems;
+    private int     skipCount;
+    private String  after;
+    private Order   order = Order.RELEVANCE;
+    private boolean includeSnippets;
 
     public String getPath() {
         return path;
@@ -53,6 +66,58 @@ public class QueryExpression {
         return this;
     }
 
+    public int getMaxItems() {
+        return maxItems;
+    }
+
+    /** Set max number of items in one page of result. Zero or negative value means default size of page. */
+    public QueryExpression setMaxItems(int maxItems) {
+        this.maxItems = maxItems;
+        return this;
+    }
+
+    public int getSkipCount() {
+        return skipCount;
+    }
+
+    /** Set number of items to skip from the beginning of result or from the position that is set by {@link #setAfter(String)}. */
+    public QueryExpression setSkipCount(int skipCount) {
+        this.skipCount = skipCount;
+        return this;
+    }
+
+    public String getAfter() {
+        return after;
+    }
+
+    /**
+     * Set cursor of result, see {@link SearchResult#getNextCursor()}. Search returns items that follow item from which cursor was
+     * obtained. Cursor must be used with the same order of items as one it was obtained with.
+     */
+    public QueryExpression setAfter(String after) {
+        this.after = after;
+        return this;
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    public QueryExpression setOrder(Order order) {
+        this.order = order == null ? Order.RELEVANCE : order;
+        return this;
+    }
+
+    public boolean isIncludeSnippets() {
+        return includeSnippets;
+    }
+
+    /** If {@code true} then each item of result contains lines of file that are matched to the text of query. */
+    public QueryExpression setIncludeSnippets(boolean includeSnippets) {
+        this.includeSnippets = includeSnippets;
+        return this;
+    }
+
     @Override
     public String toString() {
         return "QueryExpression{" +
@@ -60,6 +125,11 @@ public class QueryExpression {
                ", path='" + path + '\'' +
                ", mediaType='" + mediaType + '\'' +
                ", text='" + text + '\'' +
+               ", maxItems=" + maxItems +
+               ", skipCount=" + skipCount +
+               ", after='" + after + '\'' +
+               ", order=" + order +
+               ", includeSnippets=" + includeSnippets +
                '}';
     }
 }
@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.server.search;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of search result.
+ *
+ * @see Searcher#searchPage(QueryExpression)
+ */
+public class SearchResult {
+    private final List<Entry> entries;
+    private final int         totalHits;
+    private final String      nextCursor;
+    private final boolean     indexComplete;
+
+    public SearchResult(List<Entry> entries, int totalHits, String nextCursor) {
+        this(entries, totalHits, nextCursor, true);
+    }
+
+    public SearchResult(List<Entry> entries, int totalHits, String nextCursor, boolean indexComplete) {
+        this.entries = Collections.unmodifiableList(entries);
+        this.totalHits = totalHits;
+        this.nextCursor = nextCursor;
+        this.indexComplete = indexComplete;
+    }
+
+    /** Returns items of this page. */
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /** Returns total number of items that are matched to the query. */
+    public int getTotalHits() {
+        return totalHits;
+    }
+
+    /**
+     * Returns cursor that may be used to get next page of result, see {@link QueryExpression#setAfter(String)}, or {@code null} if
+     * this page is the last one.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Returns {@code false} if search was performed while initial indexing of files was in progress, so result may not contain all
+     * matched files.
+     */
+    public boolean isIndexComplete() {
+        return indexComplete;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchResult{" +
+               "entries=" + entries +
+               ", totalHits=" + totalHits +
+               ", nextCursor='" + nextCursor + '\'' +
+               ", indexComplete=" + indexComplete +
+               '}';
+    }
+
+    /** Matched item. */
+    public static class Entry {
+        private final String        path;
+        private final float         score;
+        private final List<Snippet> snippets;
+
+        public Entry(String path, float score, List<Snippet> snippets) {
+            this.path = path;
+            this.score = score;
+            this.snippets = Collections.unmodifiableList(snippets);
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        /** Returns relevance of item or {@link Float#NaN} if results are not ordered by relevance. */
+        public float getScore() {
+            return score;
+        }
+
+        /** Returns lines of file that are matched to the query. List is empty if snippets were not requested. */
+        public List<Snippet> getSnippets() {
+            return snippets;
+        }
+
+        @Override
+        public String toString() {
+            return "Entry{" +
+                   "path='" + path + '\'' +
+                   ", score=" + score +
+                   ", snippets=" + snippets +
+                   '}';
+        }
+    }
+
+    /**
+     * Fragment of line of file that contains matched word. Long lines are cut around the matched word, in this case offset of
+     * matched word in the fragment, see {@link #getStartOffset()}, differs from offset of the word in the line, see {@link
+     * #getColumn()}.
+     */
+    public static class Snippet {
+        private final int    lineNumber;
+        private final int    column;
+        private final String text;
+        private final int    startOffset;
+        private final int    endOffset;
+
+        public Snippet(int lineNumber, int column, String text, int startOffset, int endOffset) {
+            this.lineNumber = lineNumber;
+            this.column = column;
+            this.text = text;
+            this.startOffset = startOffset;
+            this.endOffset = endOffset;
+        }
+
+        /** Returns number of line, the first line of file has number 1. */
+        public int getLineNumber() {
+            return lineNumber;
+        }
+
+        /** Returns offset of the matched word in the line. */
+        public int getColumn() {
+            return column;
+        }
+
+        /** Returns fragment of line. */
+        public String getText() {
+            return text;
+        }
+
+        /** Returns offset of the first character of the matched word in the fragment. */
+        public int getStartOffset() {
+            return startOffset;
+        }
+
+        /** Returns offset after the last character of the matched word in the fragment. */
+        public int getEndOffset() {
+            return endOffset;
+        }
+
+        @Override
+        public String toString() {
+            return "Snippet{" +
+                   "lineNumber=" + lineNumber +
+                   ", column=" + column +
+                   ", text='" + text + '\'' +
+                   ", startOffset=" + startOffset +
+                   ", endOffset=" + endOffset +
+                   '}';
+        }
+    }
+}
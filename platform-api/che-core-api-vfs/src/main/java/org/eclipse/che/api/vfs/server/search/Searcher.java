@@ -10,12 +10,14 @@
  *******************************************************************************/
 package org.eclipse.che.api.vfs.server.search;
 
+import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.vfs.server.VirtualFile;
 
 public interface Searcher {
     /**
-     * Return paths of matched items on virtual filesystem.
+     * Return paths of matched items on virtual filesystem. Paging parameters and order of items that are set in query are not
+     * applied by this method, implementation may refuse to return too big result.
      *
      * @param query
      *         query expression
@@ -25,6 +27,21 @@ public interface Searcher {
      */
     String[] search(QueryExpression query) throws ServerException;
 
+    /**
+     * Return one page of matched items on virtual filesystem. Size of page, position of page and order of items are set by query,
+     * see {@link QueryExpression#setMaxItems(int)}, {@link QueryExpression#setSkipCount(int)}, {@link QueryExpression#setAfter(String)}
+     * and {@link QueryExpression#setOrder(QueryExpression.Order)}.
+     *
+     * @param query
+     *         query expression
+     * @return page of matched items
+     * @throws ConflictException
+     *         if cursor of query is invalid
+     * @throws ServerException
+     *         if an error occurs
+     */
+    SearchResult searchPage(QueryExpression query) throws ConflictException, ServerException;
+
     /**
      * Add VirtualFile to index.
      *
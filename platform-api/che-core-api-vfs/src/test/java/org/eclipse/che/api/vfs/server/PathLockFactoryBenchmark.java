@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.server;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link PathLockFactory} with previous implementation based on single monitor ({@link MonitorPathLockFactory}).
+ * Threads lock random files of workspace while some number of unrelated locks is held by another thread, that is
+ * typical for many users that work in the same mount point.
+ * <p/>
+ * Run with: {@code mvn test-compile exec:java -Dexec.mainClass=org.eclipse.che.api.vfs.server.PathLockFactoryBenchmark
+ * -Dexec.classpathScope=test}
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class PathLockFactoryBenchmark {
+    private static final int MAX_THREADS = 1024;
+    private static final int PROJECTS    = 4;
+    private static final int FOLDERS     = 16;
+    private static final int FILES       = 32;
+
+    @Param({"hierarchical", "monitor"})
+    public String implementation;
+
+    /** Number of locks held by other thread during benchmark. */
+    @Param({"0", "256"})
+    public int heldLocks;
+
+    private Locks          locks;
+    private Path[]         files;
+    private CountDownLatch holderStop;
+    private Thread         holder;
+
+    @Setup
+    public void setUp() throws InterruptedException {
+        locks = "monitor".equals(implementation) ? new MonitorLocks() : new HierarchicalLocks();
+        files = new Path[PROJECTS * FOLDERS * FILES];
+        int i = 0;
+        for (int p = 0; p < PROJECTS; p++) {
+            for (int d = 0; d < FOLDERS; d++) {
+                for (int f = 0; f < FILES; f++) {
+                    files[i++] = Path.fromString(String.format("/project%d/src/folder%d/file%d.java", p, d, f));
+                }
+            }
+        }
+        final CountDownLatch holderStart = new CountDownLatch(1);
+        holderStop = new CountDownLatch(1);
+        holder = new Thread() {
+            @Override
+            public void run() {
+                final Object[] held = new Object[heldLocks];
+                for (int i = 0; i < heldLocks; i++) {
+                    held[i] = locks.acquire(Path.fromString("/held/file" + i), false);
+                }
+                holderStart.countDown();
+                try {
+                    holderStop.await();
+                } catch (InterruptedException ignored) {
+                } finally {
+                    for (Object lock : held) {
+                        locks.release(lock);
+                    }
+                }
+            }
+        };
+        holder.start();
+        holderStart.await();
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        holderStop.countDown();
+        holder.join();
+    }
+
+    @Benchmark
+    public void readFile() {
+        final Object lock = locks.acquire(randomFile(), false);
+        locks.release(lock);
+    }
+
+    @Benchmark
+    public void writeFile() {
+        final Object lock = locks.acquire(randomFile(), true);
+        locks.release(lock);
+    }
+
+    private Path randomFile() {
+        return files[ThreadLocalRandom.current().nextInt(files.length)];
+    }
+
+    private interface Locks {
+        Object acquire(Path path, boolean exclusive);
+
+        void release(Object lock);
+    }
+
+    private static class HierarchicalLocks implements Locks {
+        final PathLockFactory lockFactory = new PathLockFactory(MAX_THREADS);
+
+        @Override
+        public Object acquire(Path path, boolean exclusive) {
+            return lockFactory.getLock(path, exclusive).acquire();
+        }
+
+        @Override
+        public void release(Object lock) {
+            ((PathLockFactory.PathLock)lock).release();
+        }
+    }
+
+    private static class MonitorLocks implements Locks {
+        final MonitorPathLockFactory lockFactory = new MonitorPathLockFactory(MAX_THREADS);
+
+        @Override
+        public Object acquire(Path path, boolean exclusive) {
+            return lockFactory.getLock(path, exclusive).acquire();
+        }
+
+        @Override
+        public void release(Object lock) {
+            ((MonitorPathLockFactory.PathLock)lock).release();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(PathLockFactoryBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -236,4 +236,40 @@ public class PathLockFactoryTest extends TestCase {
         waiter.await();
         assertEquals(2, acquired.get());
     }
+
+    public void testChildLockPreventsParentExclusiveLock() throws Exception {
+        final CountDownLatch starter = new CountDownLatch(1);
+        final CountDownLatch stopper = new CountDownLatch(1);
+        Runnable childTask = new Runnable() {
+            @Override
+            public void run() {
+                PathLockFactory.PathLock lock = pathLockFactory.getLock(path, false);
+                lock.acquire();
+                starter.countDown();
+                try {
+                    stopper.await();
+                } catch (InterruptedException ignored) {
+                } finally {
+                    lock.release();
+                }
+            }
+        };
+        new Thread(childTask).start();
+        starter.await();
+        try {
+            // Shared lock of child path is compatible with shared lock of parent path.
+            pathLockFactory.getLock(path.getParent(), false).acquire(100).release();
+            try {
+                pathLockFactory.getLock(Path.ROOT, true).acquire(100);
+                fail();
+            } catch (RuntimeException e) {
+                // OK
+            }
+        } finally {
+            stopper.countDown();
+        }
+        // Lock of parent path must become available as soon as lock of child path released.
+        pathLockFactory.getLock(Path.ROOT, true).acquire(1000).release();
+        pathLockFactory.checkClean();
+    }
 }
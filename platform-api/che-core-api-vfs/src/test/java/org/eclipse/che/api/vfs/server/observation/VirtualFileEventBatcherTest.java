@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2015 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.server.observation;
+
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.core.notification.EventSubscriber;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class VirtualFileEventBatcherTest extends TestCase {
+    private EventService                eventService;
+    private VirtualFileEventBatcher     batcher;
+    private List<VirtualFileEventBatch> batches;
+    private List<VirtualFileEvent>      events;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        eventService = new EventService();
+        batches = Collections.synchronizedList(new ArrayList<VirtualFileEventBatch>());
+        events = Collections.synchronizedList(new ArrayList<VirtualFileEvent>());
+        eventService.subscribe(new EventSubscriber<VirtualFileEventBatch>() {
+            @Override
+            public void onEvent(VirtualFileEventBatch event) {
+                batches.add(event);
+            }
+        });
+        eventService.subscribe(new EventSubscriber<VirtualFileEvent>() {
+            @Override
+            public void onEvent(VirtualFileEvent event) {
+                events.add(event);
+            }
+        });
+        batcher = new VirtualFileEventBatcher(eventService, 100, 1000, 1000);
+        batcher.start();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        batcher.stop();
+        super.tearDown();
+    }
+
+    public void testPublishBatchAfterWindow() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            eventService.publish(new CreateEvent("ws", "/p/src/file" + i, false));
+        }
+        eventService.publish(new CreateEvent("ws", "/p/test", true));
+        // Subscribers of single events get them immediately.
+        assertEquals(11, events.size());
+        waitForBatches(1);
+        assertEquals(1, batches.size());
+        VirtualFileEventBatch batch = batches.get(0);
+        assertEquals("ws", batch.getWorkspaceId());
+        assertEquals(11, batch.getEvents().size());
+        assertEquals(11, batch.getCount(VirtualFileEvent.ChangeType.CREATED));
+        assertEquals("/p", batch.getCommonPath());
+        assertEquals("/p/src/file0", batch.getEvents().get(0).getPath());
+    }
+
+    public void testCollapseUpdates() throws Exception {
+        eventService.publish(new CreateEvent("ws", "/p/a", false));
+        eventService.publish(new UpdateContentEvent("ws", "/p/a"));
+        eventService.publish(new UpdateContentEvent("ws", "/p/b"));
+        eventService.publish(new UpdateContentEvent("ws", "/p/b"));
+        eventService.publish(new DeleteEvent("ws", "/p/b", false));
+        batcher.flush();
+        assertEquals(1, batches.size());
+        List<VirtualFileEvent> batched = batches.get(0).getEvents();
+        assertEquals(3, batched.size());
+        assertEquals(VirtualFileEvent.ChangeType.CREATED, batched.get(0).getType());
+        assertEquals(VirtualFileEvent.ChangeType.CONTENT_UPDATED, batched.get(1).getType());
+        assertEquals(VirtualFileEvent.ChangeType.DELETED, batched.get(2).getType());
+    }
+
+    public void testSeparateBatchesForWorkspaces() throws Exception {
+        eventService.publish(new CreateEvent("ws1", "/p/a", false));
+        eventService.publish(new CreateEvent("ws2", "/q/a", false));
+        batcher.flush();
+        assertEquals(2, batches.size());
+        assertFalse(batches.get(0).getWorkspaceId().equals(batches.get(1).getWorkspaceId()));
+    }
+
+    public void testPublishBatchWhenMaxSizeReached() throws Exception {
+        for (int i = 0; i < 2500; i++) {
+            eventService.publish(new CreateEvent("ws", "/p/file" + i, false));
+        }
+        waitForBatches(3);
+        assertEquals(3, batches.size());
+        assertEquals(1000, batches.get(0).getEvents().size());
+        assertEquals(1000, batches.get(1).getEvents().size());
+        assertEquals(500, batches.get(2).getEvents().size());
+        assertEquals("/p/file0", batches.get(0).getEvents().get(0).getPath());
+        assertEquals("/p/file1000", batches.get(1).getEvents().get(0).getPath());
+    }
+
+    private void waitForBatches(int number) throws InterruptedException {
+        final long endTime = System.currentTimeMillis() + 5000;
+        while (batches.size() < number && System.currentTimeMillis() < endTime) {
+            Thread.sleep(10);
+        }
+    }
+}